@@ -18,6 +18,11 @@ public class GeminiConfig {
     private Long retryDelayMs;
     private Long rateLimitDelayMs;
     private Proxy proxy;
+    private Translation translation = new Translation();
+    private ContextCache contextCache = new ContextCache();
+    private Batch batch = new Batch();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private EmbeddingQuota embeddingQuota = new EmbeddingQuota();
 
     @Getter
     @Setter
@@ -26,6 +31,56 @@ public class GeminiConfig {
         private Integer port;
     }
 
+    @Getter
+    @Setter
+    public static class Translation {
+        // Estimated output tokens per chunk; longer texts are split before the first call
+        private Integer chunkOutputTokens = 3000;
+        // Upper bound on chunks translated concurrently across all requests
+        private Integer maxParallelChunks = 4;
+    }
+
+    @Getter
+    @Setter
+    public static class ContextCache {
+        private boolean enabled = true;
+        // "gemini" (cachedContents API) or "local" (in-memory stub, test classpath only)
+        private String client = "gemini";
+        private Long ttlSeconds = 3600L;
+        // Gemini rejects explicit caches below a model-specific token minimum
+        private Integer minTokens = 1024;
+        // Upper bound on live caches (storage is billed per hour)
+        private Integer maxEntries = 50;
+        // Budget for the sample translation included in a story's context
+        private Integer storySampleChars = 4000;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        // "gemini" (Batch API) or "local" (in-memory stub, test classpath only)
+        private String client = "gemini";
+        private Long pollIntervalSeconds = 60L;
+        // Inline batch requests are limited in size; larger stories are split over several batches
+        private Integer maxInlineBytes = 15_000_000;
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        // Consecutive embedding failures (after retries) that open the circuit
+        private Integer failureThreshold = 3;
+        // How long the circuit stays open before one probe call is let through
+        private Long openSeconds = 60L;
+    }
+
+    @Getter
+    @Setter
+    public static class EmbeddingQuota {
+        // Embedding requests per minute allowed by the API key, shared by every caller on this node
+        private Integer requestsPerMinute = 100;
+    }
+
     @Getter
     @Setter
     public static class Model {
@@ -1,23 +1,33 @@
 package com.graduate.novel.ai.controller;
 
+import com.graduate.novel.ai.dto.EmbeddingMigrationStatus;
 import com.graduate.novel.ai.dto.TranslationRequest;
 import com.graduate.novel.ai.dto.TranslationResponse;
 import com.graduate.novel.ai.dto.SemanticSearchRequest;
 import com.graduate.novel.ai.dto.SemanticSearchResponse;
+import com.graduate.novel.ai.dto.VectorTierReport;
+import com.graduate.novel.ai.service.EmbeddingMigrationService;
 import com.graduate.novel.ai.service.TranslationService;
 import com.graduate.novel.ai.service.SemanticSearchService;
+import com.graduate.novel.ai.service.StoryVectorTier;
+import com.graduate.novel.domain.crawljob.CrawlJobDto;
 import com.graduate.novel.domain.story.Story;
 import com.graduate.novel.domain.story.StoryDto;
 import com.graduate.novel.common.mapper.StoryMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,7 +38,12 @@ public class AiController {
 
     private final TranslationService translationService;
     private final SemanticSearchService semanticSearchService;
+    private final StoryVectorTier storyVectorTier;
+    private final EmbeddingMigrationService embeddingMigrationService;
     private final StoryMapper storyMapper;
+    private final ExecutorService streamingExecutor;
+
+    private static final long STREAM_TIMEOUT_MS = 10 * 60 * 1000L;
 
     /**
      * Translate text from Japanese to Vietnamese
@@ -50,6 +65,55 @@ public class AiController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Translate text from Japanese to Vietnamese, streaming the result as it is generated (SSE).
+     * Events: "chunk" {text}, then "done" with the full TranslationResponse, or "error" {message}.
+     */
+    @PostMapping(value = "/translate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    public SseEmitter streamTranslate(@RequestBody TranslationRequest request) {
+        log.info("Received streaming translation request for text of length: {}", request.getText().length());
+
+        String sourceLanguage = request.getSourceLanguage() != null ? request.getSourceLanguage() : "ja";
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+
+        streamingExecutor.execute(() -> {
+            try {
+                String translatedText = translationService.streamTranslateToVietnamese(
+                        request.getText(), sourceLanguage, fragment -> {
+                            try {
+                                emitter.send(SseEmitter.event().name("chunk").data(Map.of("text", fragment)));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+
+                TranslationResponse response = TranslationResponse.builder()
+                        .originalText(request.getText())
+                        .translatedText(translatedText)
+                        .sourceLanguage(sourceLanguage)
+                        .targetLanguage("vi")
+                        .build();
+                emitter.send(SseEmitter.event().name("done").data(response));
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                // Client disconnected; stop translating
+                log.debug("Streaming translation client went away: {}", e.getMessage());
+                emitter.completeWithError(e.getCause());
+            } catch (Exception e) {
+                log.error("Streaming translation failed: {}", e.getMessage());
+                try {
+                    emitter.send(SseEmitter.event().name("error").data(Map.of("message", "Translation failed: " + e.getMessage())));
+                    emitter.complete();
+                } catch (IOException | IllegalStateException sendFailure) {
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+
+        return emitter;
+    }
+
     /**
      * Auto-translate with language detection
      */
@@ -93,20 +157,16 @@ public class AiController {
      */
     @PostMapping("/embeddings/generate-all")
     @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
-    public ResponseEntity<Map<String, String>> generateAllEmbeddings() {
+    public ResponseEntity<Map<String, Object>> generateAllEmbeddings() {
         log.info("Starting bulk embedding generation");
 
-        // Run in a separate thread to avoid timeout
-        new Thread(() -> {
-            try {
-                semanticSearchService.generateAllMissingEmbeddings();
-            } catch (Exception e) {
-                log.error("Error in bulk embedding generation: {}", e.getMessage());
-            }
-        }).start();
+        // Runs as a queued job; follow it at /api/jobs/{jobId}/events
+        CrawlJobDto job = semanticSearchService.startEmbeddingBackfill();
 
-        Map<String, String> response = new HashMap<>();
+        Map<String, Object> response = new HashMap<>();
         response.put("message", "Embedding generation started in background");
+        response.put("jobId", job.id());
+        response.put("status", job.status());
 
         return ResponseEntity.accepted().body(response);
     }
@@ -210,6 +270,47 @@ public class AiController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Size and compression of the in-memory story vector tier
+     */
+    @GetMapping("/embeddings/tier")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    public ResponseEntity<VectorTierReport> vectorTierStats() {
+        return ResponseEntity.ok(storyVectorTier.stats());
+    }
+
+    /**
+     * Recall@k of the vector tier against an exact scan, with and without the full-precision re-rank.
+     * Reads every stored embedding once, so it takes a while on a large catalogue.
+     */
+    @GetMapping("/embeddings/tier/recall")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    public ResponseEntity<VectorTierReport> vectorTierRecall(
+            @RequestParam(defaultValue = "100") int samples,
+            @RequestParam(defaultValue = "10") int k) {
+        log.info("Measuring vector tier recall@{} over {} samples", k, samples);
+        return ResponseEntity.ok(storyVectorTier.measureRecall(samples, k));
+    }
+
+    /**
+     * Rebuild the vector tier now instead of waiting for the next scheduled refresh
+     */
+    @PostMapping("/embeddings/tier/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    public ResponseEntity<VectorTierReport> rebuildVectorTier() {
+        storyVectorTier.rebuild();
+        return ResponseEntity.ok(storyVectorTier.stats());
+    }
+
+    /**
+     * Active embedding model and the progress of a switch to a newly configured one
+     */
+    @GetMapping("/embeddings/models/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    public ResponseEntity<EmbeddingMigrationStatus> embeddingMigrationStatus() {
+        return ResponseEntity.ok(embeddingMigrationService.status());
+    }
+
     /**
      * Health check for AI services
      */
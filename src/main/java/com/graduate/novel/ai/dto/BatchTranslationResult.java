@@ -0,0 +1,21 @@
+package com.graduate.novel.ai.dto;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of a batch translation.
+ * @param state        batch state (PENDING, RUNNING, SUCCEEDED, FAILED, CANCELLED, EXPIRED)
+ * @param translations translated text by source key (sources whose chunks all succeeded)
+ * @param failedKeys   source keys with at least one failed or truncated chunk
+ */
+public record BatchTranslationResult(String state, Map<String, String> translations, Set<String> failedKeys) {
+
+    public boolean isDone() {
+        return !"PENDING".equals(state) && !"RUNNING".equals(state);
+    }
+
+    public boolean isSucceeded() {
+        return "SUCCEEDED".equals(state);
+    }
+}
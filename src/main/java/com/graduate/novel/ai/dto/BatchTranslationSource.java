@@ -0,0 +1,6 @@
+package com.graduate.novel.ai.dto;
+
+/**
+ * One text to translate in a batch, identified by a caller-chosen key
+ */
+public record BatchTranslationSource(String key, String text, String sourceLang) {}
@@ -0,0 +1,18 @@
+package com.graduate.novel.ai.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbeddingMigrationStatus {
+    private String activeModel;          // Model that serves searches
+    private Integer activeDimension;
+    private Long activeEmbeddings;
+    private String shadowModel;          // Model being filled in; null when no switch is in progress
+    private Integer shadowDimension;
+    private Long shadowEmbeddings;
+    private Long missingEmbeddings;      // Stories with an active vector but no shadow vector yet
+    private Double coverage;             // Cut-over happens at 1.0
+}
@@ -0,0 +1,12 @@
+package com.graduate.novel.ai.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeminiBatchEmbeddingRequest {
+    private List<GeminiEmbeddingRequest> requests;
+}
@@ -0,0 +1,12 @@
+package com.graduate.novel.ai.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeminiBatchEmbeddingResponse {
+    // One per request, in request order
+    private List<GeminiEmbeddingResponse.Embedding> embeddings;
+}
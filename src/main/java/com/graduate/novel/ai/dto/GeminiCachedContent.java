@@ -0,0 +1,34 @@
+package com.graduate.novel.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import java.util.List;
+
+/**
+ * Gemini cachedContents resource (request and response)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GeminiCachedContent {
+    private String name;            // "cachedContents/{id}", set by Gemini
+    private String model;           // "models/{model}"
+    private String displayName;
+    private GeminiRequest.Content systemInstruction;
+    private List<GeminiRequest.Content> contents;
+    private String ttl;             // e.g. "3600s"
+    private String expireTime;      // RFC 3339, set by Gemini
+    private UsageMetadata usageMetadata;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class UsageMetadata {
+        private Integer totalTokenCount;
+    }
+}
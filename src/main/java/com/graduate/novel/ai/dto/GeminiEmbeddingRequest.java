@@ -1,5 +1,6 @@
 package com.graduate.novel.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import java.util.List;
 
@@ -7,7 +8,10 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class GeminiEmbeddingRequest {
+    // "models/<name>"; only set inside batchEmbedContents, where each request names its model
+    private String model;
     private Content content;
     private Integer outputDimensionality;
 
@@ -1,5 +1,6 @@
 package com.graduate.novel.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import java.util.List;
 
@@ -7,15 +8,22 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class GeminiRequest {
     private List<Content> contents;
     private GenerationConfig generationConfig;
+    // Instruction preamble sent separately from the prompt (stable prefix)
+    private Content systemInstruction;
+    // Name of a cached content ("cachedContents/...") holding the preamble; excludes systemInstruction
+    private String cachedContent;
 
     @Data
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class Content {
+        private String role;
         private List<Part> parts;
     }
 
@@ -31,6 +39,7 @@ public class GeminiRequest {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class GenerationConfig {
         private Double temperature;
         private Integer maxOutputTokens;
@@ -38,4 +47,3 @@ public class GeminiRequest {
         private Integer topK;
     }
 }
-
@@ -0,0 +1,15 @@
+package com.graduate.novel.ai.dto;
+
+import com.graduate.novel.domain.story.StoryDto;
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HybridSearchHit {
+    private StoryDto story;
+    private Double score;         // Reciprocal rank fusion score
+    private Integer lexicalRank;  // 1-based rank in the full-text results, null if not matched
+    private Integer vectorRank;   // 1-based rank in the vector results, null if not matched
+}
@@ -0,0 +1,17 @@
+package com.graduate.novel.ai.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HybridSearchResponse {
+    private String query;
+    private List<HybridSearchHit> results;
+    private Integer totalResults;     // Size of the fused result list
+    private String nextCursor;        // Null on the last page
+    private Boolean vectorAvailable;  // False if only full-text results could be used
+    private Long tookMs;
+}
@@ -0,0 +1,20 @@
+package com.graduate.novel.ai.dto;
+
+/**
+ * Shared instruction prefix of a generation request: either a cached content name or an inline
+ * system instruction. Keeping the prefix out of the prompt lets Gemini reuse it across calls.
+ */
+public record PromptPrefix(String cachedContent, String systemInstruction) {
+
+    public static PromptPrefix cached(String cachedContentName) {
+        return new PromptPrefix(cachedContentName, null);
+    }
+
+    public static PromptPrefix inline(String systemInstruction) {
+        return new PromptPrefix(null, systemInstruction);
+    }
+
+    public boolean isCached() {
+        return cachedContent != null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.graduate.novel.ai.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VectorTierReport {
+    private String quantization;        // int8 or binary
+    private Integer dimensions;         // Dimensions kept in the tier (Matryoshka truncation)
+    private Integer sourceDimensions;   // Dimensions of the stored embeddings
+    private Integer indexedStories;
+    private Long memoryBytes;           // Heap used by the compressed codes
+    private Long fullPrecisionBytes;    // Same stories as float32 vectors
+    private Double compressionRatio;
+    private Integer rerankCandidates;
+
+    // Recall measurement (null when only stats were asked for)
+    private Integer samples;            // Stored stories used as queries
+    private Integer k;
+    private Double compressedRecall;    // Exact top-k found in the top-k of the compressed scan alone
+    private Double rerankedRecall;      // Exact top-k found after the full-precision re-rank
+    private Double averageScanMicros;   // Compressed scan per query
+    private Double averageSearchMillis; // Scan plus re-rank per query
+}
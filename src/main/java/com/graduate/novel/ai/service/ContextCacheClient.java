@@ -0,0 +1,20 @@
+package com.graduate.novel.ai.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Creates and deletes cached prompt prefixes (Gemini cachedContents)
+ */
+public interface ContextCacheClient {
+
+    /**
+     * Cache a system instruction for the text model.
+     * @return the cache handle, with the name to reference from requests
+     */
+    CachedContext create(String displayName, String systemInstruction, Duration ttl);
+
+    void delete(String name);
+
+    record CachedContext(String name, Instant expiresAt) {}
+}
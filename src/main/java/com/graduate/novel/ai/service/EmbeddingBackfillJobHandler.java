@@ -0,0 +1,34 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.domain.crawljob.JobExecution;
+import com.graduate.novel.domain.crawljob.JobHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Runs EMBEDDING_BACKFILL jobs: embeds every story that has no embedding under the active model,
+ * reporting progress per story
+ */
+@Component
+@RequiredArgsConstructor
+public class EmbeddingBackfillJobHandler implements JobHandler {
+
+    private final SemanticSearchService semanticSearchService;
+
+    @Override
+    public Set<String> jobTypes() {
+        return Set.of(SemanticSearchService.EMBEDDING_BACKFILL);
+    }
+
+    @Override
+    public Set<String> longRunningJobTypes() {
+        return Set.of(SemanticSearchService.EMBEDDING_BACKFILL);
+    }
+
+    @Override
+    public void execute(JobExecution execution) {
+        semanticSearchService.generateAllMissingEmbeddings(execution::progress);
+    }
+}
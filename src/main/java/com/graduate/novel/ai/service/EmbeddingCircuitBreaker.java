@@ -0,0 +1,108 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.config.GeminiConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Circuit breaker around the Gemini embedding API.
+ * CLOSED: calls go through. After failure-threshold consecutive failures it opens.
+ * OPEN: calls are rejected at once until open-seconds have passed.
+ * HALF_OPEN: exactly one probe call goes through (without retries); its outcome closes or reopens
+ * the circuit, and every other call is rejected meanwhile.
+ * An outage thus costs one timeout, not one per request.
+ */
+@Component
+@Slf4j
+public class EmbeddingCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** What a caller may do: call normally, call as the single probe, or not call at all */
+    public enum Permit { CALL, PROBE, REJECTED }
+
+    private final GeminiConfig geminiConfig;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private Instant openedAt;
+    private boolean probeInFlight = false;
+
+    @Autowired
+    public EmbeddingCircuitBreaker(GeminiConfig geminiConfig) {
+        this(geminiConfig, Clock.systemUTC());
+    }
+
+    EmbeddingCircuitBreaker(GeminiConfig geminiConfig, Clock clock) {
+        this.geminiConfig = geminiConfig;
+        this.clock = clock;
+    }
+
+    public synchronized Permit acquire() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration()))) {
+            state = State.HALF_OPEN;
+            log.info("Gemini embedding circuit half-open: sending one probe");
+        }
+        return switch (state) {
+            case CLOSED -> Permit.CALL;
+            case OPEN -> Permit.REJECTED;
+            case HALF_OPEN -> {
+                if (probeInFlight) {
+                    yield Permit.REJECTED;
+                }
+                probeInFlight = true;
+                yield Permit.PROBE;
+            }
+        };
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Gemini embedding circuit closed: probe succeeded");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            open("probe failed");
+        } else if (state == State.CLOSED && consecutiveFailures >= geminiConfig.getCircuitBreaker().getFailureThreshold()) {
+            open(consecutiveFailures + " consecutive failures");
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Seconds until the circuit lets a probe through (0 when not open)
+     */
+    public synchronized long retryAfterSeconds() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        Duration remaining = Duration.between(clock.instant(), openedAt.plus(openDuration()));
+        return Math.max(1, remaining.toSeconds());
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAt = clock.instant();
+        probeInFlight = false;
+        log.warn("Gemini embedding circuit open for {}s ({})", openDuration().toSeconds(), reason);
+    }
+
+    private Duration openDuration() {
+        return Duration.ofSeconds(geminiConfig.getCircuitBreaker().getOpenSeconds());
+    }
+}
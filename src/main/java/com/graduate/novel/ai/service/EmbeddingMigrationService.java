@@ -0,0 +1,159 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.dto.EmbeddingMigrationStatus;
+import com.graduate.novel.common.exception.RateLimitExceededException;
+import com.graduate.novel.common.exception.ServiceUnavailableException;
+import com.graduate.novel.config.EmbeddingMigrationProperties;
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+import com.graduate.novel.domain.embedding.EmbeddingModelRepository;
+import com.graduate.novel.domain.embedding.EmbeddingModelStatus;
+import com.graduate.novel.domain.embedding.StoryVectorRepository;
+import com.graduate.novel.domain.passage.ChapterPassageRepository;
+import com.graduate.novel.domain.passage.ChapterPassageService;
+import com.graduate.novel.domain.story.Story;
+import com.graduate.novel.domain.story.StoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Background re-embedding into the shadow model, the cut-over once it is complete, and the
+ * clean-up of replaced models. Searches run on the active model throughout and are never blocked:
+ * vectors are written row by row into their own model's partition of story_embeddings, nothing
+ * rewrites the stories table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmbeddingMigrationService {
+
+    private final EmbeddingVersionService embeddingVersionService;
+    private final EmbeddingModelRepository embeddingModelRepository;
+    private final StoryVectorRepository storyVectorRepository;
+    private final StoryRepository storyRepository;
+    private final StoryVectorTier storyVectorTier;
+    private final EmbeddingMigrationProperties properties;
+    private final EmbeddingQuota embeddingQuota;
+    private final ChapterPassageService chapterPassageService;
+    private final ChapterPassageRepository chapterPassageRepository;
+
+    /** Retired models whose vectors this node has already purged */
+    private final Set<Long> purgedModelIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * One scheduler run: pick up configuration changes, re-embed a batch, cut over when complete,
+     * purge replaced models past their retention
+     */
+    public void migrate() {
+        embeddingVersionService.syncConfiguredModel();
+        if (backfillShadow() && embeddingVersionService.cutOver()) {
+            embeddingVersionService.reloadModels();
+            storyVectorTier.rebuild();
+        }
+        purgeRetiredModels();
+    }
+
+    /**
+     * Embed, in one batch request, up to a batch of stories that have an active vector but no
+     * shadow vector, as far as the shared embedding quota allows
+     * @return true if the shadow model now covers every story
+     */
+    boolean backfillShadow() {
+        Optional<EmbeddingModel> shadow = embeddingVersionService.shadowModel();
+        if (shadow.isEmpty()) {
+            return false;
+        }
+        EmbeddingModel active = embeddingVersionService.activeModel();
+        List<Long> missingIds = storyVectorRepository.findStoryIdsMissingFrom(
+                shadow.get().getId(), active.getId(), properties.getBatchSize());
+
+        int embedded = 0;
+        int granted = missingIds.isEmpty() ? 0 : embeddingQuota.tryAcquire(missingIds.size());
+        if (granted > 0) {
+            List<Long> storyIds = new ArrayList<>();
+            List<String> texts = new ArrayList<>();
+            for (Story story : storyRepository.findAllById(missingIds.subList(0, granted))) {
+                storyIds.add(story.getId());
+                texts.add(SemanticSearchService.buildEmbeddingText(story));
+            }
+            embeddingQuota.release(granted - storyIds.size());
+            try {
+                embeddingVersionService.saveStoryEmbeddings(shadow.get(), storyIds,
+                        embeddingVersionService.embedAll(texts, shadow.get()));
+                embedded = storyIds.size();
+            } catch (ServiceUnavailableException e) {
+                embeddingQuota.release(storyIds.size());
+                log.warn("Re-embedding with {} paused: {}", shadow.get(), e.getMessage());
+                return false;
+            } catch (RateLimitExceededException e) {
+                log.warn("Re-embedding with {} paused: {}", shadow.get(), e.getMessage());
+                return false;
+            }
+        }
+
+        long missing = storyVectorRepository.countMissingFrom(shadow.get().getId(), active.getId());
+        if (embedded > 0) {
+            log.info("Re-embedded {} stories with {}, {} to go", embedded, shadow.get(), missing);
+        }
+        return missing == 0;
+    }
+
+    /**
+     * Delete the vectors and index of models retired longer ago than the retention
+     */
+    void purgeRetiredModels() {
+        LocalDateTime before = LocalDateTime.now().minusHours(properties.getRetiredRetentionHours());
+        for (EmbeddingModel model : embeddingModelRepository.findByStatusAndRetiredAtBefore(
+                EmbeddingModelStatus.RETIRED, before)) {
+            if (purgedModelIds.contains(model.getId())) {
+                continue;
+            }
+            long deleted = 0;
+            int batch;
+            while ((batch = embeddingVersionService.deleteStoryEmbeddings(model, properties.getDeleteBatchSize())) > 0) {
+                deleted += batch;
+            }
+            storyVectorRepository.dropVectorIndex(model);
+            long passages = 0;
+            while ((batch = chapterPassageService.deletePassages(model, properties.getDeleteBatchSize())) > 0) {
+                passages += batch;
+            }
+            chapterPassageRepository.dropVectorIndex(model);
+            purgedModelIds.add(model.getId());
+            if (deleted > 0 || passages > 0) {
+                log.info("Purged {} story vectors and {} passages of retired embedding model {}",
+                        deleted, passages, model);
+            }
+        }
+    }
+
+    /**
+     * Progress of the switch to the shadow model
+     */
+    public EmbeddingMigrationStatus status() {
+        EmbeddingModel active = embeddingVersionService.activeModel();
+        long activeEmbeddings = storyVectorRepository.countByModelId(active.getId());
+        EmbeddingMigrationStatus.EmbeddingMigrationStatusBuilder status = EmbeddingMigrationStatus.builder()
+                .activeModel(active.getName())
+                .activeDimension(active.getDimension())
+                .activeEmbeddings(activeEmbeddings);
+
+        embeddingVersionService.shadowModel().ifPresent(shadow -> {
+            long missing = storyVectorRepository.countMissingFrom(shadow.getId(), active.getId());
+            status.shadowModel(shadow.getName())
+                    .shadowDimension(shadow.getDimension())
+                    .shadowEmbeddings(storyVectorRepository.countByModelId(shadow.getId()))
+                    .missingEmbeddings(missing)
+                    .coverage(activeEmbeddings == 0 ? 1.0 : (double) (activeEmbeddings - missing) / activeEmbeddings);
+        });
+        return status.build();
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.config.GeminiConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+/**
+ * Token bucket over the Gemini embedding requests-per-minute quota.
+ * Interactive calls (search queries, admin actions) always go through and are only counted; they
+ * may put the bucket into debt. Background work asks for tokens first and gets only what is left,
+ * so it never pushes a search into a 429.
+ */
+@Component
+public class EmbeddingQuota {
+
+    private final GeminiConfig geminiConfig;
+    private final Clock clock;
+
+    private double tokens;
+    private long refilledAt;
+
+    @Autowired
+    public EmbeddingQuota(GeminiConfig geminiConfig) {
+        this(geminiConfig, Clock.systemUTC());
+    }
+
+    EmbeddingQuota(GeminiConfig geminiConfig, Clock clock) {
+        this.geminiConfig = geminiConfig;
+        this.clock = clock;
+        this.tokens = capacity();
+        this.refilledAt = clock.millis();
+    }
+
+    /**
+     * Count requests that are made regardless of the remaining quota
+     */
+    public synchronized void consume(int requests) {
+        refill();
+        // Bounded debt: a burst of searches delays background work by at most a minute
+        tokens = Math.max(tokens - requests, -capacity());
+    }
+
+    /**
+     * Take up to the wanted number of requests from what is left
+     * @return requests granted, possibly 0
+     */
+    public synchronized int tryAcquire(int wanted) {
+        refill();
+        int granted = (int) Math.max(0, Math.min(wanted, Math.floor(tokens)));
+        tokens -= granted;
+        return granted;
+    }
+
+    /**
+     * Give back requests that were granted but not made
+     */
+    public synchronized void release(int requests) {
+        tokens = Math.min(tokens + requests, capacity());
+    }
+
+    private void refill() {
+        long now = clock.millis();
+        tokens = Math.min(capacity(), tokens + (now - refilledAt) * capacity() / 60_000.0);
+        refilledAt = now;
+    }
+
+    private int capacity() {
+        return geminiConfig.getEmbeddingQuota().getRequestsPerMinute();
+    }
+}
@@ -0,0 +1,255 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.config.EmbeddingMigrationProperties;
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+import com.graduate.novel.domain.embedding.EmbeddingModelRepository;
+import com.graduate.novel.domain.embedding.EmbeddingModelStatus;
+import com.graduate.novel.domain.embedding.StoryVectorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Which embedding model story vectors are stored and searched under.
+ * <p>
+ * The ACTIVE model serves searches: queries must be embedded with it, and are compared only with
+ * its vectors. When gemini.api.model names another model (or dimension), that model is registered
+ * as SHADOW: new story embeddings are written under both, {@link EmbeddingMigrationService} fills
+ * in the rest, and {@link #cutOver()} promotes it in one transaction once it covers every story.
+ * The model rows are cached for a few seconds; a node that has not noticed a cut-over yet keeps
+ * using the old model's vectors, which stay until they are purged.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmbeddingVersionService {
+
+    private final EmbeddingModelRepository embeddingModelRepository;
+    private final StoryVectorRepository storyVectorRepository;
+    private final GeminiService geminiService;
+    private final EmbeddingMigrationProperties properties;
+
+    private record Models(EmbeddingModel active, EmbeddingModel shadow, long loadedAt) {
+    }
+
+    private volatile Models models;
+
+    /**
+     * The model that serves searches. On a fresh database the configured model becomes active.
+     */
+    public EmbeddingModel activeModel() {
+        return models().active();
+    }
+
+    /**
+     * The model being filled in the background, if a switch is in progress
+     */
+    public Optional<EmbeddingModel> shadowModel() {
+        return Optional.ofNullable(models().shadow());
+    }
+
+    /**
+     * Embed text with a given model
+     */
+    public float[] embed(String text, EmbeddingModel model) {
+        float[] embedding = geminiService.generateEmbedding(text, model.getName(), model.getDimension());
+        if (embedding == null) {
+            throw new RuntimeException("Failed to generate embedding - embedding is null");
+        }
+        if (embedding.length != model.getDimension()) {
+            throw new IllegalStateException(String.format("Model %s returned %d dimensions instead of %d",
+                    model.getName(), embedding.length, model.getDimension()));
+        }
+        return embedding;
+    }
+
+    /**
+     * Embed several texts with a given model in one request
+     */
+    public List<float[]> embedAll(List<String> texts, EmbeddingModel model) {
+        List<float[]> embeddings = geminiService.generateEmbeddings(texts, model.getName(), model.getDimension());
+        for (float[] embedding : embeddings) {
+            if (embedding == null || embedding.length != model.getDimension()) {
+                throw new IllegalStateException(String.format("Model %s returned %s dimensions instead of %d",
+                        model.getName(), embedding == null ? "no" : embedding.length, model.getDimension()));
+            }
+        }
+        return embeddings;
+    }
+
+    /**
+     * Store a story's embedding under a model
+     */
+    @Transactional
+    public void saveStoryEmbedding(Long storyId, EmbeddingModel model, float[] embedding) {
+        storyVectorRepository.upsert(model.getId(), storyId, toVectorString(embedding));
+    }
+
+    /**
+     * Store several stories' embeddings under a model in one transaction
+     */
+    @Transactional
+    public void saveStoryEmbeddings(EmbeddingModel model, List<Long> storyIds, List<float[]> embeddings) {
+        for (int i = 0; i < storyIds.size(); i++) {
+            storyVectorRepository.upsert(model.getId(), storyIds.get(i), toVectorString(embeddings.get(i)));
+        }
+    }
+
+    /**
+     * Delete stories' embeddings under a model, e.g. shadow vectors made from text that has changed
+     */
+    @Transactional
+    public void deleteStoryEmbeddings(EmbeddingModel model, Collection<Long> storyIds) {
+        storyVectorRepository.deleteByModelIdAndStoryIdIn(model.getId(), storyIds);
+    }
+
+    /**
+     * Delete up to a batch of a model's vectors
+     * @return rows deleted
+     */
+    @Transactional
+    public int deleteStoryEmbeddings(EmbeddingModel model, int batchSize) {
+        return storyVectorRepository.deleteBatch(model.getId(), batchSize);
+    }
+
+    /**
+     * Compare the configured model with the stored ones: start a shadow when they differ, drop
+     * the shadow when the configuration went back to the active model, and make sure each model
+     * in use has its HNSW index.
+     */
+    public void syncConfiguredModel() {
+        String name = geminiService.getEmbeddingModel();
+        int dimension = geminiService.getEmbeddingDimension();
+        EmbeddingModel active = loadModels().active();
+        Optional<EmbeddingModel> shadow = embeddingModelRepository.findByStatus(EmbeddingModelStatus.SHADOW);
+
+        if (active.matches(name, dimension)) {
+            shadow.ifPresent(model -> {
+                log.warn("Configured embedding model is {} again, abandoning switch to {}", active, model);
+                retire(model);
+            });
+        } else if (shadow.isEmpty() || !shadow.get().matches(name, dimension)) {
+            shadow.ifPresent(model -> {
+                log.warn("Configured embedding model changed, abandoning switch to {}", model);
+                retire(model);
+            });
+            try {
+                // Always a new version: vectors left from an earlier use of the same model may be stale
+                EmbeddingModel target = embeddingModelRepository.save(EmbeddingModel.builder()
+                        .name(name)
+                        .dimension(dimension)
+                        .status(EmbeddingModelStatus.SHADOW)
+                        .build());
+                log.info("Re-embedding stories with {} in the background; searches keep using {}", target, active);
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Another node registered the shadow model first");
+            }
+        }
+
+        Models current = loadModels();
+        storyVectorRepository.createVectorIndex(current.active());
+        if (current.shadow() != null) {
+            storyVectorRepository.createVectorIndex(current.shadow());
+        }
+    }
+
+    /**
+     * Promote the shadow model if it has a vector for every story the active model has.
+     * Both status changes commit together, so searches never see zero or two active models.
+     * @return true if the active model changed
+     */
+    @Transactional
+    public boolean cutOver() {
+        Optional<EmbeddingModel> shadow = embeddingModelRepository.findByStatus(EmbeddingModelStatus.SHADOW);
+        if (shadow.isEmpty()) {
+            return false;
+        }
+        Optional<EmbeddingModel> active = embeddingModelRepository.findByStatus(EmbeddingModelStatus.ACTIVE);
+        LocalDateTime now = LocalDateTime.now();
+        if (active.isPresent()) {
+            long missing = storyVectorRepository.countMissingFrom(shadow.get().getId(), active.get().getId());
+            if (missing > 0) {
+                log.debug("Not cutting over to {}: {} stories still missing", shadow.get(), missing);
+                return false;
+            }
+            active.get().setStatus(EmbeddingModelStatus.RETIRED);
+            active.get().setRetiredAt(now);
+            // Flushed first: at most one ACTIVE row is allowed at any point
+            embeddingModelRepository.saveAndFlush(active.get());
+        }
+        shadow.get().setStatus(EmbeddingModelStatus.ACTIVE);
+        shadow.get().setActivatedAt(now);
+        embeddingModelRepository.saveAndFlush(shadow.get());
+        log.info("Embedding model cut over from {} to {}", active.map(EmbeddingModel::toString).orElse("none"),
+                shadow.get());
+        return true;
+    }
+
+    /**
+     * Re-read the model rows now, e.g. after a cut-over committed
+     */
+    public void reloadModels() {
+        loadModels();
+    }
+
+    private Models loadModels() {
+        EmbeddingModel active = embeddingModelRepository.findByStatus(EmbeddingModelStatus.ACTIVE)
+                .orElseGet(this::registerConfiguredModel);
+        Models loaded = new Models(active,
+                embeddingModelRepository.findByStatus(EmbeddingModelStatus.SHADOW).orElse(null),
+                System.currentTimeMillis());
+        models = loaded;
+        return loaded;
+    }
+
+    private Models models() {
+        Models current = models;
+        if (current == null || System.currentTimeMillis() - current.loadedAt() > properties.getModelCacheSeconds() * 1000) {
+            current = loadModels();
+        }
+        return current;
+    }
+
+    private EmbeddingModel registerConfiguredModel() {
+        try {
+            EmbeddingModel saved = embeddingModelRepository.save(EmbeddingModel.builder()
+                    .name(geminiService.getEmbeddingModel())
+                    .dimension(geminiService.getEmbeddingDimension())
+                    .status(EmbeddingModelStatus.ACTIVE)
+                    .activatedAt(LocalDateTime.now())
+                    .build());
+            log.info("No active embedding model, using the configured one: {}", saved);
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            // Another node registered one at the same time
+            return embeddingModelRepository.findByStatus(EmbeddingModelStatus.ACTIVE).orElseThrow(() -> e);
+        }
+    }
+
+    private void retire(EmbeddingModel model) {
+        model.setStatus(EmbeddingModelStatus.RETIRED);
+        model.setRetiredAt(LocalDateTime.now());
+        embeddingModelRepository.save(model);
+    }
+
+    /**
+     * Convert float array to PostgreSQL vector format string
+     */
+    public static String toVectorString(float[] array) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(array[i]);
+        }
+        return sb.append("]").toString();
+    }
+}
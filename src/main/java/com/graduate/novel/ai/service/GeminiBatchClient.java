@@ -0,0 +1,132 @@
+package com.graduate.novel.ai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.graduate.novel.ai.config.GeminiConfig;
+import com.graduate.novel.ai.dto.GeminiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch client for the Gemini Batch API (models/{model}:batchGenerateContent, inline requests).
+ * Batches run asynchronously at a lower price than interactive calls.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "gemini.api.batch", name = "client", havingValue = "gemini", matchIfMissing = true)
+public class GeminiBatchClient implements GenerationBatchClient {
+
+    private final GeminiConfig geminiConfig;
+    private final RestTemplate geminiRestTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String submit(String displayName, List<BatchItem> items) {
+        String url = String.format("%s/models/%s:batchGenerateContent?key=%s",
+                geminiConfig.getBaseUrl(), geminiConfig.getModel().getText(), geminiConfig.getKey());
+
+        List<Map<String, Object>> requests = items.stream()
+                .map(item -> Map.<String, Object>of(
+                        "request", item.request(),
+                        "metadata", Map.of("key", item.key())))
+                .toList();
+        Map<String, Object> body = Map.of("batch", Map.of(
+                "displayName", displayName,
+                "inputConfig", Map.of("requests", Map.of("requests", requests))));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        JsonNode response = geminiRestTemplate.postForObject(url, new HttpEntity<>(body, headers), JsonNode.class);
+        String name = response != null ? response.path("name").asText(null) : null;
+        if (name == null) {
+            throw new IllegalStateException("Gemini returned no batch name");
+        }
+        log.info("Submitted Gemini batch {} ({} requests)", name, items.size());
+        return name;
+    }
+
+    @Override
+    public BatchStatus get(String batchName) {
+        JsonNode batch = geminiRestTemplate.getForObject(
+                String.format("%s/%s?key=%s", geminiConfig.getBaseUrl(), batchName, geminiConfig.getKey()),
+                JsonNode.class);
+        if (batch == null) {
+            throw new IllegalStateException("Empty response polling batch " + batchName);
+        }
+
+        String state = normalizeState(batch.path("metadata").path("state").asText(batch.path("state").asText("")));
+        if (batch.path("done").asBoolean(false) && ("PENDING".equals(state) || "RUNNING".equals(state))) {
+            state = batch.has("error") ? "FAILED" : "SUCCEEDED";
+        }
+        if (!"SUCCEEDED".equals(state)) {
+            return new BatchStatus(state, List.of());
+        }
+        return new BatchStatus(state, readResults(batch));
+    }
+
+    @Override
+    public void cancel(String batchName) {
+        geminiRestTemplate.postForObject(
+                String.format("%s/%s:cancel?key=%s", geminiConfig.getBaseUrl(), batchName, geminiConfig.getKey()),
+                null, JsonNode.class);
+    }
+
+    private List<BatchResult> readResults(JsonNode batch) {
+        JsonNode responses = inlinedResponses(batch.path("response"));
+        if (responses.isMissingNode()) {
+            responses = inlinedResponses(batch.path("metadata").path("output"));
+        }
+
+        List<BatchResult> results = new ArrayList<>();
+        for (JsonNode entry : responses) {
+            String key = entry.path("metadata").path("key").asText(null);
+            if (entry.has("error")) {
+                results.add(new BatchResult(key, null, null, entry.path("error").path("message").asText("error")));
+                continue;
+            }
+            try {
+                GeminiResponse response = objectMapper.treeToValue(entry.path("response"), GeminiResponse.class);
+                GeminiResponse.Candidate candidate = response.getCandidates() != null && !response.getCandidates().isEmpty()
+                        ? response.getCandidates().get(0) : null;
+                if (candidate == null || candidate.getContent() == null || candidate.getContent().getParts() == null) {
+                    results.add(new BatchResult(key, null, null, "No candidate in response"));
+                    continue;
+                }
+                StringBuilder text = new StringBuilder();
+                candidate.getContent().getParts().forEach(part -> {
+                    if (part.getText() != null) {
+                        text.append(part.getText());
+                    }
+                });
+                results.add(new BatchResult(key, text.toString(), candidate.getFinishReason(), null));
+            } catch (Exception e) {
+                results.add(new BatchResult(key, null, null, "Unreadable response: " + e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * inlinedResponses is either the array itself or wraps it in a field of the same name
+     */
+    private static JsonNode inlinedResponses(JsonNode output) {
+        JsonNode inlined = output.path("inlinedResponses");
+        return inlined.isObject() ? inlined.path("inlinedResponses") : inlined;
+    }
+
+    private static String normalizeState(String state) {
+        return state.replace("BATCH_STATE_", "").replace("JOB_STATE_", "");
+    }
+}
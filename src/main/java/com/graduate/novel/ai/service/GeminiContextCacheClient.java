@@ -0,0 +1,67 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.config.GeminiConfig;
+import com.graduate.novel.ai.dto.GeminiCachedContent;
+import com.graduate.novel.ai.dto.GeminiRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Context cache backed by the Gemini cachedContents API
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "gemini.api.context-cache", name = "client", havingValue = "gemini", matchIfMissing = true)
+public class GeminiContextCacheClient implements ContextCacheClient {
+
+    private final GeminiConfig geminiConfig;
+    private final RestTemplate geminiRestTemplate;
+
+    @Override
+    public CachedContext create(String displayName, String systemInstruction, Duration ttl) {
+        String url = String.format("%s/cachedContents?key=%s", geminiConfig.getBaseUrl(), geminiConfig.getKey());
+
+        GeminiCachedContent request = GeminiCachedContent.builder()
+                .model("models/" + geminiConfig.getModel().getText())
+                .displayName(displayName)
+                .systemInstruction(GeminiRequest.Content.builder()
+                        .parts(List.of(GeminiRequest.Part.builder().text(systemInstruction).build()))
+                        .build())
+                .ttl(ttl.toSeconds() + "s")
+                .build();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        GeminiCachedContent created = geminiRestTemplate.postForObject(
+                url, new HttpEntity<>(request, headers), GeminiCachedContent.class);
+        if (created == null || created.getName() == null) {
+            throw new IllegalStateException("Gemini returned no cached content name");
+        }
+
+        Instant expiresAt = created.getExpireTime() != null
+                ? Instant.parse(created.getExpireTime())
+                : Instant.now().plus(ttl);
+        log.info("Created Gemini context cache {} ({}, {} tokens, expires {})", created.getName(), displayName,
+                created.getUsageMetadata() != null ? created.getUsageMetadata().getTotalTokenCount() : "?",
+                expiresAt);
+        return new CachedContext(created.getName(), expiresAt);
+    }
+
+    @Override
+    public void delete(String name) {
+        geminiRestTemplate.delete(String.format("%s/%s?key=%s", geminiConfig.getBaseUrl(), name, geminiConfig.getKey()));
+        log.debug("Deleted Gemini context cache {}", name);
+    }
+}
@@ -1,17 +1,26 @@
 package com.graduate.novel.ai.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.graduate.novel.ai.config.GeminiConfig;
 import com.graduate.novel.ai.dto.*;
 import com.graduate.novel.common.exception.RateLimitExceededException;
+import com.graduate.novel.common.exception.ServiceUnavailableException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,6 +31,9 @@ public class GeminiService {
 
     private final GeminiConfig geminiConfig;
     private final RestTemplate geminiRestTemplate;
+    private final ObjectMapper objectMapper;
+    private final EmbeddingCircuitBreaker embeddingCircuitBreaker;
+    private final EmbeddingQuota embeddingQuota;
 
     /**
      * Generate text content using Gemini API
@@ -43,6 +55,15 @@ public class GeminiService {
      * Key = generated text, Value = finishReason (e.g. "STOP", "MAX_TOKENS")
      */
     public Map.Entry<String, String> generateContentWithFinishReason(String prompt, GeminiRequest.GenerationConfig config) {
+        return generateContentWithFinishReason(prompt, config, null);
+    }
+
+    /**
+     * Generate text content behind a shared prefix (cached content or system instruction).
+     * Key = generated text, Value = finishReason
+     */
+    public Map.Entry<String, String> generateContentWithFinishReason(String prompt, GeminiRequest.GenerationConfig config,
+                                                                     PromptPrefix prefix) {
         int retries = 0;
         int maxRetries = geminiConfig.getMaxRetries();
         long retryDelay = 2000; // Start with 2 seconds
@@ -54,7 +75,7 @@ public class GeminiService {
                         geminiConfig.getModel().getText(),
                         geminiConfig.getKey());
 
-                GeminiRequest request = buildRequest(prompt, config);
+                GeminiRequest request = buildRequest(prompt, config, prefix);
 
                 HttpHeaders headers = new HttpHeaders();
                 headers.setContentType(MediaType.APPLICATION_JSON);
@@ -164,25 +185,281 @@ public class GeminiService {
     }
 
     /**
-     * Generate embedding vector for text
+     * Generate text content through the streaming endpoint (Server-Sent Events).
+     * Each text fragment is passed to onText as soon as Gemini produces it.
+     * Retries on 429/5xx only while nothing has been emitted yet, so callers never see duplicated text.
+     * Key = full generated text, Value = finishReason of the last fragment
+     */
+    public Map.Entry<String, String> streamGenerateContent(String prompt, GeminiRequest.GenerationConfig config,
+                                                           Consumer<String> onText) {
+        return streamGenerateContent(prompt, config, null, onText);
+    }
+
+    /**
+     * Streaming generation behind a shared prefix (cached content or system instruction)
+     */
+    public Map.Entry<String, String> streamGenerateContent(String prompt, GeminiRequest.GenerationConfig config,
+                                                           PromptPrefix prefix, Consumer<String> onText) {
+        int retries = 0;
+        int maxRetries = geminiConfig.getMaxRetries();
+        long retryDelay = 2000;
+        AtomicBoolean emitted = new AtomicBoolean(false);
+
+        while (true) {
+            try {
+                String url = String.format("%s/models/%s:streamGenerateContent?alt=sse&key=%s",
+                        geminiConfig.getBaseUrl(),
+                        geminiConfig.getModel().getText(),
+                        geminiConfig.getKey());
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                headers.set("Accept-Charset", "UTF-8");
+                HttpEntity<GeminiRequest> entity = new HttpEntity<>(buildRequest(prompt, config, prefix), headers);
+
+                log.debug("Sending streaming request to Gemini API (attempt {}/{})", retries + 1, maxRetries + 1);
+
+                return geminiRestTemplate.execute(url, HttpMethod.POST,
+                        geminiRestTemplate.httpEntityCallback(entity),
+                        response -> readEventStream(response.getBody(), onText, emitted));
+
+            } catch (org.springframework.web.client.HttpClientErrorException.TooManyRequests e) {
+                retries++;
+                if (retries > maxRetries || emitted.get()) {
+                    long retryAfterSeconds = extractRetryAfterSeconds(e.getResponseBodyAsString());
+                    throw new RateLimitExceededException(
+                            "Đã vượt quá giới hạn số lần gọi API Gemini. Vui lòng thử lại sau " +
+                                    (retryAfterSeconds > 0 ? retryAfterSeconds + " giây" : "ít phút") + ".",
+                            retryAfterSeconds, e);
+                }
+                log.warn("Rate limit hit (429) on streaming request. Retrying in {} ms... (attempt {}/{})",
+                        retryDelay, retries, maxRetries);
+                sleepBeforeRetry(retryDelay);
+                retryDelay *= 2;
+
+            } catch (org.springframework.web.client.HttpServerErrorException e) {
+                retries++;
+                if (retries > maxRetries || emitted.get()) {
+                    log.error("Streaming request failed after server error ({}). Giving up.", e.getStatusCode());
+                    throw new RuntimeException("Failed to stream content: " + e.getMessage(), e);
+                }
+                log.warn("Server error {} on streaming request. Retrying in {} ms... (attempt {}/{})",
+                        e.getStatusCode(), retryDelay, retries, maxRetries);
+                sleepBeforeRetry(retryDelay);
+                retryDelay *= 2;
+
+            } catch (org.springframework.web.client.HttpClientErrorException e) {
+                log.error("HTTP Client Error ({}) on streaming request: {}", e.getStatusCode(), e.getMessage());
+                throw new RuntimeException("Failed to stream content: " + e.getMessage(), e);
+
+            } catch (RateLimitExceededException e) {
+                throw e;
+
+            } catch (Exception e) {
+                log.error("Error streaming from Gemini API: {}", e.getMessage(), e);
+                throw new RuntimeException("Failed to stream content from Gemini API", e);
+            }
+        }
+    }
+
+    /**
+     * Read an SSE body of the form "data: {GenerateContentResponse}" line by line
+     */
+    private Map.Entry<String, String> readEventStream(InputStream body, Consumer<String> onText,
+                                                      AtomicBoolean emitted) throws IOException {
+        StringBuilder fullText = new StringBuilder();
+        String finishReason = null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                GeminiResponse event = objectMapper.readValue(line.substring(5).trim(), GeminiResponse.class);
+                if (event.getCandidates() == null || event.getCandidates().isEmpty()) {
+                    continue;
+                }
+                GeminiResponse.Candidate candidate = event.getCandidates().get(0);
+                if (candidate.getFinishReason() != null) {
+                    finishReason = candidate.getFinishReason();
+                }
+                if (candidate.getContent() == null || candidate.getContent().getParts() == null) {
+                    continue;
+                }
+                for (GeminiResponse.Part part : candidate.getContent().getParts()) {
+                    if (part.getText() != null && !part.getText().isEmpty()) {
+                        fullText.append(part.getText());
+                        emitted.set(true);
+                        onText.accept(part.getText());
+                    }
+                }
+            }
+        }
+
+        if ("MAX_TOKENS".equals(finishReason)) {
+            log.warn("Gemini streaming response was truncated due to MAX_TOKENS limit.");
+        }
+        log.debug("Streaming generation finished ({} chars, finishReason: {})", fullText.length(), finishReason);
+        return new AbstractMap.SimpleEntry<>(fullText.toString(), finishReason);
+    }
+
+    private void sleepBeforeRetry(long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to retry", ie);
+        }
+    }
+
+    /**
+     * Generate embedding vector for text with the configured model
      */
     public float[] generateEmbedding(String text) {
+        return generateEmbedding(text, geminiConfig.getModel().getEmbedding(),
+                geminiConfig.getModel().getOutputDimensionality());
+    }
+
+    /**
+     * Generate embedding vector for text with a given model and output dimension
+     * (stored story vectors must be compared with queries embedded by the same model)
+     */
+    public float[] generateEmbedding(String text, String model, int outputDimensionality) {
+        EmbeddingCircuitBreaker.Permit permit = embeddingCircuitBreaker.acquire();
+        if (permit == EmbeddingCircuitBreaker.Permit.REJECTED) {
+            throw new ServiceUnavailableException("Gemini embedding API is unavailable, please retry later",
+                    embeddingCircuitBreaker.retryAfterSeconds());
+        }
+        embeddingQuota.consume(1);
+
+        try {
+            // The half-open probe only needs to find out whether Gemini is back: no retries
+            float[] embedding = callEmbeddingApi(text, model, outputDimensionality,
+                    permit == EmbeddingCircuitBreaker.Permit.PROBE ? 0 : geminiConfig.getMaxRetries());
+            if (embedding != null) {
+                embeddingCircuitBreaker.recordSuccess();
+            } else {
+                embeddingCircuitBreaker.recordFailure();
+            }
+            return embedding;
+        } catch (RuntimeException e) {
+            if (isRejectedRequest(e)) {
+                // Gemini answered; the request itself was bad. Not an outage.
+                embeddingCircuitBreaker.recordSuccess();
+            } else {
+                embeddingCircuitBreaker.recordFailure();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Embed several texts in one batchEmbedContents call.
+     * Background callers take the requests from {@link EmbeddingQuota} first. There are no retries
+     * here: a 429 or 5xx is thrown, and the caller tries again later.
+     * @return one vector per text, in order
+     */
+    public List<float[]> generateEmbeddings(List<String> texts, String model, int outputDimensionality) {
+        if (texts.isEmpty()) {
+            return List.of();
+        }
+        EmbeddingCircuitBreaker.Permit permit = embeddingCircuitBreaker.acquire();
+        if (permit == EmbeddingCircuitBreaker.Permit.REJECTED) {
+            throw new ServiceUnavailableException("Gemini embedding API is unavailable, please retry later",
+                    embeddingCircuitBreaker.retryAfterSeconds());
+        }
+
+        try {
+            List<float[]> embeddings = callBatchEmbeddingApi(texts, model, outputDimensionality);
+            embeddingCircuitBreaker.recordSuccess();
+            return embeddings;
+        } catch (RuntimeException e) {
+            if (isRejectedRequest(e)) {
+                embeddingCircuitBreaker.recordSuccess();
+            } else {
+                embeddingCircuitBreaker.recordFailure();
+            }
+            throw e;
+        }
+    }
+
+    private List<float[]> callBatchEmbeddingApi(List<String> texts, String model, int outputDimensionality) {
+        String url = String.format("%s/models/%s:batchEmbedContents?key=%s",
+                geminiConfig.getBaseUrl(), model, geminiConfig.getKey());
+
+        GeminiBatchEmbeddingRequest request = GeminiBatchEmbeddingRequest.builder()
+                .requests(texts.stream()
+                        .map(text -> GeminiEmbeddingRequest.builder()
+                                .model("models/" + model)
+                                .content(GeminiEmbeddingRequest.Content.builder()
+                                        .parts(List.of(GeminiEmbeddingRequest.Part.builder().text(text).build()))
+                                        .build())
+                                .outputDimensionality(outputDimensionality)
+                                .build())
+                        .toList())
+                .build();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Accept-Charset", "UTF-8");
+
+        log.info("Calling Gemini batch embedding API for {} texts (model {})", texts.size(), model);
+        try {
+            ResponseEntity<GeminiBatchEmbeddingResponse> response = geminiRestTemplate.postForEntity(
+                    url, new HttpEntity<>(request, headers), GeminiBatchEmbeddingResponse.class);
+            GeminiBatchEmbeddingResponse body = response.getBody();
+            if (body == null || body.getEmbeddings() == null || body.getEmbeddings().size() != texts.size()) {
+                throw new RuntimeException("Gemini batch embedding returned " +
+                        (body == null || body.getEmbeddings() == null ? "no" : body.getEmbeddings().size()) +
+                        " embeddings for " + texts.size() + " texts");
+            }
+            return body.getEmbeddings().stream().map(GeminiEmbeddingResponse.Embedding::getValues).toList();
+        } catch (org.springframework.web.client.HttpClientErrorException.TooManyRequests e) {
+            throw new RateLimitExceededException("Gemini embedding rate limit exceeded",
+                    extractRetryAfterSeconds(e.getResponseBodyAsString()), e);
+        } catch (org.springframework.web.client.RestClientException e) {
+            throw new RuntimeException("Failed to generate embeddings: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isRejectedRequest(RuntimeException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof org.springframework.web.client.HttpClientErrorException
+                && !(cause instanceof org.springframework.web.client.HttpClientErrorException.TooManyRequests);
+    }
+
+    /**
+     * Dimension of embeddings from the configured model
+     */
+    public int getEmbeddingDimension() {
+        return geminiConfig.getModel().getOutputDimensionality();
+    }
+
+    /**
+     * Name of the configured embedding model
+     */
+    public String getEmbeddingModel() {
+        return geminiConfig.getModel().getEmbedding();
+    }
+
+    private float[] callEmbeddingApi(String text, String model, int outputDimensionality, int maxRetries) {
         log.info("===== EMBEDDING GENERATION START =====");
         log.info("Text to embed: '{}'", text.substring(0, Math.min(100, text.length())));
 
         int retries = 0;
-        int maxRetries = geminiConfig.getMaxRetries();
         long retryDelay = 2000; // Start with 2 seconds
 
         while (retries <= maxRetries) {
             try {
                 String url = String.format("%s/models/%s:embedContent?key=%s",
                         geminiConfig.getBaseUrl(),
-                        geminiConfig.getModel().getEmbedding(),
+                        model,
                         geminiConfig.getKey());
 
-                log.info("Embedding Model: {}", geminiConfig.getModel().getEmbedding());
-                log.info("Output Dimensionality: {}", geminiConfig.getModel().getOutputDimensionality());
+                log.info("Embedding Model: {}", model);
+                log.info("Output Dimensionality: {}", outputDimensionality);
 
                 GeminiEmbeddingRequest request = GeminiEmbeddingRequest.builder()
                         .content(GeminiEmbeddingRequest.Content.builder()
@@ -190,7 +467,7 @@ public class GeminiService {
                                         .text(text)
                                         .build()))
                                 .build())
-                        .outputDimensionality(geminiConfig.getModel().getOutputDimensionality())
+                        .outputDimensionality(outputDimensionality)
                         .build();
 
                 HttpHeaders headers = new HttpHeaders();
@@ -300,7 +577,7 @@ public class GeminiService {
     /**
      * Build a Gemini request with default or custom configuration
      */
-    private GeminiRequest buildRequest(String prompt, GeminiRequest.GenerationConfig config) {
+    GeminiRequest buildRequest(String prompt, GeminiRequest.GenerationConfig config, PromptPrefix prefix) {
         if (config == null) {
             config = GeminiRequest.GenerationConfig.builder()
                     .temperature(0.7)
@@ -310,9 +587,10 @@ public class GeminiService {
                     .build();
         }
 
-        return GeminiRequest.builder()
+        GeminiRequest request = GeminiRequest.builder()
                 .contents(List.of(
                         GeminiRequest.Content.builder()
+                                .role("user")
                                 .parts(List.of(
                                         GeminiRequest.Part.builder()
                                                 .text(prompt)
@@ -322,6 +600,15 @@ public class GeminiService {
                 ))
                 .generationConfig(config)
                 .build();
+
+        if (prefix != null && prefix.isCached()) {
+            request.setCachedContent(prefix.cachedContent());
+        } else if (prefix != null && prefix.systemInstruction() != null) {
+            request.setSystemInstruction(GeminiRequest.Content.builder()
+                    .parts(List.of(GeminiRequest.Part.builder().text(prefix.systemInstruction()).build()))
+                    .build());
+        }
+        return request;
     }
 
     /**
@@ -0,0 +1,42 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.dto.GeminiRequest;
+
+import java.util.List;
+
+/**
+ * Submits many generation requests as one asynchronous batch job and reads back the results
+ */
+public interface GenerationBatchClient {
+
+    /**
+     * @return the batch name to poll
+     */
+    String submit(String displayName, List<BatchItem> items);
+
+    BatchStatus get(String batchName);
+
+    void cancel(String batchName);
+
+    record BatchItem(String key, GeminiRequest request) {}
+
+    /**
+     * Result of one request: text and finishReason, or an error message
+     */
+    record BatchResult(String key, String text, String finishReason, String error) {}
+
+    /**
+     * @param state   PENDING, RUNNING, SUCCEEDED, FAILED, CANCELLED or EXPIRED
+     * @param results filled once the batch succeeded
+     */
+    record BatchStatus(String state, List<BatchResult> results) {
+
+        public boolean isDone() {
+            return !"PENDING".equals(state) && !"RUNNING".equals(state);
+        }
+
+        public boolean isSucceeded() {
+            return "SUCCEEDED".equals(state);
+        }
+    }
+}
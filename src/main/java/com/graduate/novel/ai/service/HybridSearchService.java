@@ -0,0 +1,242 @@
+package com.graduate.novel.ai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.graduate.novel.ai.dto.HybridSearchHit;
+import com.graduate.novel.ai.dto.HybridSearchResponse;
+import com.graduate.novel.common.exception.BadRequestException;
+import com.graduate.novel.common.mapper.StoryMapper;
+import com.graduate.novel.common.text.TextTokenizer;
+import com.graduate.novel.config.HybridSearchProperties;
+import com.graduate.novel.domain.story.Story;
+import com.graduate.novel.domain.story.StoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Story search combining full-text matching (exact titles, author names) with vector similarity
+ * (paraphrases, descriptions of the plot). Both branches run at the same time, so a search takes
+ * as long as the slower one; their rankings are merged with reciprocal rank fusion.
+ * <p>
+ * The fused list is kept for a few minutes behind a cursor, so later pages are consistent with
+ * the first one and cost neither branch again.
+ */
+@Service
+@Slf4j
+public class HybridSearchService {
+
+    private final HybridSearchProperties properties;
+    private final StoryRepository storyRepository;
+    private final SemanticSearchService semanticSearchService;
+    private final StoryMapper storyMapper;
+    private final ExecutorService searchExecutor;
+    private final Cache<String, FusedList> cursors;
+
+    public HybridSearchService(HybridSearchProperties properties,
+                               StoryRepository storyRepository,
+                               SemanticSearchService semanticSearchService,
+                               StoryMapper storyMapper,
+                               @Qualifier("searchExecutor") ExecutorService searchExecutor) {
+        this.properties = properties;
+        this.storyRepository = storyRepository;
+        this.semanticSearchService = semanticSearchService;
+        this.storyMapper = storyMapper;
+        this.searchExecutor = searchExecutor;
+        this.cursors = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(properties.getCursorTtlSeconds()))
+                .maximumSize(properties.getMaxCursors())
+                .build();
+    }
+
+    /**
+     * A story in the fused ranking
+     * @param lexicalRank 1-based rank in the full-text results, or null
+     * @param vectorRank  1-based rank in the vector results, or null
+     */
+    record Fused(Long storyId, double score, Integer lexicalRank, Integer vectorRank) {
+    }
+
+    private record FusedList(String query, List<Fused> results, boolean vectorAvailable) {
+    }
+
+    /**
+     * First page of a new search, or the page a cursor points to
+     */
+    public HybridSearchResponse search(String query, Integer size, String cursor) {
+        long start = System.currentTimeMillis();
+        int pageSize = Math.max(1, Math.min(size != null ? size : properties.getDefaultPageSize(),
+                properties.getMaxPageSize()));
+
+        String token;
+        int offset;
+        FusedList fused;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf('.');
+            if (separator < 0) {
+                throw new BadRequestException("Invalid search cursor");
+            }
+            token = cursor.substring(0, separator);
+            try {
+                offset = Integer.parseInt(cursor.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid search cursor");
+            }
+            fused = cursors.getIfPresent(token);
+            if (fused == null) {
+                throw new BadRequestException("Search cursor has expired; run the search again");
+            }
+        } else {
+            if (query == null || query.isBlank()) {
+                throw new BadRequestException("Search query must not be empty");
+            }
+            fused = runSearch(query.strip());
+            token = UUID.randomUUID().toString();
+            offset = 0;
+        }
+
+        List<Fused> page = fused.results().subList(Math.min(offset, fused.results().size()),
+                Math.min(offset + pageSize, fused.results().size()));
+        int nextOffset = offset + page.size();
+        String nextCursor = null;
+        if (nextOffset < fused.results().size()) {
+            cursors.put(token, fused);
+            nextCursor = token + "." + nextOffset;
+        }
+
+        return HybridSearchResponse.builder()
+                .query(fused.query())
+                .results(hydrate(page))
+                .totalResults(fused.results().size())
+                .nextCursor(nextCursor)
+                .vectorAvailable(fused.vectorAvailable())
+                .tookMs(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    private FusedList runSearch(String query) {
+        int candidates = properties.getCandidates();
+        CompletableFuture<List<Long>> lexical = CompletableFuture.supplyAsync(() -> containsCjk(query)
+                ? storyRepository.findStoryIdsBySubstring(query, likePattern(query), candidates)
+                : storyRepository.findStoryIdsByFullText(query, candidates), searchExecutor);
+        CompletableFuture<List<Long>> vector = CompletableFuture.supplyAsync(
+                () -> semanticSearchService.findSimilarStoryIds(query, candidates), searchExecutor);
+
+        List<Long> lexicalIds = null;
+        RuntimeException lexicalFailure = null;
+        try {
+            lexicalIds = lexical.join();
+        } catch (CompletionException e) {
+            lexicalFailure = unwrap(e);
+            log.warn("Full-text story search failed for '{}': {}", query, lexicalFailure.getMessage());
+        }
+
+        List<Long> vectorIds = null;
+        try {
+            vectorIds = vector.join();
+        } catch (CompletionException e) {
+            // Embeddings unavailable (circuit open, rate limit): full-text results alone still help
+            log.warn("Vector story search failed for '{}', using full-text results only: {}",
+                    query, unwrap(e).getMessage());
+        }
+
+        if (lexicalIds == null && vectorIds == null) {
+            throw lexicalFailure;
+        }
+        List<Fused> results = fuse(lexicalIds != null ? lexicalIds : List.of(),
+                vectorIds != null ? vectorIds : List.of(), properties.getRrfK());
+        return new FusedList(query, results, vectorIds != null);
+    }
+
+    /**
+     * Reciprocal rank fusion: each list contributes 1 / (k + rank). Ties go to the better
+     * full-text rank, then the lower id, so the order is stable.
+     */
+    /**
+     * CJK text has no spaces, so full-text search can't match part of a title; such queries
+     * use substring matching instead
+     */
+    static boolean containsCjk(String query) {
+        return query.codePoints().anyMatch(TextTokenizer::isCjk);
+    }
+
+    /**
+     * ILIKE pattern matching the query anywhere, with LIKE wildcards in the query taken literally
+     */
+    static String likePattern(String query) {
+        return "%" + query.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    static List<Fused> fuse(List<Long> lexicalIds, List<Long> vectorIds, int k) {
+        Map<Long, Integer> lexicalRanks = ranks(lexicalIds);
+        Map<Long, Integer> vectorRanks = ranks(vectorIds);
+
+        List<Fused> results = new ArrayList<>();
+        for (Long id : concat(lexicalIds, vectorIds)) {
+            Integer lexicalRank = lexicalRanks.get(id);
+            Integer vectorRank = vectorRanks.get(id);
+            double score = (lexicalRank != null ? 1.0 / (k + lexicalRank) : 0)
+                    + (vectorRank != null ? 1.0 / (k + vectorRank) : 0);
+            results.add(new Fused(id, score, lexicalRank, vectorRank));
+        }
+        results.sort(Comparator.comparingDouble(Fused::score).reversed()
+                .thenComparing(fused -> fused.lexicalRank() != null ? fused.lexicalRank() : Integer.MAX_VALUE)
+                .thenComparing(Fused::storyId));
+        return results;
+    }
+
+    private List<HybridSearchHit> hydrate(List<Fused> page) {
+        if (page.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Story> stories = storyRepository.findByIdInWithGenres(page.stream().map(Fused::storyId).toList())
+                .stream()
+                .collect(Collectors.toMap(Story::getId, Function.identity()));
+
+        List<HybridSearchHit> hits = new ArrayList<>(page.size());
+        for (Fused fused : page) {
+            Story story = stories.get(fused.storyId());
+            if (story == null) {
+                // Deleted since the search ran
+                continue;
+            }
+            hits.add(HybridSearchHit.builder()
+                    .story(storyMapper.toDto(story))
+                    .score(fused.score())
+                    .lexicalRank(fused.lexicalRank())
+                    .vectorRank(fused.vectorRank())
+                    .build());
+        }
+        return hits;
+    }
+
+    private static Map<Long, Integer> ranks(List<Long> ids) {
+        Map<Long, Integer> ranks = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            ranks.putIfAbsent(ids.get(i), i + 1);
+        }
+        return ranks;
+    }
+
+    private static List<Long> concat(List<Long> first, List<Long> second) {
+        return Stream.concat(first.stream(), second.stream()).distinct().toList();
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+}
@@ -0,0 +1,345 @@
+package com.graduate.novel.ai.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Compressed in-memory copy of the story embeddings, used to pick candidates before an exact
+ * re-rank. Each vector is cut to its first {@code dimension} components (Gemini embeddings are
+ * Matryoshka-trained, so a prefix is a usable embedding on its own), re-normalized and stored as
+ * <ul>
+ *   <li>int8: one signed byte per component plus a per-vector scale; scored by integer dot product</li>
+ *   <li>binary: one sign bit per component; scored by Hamming distance (XOR + popcount)</li>
+ * </ul>
+ * At 768 float32 dimensions a story takes 3 KB; int8 at full dimension is 4x smaller and binary
+ * 32x, before truncation. Scores are approximate, so callers re-rank the top candidates with the
+ * full-precision vectors. An index is immutable once built and can be searched from any thread.
+ */
+final class QuantizedVectorIndex {
+
+    enum Quantization {
+        INT8,
+        BINARY;
+
+        static Quantization parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final Quantization quantization;
+    private final int sourceDimension;
+    private final int dimension;
+    private final int count;
+    private final long[] ids;
+    /** INT8: dimension bytes per vector */
+    private final byte[] codes;
+    /** INT8: value of one code step per vector */
+    private final float[] scales;
+    /** BINARY: sign bits, wordsPerVector longs per vector */
+    private final long[] bits;
+    private final int wordsPerVector;
+
+    private QuantizedVectorIndex(Builder builder) {
+        this.quantization = builder.quantization;
+        this.sourceDimension = builder.sourceDimension;
+        this.dimension = builder.dimension;
+        this.count = builder.count;
+        this.ids = Arrays.copyOf(builder.ids, count);
+        this.wordsPerVector = builder.wordsPerVector;
+        if (quantization == Quantization.INT8) {
+            this.codes = Arrays.copyOf(builder.codes, count * dimension);
+            this.scales = Arrays.copyOf(builder.scales, count);
+            this.bits = null;
+        } else {
+            this.codes = null;
+            this.scales = null;
+            this.bits = Arrays.copyOf(builder.bits, count * wordsPerVector);
+        }
+    }
+
+    /**
+     * @param sourceDimension length of the full-precision vectors that will be added
+     * @param dimension       leading components kept; at most sourceDimension
+     */
+    static Builder builder(Quantization quantization, int sourceDimension, int dimension) {
+        if (dimension < 1 || dimension > sourceDimension) {
+            throw new IllegalArgumentException("Dimension must be between 1 and " + sourceDimension);
+        }
+        return new Builder(quantization, sourceDimension, dimension);
+    }
+
+    Quantization quantization() {
+        return quantization;
+    }
+
+    int sourceDimension() {
+        return sourceDimension;
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    int size() {
+        return count;
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    /**
+     * Heap used by the codes and ids
+     */
+    long memoryBytes() {
+        long bytes = (long) ids.length * Long.BYTES;
+        if (quantization == Quantization.INT8) {
+            return bytes + codes.length + (long) scales.length * Float.BYTES;
+        }
+        return bytes + (long) bits.length * Long.BYTES;
+    }
+
+    /**
+     * Ids of the vectors closest to the query by approximate score, best first
+     * @param query full-precision query vector of the source dimension
+     */
+    long[] search(float[] query, int limit) {
+        if (query.length != sourceDimension) {
+            throw new IllegalArgumentException("Expected a " + sourceDimension + "-dimension query, got " + query.length);
+        }
+        float[] truncated = truncate(query, dimension);
+        TopK top = new TopK(Math.min(limit, count));
+        if (quantization == Quantization.INT8) {
+            byte[] queryCodes = new byte[dimension];
+            float queryScale = quantize(truncated, queryCodes, 0);
+            for (int i = 0; i < count; i++) {
+                top.offer(i, dot(queryCodes, codes, i * dimension, dimension) * queryScale * scales[i]);
+            }
+        } else {
+            long[] queryBits = new long[wordsPerVector];
+            signBits(truncated, queryBits, 0);
+            for (int i = 0; i < count; i++) {
+                // Agreeing bits minus disagreeing bits: proportional to the angle-based similarity
+                top.offer(i, dimension - 2 * hamming(queryBits, bits, i * wordsPerVector, wordsPerVector));
+            }
+        }
+        int[] indexes = top.sortedIndexes();
+        long[] result = new long[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            result[i] = ids[indexes[i]];
+        }
+        return result;
+    }
+
+    /**
+     * The first components of a vector, scaled to unit length
+     */
+    static float[] truncate(float[] vector, int dimension) {
+        float[] truncated = Arrays.copyOf(vector, dimension);
+        double norm = 0;
+        for (float value : truncated) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float inverse = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < dimension; i++) {
+                truncated[i] *= inverse;
+            }
+        }
+        return truncated;
+    }
+
+    /**
+     * Symmetric int8 quantization: the largest component maps to ±127
+     * @return the value of one code step
+     */
+    private static float quantize(float[] vector, byte[] target, int offset) {
+        float max = 0;
+        for (float value : vector) {
+            max = Math.max(max, Math.abs(value));
+        }
+        if (max == 0) {
+            return 0;
+        }
+        float scale = max / 127f;
+        for (int i = 0; i < vector.length; i++) {
+            target[offset + i] = (byte) Math.round(vector[i] / scale);
+        }
+        return scale;
+    }
+
+    private static void signBits(float[] vector, long[] target, int offset) {
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i] > 0) {
+                target[offset + (i >>> 6)] |= 1L << (i & 63);
+            }
+        }
+    }
+
+    private static int dot(byte[] query, byte[] codes, int offset, int dimension) {
+        int sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            sum += query[i] * codes[offset + i];
+        }
+        return sum;
+    }
+
+    private static int hamming(long[] query, long[] bits, int offset, int words) {
+        int distance = 0;
+        for (int i = 0; i < words; i++) {
+            distance += Long.bitCount(query[i] ^ bits[offset + i]);
+        }
+        return distance;
+    }
+
+    static final class Builder {
+
+        private final Quantization quantization;
+        private final int sourceDimension;
+        private final int dimension;
+        private final int wordsPerVector;
+        private int count;
+        private long[] ids = new long[1024];
+        private byte[] codes;
+        private float[] scales;
+        private long[] bits;
+
+        private Builder(Quantization quantization, int sourceDimension, int dimension) {
+            this.quantization = quantization;
+            this.sourceDimension = sourceDimension;
+            this.dimension = dimension;
+            this.wordsPerVector = (dimension + 63) >>> 6;
+            if (quantization == Quantization.INT8) {
+                codes = new byte[ids.length * dimension];
+                scales = new float[ids.length];
+            } else {
+                bits = new long[ids.length * wordsPerVector];
+            }
+        }
+
+        /**
+         * Add a full-precision vector; ids must be added in ascending order
+         * @return false if the vector has a different dimension (embedded by another model) and was skipped
+         */
+        boolean add(long id, float[] vector) {
+            if (vector.length != sourceDimension) {
+                return false;
+            }
+            if (count > 0 && id <= ids[count - 1]) {
+                throw new IllegalArgumentException("Ids must be added in ascending order");
+            }
+            if (count == ids.length) {
+                grow();
+            }
+            float[] truncated = truncate(vector, dimension);
+            ids[count] = id;
+            if (quantization == Quantization.INT8) {
+                scales[count] = quantize(truncated, codes, count * dimension);
+            } else {
+                signBits(truncated, bits, count * wordsPerVector);
+            }
+            count++;
+            return true;
+        }
+
+        QuantizedVectorIndex build() {
+            return new QuantizedVectorIndex(this);
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            if (quantization == Quantization.INT8) {
+                codes = Arrays.copyOf(codes, capacity * dimension);
+                scales = Arrays.copyOf(scales, capacity);
+            } else {
+                bits = Arrays.copyOf(bits, capacity * wordsPerVector);
+            }
+        }
+    }
+
+    /**
+     * Bounded min-heap keeping the highest scores seen, over parallel primitive arrays
+     */
+    static final class TopK {
+
+        private final int[] indexes;
+        private final float[] scores;
+        private int size;
+
+        TopK(int capacity) {
+            this.indexes = new int[Math.max(capacity, 0)];
+            this.scores = new float[indexes.length];
+        }
+
+        void offer(int index, float score) {
+            if (size < indexes.length) {
+                indexes[size] = index;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (size > 0 && score > scores[0]) {
+                indexes[0] = index;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Kept indexes, highest score first; empties the heap
+         */
+        int[] sortedIndexes() {
+            int[] sorted = new int[size];
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                sorted[i] = indexes[0];
+                size--;
+                indexes[0] = indexes[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return sorted;
+        }
+
+        private void siftUp(int position) {
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (scores[parent] <= scores[position]) {
+                    return;
+                }
+                swap(parent, position);
+                position = parent;
+            }
+        }
+
+        private void siftDown(int position) {
+            while (true) {
+                int smallest = position;
+                int left = 2 * position + 1;
+                int right = left + 1;
+                if (left < size && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == position) {
+                    return;
+                }
+                swap(smallest, position);
+                position = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int index = indexes[a];
+            indexes[a] = indexes[b];
+            indexes[b] = index;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
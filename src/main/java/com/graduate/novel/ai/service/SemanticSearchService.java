@@ -1,6 +1,12 @@
 package com.graduate.novel.ai.service;
 
 import com.graduate.novel.common.exception.RateLimitExceededException;
+import com.graduate.novel.common.exception.ServiceUnavailableException;
+import com.graduate.novel.domain.crawljob.CrawlJobDto;
+import com.graduate.novel.domain.crawljob.JobQueueService;
+import com.graduate.novel.domain.crawljob.ProgressListener;
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+import com.graduate.novel.domain.embedding.StoryVectorRepository;
 import com.graduate.novel.domain.story.Story;
 import com.graduate.novel.domain.story.StoryRepository;
 import lombok.RequiredArgsConstructor;
@@ -18,15 +24,20 @@ import java.util.Map;
 @Slf4j
 public class SemanticSearchService {
 
-    private final GeminiService geminiService;
+    public static final String EMBEDDING_BACKFILL = "EMBEDDING_BACKFILL";
+
     private final StoryRepository storyRepository;
+    private final StoryVectorTier storyVectorTier;
+    private final EmbeddingVersionService embeddingVersionService;
+    private final StoryVectorRepository storyVectorRepository;
+    private final JobQueueService jobQueueService;
 
     /**
      * Public method to generate embedding (for debugging/testing)
      * This is exposed for the debug endpoint
      */
     public float[] generateEmbedding(String text) {
-        return geminiService.generateEmbedding(text);
+        return embeddingVersionService.embed(text, embeddingVersionService.activeModel());
     }
 
     /**
@@ -45,38 +56,41 @@ public class SemanticSearchService {
 
         try {
             // Generate embedding using Gemini (may throw RateLimitExceededException)
-            float[] embedding = geminiService.generateEmbedding(textForEmbedding);
-
-            if (embedding != null) {
-                // Convert float[] to PostgreSQL vector format string
-                String vectorString = convertFloatArrayToVectorString(embedding);
-
-                // Use custom query with explicit CAST to avoid type error
-                storyRepository.updateEmbedding(story.getId(), vectorString);
+            EmbeddingModel active = embeddingVersionService.activeModel();
+            float[] embedding = embeddingVersionService.embed(textForEmbedding, active);
+            saveEmbedding(story, active, embedding, textForEmbedding);
 
-                log.info("Embedding saved successfully for story: {}", story.getTitle());
-            } else {
-                log.error("Failed to generate embedding for story: {}", story.getTitle());
-                throw new RuntimeException("Failed to generate embedding");
-            }
+            log.info("Embedding saved successfully for story: {}", story.getTitle());
         } catch (RateLimitExceededException e) {
             // Re-throw to let GlobalExceptionHandler handle it
             log.warn("Rate limit exceeded while generating embedding for story: {}", story.getTitle());
             throw e;
+        } catch (ServiceUnavailableException e) {
+            log.warn("Gemini embedding unavailable, not embedding story: {}", story.getTitle());
+            throw e;
         } catch (Exception e) {
             log.error("Error generating embedding for story {}: {}", story.getTitle(), e.getMessage(), e);
             throw new RuntimeException("Failed to generate embedding: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Queue an EMBEDDING_BACKFILL job, which embeds every story that has no embedding yet
+     */
+    public CrawlJobDto startEmbeddingBackfill() {
+        return jobQueueService.enqueue(EMBEDDING_BACKFILL, null, null, JobQueueService.PRIORITY_DEFAULT, null);
+    }
+
     /**
      * Generate embeddings for all stories without embeddings
-     * This is a batch operation - handles rate limits internally with retry logic
+     * This is a batch operation - handles rate limits internally with retry logic.
+     * Each embedding is saved in its own transaction, so a stopped run keeps what it did.
      */
-    @Transactional
-    public void generateAllMissingEmbeddings() {
-        List<Story> storiesWithoutEmbedding = storyRepository.findStoriesWithoutEmbedding();
+    public void generateAllMissingEmbeddings(ProgressListener progress) {
+        EmbeddingModel active = embeddingVersionService.activeModel();
+        List<Story> storiesWithoutEmbedding = storyRepository.findStoriesWithoutEmbedding(active.getId());
         log.info("Found {} stories without embeddings", storiesWithoutEmbedding.size());
+        progress.progress(storiesWithoutEmbedding.size(), 0, 0);
 
         int successCount = 0;
         int failCount = 0;
@@ -97,22 +111,13 @@ public class SemanticSearchService {
                         : textForEmbedding;
                 log.debug("Embedding text preview: {}", preview);
 
-                float[] embedding = geminiService.generateEmbedding(textForEmbedding);
+                float[] embedding = embeddingVersionService.embed(textForEmbedding, active);
+                saveEmbedding(story, active, embedding, textForEmbedding);
 
-                if (embedding != null) {
-                    // Convert float[] to PostgreSQL vector format string
-                    String vectorString = convertFloatArrayToVectorString(embedding);
-
-                    // Use custom query with explicit CAST
-                    storyRepository.updateEmbedding(story.getId(), vectorString);
-
-                    successCount++;
-                    log.info("✓ Generated embedding for story: {} ({}/{})",
-                            story.getTitle(), successCount + failCount + rateLimitCount, storiesWithoutEmbedding.size());
-                } else {
-                    failCount++;
-                    log.error("✗ Failed to generate embedding for story: {}", story.getTitle());
-                }
+                successCount++;
+                log.info("✓ Generated embedding for story: {} ({}/{})",
+                        story.getTitle(), successCount + failCount + rateLimitCount, storiesWithoutEmbedding.size());
+                progress.progress(storiesWithoutEmbedding.size(), successCount, failCount + rateLimitCount);
 
                 // Add delay to avoid rate limiting (2 seconds)
                 if (successCount + failCount + rateLimitCount < storiesWithoutEmbedding.size()) {
@@ -120,6 +125,12 @@ public class SemanticSearchService {
                     Thread.sleep(2000);
                 }
 
+            } catch (ServiceUnavailableException e) {
+                // Circuit is open: every remaining story would fail the same way
+                log.warn("Gemini embedding unavailable; stopping after {} stories. Run this job again later.",
+                        successCount + failCount + rateLimitCount);
+                break;
+
             } catch (RateLimitExceededException e) {
                 rateLimitCount++;
                 long waitSeconds = e.getRetryAfterSeconds() > 0 ? e.getRetryAfterSeconds() : 60;
@@ -140,6 +151,7 @@ public class SemanticSearchService {
                 log.error("✗ Error generating embedding for story {}: {}",
                         story.getTitle(), e.getMessage());
                 log.debug("Full error trace:", e);
+                progress.progress(storiesWithoutEmbedding.size(), successCount, failCount + rateLimitCount);
             }
         }
 
@@ -170,12 +182,9 @@ public class SemanticSearchService {
         try {
             // Step 1: Generate embedding for the search query
             log.info("Generating embedding for query...");
-            float[] queryEmbedding = geminiService.generateEmbedding(query);
-
-            if (queryEmbedding == null) {
-                log.error("❌ CRITICAL: queryEmbedding is NULL!");
-                throw new RuntimeException("Failed to generate query embedding - embedding is null");
-            }
+            // Queries must be embedded with the model the stored vectors were made with
+            EmbeddingModel active = embeddingVersionService.activeModel();
+            float[] queryEmbedding = embeddingVersionService.embed(query, active);
 
             log.info("✅ Embedding generated successfully");
             log.info("Embedding dimensions: {}", queryEmbedding.length);
@@ -183,13 +192,14 @@ public class SemanticSearchService {
                 queryEmbedding[0], queryEmbedding[1], queryEmbedding[2], queryEmbedding[3], queryEmbedding[4]);
 
             // Step 2: Convert to PostgreSQL vector format string
-            String queryEmbeddingString = convertFloatArrayToVectorString(queryEmbedding);
+            String queryEmbeddingString = EmbeddingVersionService.toVectorString(queryEmbedding);
             log.info("Vector string length: {}", queryEmbeddingString.length());
             log.info("Vector string preview: {}", queryEmbeddingString.substring(0, Math.min(100, queryEmbeddingString.length())) + "...");
 
-            // Step 3: Find story IDs using vector similarity
+            // Step 3: Find story IDs using vector similarity (in-memory tier once built, else the HNSW index)
             log.info("Finding similar stories from database...");
-            List<Long> storyIds = storyRepository.findStoryIdsBySimilarity(queryEmbeddingString, limit);
+            List<Long> storyIds = storyVectorTier.search(active, queryEmbedding, limit)
+                    .orElseGet(() -> storyVectorRepository.findStoryIdsBySimilarity(active, queryEmbeddingString, limit));
 
             log.info("✅ Database query returned {} story IDs", storyIds.size());
             if (!storyIds.isEmpty()) {
@@ -213,8 +223,7 @@ public class SemanticSearchService {
 
             log.info("✅ Found {} similar stories with details", results.size());
             results.forEach(story ->
-                log.info("  - Story {}: {} (embedding null: {})",
-                    story.getId(), story.getTitle(), story.getEmbedding() == null)
+                log.info("  - Story {}: {}", story.getId(), story.getTitle())
             );
 
             log.info("===== SEMANTIC SEARCH END - SUCCESS =====");
@@ -223,6 +232,9 @@ public class SemanticSearchService {
         } catch (RateLimitExceededException e) {
             log.warn("❌ Rate limit exceeded during semantic search for query: '{}'", query);
             throw e;
+        } catch (ServiceUnavailableException e) {
+            log.warn("❌ Gemini embedding unavailable during semantic search for query: '{}'", query);
+            throw e;
         } catch (Exception e) {
             log.error("❌ Error during semantic search for query '{}': {}", query, e.getMessage());
             log.error("Exception trace:", e);
@@ -230,10 +242,40 @@ public class SemanticSearchService {
         }
     }
 
+    /**
+     * Ids of the stories closest to the query, most similar first, without loading the stories
+     */
+    public List<Long> findSimilarStoryIds(String query, int limit) {
+        EmbeddingModel active = embeddingVersionService.activeModel();
+        float[] queryEmbedding = embeddingVersionService.embed(query, active);
+        return storyVectorTier.search(active, queryEmbedding, limit)
+                .orElseGet(() -> storyVectorRepository.findStoryIdsBySimilarity(
+                        active, EmbeddingVersionService.toVectorString(queryEmbedding), limit));
+    }
+
+    /**
+     * Store a story's embedding under the active model and, while a model switch is in progress,
+     * under the shadow model too, so stories written during the backfill are not left behind
+     */
+    private void saveEmbedding(Story story, EmbeddingModel active, float[] embedding, String textForEmbedding) {
+        embeddingVersionService.saveStoryEmbedding(story.getId(), active, embedding);
+        storyVectorTier.put(active, story.getId(), embedding);
+
+        embeddingVersionService.shadowModel().ifPresent(shadow -> {
+            try {
+                embeddingVersionService.saveStoryEmbedding(story.getId(), shadow,
+                        embeddingVersionService.embed(textForEmbedding, shadow));
+            } catch (Exception e) {
+                // The background re-embedding picks the story up later
+                log.warn("Could not embed story {} with {} yet: {}", story.getId(), shadow, e.getMessage());
+            }
+        });
+    }
+
     /**
      * Build text for embedding from story data
      */
-    private String buildEmbeddingText(Story story) {
+    static String buildEmbeddingText(Story story) {
         StringBuilder sb = new StringBuilder();
 
         if (story.getTitle() != null) {
@@ -259,24 +301,4 @@ public class SemanticSearchService {
         log.info("Refreshing embedding for story id: {}", storyId);
         generateStoryEmbedding(storyId);
     }
-
-    /**
-     * Convert float array to PostgreSQL vector format string
-     */
-    private String convertFloatArrayToVectorString(float[] array) {
-        if (array == null || array.length == 0) {
-            return null;
-        }
-
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < array.length; i++) {
-            if (i > 0) {
-                sb.append(",");
-            }
-            sb.append(array[i]);
-        }
-        sb.append("]");
-
-        return sb.toString();
-    }
 }
@@ -0,0 +1,399 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.common.text.TermTable;
+import com.graduate.novel.common.text.TextTokenizer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Skip-gram with negative sampling (word2vec), on flat primitive arrays so several threads can
+ * train the same model at once without locks (Hogwild: occasional lost updates on shared rows
+ * do not hurt convergence). Each thread trains through its own {@link Worker}.
+ * <p>
+ * The vocabulary is ordered by descending count; a word's id is its row in {@code input} (the
+ * word vectors) and {@code output} (the negative sampling weights).
+ */
+final class SkipGramModel {
+
+    static final int MAX_SENTENCE_LENGTH = 1000;
+
+    private static final int CHECKPOINT_MAGIC = 0x53474E53; // "SGNS"
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final int EXP_TABLE_SIZE = 1000;
+    private static final int MAX_EXP = 6;
+    private static final int MAX_UNIGRAM_TABLE_SIZE = 10_000_000;
+    private static final float[] EXP_TABLE = new float[EXP_TABLE_SIZE];
+
+    static {
+        // Precomputed sigmoid over [-MAX_EXP, MAX_EXP)
+        for (int i = 0; i < EXP_TABLE_SIZE; i++) {
+            double e = Math.exp((i / (double) EXP_TABLE_SIZE * 2 - 1) * MAX_EXP);
+            EXP_TABLE[i] = (float) (e / (e + 1));
+        }
+    }
+
+    /**
+     * Training hyperparameters
+     * @param sample subsampling threshold for frequent words (0 disables)
+     */
+    record Settings(int dimension, int window, int negative, double sample) {
+    }
+
+    /**
+     * Position in the corpus a checkpoint was taken at
+     */
+    record Progress(int epoch, long afterChapterId, long wordsProcessed) {
+    }
+
+    private final Settings settings;
+    private final String[] words;
+    private final long[] counts;
+    private final TermTable ids;
+    private final long trainWords;
+    private final float[] input;
+    private final float[] output;
+    private final int[] unigramTable;
+
+    private SkipGramModel(Settings settings, String[] words, long[] counts, float[] input, float[] output) {
+        this.settings = settings;
+        this.words = words;
+        this.counts = counts;
+        // Words are added in id order, so a word's id in the table is its vocabulary id
+        this.ids = new TermTable();
+        long total = 0;
+        for (int i = 0; i < words.length; i++) {
+            ids.add(words[i]);
+            total += counts[i];
+        }
+        this.trainWords = total;
+        this.input = input;
+        this.output = output;
+        this.unigramTable = unigramTable(counts);
+    }
+
+    /**
+     * New model over the most frequent words, with random input vectors and zero output weights
+     */
+    static SkipGramModel create(Map<String, Long> wordCounts, int minCount, int maxVocabulary, Settings settings) {
+        int limit = Math.min(maxVocabulary, Integer.MAX_VALUE / settings.dimension());
+        List<Map.Entry<String, Long>> vocabulary = wordCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() >= minCount)
+                // Ties broken by word so the same corpus always yields the same vocabulary
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .toList();
+        if (vocabulary.isEmpty()) {
+            throw new IllegalStateException("No word occurs at least " + minCount + " times in the corpus");
+        }
+
+        String[] words = new String[vocabulary.size()];
+        long[] counts = new long[vocabulary.size()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = vocabulary.get(i).getKey();
+            counts[i] = vocabulary.get(i).getValue();
+        }
+
+        int dimension = settings.dimension();
+        float[] input = new float[words.length * dimension];
+        long random = 1;
+        for (int i = 0; i < input.length; i++) {
+            random = nextRandom(random);
+            input[i] = (((random & 0xFFFF) / 65536f) - 0.5f) / dimension;
+        }
+        return new SkipGramModel(settings, words, counts, input, new float[input.length]);
+    }
+
+    int vocabularySize() {
+        return words.length;
+    }
+
+    int dimension() {
+        return settings.dimension();
+    }
+
+    /**
+     * Occurrences of vocabulary words in one pass over the corpus
+     */
+    long trainWords() {
+        return trainWords;
+    }
+
+    Settings settings() {
+        return settings;
+    }
+
+    /**
+     * Id of a word, or -1 if it is not in the vocabulary
+     */
+    int id(CharSequence word) {
+        return ids.indexOf(word);
+    }
+
+    /**
+     * Unit-length vector of a word, or null if it is not in the vocabulary
+     */
+    float[] vector(String word) {
+        int id = id(word);
+        if (id < 0) {
+            return null;
+        }
+        int dimension = settings.dimension();
+        return WordVectorStore.normalize(Arrays.copyOfRange(input, id * dimension, (id + 1) * dimension));
+    }
+
+    Worker newWorker(long seed) {
+        return new Worker(seed);
+    }
+
+    /**
+     * Training state of one thread: its random sequence and scratch buffers
+     */
+    final class Worker {
+
+        private final int[] sentence = new int[MAX_SENTENCE_LENGTH];
+        private final float[] gradient = new float[settings.dimension()];
+        private final double threshold = settings.sample() * trainWords;
+        private long random;
+        private int length;
+        private long read;
+        private float alpha;
+
+        private Worker(long seed) {
+            this.random = seed;
+        }
+
+        /**
+         * Train on one document, tokenized as it is read
+         * @return number of vocabulary words read (before subsampling), for progress and learning rate
+         */
+        long train(CharSequence text, float alpha) {
+            this.alpha = alpha;
+            this.length = 0;
+            this.read = 0;
+            TextTokenizer.forEachToken(text, TextTokenizer.CjkMode.BIGRAMS, this::token);
+            if (length > 0) {
+                trainSentence(length, alpha);
+            }
+            return read;
+        }
+
+        private void token(CharSequence term, int start, int end) {
+            int id = ids.indexOf(term);
+            if (id < 0) {
+                return;
+            }
+            read++;
+            if (threshold > 0) {
+                // Randomly drop frequent words; they add little and slow training down
+                double keep = (Math.sqrt(counts[id] / threshold) + 1) * threshold / counts[id];
+                random = nextRandom(random);
+                if (keep < (random & 0xFFFF) / 65536.0) {
+                    return;
+                }
+            }
+            sentence[length++] = id;
+            if (length == MAX_SENTENCE_LENGTH) {
+                trainSentence(length, alpha);
+                length = 0;
+            }
+        }
+
+        private void trainSentence(int length, float alpha) {
+            int dimension = settings.dimension();
+            int window = settings.window();
+            for (int position = 0; position < length; position++) {
+                int word = sentence[position];
+                random = nextRandom(random);
+                // Random effective window, so nearer words are sampled more often
+                int shrink = (int) Long.remainderUnsigned(random, window);
+                for (int a = shrink; a < window * 2 + 1 - shrink; a++) {
+                    int context = position - window + a;
+                    if (a == window || context < 0 || context >= length) {
+                        continue;
+                    }
+                    int l1 = sentence[context] * dimension;
+                    Arrays.fill(gradient, 0f);
+
+                    for (int d = 0; d <= settings.negative(); d++) {
+                        int target;
+                        int label;
+                        if (d == 0) {
+                            target = word;
+                            label = 1;
+                        } else {
+                            random = nextRandom(random);
+                            target = unigramTable[(int) Long.remainderUnsigned(random >>> 16, unigramTable.length)];
+                            if (target == word) {
+                                continue;
+                            }
+                            label = 0;
+                        }
+                        int l2 = target * dimension;
+                        float f = 0;
+                        for (int i = 0; i < dimension; i++) {
+                            f += input[l1 + i] * output[l2 + i];
+                        }
+                        float g;
+                        if (f > MAX_EXP) {
+                            g = (label - 1) * alpha;
+                        } else if (f < -MAX_EXP) {
+                            g = label * alpha;
+                        } else {
+                            g = (label - EXP_TABLE[(int) ((f + MAX_EXP) * (EXP_TABLE_SIZE / MAX_EXP / 2))]) * alpha;
+                        }
+                        for (int i = 0; i < dimension; i++) {
+                            gradient[i] += g * output[l2 + i];
+                        }
+                        for (int i = 0; i < dimension; i++) {
+                            output[l2 + i] += g * input[l1 + i];
+                        }
+                    }
+                    for (int i = 0; i < dimension; i++) {
+                        input[l1 + i] += gradient[i];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the word vectors in the store format {@link Word2VecEmbeddingService} loads
+     */
+    void export(Path storePath) throws IOException {
+        List<byte[]> utf8 = new ArrayList<>(words.length);
+        for (String word : words) {
+            utf8.add(word.getBytes(StandardCharsets.UTF_8));
+        }
+        Integer[] order = new Integer[words.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(utf8::get, Arrays::compareUnsigned));
+
+        List<byte[]> sortedWords = new ArrayList<>(order.length);
+        for (Integer id : order) {
+            sortedWords.add(utf8.get(id));
+        }
+        int dimension = settings.dimension();
+        WordVectorStore.write(storePath, dimension, sortedWords, index -> WordVectorStore.normalize(
+                Arrays.copyOfRange(input, order[index] * dimension, (order[index] + 1) * dimension)));
+    }
+
+    /**
+     * Save the model and the corpus position atomically. Call only while no worker is training.
+     */
+    void writeCheckpoint(Path path, Progress progress) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeInt(settings.dimension());
+            out.writeInt(settings.window());
+            out.writeInt(settings.negative());
+            out.writeDouble(settings.sample());
+            out.writeInt(progress.epoch());
+            out.writeLong(progress.afterChapterId());
+            out.writeLong(progress.wordsProcessed());
+            out.writeInt(words.length);
+            for (int i = 0; i < words.length; i++) {
+                out.writeUTF(words[i]);
+                out.writeLong(counts[i]);
+            }
+            writeFloats(out, input);
+            writeFloats(out, output);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * A model restored from a checkpoint and where to resume training
+     */
+    record Checkpoint(SkipGramModel model, Progress progress) {
+    }
+
+    static Checkpoint readCheckpoint(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                throw new IOException("Not a skip-gram checkpoint");
+            }
+            Settings settings = new Settings(in.readInt(), in.readInt(), in.readInt(), in.readDouble());
+            Progress progress = new Progress(in.readInt(), in.readLong(), in.readLong());
+            int size = in.readInt();
+            String[] words = new String[size];
+            long[] counts = new long[size];
+            for (int i = 0; i < size; i++) {
+                words[i] = in.readUTF();
+                counts[i] = in.readLong();
+            }
+            float[] input = readFloats(in, size * settings.dimension());
+            float[] output = readFloats(in, size * settings.dimension());
+            return new Checkpoint(new SkipGramModel(settings, words, counts, input, output), progress);
+        }
+    }
+
+    private static void writeFloats(DataOutputStream out, float[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        for (int offset = 0; offset < values.length; ) {
+            int n = Math.min(values.length - offset, buffer.capacity() / Float.BYTES);
+            buffer.clear();
+            buffer.asFloatBuffer().put(values, offset, n);
+            out.write(buffer.array(), 0, n * Float.BYTES);
+            offset += n;
+        }
+    }
+
+    private static float[] readFloats(DataInputStream in, int count) throws IOException {
+        float[] values = new float[count];
+        byte[] bytes = new byte[1 << 16];
+        for (int offset = 0; offset < count; ) {
+            int n = Math.min(count - offset, bytes.length / Float.BYTES);
+            in.readFully(bytes, 0, n * Float.BYTES);
+            ByteBuffer.wrap(bytes, 0, n * Float.BYTES).asFloatBuffer().get(values, offset, n);
+            offset += n;
+        }
+        return values;
+    }
+
+    /**
+     * Table for drawing negative samples with probability proportional to count^0.75
+     */
+    private static int[] unigramTable(long[] counts) {
+        int size = (int) Math.min(MAX_UNIGRAM_TABLE_SIZE, Math.max(1000L, counts.length * 100L));
+        int[] table = new int[size];
+        double total = 0;
+        for (long count : counts) {
+            total += Math.pow(count, 0.75);
+        }
+        int word = 0;
+        double cumulative = Math.pow(counts[0], 0.75) / total;
+        for (int i = 0; i < size; i++) {
+            table[i] = word;
+            if ((double) i / size > cumulative && word < counts.length - 1) {
+                word++;
+                cumulative += Math.pow(counts[word], 0.75) / total;
+            }
+        }
+        return table;
+    }
+
+    private static long nextRandom(long random) {
+        return random * 25214903917L + 11;
+    }
+}
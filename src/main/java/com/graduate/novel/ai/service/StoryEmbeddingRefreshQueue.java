@@ -0,0 +1,170 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.common.exception.RateLimitExceededException;
+import com.graduate.novel.common.exception.ServiceUnavailableException;
+import com.graduate.novel.config.EmbeddingRefreshProperties;
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+import com.graduate.novel.domain.story.Story;
+import com.graduate.novel.domain.story.StoryContentChangedEvent;
+import com.graduate.novel.domain.story.StoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps story embeddings in step with story edits. Each committed change to a story's text
+ * (re)schedules the story; repeated changes within the debounce window coalesce into one entry.
+ * Due stories are embedded together in batch requests, as far as the shared embedding quota
+ * allows, and written to the active model and the in-memory vector tier.
+ * <p>
+ * The queue is in memory: changes queued on a node that stops are not embedded until the story
+ * changes again or an admin refreshes it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoryEmbeddingRefreshQueue {
+
+    private final EmbeddingRefreshProperties properties;
+    private final EmbeddingVersionService embeddingVersionService;
+    private final EmbeddingQuota embeddingQuota;
+    private final StoryRepository storyRepository;
+    private final StoryVectorTier storyVectorTier;
+
+    /**
+     * A story waiting to be embedded
+     * @param firstQueuedAt when the oldest change still waiting was queued
+     * @param dueAt         when the story may be embedded
+     * @param attempts      failed embedding attempts so far
+     */
+    record Pending(long firstQueuedAt, long dueAt, int attempts) {
+    }
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Queue a story once the transaction that changed it has committed (at once outside a transaction)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoryContentChanged(StoryContentChangedEvent event) {
+        if (properties.isEnabled()) {
+            enqueue(event.storyId(), System.currentTimeMillis());
+        }
+    }
+
+    void enqueue(Long storyId, long now) {
+        pending.merge(storyId, new Pending(now, now + properties.getDebounceMs(), 0),
+                (existing, change) -> new Pending(existing.firstQueuedAt(),
+                        Math.min(change.dueAt(), existing.firstQueuedAt() + properties.getMaxDelayMs()), 0));
+    }
+
+    /**
+     * Stories waiting to be embedded
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Embed one batch of due stories
+     * @return stories embedded
+     */
+    public int flush() {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<Long, Pending>> due = pending.entrySet().stream()
+                .filter(entry -> entry.getValue().dueAt() <= now)
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().dueAt()))
+                .limit(properties.getBatchSize())
+                .toList();
+        if (due.isEmpty()) {
+            return 0;
+        }
+        int granted = embeddingQuota.tryAcquire(due.size());
+        if (granted == 0) {
+            log.debug("Embedding quota used up, {} changed stories wait", pending.size());
+            return 0;
+        }
+
+        // Claim the entries; one changed again since the scan is left for a later flush
+        Map<Long, Pending> claimed = new LinkedHashMap<>();
+        for (Map.Entry<Long, Pending> entry : due.subList(0, granted)) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                claimed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Map<Long, Story> stories = storyRepository.findAllById(claimed.keySet()).stream()
+                .collect(Collectors.toMap(Story::getId, Function.identity()));
+        List<Long> storyIds = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (Long storyId : claimed.keySet()) {
+            Story story = stories.get(storyId);
+            // Deleted stories lose their vectors with them
+            if (story != null) {
+                storyIds.add(storyId);
+                texts.add(SemanticSearchService.buildEmbeddingText(story));
+            }
+        }
+        embeddingQuota.release(granted - storyIds.size());
+        if (storyIds.isEmpty()) {
+            return 0;
+        }
+
+        EmbeddingModel active = embeddingVersionService.activeModel();
+        try {
+            List<float[]> embeddings = embeddingVersionService.embedAll(texts, active);
+            embeddingVersionService.saveStoryEmbeddings(active, storyIds, embeddings);
+            for (int i = 0; i < storyIds.size(); i++) {
+                storyVectorTier.put(active, storyIds.get(i), embeddings.get(i));
+            }
+            // Shadow vectors of the old text are dropped; the background re-embedding redoes them
+            Optional<EmbeddingModel> shadow = embeddingVersionService.shadowModel();
+            shadow.ifPresent(model -> embeddingVersionService.deleteStoryEmbeddings(model, storyIds));
+            log.info("Re-embedded {} changed stories with {}, {} still queued", storyIds.size(), active, pending.size());
+            return storyIds.size();
+        } catch (RuntimeException e) {
+            if (e instanceof ServiceUnavailableException) {
+                // Rejected by the circuit breaker before any request was made
+                embeddingQuota.release(storyIds.size());
+            }
+            retryLater(storyIds, claimed, e);
+            return 0;
+        }
+    }
+
+    private void retryLater(List<Long> storyIds, Map<Long, Pending> claimed, RuntimeException e) {
+        long now = System.currentTimeMillis();
+        long retryAfterMs = 0;
+        if (e instanceof RateLimitExceededException rateLimit) {
+            retryAfterMs = rateLimit.getRetryAfterSeconds() * 1000;
+        } else if (e instanceof ServiceUnavailableException unavailable) {
+            retryAfterMs = unavailable.getRetryAfterSeconds() * 1000;
+        }
+
+        int dropped = 0;
+        for (Long storyId : storyIds) {
+            Pending failed = claimed.get(storyId);
+            int attempts = failed.attempts() + 1;
+            if (attempts >= properties.getMaxAttempts()) {
+                dropped++;
+                continue;
+            }
+            long backoff = Math.max(retryAfterMs, properties.getRetryBackoffMs() << (attempts - 1));
+            // A change queued meanwhile takes precedence over the retry
+            pending.putIfAbsent(storyId, new Pending(failed.firstQueuedAt(), now + backoff, attempts));
+        }
+        log.warn("Embedding {} changed stories failed, retrying later{}: {}", storyIds.size(),
+                dropped > 0 ? " (" + dropped + " dropped after " + properties.getMaxAttempts() + " attempts)" : "",
+                e.getMessage());
+    }
+}
@@ -0,0 +1,346 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.dto.VectorTierReport;
+import com.graduate.novel.common.exception.BadRequestException;
+import com.graduate.novel.common.exception.ServiceUnavailableException;
+import com.graduate.novel.config.VectorTierProperties;
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+import com.graduate.novel.domain.embedding.StoryVectorRepository;
+import com.graduate.novel.domain.story.StoryEmbedding;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory tier for story vector search. A compressed copy of every story embedding
+ * ({@link QuantizedVectorIndex}) is scanned to pick a few hundred candidates, which Postgres then
+ * re-ranks exactly with the stored full-precision vectors.
+ * <p>
+ * The tier is rebuilt from the database periodically. Stories embedded since the last build are
+ * kept at full precision on the side and are always considered. Until the first build finishes,
+ * {@link #search} returns empty and callers use the HNSW index. The tier holds the vectors of one
+ * embedding model; searches under any other model (around a cut-over) also return empty.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoryVectorTier {
+
+    private final VectorTierProperties properties;
+    private final StoryVectorRepository storyVectorRepository;
+    private final EmbeddingVersionService embeddingVersionService;
+
+    private record Snapshot(EmbeddingModel model, QuantizedVectorIndex index) {
+    }
+
+    /** Unit-length embedding written since the last build */
+    private record Pending(long modelId, float[] vector) {
+    }
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Map<Long, Pending> recent = new ConcurrentHashMap<>();
+
+    /**
+     * Ids of the stories most similar to a query embedding, best first
+     * @return empty if the tier is not built, or was built from another model's embeddings
+     */
+    public Optional<List<Long>> search(EmbeddingModel model, float[] query, int limit) {
+        Snapshot current = snapshot.get();
+        if (current == null || !current.model().getId().equals(model.getId())
+                || query == null || query.length != current.index().sourceDimension()) {
+            return Optional.empty();
+        }
+        Set<Long> candidates = candidates(current, query, Math.max(limit, properties.getRerankCandidates()));
+        if (candidates.isEmpty()) {
+            return Optional.of(new ArrayList<>());
+        }
+        return Optional.of(new ArrayList<>(storyVectorRepository.findStoryIdsBySimilarityAmong(
+                model.getId(), EmbeddingVersionService.toVectorString(query), candidates, limit)));
+    }
+
+    /**
+     * Same as {@link #search(EmbeddingModel, float[], int)} for an embedding in pgvector text form
+     */
+    public Optional<List<Long>> search(EmbeddingModel model, String embedding, int limit) {
+        return search(model, parseVector(embedding), limit);
+    }
+
+    /**
+     * Make a newly saved embedding searchable before the next rebuild
+     */
+    public void put(EmbeddingModel model, Long storyId, float[] embedding) {
+        if (properties.isEnabled() && embedding != null && embedding.length > 0) {
+            recent.put(storyId, new Pending(model.getId(), QuantizedVectorIndex.truncate(embedding, embedding.length)));
+        }
+    }
+
+    /**
+     * Rebuild the compressed copy from the active model's story embeddings and swap it in
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        EmbeddingModel model = embeddingVersionService.activeModel();
+        Map<Long, Pending> included = Map.copyOf(recent);
+        QuantizedVectorIndex.Quantization quantization =
+                QuantizedVectorIndex.Quantization.parse(properties.getQuantization());
+
+        QuantizedVectorIndex.Builder builder = null;
+        int skipped = 0;
+        long afterId = 0L;
+        List<StoryEmbedding> page;
+        do {
+            page = storyVectorRepository.findEmbeddingsAfter(model.getId(), afterId,
+                    PageRequest.of(0, properties.getPageSize()));
+            for (StoryEmbedding row : page) {
+                afterId = row.id();
+                float[] vector = parseVector(row.embedding());
+                if (vector == null) {
+                    skipped++;
+                    continue;
+                }
+                if (builder == null) {
+                    builder = QuantizedVectorIndex.builder(quantization, vector.length, dimensionsFor(vector.length));
+                }
+                if (!builder.add(row.id(), vector)) {
+                    skipped++;
+                }
+            }
+        } while (page.size() == properties.getPageSize());
+
+        if (builder == null) {
+            snapshot.set(null);
+            log.info("No story embeddings under {} yet, vector search stays on the HNSW index", model);
+            return;
+        }
+        QuantizedVectorIndex built = builder.build();
+        snapshot.set(new Snapshot(model, built));
+        // Entries written during the build stay on the side until the next one
+        included.forEach((storyId, pending) -> {
+            if (pending.modelId() != model.getId() || built.contains(storyId)) {
+                recent.remove(storyId, pending);
+            }
+        });
+
+        long fullBytes = (long) built.size() * built.sourceDimension() * Float.BYTES;
+        log.info("Vector tier built for {}: {} stories, {} of {} dims as {}, {} KB ({} KB at full precision), {} skipped, {} ms",
+                model, built.size(), built.dimension(), built.sourceDimension(), properties.getQuantization(),
+                built.memoryBytes() / 1024, fullBytes / 1024, skipped, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Size of the tier and its compression
+     */
+    public VectorTierReport stats() {
+        return report(requireSnapshot().index()).build();
+    }
+
+    /**
+     * Measure recall@k against an exact scan: random stored stories are used as queries, and their
+     * true nearest neighbours (by cosine over all stored full-precision vectors) are compared with
+     * the compressed scan alone and with the re-ranked search.
+     */
+    public VectorTierReport measureRecall(int samples, int k) {
+        if (samples < 1 || k < 1) {
+            throw new BadRequestException("samples and k must be positive");
+        }
+        Snapshot built = requireSnapshot();
+        EmbeddingModel model = built.model();
+        QuantizedVectorIndex current = built.index();
+
+        Set<Long> sampleIds = new HashSet<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (sampleIds.size() < Math.min(samples, current.size())) {
+            sampleIds.add(current.id(random.nextInt(current.size())));
+        }
+        List<Long> queryIds = new ArrayList<>();
+        List<float[]> queries = new ArrayList<>();
+        for (StoryEmbedding row : storyVectorRepository.findEmbeddingsByIdIn(model.getId(), sampleIds)) {
+            float[] vector = parseVector(row.embedding());
+            if (vector != null && vector.length == current.sourceDimension()) {
+                queryIds.add(row.id());
+                queries.add(vector);
+            }
+        }
+
+        // Exact neighbours of every sample in one pass over the stored embeddings
+        float[][] unitQueries = new float[queries.size()][];
+        QuantizedVectorIndex.TopK[] exact = new QuantizedVectorIndex.TopK[queries.size()];
+        for (int q = 0; q < queries.size(); q++) {
+            unitQueries[q] = QuantizedVectorIndex.truncate(queries.get(q), current.sourceDimension());
+            exact[q] = new QuantizedVectorIndex.TopK(k);
+        }
+        List<Long> scannedIds = new ArrayList<>();
+        long afterId = 0L;
+        List<StoryEmbedding> page;
+        do {
+            page = storyVectorRepository.findEmbeddingsAfter(model.getId(), afterId,
+                    PageRequest.of(0, properties.getPageSize()));
+            for (StoryEmbedding row : page) {
+                afterId = row.id();
+                float[] vector = parseVector(row.embedding());
+                if (vector == null || vector.length != current.sourceDimension()) {
+                    continue;
+                }
+                float[] unit = QuantizedVectorIndex.truncate(vector, vector.length);
+                int ordinal = scannedIds.size();
+                scannedIds.add(row.id());
+                for (int q = 0; q < unitQueries.length; q++) {
+                    if (!row.id().equals(queryIds.get(q))) {
+                        exact[q].offer(ordinal, dot(unitQueries[q], unit));
+                    }
+                }
+            }
+        } while (page.size() == properties.getPageSize());
+
+        long scanNanos = 0;
+        long searchNanos = 0;
+        int expected = 0;
+        int compressedHits = 0;
+        int rerankedHits = 0;
+        for (int q = 0; q < queries.size(); q++) {
+            Set<Long> truth = new HashSet<>();
+            for (int ordinal : exact[q].sortedIndexes()) {
+                truth.add(scannedIds.get(ordinal));
+            }
+            expected += truth.size();
+
+            long begin = System.nanoTime();
+            long[] scanned = current.search(queries.get(q), k + 1);
+            scanNanos += System.nanoTime() - begin;
+            compressedHits += hits(truth, Arrays.stream(scanned).boxed().toList(), queryIds.get(q), k);
+
+            begin = System.nanoTime();
+            List<Long> reranked = search(model, queries.get(q), k + 1).orElse(List.of());
+            searchNanos += System.nanoTime() - begin;
+            rerankedHits += hits(truth, reranked, queryIds.get(q), k);
+        }
+
+        int measured = queries.size();
+        return report(current)
+                .samples(measured)
+                .k(k)
+                .compressedRecall(expected == 0 ? null : (double) compressedHits / expected)
+                .rerankedRecall(expected == 0 ? null : (double) rerankedHits / expected)
+                .averageScanMicros(measured == 0 ? null : scanNanos / 1_000.0 / measured)
+                .averageSearchMillis(measured == 0 ? null : searchNanos / 1_000_000.0 / measured)
+                .build();
+    }
+
+    /**
+     * Parse pgvector text ("[0.1,0.2,...]")
+     * @return null if empty or malformed
+     */
+    static float[] parseVector(String text) {
+        if (text == null || text.length() < 3 || text.charAt(0) != '[') {
+            return null;
+        }
+        int count = 1;
+        for (int i = 1; i < text.length(); i++) {
+            if (text.charAt(i) == ',') {
+                count++;
+            }
+        }
+        float[] vector = new float[count];
+        int n = 0;
+        int start = 1;
+        try {
+            for (int i = 1; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == ',' || c == ']') {
+                    vector[n++] = Float.parseFloat(text.substring(start, i));
+                    start = i + 1;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return n == count ? vector : null;
+    }
+
+    private Set<Long> candidates(Snapshot current, float[] query, int count) {
+        Set<Long> candidates = new LinkedHashSet<>();
+        for (long id : current.index().search(query, count)) {
+            candidates.add(id);
+        }
+        if (!recent.isEmpty()) {
+            float[] unitQuery = QuantizedVectorIndex.truncate(query, query.length);
+            List<Map.Entry<Long, Pending>> entries = new ArrayList<>(recent.entrySet());
+            QuantizedVectorIndex.TopK top = new QuantizedVectorIndex.TopK(Math.min(count, entries.size()));
+            for (int i = 0; i < entries.size(); i++) {
+                Pending pending = entries.get(i).getValue();
+                if (pending.modelId() == current.model().getId() && pending.vector().length == unitQuery.length) {
+                    top.offer(i, dot(unitQuery, pending.vector()));
+                }
+            }
+            for (int i : top.sortedIndexes()) {
+                candidates.add(entries.get(i).getKey());
+            }
+        }
+        return candidates;
+    }
+
+    private VectorTierReport.VectorTierReportBuilder report(QuantizedVectorIndex current) {
+        long fullBytes = (long) current.size() * current.sourceDimension() * Float.BYTES;
+        return VectorTierReport.builder()
+                .quantization(current.quantization().name().toLowerCase(Locale.ROOT))
+                .dimensions(current.dimension())
+                .sourceDimensions(current.sourceDimension())
+                .indexedStories(current.size())
+                .memoryBytes(current.memoryBytes())
+                .fullPrecisionBytes(fullBytes)
+                .compressionRatio((double) fullBytes / current.memoryBytes())
+                .rerankCandidates(properties.getRerankCandidates());
+    }
+
+    private Snapshot requireSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            throw new ServiceUnavailableException("Vector tier is not built yet", 60);
+        }
+        return current;
+    }
+
+    private int dimensionsFor(int sourceDimension) {
+        int configured = properties.getDimensions();
+        return configured <= 0 ? sourceDimension : Math.min(configured, sourceDimension);
+    }
+
+    private static int hits(Set<Long> truth, List<Long> results, Long queryId, int k) {
+        int hits = 0;
+        int taken = 0;
+        for (Long id : results) {
+            if (id.equals(queryId)) {
+                continue;
+            }
+            if (taken++ == k) {
+                break;
+            }
+            if (truth.contains(id)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -1,49 +1,100 @@
 package com.graduate.novel.ai.service;
 
+import com.graduate.novel.common.text.TermTable;
+import com.graduate.novel.common.text.TextTokenizer;
+import com.graduate.novel.config.TfidfProperties;
+import com.graduate.novel.domain.story.StoryRepository;
+import com.graduate.novel.domain.story.StoryText;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 /**
  * TF-IDF (Term Frequency-Inverse Document Frequency) embedding strategy
  * Lightweight, fast, no API required
  * Good for cold-start scenarios
+ *
+ * The vocabulary and IDF weights are trained from the whole story corpus and persisted
+ * (see {@link TfidfModel}); queries only read the current model. Until a model exists,
+ * texts are embedded by feature hashing, which is deterministic across calls and nodes.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TfidfEmbeddingService implements EmbeddingStrategy {
 
-    // In-memory document frequency storage (in production, use Redis or database)
-    private final Map<String, Integer> documentFrequency = new HashMap<>();
-    private int totalDocuments = 0;
-
     // Fixed vocabulary size for consistent embedding dimension
     private static final int VOCAB_SIZE = 500;
-    private final List<String> vocabulary = new ArrayList<>();
 
-    @Override
-    public float[] generateEmbedding(String text) {
-        if (text == null || text.isEmpty()) {
-            return new float[VOCAB_SIZE];
+    private final TfidfProperties properties;
+    private final StoryRepository storyRepository;
+
+    private final AtomicReference<TfidfModel> model = new AtomicReference<>();
+
+    @PostConstruct
+    void loadModel() {
+        Path path = Path.of(properties.getModelPath());
+        if (!Files.exists(path)) {
+            log.info("No TF-IDF model at {} yet; using feature hashing until the first training run", path);
+            return;
+        }
+        try {
+            TfidfModel loaded = TfidfModel.open(path);
+            model.set(loaded);
+            log.info("Loaded TF-IDF model {} ({} terms, trained on {} stories)",
+                    loaded.id(), loaded.termCount(), loaded.totalDocs());
+        } catch (IOException e) {
+            log.error("Could not load TF-IDF model from {}: {}", path, e.getMessage());
         }
+    }
+
+    /**
+     * A TF-IDF vector and the model that produced it. Store both; vectors are only comparable
+     * with vectors of the same model id.
+     */
+    public record TfidfVector(String modelId, float[] values) {
+    }
 
-        // Tokenize and calculate term frequency
-        Map<String, Integer> termFrequency = calculateTermFrequency(text);
+    @Override
+    public float[] generateEmbedding(String text) {
+        return embed(text).values();
+    }
 
-        // Build vocabulary if needed
-        if (vocabulary.isEmpty()) {
-            buildVocabulary(termFrequency.keySet());
+    /**
+     * Embed text and tag the vector with the model used, read once so a concurrent retrain
+     * cannot pair a vector with the wrong id
+     */
+    public TfidfVector embed(String text) {
+        TfidfModel current = model.get();
+        String modelId = modelId(current);
+        if (text == null || text.isEmpty()) {
+            return new TfidfVector(modelId, new float[VOCAB_SIZE]);
         }
 
-        // Update document frequencies
-        updateDocumentFrequencies(termFrequency.keySet());
+        TermTable termFrequency = calculateTermFrequency(text);
+        return new TfidfVector(modelId, current != null
+                ? current.vectorize(termFrequency, VOCAB_SIZE)
+                : hashedVector(termFrequency));
+    }
 
-        // Calculate TF-IDF vector
-        return calculateTfIdfVector(termFrequency);
+    /**
+     * Whether a stored vector was made by the current model; others must be re-embedded
+     * before they are compared with new vectors
+     */
+    public boolean isCurrent(TfidfVector vector) {
+        return modelId().equals(vector.modelId());
     }
 
     @Override
@@ -62,141 +113,150 @@ public class TfidfEmbeddingService implements EmbeddingStrategy {
     }
 
     /**
-     * Calculate term frequency for a document
+     * Identifies the vector space: vectors with different ids must not be compared
      */
-    private Map<String, Integer> calculateTermFrequency(String text) {
-        Map<String, Integer> tf = new HashMap<>();
-
-        // Simple tokenization (lowercase, split by non-word chars)
-        String[] tokens = text.toLowerCase()
-            .replaceAll("[^\\p{L}\\p{N}\\s]", " ")
-            .split("\\s+");
-
-        for (String token : tokens) {
-            if (token.length() > 2) { // Filter short words
-                tf.merge(token, 1, Integer::sum);
-            }
-        }
+    public String modelId() {
+        return modelId(model.get());
+    }
 
-        return tf;
+    private static String modelId(TfidfModel current) {
+        return current != null ? current.id() : "tfidf-hash";
     }
 
     /**
-     * Build fixed vocabulary from most common terms
+     * Retrain from all stories in one streaming pass: pages are read in id order and the
+     * documents of each page are tokenized in parallel. The new model replaces the old one
+     * atomically; concurrent queries keep using the old one until then.
      */
-    private synchronized void buildVocabulary(Set<String> terms) {
-        if (!vocabulary.isEmpty()) return;
-
-        // In production, this should be pre-computed from corpus
-        // For now, just add terms as they appear
-        vocabulary.addAll(terms.stream()
-            .limit(VOCAB_SIZE)
-            .collect(Collectors.toList()));
-
-        // Pad with empty slots if needed
-        while (vocabulary.size() < VOCAB_SIZE) {
-            vocabulary.add("_EMPTY_" + vocabulary.size());
-        }
+    public synchronized void retrain() {
+        long start = System.currentTimeMillis();
+        Map<String, LongAdder> documentFrequency = new ConcurrentHashMap<>();
+        long totalDocuments = 0;
+
+        long afterId = 0;
+        List<StoryText> page;
+        do {
+            page = storyRepository.findTextsAfter(afterId, PageRequest.of(0, properties.getTrainingPageSize()));
+            page.parallelStream()
+                    .map(TfidfEmbeddingService::storyText)
+                    .forEach(document -> countDocument(document, documentFrequency));
+            totalDocuments += page.size();
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == properties.getTrainingPageSize());
 
-        log.info("Built TF-IDF vocabulary with {} terms", vocabulary.size());
+        install(documentFrequency, totalDocuments);
+        log.info("Retrained TF-IDF model {} from {} stories in {} ms",
+                modelId(), totalDocuments, System.currentTimeMillis() - start);
     }
 
     /**
-     * Update document frequencies
+     * Pre-train vocabulary from a corpus (for production use)
      */
-    private synchronized void updateDocumentFrequencies(Set<String> terms) {
-        totalDocuments++;
+    public synchronized void trainVocabulary(List<String> documents) {
+        log.info("Training TF-IDF vocabulary from {} documents", documents.size());
 
-        for (String term : terms) {
-            documentFrequency.merge(term, 1, Integer::sum);
-        }
+        Map<String, LongAdder> documentFrequency = new ConcurrentHashMap<>();
+        documents.parallelStream().forEach(document -> countDocument(document, documentFrequency));
+        install(documentFrequency, documents.size());
     }
 
     /**
-     * Calculate TF-IDF vector for a document
+     * Reset the model (for testing)
      */
-    private float[] calculateTfIdfVector(Map<String, Integer> termFrequency) {
-        float[] vector = new float[VOCAB_SIZE];
-
-        // Max term frequency for normalization
-        int maxTf = termFrequency.values().stream()
-            .max(Integer::compareTo)
-            .orElse(1);
-
-        for (int i = 0; i < vocabulary.size(); i++) {
-            String term = vocabulary.get(i);
-
-            if (termFrequency.containsKey(term)) {
-                // TF: normalized term frequency
-                double tf = 0.5 + 0.5 * ((double) termFrequency.get(term) / maxTf);
-
-                // IDF: log(total docs / docs containing term)
-                int df = documentFrequency.getOrDefault(term, 1);
-                double idf = Math.log((double) totalDocuments / df);
+    public void reset() {
+        model.set(null);
+    }
 
-                // TF-IDF
-                vector[i] = (float) (tf * idf);
-            } else {
-                vector[i] = 0.0f;
-            }
+    private void install(Map<String, LongAdder> documentFrequency, long totalDocuments) {
+        long maxDocFreq = Math.max(1, (long) (properties.getMaxDocFreqRatio() * totalDocuments));
+
+        // Most informative common terms; ties broken by term so every node picks the same vocabulary
+        Map<String, Float> idf = new HashMap<>();
+        documentFrequency.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .filter(entry -> entry.getValue() >= properties.getMinDocFreq() && entry.getValue() <= maxDocFreq)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(VOCAB_SIZE)
+                .forEach(entry -> idf.put(entry.getKey(),
+                        (float) (Math.log((1.0 + totalDocuments) / (1.0 + entry.getValue())) + 1)));
+
+        try {
+            Path path = Path.of(properties.getModelPath());
+            TfidfModel.write(path, idf, totalDocuments);
+            model.set(TfidfModel.open(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write TF-IDF model", e);
         }
+        log.info("Trained vocabulary with {} terms from {} documents", idf.size(), totalDocuments);
+    }
 
-        // L2 normalization
-        float norm = 0.0f;
-        for (float v : vector) {
-            norm += v * v;
-        }
-        norm = (float) Math.sqrt(norm);
+    private static void countDocument(String document, Map<String, LongAdder> documentFrequency) {
+        calculateTermFrequency(document).forEach((term, count) ->
+                documentFrequency.computeIfAbsent(term.toString(), key -> new LongAdder()).increment());
+    }
 
-        if (norm > 0) {
-            for (int i = 0; i < vector.length; i++) {
-                vector[i] /= norm;
+    /**
+     * Calculate term frequency for a document
+     */
+    private static TermTable calculateTermFrequency(String text) {
+        TermTable tf = new TermTable();
+        TextTokenizer.forEachToken(text, TextTokenizer.CjkMode.BIGRAMS, (term, start, end) -> {
+            // Single letters carry no meaning; CJK bigrams have two characters
+            if (Character.codePointCount(term, 0, term.length()) > 1) {
+                tf.add(term);
             }
-        }
-
-        return vector;
+        });
+        return tf;
     }
 
     /**
-     * Pre-train vocabulary from a corpus (for production use)
+     * Feature hashing: each term adds to a bucket chosen by a stable hash of its bytes
+     * (signed, to cancel collisions on average). Needs no training and is identical everywhere.
      */
-    public void trainVocabulary(List<String> documents) {
-        log.info("Training TF-IDF vocabulary from {} documents", documents.size());
-
-        // Count term frequencies across all documents
-        Map<String, Integer> globalTermFreq = new HashMap<>();
-
-        for (String doc : documents) {
-            Map<String, Integer> docTf = calculateTermFrequency(doc);
-            docTf.keySet().forEach(term ->
-                globalTermFreq.merge(term, 1, Integer::sum)
-            );
-        }
-
-        // Select top VOCAB_SIZE terms by document frequency
-        vocabulary.clear();
-        vocabulary.addAll(globalTermFreq.entrySet().stream()
-            .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-            .limit(VOCAB_SIZE)
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList()));
-
-        // Update document frequencies
-        totalDocuments = documents.size();
-        documentFrequency.clear();
-        documentFrequency.putAll(globalTermFreq);
-
-        log.info("Trained vocabulary with {} terms from {} documents",
-            vocabulary.size(), totalDocuments);
+    static float[] hashedVector(TermTable termFrequency) {
+        float[] vector = new float[VOCAB_SIZE];
+        termFrequency.forEach((term, count) -> {
+            int hash = fnv1a(term);
+            int bucket = Math.floorMod(hash, VOCAB_SIZE);
+            float sign = (hash & 0x40000000) != 0 ? -1f : 1f;
+            vector[bucket] += sign * (float) (1 + Math.log(count));
+        });
+        return TfidfModel.normalize(vector);
     }
 
     /**
-     * Reset the model (for testing)
+     * FNV-1a over the UTF-8 encoding of a term, encoded on the fly
      */
-    public void reset() {
-        vocabulary.clear();
-        documentFrequency.clear();
-        totalDocuments = 0;
+    private static int fnv1a(CharSequence term) {
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < term.length(); ) {
+            int codePoint = Character.codePointAt(term, i);
+            i += Character.charCount(codePoint);
+            if (codePoint < 0x80) {
+                hash = (hash ^ codePoint) * 0x01000193;
+            } else if (codePoint < 0x800) {
+                hash = (hash ^ (0xC0 | codePoint >> 6)) * 0x01000193;
+                hash = (hash ^ (0x80 | codePoint & 0x3F)) * 0x01000193;
+            } else if (codePoint < 0x10000) {
+                hash = (hash ^ (0xE0 | codePoint >> 12)) * 0x01000193;
+                hash = (hash ^ (0x80 | codePoint >> 6 & 0x3F)) * 0x01000193;
+                hash = (hash ^ (0x80 | codePoint & 0x3F)) * 0x01000193;
+            } else {
+                hash = (hash ^ (0xF0 | codePoint >> 18)) * 0x01000193;
+                hash = (hash ^ (0x80 | codePoint >> 12 & 0x3F)) * 0x01000193;
+                hash = (hash ^ (0x80 | codePoint >> 6 & 0x3F)) * 0x01000193;
+                hash = (hash ^ (0x80 | codePoint & 0x3F)) * 0x01000193;
+            }
+        }
+        return hash;
     }
-}
 
+    private static String storyText(StoryText story) {
+        return Stream.of(story.title(), story.authorName(), story.description())
+                .filter(Objects::nonNull)
+                .reduce((a, b) -> a + "\n" + b)
+                .orElse("");
+    }
+}
@@ -0,0 +1,170 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.common.text.TermTable;
+import com.graduate.novel.common.text.Utf8;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Trained TF-IDF vocabulary with IDF weights, memory-mapped from a compact binary file.
+ * Immutable: any number of threads vectorize concurrently without locks; retraining writes
+ * a new file and the caller swaps the model reference.
+ * <pre>
+ * header  magic, version, totalDocs long, termCount int
+ * terms   termCount x (term start int, term length int, idf float), sorted by UTF-8 bytes;
+ *         a term's vector slot is its position in this order
+ * bytes   UTF-8 term bytes
+ * </pre>
+ */
+final class TfidfModel {
+
+    private static final int MAGIC = 0x54464944; // "TFID"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final int ENTRY_BYTES = 12;
+
+    private final MappedByteBuffer buffer;
+    private final int termCount;
+    private final long totalDocs;
+    private final String id;
+
+    private TfidfModel(MappedByteBuffer buffer, String id) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a TF-IDF model file");
+        }
+        this.buffer = buffer;
+        this.totalDocs = buffer.getLong(8);
+        this.termCount = buffer.getInt(16);
+        this.id = id;
+    }
+
+    static TfidfModel open(Path path) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Same corpus -> same file -> same id, on every node
+            return new TfidfModel(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                    "tfidf-" + Long.toHexString(crc.getValue()));
+        }
+    }
+
+    /**
+     * Write a model file atomically (temporary file, then move)
+     * @param idf vocabulary terms and their IDF weights
+     */
+    static void write(Path path, Map<String, Float> idf, long totalDocs) throws IOException {
+        List<byte[]> terms = new ArrayList<>(idf.size());
+        idf.keySet().forEach(term -> terms.add(term.getBytes(StandardCharsets.UTF_8)));
+        terms.sort(Arrays::compareUnsigned);
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(totalDocs);
+            out.writeInt(terms.size());
+            int start = 0;
+            for (byte[] term : terms) {
+                out.writeInt(start);
+                out.writeInt(term.length);
+                out.writeFloat(idf.get(new String(term, StandardCharsets.UTF_8)));
+                start += term.length;
+            }
+            for (byte[] term : terms) {
+                out.write(term);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    String id() {
+        return id;
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    long totalDocs() {
+        return totalDocs;
+    }
+
+    /**
+     * TF-IDF vector (augmented TF, L2-normalized). Slots past the vocabulary stay zero.
+     */
+    float[] vectorize(TermTable termFrequency, int dimension) {
+        float[] vector = new float[dimension];
+        int maxTf = Math.max(termFrequency.maxCount(), 1);
+
+        termFrequency.forEach((term, count) -> {
+            int slot = slot(term);
+            if (slot >= 0 && slot < dimension) {
+                double tf = 0.5 + 0.5 * ((double) count / maxTf);
+                vector[slot] = (float) (tf * idf(slot));
+            }
+        });
+        return normalize(vector);
+    }
+
+    /**
+     * Vector slot of a term, or -1 if it is not in the vocabulary
+     */
+    int slot(CharSequence term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareTerm(mid, term);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    float idf(int slot) {
+        return buffer.getFloat(HEADER_BYTES + slot * ENTRY_BYTES + 8);
+    }
+
+    private int compareTerm(int slot, CharSequence term) {
+        int entry = HEADER_BYTES + slot * ENTRY_BYTES;
+        int start = HEADER_BYTES + termCount * ENTRY_BYTES + buffer.getInt(entry);
+        return Utf8.compare(buffer, start, buffer.getInt(entry + 4), term, 0, term.length());
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float inverse = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= inverse;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,257 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.config.GeminiConfig;
+import com.graduate.novel.ai.dto.PromptPrefix;
+import com.graduate.novel.domain.chapter.Chapter;
+import com.graduate.novel.domain.chapter.ChapterRepository;
+import com.graduate.novel.domain.chapter.ChapterTitlePair;
+import com.graduate.novel.domain.story.Story;
+import com.graduate.novel.domain.story.StoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps translation instruction prefixes in the Gemini context cache, one per language pair
+ * and one per story (instruction + story context: titles, names and the translation a moderator
+ * reviewed most recently, if any).
+ * Requests then reference the cache instead of resending the preamble, which cuts input tokens
+ * and time to first token when a story's chapters are translated in a row.
+ * Whenever a prefix can't be cached (too small, limit reached, API error) callers get the plain
+ * instruction inline as a system instruction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TranslationContextCacheService {
+
+    // Don't hand out a cache that could expire while a request using it is in flight
+    private static final Duration REUSE_MARGIN = Duration.ofSeconds(60);
+    // After a failed create, don't retry the same key for a while
+    private static final Duration FAILURE_BACKOFF = Duration.ofMinutes(5);
+    // Conservative for mixed Japanese/Vietnamese text (over-estimating would hit API minimum errors)
+    private static final double CHARS_PER_TOKEN = 3.0;
+    private static final int MAX_GLOSSARY_TITLES = 100;
+
+    private final ContextCacheClient contextCacheClient;
+    private final GeminiConfig geminiConfig;
+    private final StoryRepository storyRepository;
+    private final ChapterRepository chapterRepository;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Prefix for translating from sourceLang, specialised for a story when storyId is given
+     */
+    public PromptPrefix prefixFor(String sourceLang, String instruction, Long storyId) {
+        if (!geminiConfig.getContextCache().isEnabled()) {
+            return PromptPrefix.inline(instruction);
+        }
+
+        Entry entry = storyId != null
+                ? getOrCreate("story:" + storyId + ":" + sourceLang, "story-" + storyId + "-" + sourceLang,
+                        () -> instruction + "\n\n" + buildStoryContext(storyId))
+                : getOrCreate("lang:" + sourceLang, "translate-" + sourceLang + "-vi", () -> instruction);
+
+        return entry.name() != null ? PromptPrefix.cached(entry.name()) : PromptPrefix.inline(instruction);
+    }
+
+    /**
+     * Forget a cache Gemini no longer accepts (expired early or deleted), so the next call recreates it
+     */
+    public void invalidate(PromptPrefix prefix) {
+        if (prefix != null && prefix.isCached()) {
+            entries.values().removeIf(entry -> prefix.cachedContent().equals(entry.name()));
+        }
+    }
+
+    /**
+     * Whether a request failed because Gemini no longer accepts its cached prefix (expired early,
+     * deleted or invalid). Other failures say nothing about the cache and must not drop it.
+     */
+    public boolean isCacheRejected(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpClientErrorException clientError) {
+                int status = clientError.getStatusCode().value();
+                if (status == HttpStatus.NOT_FOUND.value()) {
+                    return true;
+                }
+                String body = clientError.getResponseBodyAsString().toLowerCase(Locale.ROOT);
+                return (status == HttpStatus.BAD_REQUEST.value() || status == HttpStatus.FORBIDDEN.value())
+                        && (body.contains("cachedcontent") || body.contains("cached content"));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reuse the live cache for this key, or create one. Entries without a name mean
+     * "serve inline until expiresAt" (prefix too small, limit reached or create failed).
+     * The prefix is built and the cache created outside the map, so a slow Gemini call never
+     * blocks lookups of other keys; if a concurrent caller stored a cache first, it wins.
+     */
+    Entry getOrCreate(String key, String displayName, Supplier<String> content) {
+        Entry current = entries.get(key);
+        if (isReusable(current)) {
+            return current;
+        }
+
+        Entry created = create(key, displayName, content);
+        if (current != null) {
+            entries.remove(key, current);
+        }
+        Entry raced = entries.putIfAbsent(key, created);
+        if (raced == null) {
+            return created;
+        }
+        if (created.name() != null) {
+            deleteQuietly(created.name());
+        }
+        return raced;
+    }
+
+    private Entry create(String key, String displayName, Supplier<String> content) {
+        GeminiConfig.ContextCache settings = geminiConfig.getContextCache();
+        Duration ttl = Duration.ofSeconds(settings.getTtlSeconds());
+        Instant now = Instant.now();
+
+        if (liveCaches() >= settings.getMaxEntries()) {
+            log.debug("Context cache limit ({}) reached; serving {} inline", settings.getMaxEntries(), key);
+            return new Entry(null, now.plus(FAILURE_BACKOFF));
+        }
+
+        String text = content.get();
+        int estimatedTokens = (int) Math.ceil(text.length() / CHARS_PER_TOKEN);
+        if (estimatedTokens < settings.getMinTokens()) {
+            log.debug("Prefix {} has ~{} tokens, below the cache minimum {}; serving inline",
+                    key, estimatedTokens, settings.getMinTokens());
+            return new Entry(null, now.plus(ttl));
+        }
+
+        try {
+            ContextCacheClient.CachedContext created = contextCacheClient.create(displayName, text, ttl);
+            return new Entry(created.name(), created.expiresAt());
+        } catch (Exception e) {
+            log.warn("Failed to create context cache for {}: {}", key, e.getMessage());
+            return new Entry(null, now.plus(FAILURE_BACKOFF));
+        }
+    }
+
+    /**
+     * Drop expired entries; Gemini deletes the caches themselves when their TTL ends
+     */
+    @Scheduled(fixedDelay = 300000)
+    public void evictExpired() {
+        Instant now = Instant.now();
+        entries.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+    }
+
+    /**
+     * Delete live caches on shutdown so they don't keep accruing storage cost
+     */
+    @PreDestroy
+    public void deleteAll() {
+        entries.values().stream()
+                .filter(entry -> entry.name() != null && entry.expiresAt().isAfter(Instant.now()))
+                .forEach(entry -> deleteQuietly(entry.name()));
+        entries.clear();
+    }
+
+    private void deleteQuietly(String name) {
+        try {
+            contextCacheClient.delete(name);
+        } catch (Exception e) {
+            log.debug("Could not delete context cache {}: {}", name, e.getMessage());
+        }
+    }
+
+    private boolean isReusable(Entry entry) {
+        return entry != null && entry.expiresAt().isAfter(Instant.now().plus(REUSE_MARGIN));
+    }
+
+    private long liveCaches() {
+        return entries.values().stream().filter(entry -> entry.name() != null).count();
+    }
+
+    /**
+     * Story context appended to the instruction: names, titles and the last reviewed translation
+     */
+    private String buildStoryContext(Long storyId) {
+        Story story = storyRepository.findById(storyId).orElse(null);
+        if (story == null) {
+            return "";
+        }
+
+        StringBuilder context = new StringBuilder(
+                "Bối cảnh truyện (dùng để dịch nhất quán tên nhân vật, cách xưng hô và văn phong):\n");
+        appendPair(context, "Tên truyện", story.getRawTitle(), story.getTranslatedTitle());
+        appendPair(context, "Tác giả", story.getRawAuthorName(), story.getTranslatedAuthorName());
+        appendBlock(context, "Giới thiệu (bản gốc)", story.getRawDescription());
+        appendBlock(context, "Giới thiệu (bản dịch)", story.getTranslatedDescription());
+
+        List<ChapterTitlePair> titles = chapterRepository.findTranslatedTitles(
+                storyId, PageRequest.of(0, MAX_GLOSSARY_TITLES));
+        if (!titles.isEmpty()) {
+            context.append("\nTên các chương đã dịch:\n");
+            titles.forEach(title -> context.append("- ").append(title.rawTitle())
+                    .append(" → ").append(title.translatedTitle()).append('\n'));
+        }
+
+        chapterRepository.findFirstByStoryIdAndTranslationReviewedAtIsNotNullOrderByTranslationReviewedAtDesc(storyId)
+                .ifPresent(sample -> appendSample(context, sample));
+
+        return context.toString();
+    }
+
+    private void appendSample(StringBuilder context, Chapter sample) {
+        if (sample.getRawContent() == null || sample.getTranslatedContent() == null) {
+            return;
+        }
+        int half = geminiConfig.getContextCache().getStorySampleChars() / 2;
+        context.append("\nBản dịch mẫu đã duyệt của truyện này — giữ đúng tên riêng và văn phong:\n")
+                .append("[Bản gốc]\n").append(leadingLines(sample.getRawContent(), half)).append('\n')
+                .append("[Bản dịch]\n").append(leadingLines(sample.getTranslatedContent(), half)).append('\n');
+    }
+
+    private static void appendPair(StringBuilder context, String label, String raw, String translated) {
+        if (raw != null && !raw.isBlank()) {
+            context.append(label).append(": ").append(raw);
+            if (translated != null && !translated.isBlank()) {
+                context.append(" → ").append(translated);
+            }
+            context.append('\n');
+        }
+    }
+
+    private static void appendBlock(StringBuilder context, String label, String text) {
+        if (text != null && !text.isBlank()) {
+            context.append('\n').append(label).append(":\n").append(text.trim()).append('\n');
+        }
+    }
+
+    /**
+     * Whole lines from the start of the text, up to maxChars
+     */
+    private static String leadingLines(String text, int maxChars) {
+        if (text.length() <= maxChars) {
+            return text;
+        }
+        int cut = text.lastIndexOf('\n', maxChars);
+        return text.substring(0, cut > 0 ? cut : maxChars);
+    }
+
+    record Entry(String name, Instant expiresAt) {}
+}
@@ -1,32 +1,93 @@
 package com.graduate.novel.ai.service;
 
+import com.graduate.novel.ai.config.GeminiConfig;
+import com.graduate.novel.ai.dto.BatchTranslationResult;
+import com.graduate.novel.ai.dto.BatchTranslationSource;
 import com.graduate.novel.ai.dto.GeminiRequest;
+import com.graduate.novel.ai.dto.PromptPrefix;
 import com.graduate.novel.common.exception.BadRequestException;
 import com.graduate.novel.domain.crawljob.CrawlJobService;
 import com.graduate.novel.domain.story.Story;
+import com.graduate.novel.domain.story.StoryContentChangedEvent;
 import com.graduate.novel.domain.story.StoryRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TranslationService {
 
     private final GeminiService geminiService;
     private final StoryRepository storyRepository;
     private final CrawlJobService crawlJobService;
+    private final GeminiConfig geminiConfig;
+    private final ThreadPoolTaskExecutor translationExecutor;
+    private final TranslationContextCacheService contextCacheService;
+    private final GenerationBatchClient batchClient;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TranslationService(GeminiService geminiService,
+                              StoryRepository storyRepository,
+                              CrawlJobService crawlJobService,
+                              GeminiConfig geminiConfig,
+                              @Qualifier("translationExecutor") ThreadPoolTaskExecutor translationExecutor,
+                              TranslationContextCacheService contextCacheService,
+                              GenerationBatchClient batchClient,
+                              ApplicationEventPublisher eventPublisher) {
+        this.geminiService = geminiService;
+        this.storyRepository = storyRepository;
+        this.crawlJobService = crawlJobService;
+        this.geminiConfig = geminiConfig;
+        this.translationExecutor = translationExecutor;
+        this.contextCacheService = contextCacheService;
+        this.batchClient = batchClient;
+        this.eventPublisher = eventPublisher;
+    }
+
+    private static final String JA_INSTRUCTION =
+            "Bạn là một dịch giả chuyên nghiệp. Hãy dịch văn bản tiếng Nhật sau sang tiếng Việt. " +
+            "Giữ nguyên định dạng, ngắt dòng và phong cách văn bản gốc. " +
+            "Chỉ trả về bản dịch tiếng Việt, không thêm giải thích hay chú thích.";
+    private static final String EN_INSTRUCTION =
+            "Bạn là một dịch giả chuyên nghiệp. Hãy dịch văn bản tiếng Anh sau sang tiếng Việt. " +
+            "Giữ nguyên định dạng, ngắt dòng và phong cách văn bản gốc. " +
+            "Chỉ trả về bản dịch tiếng Việt, không thêm giải thích hay chú thích.";
+
+    private static final double JA_CHARS_PER_OUTPUT_TOKEN = 1.0;
+    private static final double EN_CHARS_PER_OUTPUT_TOKEN = 3.5;
+    // Chunks smaller than this are never split further
+    private static final int MIN_SPLIT_CHARS = 200;
+    // Batch item key = source key + separator + "chunkIndex/chunkCount"
+    private static final String BATCH_CHUNK_SEPARATOR = "#";
 
     /**
      * Translate Japanese text to Vietnamese
      */
     public String translateToVietnamese(String japaneseText) {
+        return translateToVietnamese(japaneseText, null);
+    }
+
+    /**
+     * Translate Japanese text of a story to Vietnamese.
+     * The story's context (names, titles, sample translation) is sent as a cached prefix.
+     */
+    public String translateToVietnamese(String japaneseText, Long storyId) {
         if (japaneseText == null || japaneseText.trim().isEmpty()) {
             log.warn("Empty text provided for translation");
             return "";
@@ -43,7 +104,7 @@ public class TranslationService {
                 .build();
 
         try {
-            String translation = translateWithChunkFallback(japaneseText, config, "ja");
+            String translation = translateWithChunkFallback(japaneseText, config, "ja", storyId);
             log.info("Translation completed successfully");
             return translation != null ? translation.trim() : "";
         } catch (Exception e) {
@@ -71,7 +132,7 @@ public class TranslationService {
                 .build();
 
         try {
-            String translation = translateWithChunkFallback(englishText, config, "en");
+            String translation = translateWithChunkFallback(englishText, config, "en", null);
             log.info("Translation completed successfully");
             return translation != null ? translation.trim() : "";
         } catch (Exception e) {
@@ -80,6 +141,184 @@ public class TranslationService {
         }
     }
 
+    /**
+     * Translate text to Vietnamese, passing translated fragments to onText as they are produced.
+     * The first chunk is streamed from Gemini; later chunks are translated concurrently on the
+     * translation executor and forwarded in order once the stream reaches them.
+     * @param sourceLang "ja" or "en"
+     * @return the full translation
+     */
+    public String streamTranslateToVietnamese(String text, String sourceLang, Consumer<String> onText) {
+        return streamTranslateToVietnamese(text, sourceLang, null, onText);
+    }
+
+    /**
+     * Streaming translation of a story's text, using the story's cached context prefix
+     */
+    public String streamTranslateToVietnamese(String text, String sourceLang, Long storyId, Consumer<String> onText) {
+        if (text == null || text.trim().isEmpty()) {
+            log.warn("Empty text provided for streaming translation");
+            return "";
+        }
+
+        String lang = "en".equalsIgnoreCase(sourceLang) || "english".equalsIgnoreCase(sourceLang) ? "en" : "ja";
+        GeminiRequest.GenerationConfig config = GeminiRequest.GenerationConfig.builder()
+                .temperature(0.3)
+                .maxOutputTokens(65536)
+                .topP(0.95)
+                .topK(40)
+                .build();
+
+        int chunkOutputTokens = geminiConfig.getTranslation().getChunkOutputTokens();
+        List<String> chunks = estimateOutputTokens(text, lang) <= chunkOutputTokens
+                ? List.of(text)
+                : splitIntoChunks(text, maxSourceCharsPerChunk(chunkOutputTokens, lang));
+
+        PromptPrefix prefix = contextCacheService.prefixFor(lang, instructionFor(lang), storyId);
+
+        log.info("Streaming translation from {} to Vietnamese (length: {} chars, {} chunks, cached prefix: {})",
+                lang, text.length(), chunks.size(), prefix.isCached());
+
+        // Start the remaining chunks right away so they are ready by the time the stream reaches them
+        List<CompletableFuture<String>> remaining = new ArrayList<>();
+        for (String chunkText : chunks.subList(1, chunks.size())) {
+            remaining.add(CompletableFuture.supplyAsync(
+                    () -> translateChunk(chunkText, config, lang, prefix), translationExecutor));
+        }
+
+        try {
+            String firstPrompt = "ja".equals(lang)
+                    ? buildTranslationPrompt(chunks.get(0))
+                    : buildEnglishTranslationPrompt(chunks.get(0));
+            AtomicBoolean streamed = new AtomicBoolean(false);
+            Consumer<String> trackingOnText = fragment -> {
+                streamed.set(true);
+                onText.accept(fragment);
+            };
+            Map.Entry<String, String> first;
+            try {
+                first = geminiService.streamGenerateContent(firstPrompt, config, prefix, trackingOnText);
+            } catch (RuntimeException e) {
+                if (!prefix.isCached() || streamed.get() || !contextCacheService.isCacheRejected(e)) {
+                    throw e;
+                }
+                // The cache may have expired early or been deleted: retry once with the instruction inline
+                contextCacheService.invalidate(prefix);
+                first = geminiService.streamGenerateContent(firstPrompt, config,
+                        PromptPrefix.inline(instructionFor(lang)), onText);
+            }
+
+            if (first == null || first.getKey() == null) {
+                throw new IllegalStateException("Gemini returned no translation for the first chunk");
+            }
+            StringBuilder translated = new StringBuilder(first.getKey());
+            for (CompletableFuture<String> future : remaining) {
+                String fragment = "\n" + future.join();
+                translated.append(fragment);
+                onText.accept(fragment);
+            }
+
+            log.info("Streaming translation completed successfully");
+            return translated.toString().trim();
+        } catch (CompletionException e) {
+            remaining.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Streaming translation failed: {}", cause.getMessage(), cause);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to translate text", cause);
+        } catch (RuntimeException e) {
+            remaining.forEach(future -> future.cancel(true));
+            log.error("Streaming translation failed: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Submit texts for translation as one asynchronous batch job (lower cost, no interactive latency).
+     * Long texts are split into chunks exactly like interactive translation.
+     * @return the batch name to pass to {@link #collectBatchTranslation(String)}
+     */
+    public String submitBatchTranslation(String displayName, List<BatchTranslationSource> sources) {
+        GeminiRequest.GenerationConfig config = GeminiRequest.GenerationConfig.builder()
+                .temperature(0.3)
+                .maxOutputTokens(65536)
+                .topP(0.95)
+                .topK(40)
+                .build();
+        int chunkOutputTokens = geminiConfig.getTranslation().getChunkOutputTokens();
+
+        List<GenerationBatchClient.BatchItem> items = new ArrayList<>();
+        for (BatchTranslationSource source : sources) {
+            String lang = "en".equalsIgnoreCase(source.sourceLang()) ? "en" : "ja";
+            // The batch may run hours later, past any cache TTL, so the instruction goes inline
+            PromptPrefix prefix = PromptPrefix.inline(instructionFor(lang));
+            List<String> chunks = estimateOutputTokens(source.text(), lang) <= chunkOutputTokens
+                    ? List.of(source.text())
+                    : splitIntoChunks(source.text(), maxSourceCharsPerChunk(chunkOutputTokens, lang));
+
+            for (int i = 0; i < chunks.size(); i++) {
+                String prompt = "ja".equals(lang)
+                        ? buildTranslationPrompt(chunks.get(i))
+                        : buildEnglishTranslationPrompt(chunks.get(i));
+                items.add(new GenerationBatchClient.BatchItem(
+                        source.key() + BATCH_CHUNK_SEPARATOR + i + "/" + chunks.size(),
+                        geminiService.buildRequest(prompt, config, prefix)));
+            }
+        }
+
+        log.info("Submitting batch translation '{}': {} texts in {} requests", displayName, sources.size(), items.size());
+        return batchClient.submit(displayName, items);
+    }
+
+    /**
+     * Read the outcome of a batch translation. Chunks are reassembled in order; a source with any
+     * failed or truncated chunk is reported in failedKeys instead of being returned partially.
+     */
+    public BatchTranslationResult collectBatchTranslation(String batchName) {
+        GenerationBatchClient.BatchStatus status = batchClient.get(batchName);
+        if (!status.isSucceeded()) {
+            return new BatchTranslationResult(status.state(), Map.of(), Set.of());
+        }
+
+        // key -> chunk index -> text; chunk count is encoded in each item key
+        Map<String, TreeMap<Integer, String>> chunksByKey = new HashMap<>();
+        Map<String, Integer> chunkCounts = new HashMap<>();
+        Set<String> failedKeys = new HashSet<>();
+        for (GenerationBatchClient.BatchResult result : status.results()) {
+            if (result.key() == null) {
+                continue;
+            }
+            int separator = result.key().lastIndexOf(BATCH_CHUNK_SEPARATOR);
+            String sourceKey = result.key().substring(0, separator);
+            String[] position = result.key().substring(separator + BATCH_CHUNK_SEPARATOR.length()).split("/");
+            chunkCounts.put(sourceKey, Integer.parseInt(position[1]));
+
+            if (result.error() != null || result.text() == null || "MAX_TOKENS".equals(result.finishReason())) {
+                log.warn("Batch {} item {} failed: {}", batchName, result.key(),
+                        result.error() != null ? result.error() : result.finishReason());
+                failedKeys.add(sourceKey);
+                continue;
+            }
+            chunksByKey.computeIfAbsent(sourceKey, k -> new TreeMap<>())
+                    .put(Integer.parseInt(position[0]), result.text());
+        }
+
+        Map<String, String> translations = new HashMap<>();
+        chunkCounts.forEach((sourceKey, count) -> {
+            TreeMap<Integer, String> chunks = chunksByKey.get(sourceKey);
+            if (failedKeys.contains(sourceKey) || chunks == null || chunks.size() != count) {
+                failedKeys.add(sourceKey);
+                return;
+            }
+            translations.put(sourceKey, String.join("\n", chunks.values()).trim());
+        });
+
+        log.info("Batch {} collected: {} translated, {} failed", batchName, translations.size(), failedKeys.size());
+        return new BatchTranslationResult(status.state(), translations, failedKeys);
+    }
+
     /**
      * Romanize Japanese text (convert Kanji/Hiragana to Romaji)
      * Used for author names to keep them readable but not translated
@@ -112,90 +351,193 @@ public class TranslationService {
     }
 
     /**
-     * Translate text with automatic chunk splitting if response is truncated (MAX_TOKENS).
+     * Translate text, splitting it up front when the estimated output would not fit one response.
+     * Chunks are translated concurrently on the translation executor and reassembled in order;
+     * a chunk that still comes back truncated (MAX_TOKENS) is halved and retried.
      * @param text        source text
      * @param config      Gemini generation config
      * @param sourceLang  "ja" or "en"
+     * @param storyId     story the text belongs to (for its cached context), or null
      */
-    private String translateWithChunkFallback(String text, GeminiRequest.GenerationConfig config, String sourceLang) {
+    private String translateWithChunkFallback(String text, GeminiRequest.GenerationConfig config, String sourceLang,
+                                              Long storyId) {
+        int chunkOutputTokens = geminiConfig.getTranslation().getChunkOutputTokens();
+        int estimatedTokens = estimateOutputTokens(text, sourceLang);
+        PromptPrefix prefix = contextCacheService.prefixFor(sourceLang, instructionFor(sourceLang), storyId);
+
+        if (estimatedTokens <= chunkOutputTokens) {
+            return translateChunk(text, config, sourceLang, prefix);
+        }
+
+        int maxChunkChars = maxSourceCharsPerChunk(chunkOutputTokens, sourceLang);
+        List<String> chunks = splitIntoChunks(text, maxChunkChars);
+        log.info("Chunked translation: ~{} output tokens estimated, splitting {} chars into {} chunks",
+                estimatedTokens, text.length(), chunks.size());
+
+        List<CompletableFuture<String>> futures = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunkText = chunks.get(i);
+            int chunkNumber = i + 1;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                log.debug("Translating chunk {}/{} ({} chars)", chunkNumber, chunks.size(), chunkText.length());
+                return translateChunk(chunkText, config, sourceLang, prefix);
+            }, translationExecutor));
+        }
+
+        // Fail fast: the first failing chunk cancels chunks that have not started yet
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        futures.forEach(future -> future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                firstFailure.completeExceptionally(ex);
+            }
+        }));
+
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])), firstFailure)
+                    .join();
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Chunked translation failed: " + cause.getMessage(), cause);
+        }
+
+        StringBuilder translated = new StringBuilder();
+        for (int i = 0; i < futures.size(); i++) {
+            if (i > 0) {
+                translated.append("\n");
+            }
+            translated.append(futures.get(i).join());
+        }
+        return translated.toString();
+    }
+
+    /**
+     * Translate a single chunk. If Gemini still truncates it, split it in half at a paragraph
+     * boundary and translate both halves.
+     */
+    private String translateChunk(String text, GeminiRequest.GenerationConfig config, String sourceLang,
+                                  PromptPrefix prefix) {
         String prompt = "ja".equalsIgnoreCase(sourceLang)
                 ? buildTranslationPrompt(text)
                 : buildEnglishTranslationPrompt(text);
 
-        Map.Entry<String, String> result = geminiService.generateContentWithFinishReason(prompt, config);
-
-        if (result == null) {
-            return null;
+        Map.Entry<String, String> result;
+        try {
+            result = geminiService.generateContentWithFinishReason(prompt, config, prefix);
+        } catch (RuntimeException e) {
+            if (!prefix.isCached() || !contextCacheService.isCacheRejected(e)) {
+                throw e;
+            }
+            // The cache may have expired early or been deleted: retry once with the instruction inline
+            log.warn("Cached prefix {} was rejected ({}); retrying inline", prefix.cachedContent(), e.getMessage());
+            contextCacheService.invalidate(prefix);
+            prefix = PromptPrefix.inline(instructionFor(sourceLang));
+            result = geminiService.generateContentWithFinishReason(prompt, config, prefix);
         }
-
-        String finishReason = result.getValue();
-        if (!"MAX_TOKENS".equals(finishReason)) {
-            // Normal completion — return as-is
+        if (result == null || result.getKey() == null) {
+            // Never stored as part of a translation: a chapter missing a chunk would look complete
+            throw new IllegalStateException("Gemini returned no translation for a chunk of " + text.length() + " chars");
+        }
+        if (!"MAX_TOKENS".equals(result.getValue()) || text.length() < MIN_SPLIT_CHARS) {
             return result.getKey();
         }
 
-        // Response was truncated — split the text into paragraphs and translate chunk by chunk
-        log.warn("Response truncated (MAX_TOKENS). Falling back to chunked translation for text of {} chars.", text.length());
+        log.warn("Chunk of {} chars truncated (MAX_TOKENS) despite up-front estimate. Splitting it in half.",
+                text.length());
+        List<String> halves = splitIntoChunks(text, (text.length() + 1) / 2);
+        StringBuilder translated = new StringBuilder();
+        for (int i = 0; i < halves.size(); i++) {
+            if (i > 0) {
+                translated.append("\n");
+            }
+            translated.append(translateChunk(halves.get(i), config, sourceLang, prefix));
+        }
+        return translated.toString();
+    }
+
+    /**
+     * Rough estimate of the Vietnamese output tokens a translation of this text will need.
+     * Japanese is ~1 source char per output token; English is ~3.5 source chars per output token.
+     */
+    static int estimateOutputTokens(String text, String sourceLang) {
+        double charsPerToken = "ja".equalsIgnoreCase(sourceLang) ? JA_CHARS_PER_OUTPUT_TOKEN : EN_CHARS_PER_OUTPUT_TOKEN;
+        return (int) Math.ceil(text.length() / charsPerToken);
+    }
+
+    private static int maxSourceCharsPerChunk(int chunkOutputTokens, String sourceLang) {
+        double charsPerToken = "ja".equalsIgnoreCase(sourceLang) ? JA_CHARS_PER_OUTPUT_TOKEN : EN_CHARS_PER_OUTPUT_TOKEN;
+        return Math.max(MIN_SPLIT_CHARS, (int) (chunkOutputTokens * charsPerToken));
+    }
 
-        String[] paragraphs = text.split("(?<=\\n)");
-        // Group paragraphs into chunks of ~1500 chars each
-        int chunkSize = 1500;
+    /**
+     * Group paragraphs into chunks of at most maxChars. A paragraph longer than maxChars is
+     * split at sentence endings, and only hard-split as a last resort.
+     */
+    static List<String> splitIntoChunks(String text, int maxChars) {
         List<String> chunks = new ArrayList<>();
         StringBuilder currentChunk = new StringBuilder();
-        for (String para : paragraphs) {
-            if (currentChunk.length() + para.length() > chunkSize && currentChunk.length() > 0) {
-                chunks.add(currentChunk.toString());
-                currentChunk = new StringBuilder();
+
+        for (String para : text.split("(?<=\\n)")) {
+            for (String piece : splitOversizedParagraph(para, maxChars)) {
+                if (currentChunk.length() + piece.length() > maxChars && currentChunk.length() > 0) {
+                    chunks.add(currentChunk.toString());
+                    currentChunk.setLength(0);
+                }
+                currentChunk.append(piece);
             }
-            currentChunk.append(para);
         }
         if (currentChunk.length() > 0) {
             chunks.add(currentChunk.toString());
         }
+        return chunks;
+    }
 
-        log.info("Chunked translation: splitting into {} chunks", chunks.size());
-        StringBuilder translated = new StringBuilder();
-        for (int i = 0; i < chunks.size(); i++) {
-            String chunkText = chunks.get(i);
-            log.debug("Translating chunk {}/{} ({} chars)", i + 1, chunks.size(), chunkText.length());
-            String chunkPrompt = "ja".equalsIgnoreCase(sourceLang)
-                    ? buildTranslationPrompt(chunkText)
-                    : buildEnglishTranslationPrompt(chunkText);
-            Map.Entry<String, String> chunkResult = geminiService.generateContentWithFinishReason(chunkPrompt, config);
-            if (chunkResult != null && chunkResult.getKey() != null) {
-                translated.append(chunkResult.getKey());
-                if (i < chunks.size() - 1) {
-                    translated.append("\n");
-                }
+    private static List<String> splitOversizedParagraph(String para, int maxChars) {
+        if (para.length() <= maxChars) {
+            return List.of(para);
+        }
+        List<String> pieces = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String sentence : para.split("(?<=[。！？!?.])")) {
+            if (current.length() + sentence.length() > maxChars && current.length() > 0) {
+                pieces.add(current.toString());
+                current.setLength(0);
+            }
+            while (sentence.length() > maxChars) {
+                pieces.add(sentence.substring(0, maxChars));
+                sentence = sentence.substring(maxChars);
             }
+            current.append(sentence);
         }
-        return translated.toString();
+        if (current.length() > 0) {
+            pieces.add(current.toString());
+        }
+        return pieces;
     }
 
     /**
      * Build translation prompt for Japanese to Vietnamese
      */
     private String buildTranslationPrompt(String japaneseText) {
-        return String.format(
-                "Bạn là một dịch giả chuyên nghiệp. Hãy dịch văn bản tiếng Nhật sau sang tiếng Việt. " +
-                        "Giữ nguyên định dạng, ngắt dòng và phong cách văn bản gốc. " +
-                        "Chỉ trả về bản dịch tiếng Việt, không thêm giải thích hay chú thích.\n\n" +
-                        "Văn bản tiếng Nhật:\n%s",
-                japaneseText
-        );
+        // The instruction travels as the (cached) prefix; see instructionFor
+        return String.format("Văn bản tiếng Nhật:\n%s", japaneseText);
     }
 
     /**
      * Build translation prompt for English to Vietnamese
      */
     private String buildEnglishTranslationPrompt(String englishText) {
-        return String.format(
-                "Bạn là một dịch giả chuyên nghiệp. Hãy dịch văn bản tiếng Anh sau sang tiếng Việt. " +
-                        "Giữ nguyên định dạng, ngắt dòng và phong cách văn bản gốc. " +
-                        "Chỉ trả về bản dịch tiếng Việt, không thêm giải thích hay chú thích.\n\n" +
-                        "Văn bản tiếng Anh:\n%s",
-                englishText
-        );
+        return String.format("Văn bản tiếng Anh:\n%s", englishText);
+    }
+
+    /**
+     * Translation instruction for a source language, sent as system instruction or cached prefix
+     */
+    private static String instructionFor(String sourceLang) {
+        return "ja".equalsIgnoreCase(sourceLang) ? JA_INSTRUCTION : EN_INSTRUCTION;
     }
 
     /**
@@ -284,6 +626,7 @@ public class TranslationService {
 
         if (updated) {
             story = storyRepository.save(story);
+            eventPublisher.publishEvent(new StoryContentChangedEvent(story.getId()));
             log.info("Story translations saved successfully");
         } else {
             log.warn("No translation performed for story ID: {}", storyId);
@@ -1,70 +1,87 @@
 package com.graduate.novel.ai.service;
 
+import com.graduate.novel.common.text.TextTokenizer;
+import com.graduate.novel.config.WordVectorProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Word2Vec-inspired embedding service
- * Simplified implementation using Skip-gram like approach
+ * Word2Vec embedding service backed by pre-trained word vectors (fastText/word2vec .vec files)
  *
- * Note: For production, consider using pre-trained models like:
- * - Google's Word2Vec
- * - FastText (better for Vietnamese)
- * - Or train custom model with DL4J/Tensorflow
+ * The vectors are imported once into a binary store that is memory-mapped (see {@link WordVectorStore}),
+ * so even multi-million-word vocabularies open instantly and stay off the heap. Lookups are lock-free.
+ * A document vector is the mean of its word vectors. Words missing from the vocabulary are split
+ * into the longest known pieces (Japanese text has no spaces, so CJK runs are always segmented
+ * this way); words with no known piece are ignored rather than given made-up vectors.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class Word2VecEmbeddingService implements EmbeddingStrategy {
 
-    private static final int EMBEDDING_DIM = 300;
-    private static final int WINDOW_SIZE = 5;
+    // Dimension reported before any vectors are loaded (fastText cc.*.300)
+    private static final int DEFAULT_DIM = 300;
 
-    // In-memory word embeddings (in production, load from pre-trained model)
-    private final Map<String, float[]> wordVectors = new HashMap<>();
-    private final Random random = new Random(42);
+    // Shortest subword tried for non-CJK words; single Latin letters carry no meaning
+    private static final int MIN_SUBWORD_CHARS = 2;
 
-    @Override
-    public float[] generateEmbedding(String text) {
-        if (text == null || text.isEmpty()) {
-            return new float[EMBEDDING_DIM];
-        }
-
-        // Tokenize
-        List<String> tokens = tokenize(text);
-
-        if (tokens.isEmpty()) {
-            return new float[EMBEDDING_DIM];
-        }
+    private final WordVectorProperties properties;
 
-        // Average word vectors
-        float[] documentVector = new float[EMBEDDING_DIM];
-        int validWords = 0;
+    private final AtomicReference<WordVectorStore> store = new AtomicReference<>();
 
-        for (String token : tokens) {
-            float[] wordVector = getOrCreateWordVector(token);
+    @PostConstruct
+    void loadVectors() {
+        Path storePath = Path.of(properties.getStorePath());
+        Path vectorsPath = properties.getVectorsPath().isBlank() ? null : Path.of(properties.getVectorsPath());
 
-            for (int i = 0; i < EMBEDDING_DIM; i++) {
-                documentVector[i] += wordVector[i];
+        try {
+            if (vectorsPath != null && Files.exists(vectorsPath) && isStale(storePath, vectorsPath)) {
+                // Importing a large .vec takes minutes; serve from the old store (if any) meanwhile
+                openStore(storePath);
+                Thread.ofVirtual().name("word-vector-import").start(() -> importVectors(vectorsPath, storePath));
+                return;
             }
-            validWords++;
+            if (!openStore(storePath)) {
+                log.info("No word vectors at {}; Word2Vec embeddings are unavailable", storePath);
+            }
+        } catch (IOException e) {
+            log.error("Could not load word vectors from {}: {}", storePath, e.getMessage());
         }
+    }
 
-        // Average
-        if (validWords > 0) {
-            for (int i = 0; i < EMBEDDING_DIM; i++) {
-                documentVector[i] /= validWords;
-            }
+    @Override
+    public float[] generateEmbedding(String text) {
+        WordVectorStore current = store.get();
+        if (current == null) {
+            throw new IllegalStateException("Word vectors are not loaded");
         }
 
-        // L2 normalize
-        return normalize(documentVector);
+        float[] documentVector = new float[current.dimension()];
+        if (text == null || text.isEmpty()) {
+            return documentVector;
+        }
+
+        int[] validWords = new int[1];
+        TextTokenizer.forEachToken(text, TextTokenizer.CjkMode.WHOLE_RUNS,
+                (term, start, end) -> validWords[0] += addWord(current, term, documentVector));
+
+        // Mean of the word vectors; L2 normalization makes the division redundant
+        return validWords[0] > 0 ? WordVectorStore.normalize(documentVector) : documentVector;
     }
 
     @Override
     public int getDimension() {
-        return EMBEDDING_DIM;
+        WordVectorStore current = store.get();
+        return current != null ? current.dimension() : DEFAULT_DIM;
     }
 
     @Override
@@ -78,97 +95,93 @@ public class Word2VecEmbeddingService implements EmbeddingStrategy {
     }
 
     /**
-     * Tokenize text
+     * Add the vector of one word (or of its known pieces) to the accumulator
+     * @return number of word vectors added
      */
-    private List<String> tokenize(String text) {
-        String[] tokens = text.toLowerCase()
-            .replaceAll("[^\\p{L}\\p{N}\\s]", " ")
-            .split("\\s+");
-
-        List<String> result = new ArrayList<>();
-        for (String token : tokens) {
-            if (token.length() > 2) {
-                result.add(token);
-            }
+    private int addWord(WordVectorStore current, CharSequence word, float[] accumulator) {
+        int row = current.find(word);
+        if (row >= 0) {
+            current.addTo(row, accumulator, 1f);
+            return 1;
         }
 
-        return result;
+        boolean cjk = TextTokenizer.isCjk(Character.codePointAt(word, 0));
+        int[] pieces = new int[word.length()];
+        int pieceCount = subwords(current, word, cjk ? 1 : MIN_SUBWORD_CHARS, pieces);
+        if (pieceCount == 0) {
+            return 0;
+        }
+        // A CJK run is a phrase, so each known piece is a word of its own;
+        // pieces of one unknown word together stand for that word
+        float weight = cjk ? 1f : 1f / pieceCount;
+        for (int i = 0; i < pieceCount; i++) {
+            current.addTo(pieces[i], accumulator, weight);
+        }
+        return cjk ? pieceCount : 1;
     }
 
     /**
-     * Get word vector or create random vector for unknown words
+     * Greedy longest-match segmentation of a word into vocabulary entries.
+     * Characters not covered by any known piece are skipped.
+     * @return number of rows written to {@code pieces}
      */
-    private synchronized float[] getOrCreateWordVector(String word) {
-        return wordVectors.computeIfAbsent(word, w -> {
-            // Initialize with small random values (Xavier initialization)
-            float[] vector = new float[EMBEDDING_DIM];
-            float scale = (float) Math.sqrt(2.0 / EMBEDDING_DIM);
-
-            for (int i = 0; i < EMBEDDING_DIM; i++) {
-                vector[i] = (random.nextFloat() - 0.5f) * 2 * scale;
+    private int subwords(WordVectorStore current, CharSequence word, int minChars, int[] pieces) {
+        int pieceCount = 0;
+        int start = 0;
+        while (start < word.length()) {
+            // Candidate ends, longest first, at code point boundaries
+            int end = start;
+            int chars = 0;
+            while (end < word.length() && chars < properties.getMaxSubwordChars()) {
+                end += Character.charCount(Character.codePointAt(word, end));
+                chars++;
             }
-
-            return normalize(vector);
-        });
-    }
-
-    /**
-     * L2 normalize vector
-     */
-    private float[] normalize(float[] vector) {
-        float norm = 0.0f;
-        for (float v : vector) {
-            norm += v * v;
-        }
-        norm = (float) Math.sqrt(norm);
-
-        if (norm > 0) {
-            float[] normalized = new float[vector.length];
-            for (int i = 0; i < vector.length; i++) {
-                normalized[i] = vector[i] / norm;
+            int matchedEnd = -1;
+            for (; chars >= minChars; chars--) {
+                int row = current.find(word, start, end);
+                if (row >= 0) {
+                    pieces[pieceCount++] = row;
+                    matchedEnd = end;
+                    break;
+                }
+                end -= Character.charCount(Character.codePointBefore(word, end));
             }
-            return normalized;
+            start = matchedEnd >= 0 ? matchedEnd : start + Character.charCount(Character.codePointAt(word, start));
         }
-
-        return vector;
+        return pieceCount;
     }
 
     /**
-     * Load pre-trained word vectors (for production use)
-     * Format: word float1 float2 ... floatN
+     * Load pre-trained word vectors (replaces the current store)
      */
     public void loadPreTrainedVectors(Map<String, float[]> preTrainedVectors) {
         log.info("Loading {} pre-trained word vectors", preTrainedVectors.size());
-        wordVectors.clear();
-        wordVectors.putAll(preTrainedVectors);
-        log.info("Loaded {} word vectors", wordVectors.size());
-    }
-
-    /**
-     * Train word vectors using Skip-gram (simplified version)
-     * In production, use proper library like DL4J or Gensim
-     */
-    public void train(List<String> corpus, int epochs) {
-        log.info("Training Word2Vec on {} documents for {} epochs", corpus.size(), epochs);
-
-        // This is a placeholder - real Word2Vec training is complex
-        // For production, use:
-        // - DeepLearning4J's Word2Vec
-        // - Pre-trained FastText models
-        // - Or call Python Gensim via REST API
-
-        log.warn("Word2Vec training not fully implemented. Using random initialization.");
-        log.info("For production, use pre-trained models or dedicated ML libraries.");
+        Path storePath = Path.of(properties.getStorePath());
+        try {
+            WordVectorStore.write(storePath, preTrainedVectors);
+            openStore(storePath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write word vector store", e);
+        }
+        log.info("Loaded {} word vectors", getVocabularySize());
     }
 
     /**
-     * Calculate similarity between two words
+     * Calculate similarity between two words (0 if either has no vector)
      */
     public double similarity(String word1, String word2) {
-        float[] v1 = getOrCreateWordVector(word1);
-        float[] v2 = getOrCreateWordVector(word2);
+        WordVectorStore current = store.get();
+        if (current == null) {
+            return 0.0;
+        }
+        float[] v1 = wordVector(current, word1);
+        float[] v2 = wordVector(current, word2);
+        return v1 != null && v2 != null ? cosineSimilarity(v1, v2) : 0.0;
+    }
 
-        return cosineSimilarity(v1, v2);
+    private float[] wordVector(WordVectorStore current, String word) {
+        float[] vector = new float[current.dimension()];
+        return addWord(current, word.toLowerCase(Locale.ROOT), vector) > 0 ? WordVectorStore.normalize(vector) : null;
     }
 
     /**
@@ -186,14 +199,45 @@ public class Word2VecEmbeddingService implements EmbeddingStrategy {
      * Get vocabulary size
      */
     public int getVocabularySize() {
-        return wordVectors.size();
+        WordVectorStore current = store.get();
+        return current != null ? current.size() : 0;
+    }
+
+    /**
+     * Map the store again after it was rewritten (e.g. by training)
+     */
+    public void reload() throws IOException {
+        openStore(Path.of(properties.getStorePath()));
     }
 
     /**
      * Reset model
      */
     public void reset() {
-        wordVectors.clear();
+        store.set(null);
+    }
+
+    private boolean openStore(Path storePath) throws IOException {
+        if (!Files.exists(storePath)) {
+            return false;
+        }
+        WordVectorStore opened = WordVectorStore.open(storePath);
+        store.set(opened);
+        log.info("Mapped {} word vectors ({} dims) from {}", opened.size(), opened.dimension(), storePath);
+        return true;
+    }
+
+    private void importVectors(Path vectorsPath, Path storePath) {
+        try {
+            WordVectorStore.importText(vectorsPath, storePath);
+            openStore(storePath);
+        } catch (Exception e) {
+            log.error("Failed to import word vectors from {}: {}", vectorsPath, e.getMessage(), e);
+        }
     }
-}
 
+    private static boolean isStale(Path storePath, Path vectorsPath) throws IOException {
+        return !Files.exists(storePath)
+                || Files.getLastModifiedTime(storePath).compareTo(Files.getLastModifiedTime(vectorsPath)) < 0;
+    }
+}
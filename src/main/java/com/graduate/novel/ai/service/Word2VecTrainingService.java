@@ -0,0 +1,219 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.common.text.TermTable;
+import com.graduate.novel.common.text.TextTokenizer;
+import com.graduate.novel.config.WordVectorProperties;
+import com.graduate.novel.domain.chapter.ChapterRepository;
+import com.graduate.novel.domain.chapter.ChapterText;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Trains word vectors for {@link Word2VecEmbeddingService} from our own chapters
+ * (skip-gram with negative sampling, see {@link SkipGramModel}).
+ * <p>
+ * The corpus is streamed from the database page by page: one pass builds the vocabulary, then
+ * each epoch streams it again while all cores train the shared model. The model is checkpointed
+ * periodically, so a restarted node resumes from the last checkpoint instead of starting over.
+ * The finished vectors replace the word vector store and are picked up without a restart.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class Word2VecTrainingService {
+
+    // Compared by identity, so no chapter text can be mistaken for it
+    private static final String STOP = new String("stop");
+    private static final long REPORT_INTERVAL_MS = 30_000;
+
+    private final WordVectorProperties properties;
+    private final ChapterRepository chapterRepository;
+    private final Word2VecEmbeddingService word2VecEmbeddingService;
+
+    /**
+     * Train (or resume training) and install the result
+     */
+    public synchronized void train() throws IOException, InterruptedException {
+        WordVectorProperties.Training config = properties.getTraining();
+        long start = System.currentTimeMillis();
+        SkipGramModel.Checkpoint checkpoint = resumeOrCreate(config);
+        SkipGramModel model = checkpoint.model();
+        SkipGramModel.Progress resumed = checkpoint.progress();
+
+        long totalWords = model.trainWords() * config.getEpochs();
+        AtomicLong wordsProcessed = new AtomicLong(resumed.wordsProcessed());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int threadCount = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(threadCount * 4);
+
+        Thread[] workers = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            SkipGramModel.Worker worker = model.newWorker(i + 1);
+            workers[i] = Thread.ofPlatform().name("word2vec-" + i).daemon().start(() -> {
+                try {
+                    String text;
+                    while ((text = queue.take()) != STOP) {
+                        try {
+                            // Linear decay over the whole run, floored so late updates still count
+                            float alpha = Math.max(config.getLearningRate() * 1e-4f,
+                                    config.getLearningRate() * (1 - (float) wordsProcessed.get() / (totalWords + 1)));
+                            wordsProcessed.addAndGet(worker.train(text, alpha));
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        log.info("Training word vectors: {} words in vocabulary, {} words per epoch, {} epochs, {} threads",
+                model.vocabularySize(), model.trainWords(), config.getEpochs(), threadCount);
+        long runStartWords = wordsProcessed.get();
+        long runStartTime = System.currentTimeMillis();
+        long lastCheckpoint = System.currentTimeMillis();
+        long lastReport = System.currentTimeMillis();
+        try {
+            for (int epoch = resumed.epoch(); epoch < config.getEpochs(); epoch++) {
+                long afterId = epoch == resumed.epoch() ? resumed.afterChapterId() : 0;
+                List<ChapterText> page;
+                do {
+                    page = chapterRepository.findTextsAfter(afterId, PageRequest.of(0, config.getPageSize()));
+                    for (ChapterText chapter : page) {
+                        inFlight.incrementAndGet();
+                        queue.put(chapterText(chapter));
+                    }
+                    if (!page.isEmpty()) {
+                        afterId = page.get(page.size() - 1).id();
+                    }
+                    if (failure.get() != null) {
+                        throw new IllegalStateException("Word vector training failed", failure.get());
+                    }
+
+                    long now = System.currentTimeMillis();
+                    if (now - lastReport >= REPORT_INTERVAL_MS) {
+                        long words = wordsProcessed.get();
+                        log.info("Word2Vec epoch {}/{}: {}% done, {} words/sec",
+                                epoch + 1, config.getEpochs(), words * 100 / Math.max(totalWords, 1),
+                                (words - runStartWords) * 1000 / Math.max(now - runStartTime, 1));
+                        lastReport = now;
+                    }
+                    if (now - lastCheckpoint >= TimeUnit.SECONDS.toMillis(config.getCheckpointIntervalSeconds())) {
+                        // The workers must be idle so the checkpoint matches the corpus position
+                        awaitIdle(inFlight);
+                        model.writeCheckpoint(Path.of(config.getCheckpointPath()),
+                                new SkipGramModel.Progress(epoch, afterId, wordsProcessed.get()));
+                        lastCheckpoint = System.currentTimeMillis();
+                        log.debug("Word2Vec checkpoint at epoch {}, chapter {}", epoch + 1, afterId);
+                    }
+                } while (page.size() == config.getPageSize());
+            }
+        } finally {
+            for (int i = 0; i < threadCount; i++) {
+                queue.put(STOP);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Word vector training failed", failure.get());
+        }
+
+        long millis = System.currentTimeMillis() - start;
+        long trained = wordsProcessed.get() - resumed.wordsProcessed();
+        model.export(Path.of(properties.getStorePath()));
+        Files.deleteIfExists(Path.of(config.getCheckpointPath()));
+        word2VecEmbeddingService.reload();
+        log.info("Trained {} word vectors ({} dims) on {} words in {} s, {} words/sec",
+                model.vocabularySize(), model.dimension(), trained, millis / 1000, trained * 1000 / Math.max(millis, 1));
+    }
+
+    private SkipGramModel.Checkpoint resumeOrCreate(WordVectorProperties.Training config) throws IOException {
+        SkipGramModel.Settings settings = new SkipGramModel.Settings(
+                config.getDimension(), config.getWindow(), config.getNegative(), config.getSample());
+        Path checkpointPath = Path.of(config.getCheckpointPath());
+        if (Files.exists(checkpointPath)) {
+            try {
+                SkipGramModel.Checkpoint checkpoint = SkipGramModel.readCheckpoint(checkpointPath);
+                if (checkpoint.model().settings().equals(settings)) {
+                    log.info("Resuming word vector training at epoch {}, after chapter {}",
+                            checkpoint.progress().epoch() + 1, checkpoint.progress().afterChapterId());
+                    return checkpoint;
+                }
+                log.info("Discarding word vector checkpoint trained with other settings");
+            } catch (IOException e) {
+                log.warn("Unreadable word vector checkpoint {}: {}", checkpointPath, e.getMessage());
+            }
+        }
+        Map<String, Long> counts = countWords(config.getPageSize());
+        return new SkipGramModel.Checkpoint(
+                SkipGramModel.create(counts, config.getMinCount(), config.getMaxVocabulary(), settings),
+                new SkipGramModel.Progress(0, 0, 0));
+    }
+
+    /**
+     * Vocabulary pass: word counts over all chapters, each page tokenized in parallel
+     */
+    private Map<String, Long> countWords(int pageSize) {
+        Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+        long afterId = 0;
+        List<ChapterText> page;
+        do {
+            page = chapterRepository.findTextsAfter(afterId, PageRequest.of(0, pageSize));
+            page.parallelStream().forEach(chapter -> {
+                // Count within the chapter first; only distinct words reach the shared map
+                TermTable chapterCounts = new TermTable();
+                TextTokenizer.forEachToken(chapterText(chapter), TextTokenizer.CjkMode.BIGRAMS,
+                        (term, start, end) -> chapterCounts.add(term));
+                chapterCounts.forEach((term, count) ->
+                        counts.computeIfAbsent(term.toString(), key -> new LongAdder()).add(count));
+            });
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == pageSize);
+
+        Map<String, Long> result = new HashMap<>(counts.size() * 2);
+        counts.forEach((word, count) -> result.put(word, count.sum()));
+        return result;
+    }
+
+    private static void awaitIdle(AtomicInteger inFlight) {
+        while (inFlight.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+
+    private static String chapterText(ChapterText chapter) {
+        StringBuilder text = new StringBuilder();
+        for (String part : new String[]{chapter.translatedContent(), chapter.rawContent()}) {
+            if (part != null && !part.isBlank()) {
+                text.append(part).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,308 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.common.text.Utf8;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only word vector store, memory-mapped from a binary file so a multi-million-word
+ * vocabulary opens instantly and costs no heap. Lookups binary-search the sorted vocabulary
+ * inside the mapping; any number of threads read concurrently without locks. The vectors are
+ * mapped in chunks of whole rows, since one mapping cannot exceed 2 GB.
+ * <pre>
+ * header   magic, version, count int, dimension int, words offset long, vectors offset long
+ * entries  count x (word start long, word length int), sorted by UTF-8 bytes
+ * words    UTF-8 word bytes
+ * vectors  count x dimension float32, unit length, row = vocabulary position
+ * </pre>
+ * Built from fastText/word2vec text files ({@link #importText}) or written directly ({@link #write}).
+ */
+@Slf4j
+final class WordVectorStore {
+
+    private static final int MAGIC = 0x57564543; // "WVEC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int ENTRY_BYTES = 12;
+
+    /** Header, entries and words; vectors are mapped separately */
+    private final MappedByteBuffer vocabulary;
+    private final MappedByteBuffer[] vectorChunks;
+    private final int rowsPerChunk;
+    private final int count;
+    private final int dimension;
+    private final int wordsOffset;
+
+    private WordVectorStore(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not a word vector store");
+        }
+        this.count = header.getInt(8);
+        this.dimension = header.getInt(12);
+        long words = header.getLong(16);
+        long vectors = header.getLong(24);
+        if (vectors > Integer.MAX_VALUE) {
+            throw new IOException("Word vector vocabulary exceeds 2 GB");
+        }
+        this.wordsOffset = (int) words;
+        this.vocabulary = channel.map(FileChannel.MapMode.READ_ONLY, 0, vectors);
+
+        int rowBytes = dimension * Float.BYTES;
+        this.rowsPerChunk = Math.max(1, Integer.MAX_VALUE / rowBytes);
+        int chunks = (count + rowsPerChunk - 1) / rowsPerChunk;
+        this.vectorChunks = new MappedByteBuffer[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            long firstRow = (long) chunk * rowsPerChunk;
+            long rows = Math.min(rowsPerChunk, count - firstRow);
+            vectorChunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    vectors + firstRow * rowBytes, rows * rowBytes);
+        }
+    }
+
+    static WordVectorStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Mappings stay valid after the channel is closed
+            return new WordVectorStore(channel);
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Row of a word, or -1 if it is not in the vocabulary
+     */
+    int find(CharSequence word) {
+        return find(word, 0, word.length());
+    }
+
+    /**
+     * Row of the word {@code text[start, end)}, or -1 if it is not in the vocabulary
+     */
+    int find(CharSequence text, int start, int end) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareWord(mid, text, start, end);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * target += weight * vector(row)
+     */
+    void addTo(int row, float[] target, float weight) {
+        MappedByteBuffer chunk = vectorChunks[row / rowsPerChunk];
+        int offset = (row % rowsPerChunk) * dimension * Float.BYTES;
+        for (int i = 0; i < dimension; i++) {
+            target[i] += weight * chunk.getFloat(offset + i * Float.BYTES);
+        }
+    }
+
+    float[] vector(int row) {
+        float[] vector = new float[dimension];
+        addTo(row, vector, 1f);
+        return vector;
+    }
+
+    private int compareWord(int row, CharSequence text, int start, int end) {
+        int entry = HEADER_BYTES + row * ENTRY_BYTES;
+        return Utf8.compare(vocabulary, wordsOffset + (int) vocabulary.getLong(entry), vocabulary.getInt(entry + 8),
+                text, start, end);
+    }
+
+    /**
+     * Convert a fastText/word2vec text file ("word v1 ... vN" per line, optional "count dim"
+     * header) into a store. Words are lowercased; the first (most frequent) spelling wins.
+     * Vectors are spooled to a temporary file in input order and read back in vocabulary order,
+     * so the heap only holds the word list.
+     */
+    static void importText(Path textFile, Path storePath) throws IOException {
+        long start = System.currentTimeMillis();
+        Path rowsPath = storePath.resolveSibling(storePath.getFileName() + ".rows.tmp");
+        List<byte[]> words = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int dimension = -1;
+
+        try (BufferedReader reader = Files.newBufferedReader(textFile, StandardCharsets.UTF_8);
+             DataOutputStream rows = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(rowsPath), 1 << 16))) {
+            String line;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split(" ");
+                if (first && parts.length == 2) {
+                    first = false;
+                    continue; // "count dim" header
+                }
+                first = false;
+                if (dimension < 0) {
+                    dimension = parts.length - 1;
+                }
+                if (parts.length != dimension + 1) {
+                    continue; // Malformed line or a word containing spaces
+                }
+                String word = parts[0].toLowerCase(Locale.ROOT);
+                if (!seen.add(word)) {
+                    continue;
+                }
+                float[] vector = new float[dimension];
+                for (int i = 0; i < dimension; i++) {
+                    vector[i] = Float.parseFloat(parts[i + 1]);
+                }
+                for (float value : normalize(vector)) {
+                    rows.writeFloat(value);
+                }
+                words.add(word.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        seen.clear();
+
+        if (dimension <= 0 || words.isEmpty()) {
+            Files.deleteIfExists(rowsPath);
+            throw new IOException("No word vectors found in " + textFile);
+        }
+
+        // Vocabulary order, remembering each word's input row
+        Integer[] order = new Integer[words.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(words.get(a), words.get(b)));
+        List<byte[]> sortedWords = new ArrayList<>(order.length);
+        for (Integer row : order) {
+            sortedWords.add(words.get(row));
+        }
+
+        int dim = dimension;
+        ByteBuffer row = ByteBuffer.allocate(dim * Float.BYTES);
+        try (FileChannel rows = FileChannel.open(rowsPath, StandardOpenOption.READ)) {
+            write(storePath, dim, sortedWords, index -> {
+                try {
+                    row.clear();
+                    long position = (long) order[index] * row.capacity();
+                    while (row.hasRemaining() && rows.read(row, position + row.position()) > 0) {
+                        // Positional reads may return fewer bytes
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                float[] vector = new float[dim];
+                row.flip().asFloatBuffer().get(vector);
+                return vector;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(rowsPath);
+        }
+        log.info("Imported {} word vectors ({} dims) from {} in {} ms",
+                sortedWords.size(), dimension, textFile, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Write a store from an in-memory word -> vector map (vectors are normalized on the way out)
+     */
+    static void write(Path storePath, Map<String, float[]> vectors) throws IOException {
+        List<byte[]> sortedWords = new ArrayList<>(vectors.size());
+        vectors.keySet().forEach(word -> sortedWords.add(word.getBytes(StandardCharsets.UTF_8)));
+        sortedWords.sort(Arrays::compareUnsigned);
+        int dimension = vectors.values().iterator().next().length;
+        write(storePath, dimension, sortedWords,
+                index -> normalize(vectors.get(new String(sortedWords.get(index), StandardCharsets.UTF_8)).clone()));
+    }
+
+    /**
+     * Write a store atomically
+     * @param sortedWords vocabulary sorted by unsigned UTF-8 bytes
+     * @param vectorOf    vector of the word at a vocabulary position (unit length)
+     */
+    static void write(Path storePath, int dimension, List<byte[]> sortedWords, IntFunction<float[]> vectorOf)
+            throws IOException {
+        long wordsOffset = HEADER_BYTES + (long) sortedWords.size() * ENTRY_BYTES;
+        long wordBytes = 0;
+        for (byte[] word : sortedWords) {
+            wordBytes += word.length;
+        }
+        int padding = (int) ((4 - (wordsOffset + wordBytes) % 4) % 4);
+        long vectorsOffset = wordsOffset + wordBytes + padding;
+
+        if (storePath.getParent() != null) {
+            Files.createDirectories(storePath.getParent());
+        }
+        Path temp = storePath.resolveSibling(storePath.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sortedWords.size());
+            out.writeInt(dimension);
+            out.writeLong(wordsOffset);
+            out.writeLong(vectorsOffset);
+            long wordStart = 0;
+            for (byte[] word : sortedWords) {
+                out.writeLong(wordStart);
+                out.writeInt(word.length);
+                wordStart += word.length;
+            }
+            for (byte[] word : sortedWords) {
+                out.write(word);
+            }
+            out.write(new byte[padding]);
+            for (int i = 0; i < sortedWords.size(); i++) {
+                for (float value : vectorOf.apply(i)) {
+                    out.writeFloat(value);
+                }
+            }
+        }
+        Files.move(temp, storePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float inverse = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= inverse;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,16 @@
+package com.graduate.novel.common.exception;
+
+import lombok.Getter;
+
+/**
+ * An upstream dependency is known to be down (e.g. its circuit breaker is open)
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
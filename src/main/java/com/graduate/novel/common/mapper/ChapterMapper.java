@@ -18,6 +18,13 @@ public interface ChapterMapper {
     @Mapping(target = "translateStatus", constant = "NONE")
     @Mapping(target = "crawlTime", ignore = true)
     @Mapping(target = "translateTime", ignore = true)
+    @Mapping(target = "translationReviewedAt", ignore = true)
+    @Mapping(target = "sourceUpdatedAt", ignore = true)
+    @Mapping(target = "etag", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    @Mapping(target = "contentHash", ignore = true)
+    @Mapping(target = "minhash", ignore = true)
+    @Mapping(target = "duplicateOfChapterId", ignore = true)
     @Mapping(target = "translatedContent", ignore = true)
     @Mapping(target = "rawTitle", ignore = true)
     @Mapping(target = "translatedTitle", ignore = true)
@@ -33,6 +40,13 @@ public interface ChapterMapper {
     @Mapping(target = "translateStatus", ignore = true)
     @Mapping(target = "crawlTime", ignore = true)
     @Mapping(target = "translateTime", ignore = true)
+    @Mapping(target = "translationReviewedAt", ignore = true)
+    @Mapping(target = "sourceUpdatedAt", ignore = true)
+    @Mapping(target = "etag", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    @Mapping(target = "contentHash", ignore = true)
+    @Mapping(target = "minhash", ignore = true)
+    @Mapping(target = "duplicateOfChapterId", ignore = true)
     @Mapping(target = "rawTitle", ignore = true)
     @Mapping(target = "translatedTitle", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
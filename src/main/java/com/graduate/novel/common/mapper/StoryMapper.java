@@ -12,7 +12,6 @@ public interface StoryMapper {
     StoryDto toDto(Story story);
 
     @Mapping(target = "id", ignore = true)
-    @Mapping(target = "embedding", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
@@ -29,10 +28,11 @@ public interface StoryMapper {
     @Mapping(target = "translatedAuthorName", ignore = true)
     @Mapping(target = "genres", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "minhash", ignore = true)
+    @Mapping(target = "duplicateOfStoryId", ignore = true)
     Story toEntity(CreateStoryRequest request);
 
     @Mapping(target = "id", ignore = true)
-    @Mapping(target = "embedding", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
@@ -49,6 +49,8 @@ public interface StoryMapper {
     @Mapping(target = "translatedAuthorName", ignore = true)
     @Mapping(target = "genres", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "minhash", ignore = true)
+    @Mapping(target = "duplicateOfStoryId", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntity(UpdateStoryRequest request, @MappingTarget Story story);
 }
@@ -0,0 +1,137 @@
+package com.graduate.novel.common.text;
+
+import java.nio.ByteBuffer;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures of text, for estimating how much two texts overlap (Jaccard similarity of
+ * their shingle sets) without comparing the texts.
+ * <p>
+ * Text is NFKC-normalized and whitespace dropped, so reflowed lines and full-/half-width variants
+ * do not count as edits; the shingles are overlapping runs of {@link #SHINGLE_CHARS} characters,
+ * which works for Japanese without word segmentation. Each of the {@link #HASHES} components is
+ * the minimum of one multiply-shift hash over all shingles: two texts agree on a component with
+ * probability equal to their Jaccard similarity. The signature of a union of texts is the
+ * component-wise minimum of their signatures, so a story's signature follows from its chapters'.
+ */
+public final class MinHash {
+
+    public static final int HASHES = 128;
+    public static final int SHINGLE_CHARS = 5;
+    /** Shorter texts get no signature: too few shingles to tell a repost from a coincidence */
+    public static final int MIN_TEXT_CHARS = 100;
+
+    private static final long[] MULTIPLIERS = new long[HASHES];
+    private static final long[] ADDENDS = new long[HASHES];
+
+    static {
+        // Fixed seed: stored signatures must stay comparable across restarts
+        SplittableRandom random = new SplittableRandom(0x6d696e68617368L);
+        for (int i = 0; i < HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            ADDENDS[i] = random.nextLong();
+        }
+    }
+
+    private MinHash() {
+    }
+
+    /**
+     * Signature of a text, or null if it is shorter than {@link #MIN_TEXT_CHARS} once normalized
+     */
+    public static int[] signature(String text) {
+        if (text == null) {
+            return null;
+        }
+        char[] chars = normalize(text);
+        if (chars.length < MIN_TEXT_CHARS) {
+            return null;
+        }
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int start = 0; start + SHINGLE_CHARS <= chars.length; start++) {
+            long shingle = shingleHash(chars, start);
+            for (int i = 0; i < HASHES; i++) {
+                int value = (int) ((MULTIPLIERS[i] * shingle + ADDENDS[i]) >>> 32);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Signature of a text in its stored form, or null (see {@link #signature(String)})
+     */
+    public static byte[] signatureBytes(String text) {
+        int[] signature = signature(text);
+        return signature != null ? toBytes(signature) : null;
+    }
+
+    /**
+     * Estimated Jaccard similarity: the fraction of components on which the signatures agree
+     */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / HASHES;
+    }
+
+    /**
+     * Fold a signature into another: the result is the signature of both texts together
+     */
+    public static void merge(int[] into, int[] other) {
+        for (int i = 0; i < HASHES; i++) {
+            into[i] = Math.min(into[i], other[i]);
+        }
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(HASHES * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != HASHES * Integer.BYTES) {
+            return null;
+        }
+        int[] signature = new int[HASHES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    private static char[] normalize(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        char[] chars = new char[normalized.length()];
+        int length = 0;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                chars[length++] = c;
+            }
+        }
+        return Arrays.copyOf(chars, length);
+    }
+
+    /**
+     * FNV-1a over the shingle's characters, then a final mix so every bit depends on every character
+     */
+    private static long shingleHash(char[] chars, int start) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < start + SHINGLE_CHARS; i++) {
+            hash = (hash ^ chars[i]) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
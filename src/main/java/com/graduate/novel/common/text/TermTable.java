@@ -0,0 +1,200 @@
+package com.graduate.novel.common.text;
+
+import java.util.Arrays;
+
+/**
+ * Counts terms by their characters, so tokens from {@link TextTokenizer#forEachToken} can be
+ * counted and looked up without creating a String per token. Terms get dense ids in order of
+ * first insertion. Open addressing over flat arrays; storage only grows when a new term is added,
+ * and {@link #clear()} keeps it for the next document.
+ */
+public final class TermTable {
+
+    @FunctionalInterface
+    public interface TermCountHandler {
+        void term(CharSequence term, int count);
+    }
+
+    private char[] pool = new char[256];
+    private int poolSize;
+    private int[] starts = new int[16];
+    private int[] lengths = new int[16];
+    private int[] hashes = new int[16];
+    private int[] counts = new int[16];
+    private int size;
+    private int maxCount;
+    /** Term id + 1 per slot, 0 = empty; length is a power of two */
+    private int[] slots = new int[32];
+    private final View view = new View();
+
+    /**
+     * Count one occurrence of a term
+     * @return the term's id
+     */
+    public int add(CharSequence term) {
+        int hash = hash(term);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && contentEquals(id, term)) {
+                maxCount = Math.max(maxCount, ++counts[id]);
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int id = append(term, hash);
+        slots[slot] = id + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Id of a term, or -1 if it was never added
+     */
+    public int indexOf(CharSequence term) {
+        int hash = hash(term);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && contentEquals(id, term)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int count(int id) {
+        return counts[id];
+    }
+
+    /**
+     * Highest count of any term
+     */
+    public int maxCount() {
+        return maxCount;
+    }
+
+    /**
+     * The term with this id, as a new String
+     */
+    public String term(int id) {
+        return new String(pool, starts[id], lengths[id]);
+    }
+
+    /**
+     * Visit the terms in id order. The term view is only valid during the call.
+     */
+    public void forEach(TermCountHandler handler) {
+        for (int id = 0; id < size; id++) {
+            view.id = id;
+            handler.term(view, counts[id]);
+        }
+    }
+
+    /**
+     * Forget all terms, keeping the storage
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(slots, 0);
+        }
+        size = 0;
+        poolSize = 0;
+        maxCount = 0;
+    }
+
+    private int append(CharSequence term, int hash) {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        int length = term.length();
+        if (poolSize + length > pool.length) {
+            pool = Arrays.copyOf(pool, Math.max(poolSize + length, pool.length * 2));
+        }
+        for (int i = 0; i < length; i++) {
+            pool[poolSize + i] = term.charAt(i);
+        }
+        int id = size++;
+        starts[id] = poolSize;
+        lengths[id] = length;
+        hashes[id] = hash;
+        counts[id] = 1;
+        maxCount = Math.max(maxCount, 1);
+        poolSize += length;
+        return id;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private boolean contentEquals(int id, CharSequence term) {
+        int length = lengths[id];
+        if (length != term.length()) {
+            return false;
+        }
+        int start = starts[id];
+        for (int i = 0; i < length; i++) {
+            if (pool[start + i] != term.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence term) {
+        int hash = 0;
+        for (int i = 0; i < term.length(); i++) {
+            hash = 31 * hash + term.charAt(i);
+        }
+        // Spread the bits; the table is indexed by the low bits
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * View of the term currently visited by {@link #forEach}
+     */
+    private final class View implements CharSequence {
+
+        int id;
+
+        @Override
+        public int length() {
+            return lengths[id];
+        }
+
+        @Override
+        public char charAt(int index) {
+            return pool[starts[id] + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(pool, starts[id] + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return term(id);
+        }
+    }
+}
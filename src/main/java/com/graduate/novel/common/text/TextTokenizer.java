@@ -0,0 +1,204 @@
+package com.graduate.novel.common.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tokenizer shared by the chapter index and the local embedding strategies.
+ * Latin/Vietnamese text is split into lowercased words; Japanese/Chinese/Korean text has no
+ * spaces, so each run of CJK characters becomes overlapping character bigrams
+ * ("魔法使い" -> 魔法, 法使, 使い). A lone CJK character is kept as a unigram.
+ * <p>
+ * {@link #forEachToken} walks the text once by code point and hands each term to the caller as a
+ * reused {@link CharSequence} view, so tokenizing a whole chapter allocates no per-token objects.
+ * Callers that need to keep a term copy it ({@code term.toString()}) or count it in a {@link TermTable}.
+ */
+public final class TextTokenizer {
+
+    /** Words longer than this are noise (URLs, base64) and are skipped */
+    private static final int MAX_WORD_CHARS = 40;
+
+    /**
+     * How runs of CJK characters are split
+     */
+    public enum CjkMode {
+        /** Overlapping character bigrams (search, TF-IDF, training) */
+        BIGRAMS,
+        /** One token per run, for callers that segment CJK text themselves */
+        WHOLE_RUNS
+    }
+
+    /**
+     * Receives each token. The term view is only valid during the call.
+     */
+    @FunctionalInterface
+    public interface TokenHandler {
+        void token(CharSequence term, int start, int end);
+    }
+
+    /**
+     * A term and its UTF-16 offsets in the source text (for snippets)
+     */
+    public record Token(String term, int start, int end) {
+    }
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * Stream the tokens of a text to a handler
+     */
+    public static void forEachToken(CharSequence text, CjkMode mode, TokenHandler handler) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        Term term = new Term();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = Character.codePointAt(text, i);
+            if (isCjk(codePoint)) {
+                i = mode == CjkMode.BIGRAMS ? cjkRun(text, i, term, handler) : wholeCjkRun(text, i, term, handler);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                i = word(text, i, term, handler);
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+    }
+
+    public static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        forEachToken(text, CjkMode.BIGRAMS, (term, start, end) -> tokens.add(new Token(term.toString(), start, end)));
+        return tokens;
+    }
+
+    /**
+     * Distinct terms of a query, in order of first occurrence
+     */
+    public static List<String> queryTerms(String query) {
+        return tokenize(query).stream().map(Token::term).distinct().toList();
+    }
+
+    private static int word(CharSequence text, int start, Term term, TokenHandler handler) {
+        term.clear();
+        int i = start;
+        while (i < text.length()) {
+            int codePoint = Character.codePointAt(text, i);
+            // Combining marks belong to the word (decomposed Vietnamese diacritics)
+            if (isCjk(codePoint) || !(Character.isLetterOrDigit(codePoint)
+                    || Character.getType(codePoint) == Character.NON_SPACING_MARK)) {
+                break;
+            }
+            term.append(Character.toLowerCase(codePoint));
+            i += Character.charCount(codePoint);
+        }
+        if (i - start <= MAX_WORD_CHARS) {
+            handler.token(term, start, i);
+        }
+        return i;
+    }
+
+    private static int cjkRun(CharSequence text, int start, Term term, TokenHandler handler) {
+        int previousStart = -1;
+        int i = start;
+        while (i < text.length()) {
+            int codePoint = Character.codePointAt(text, i);
+            if (!isCjk(codePoint)) {
+                break;
+            }
+            int next = i + Character.charCount(codePoint);
+            if (previousStart >= 0) {
+                term.clear();
+                term.append(text, previousStart, next);
+                handler.token(term, previousStart, next);
+            }
+            previousStart = i;
+            i = next;
+        }
+        if (previousStart == start) {
+            // Single character run
+            term.clear();
+            term.append(text, start, i);
+            handler.token(term, start, i);
+        }
+        return i;
+    }
+
+    private static int wholeCjkRun(CharSequence text, int start, Term term, TokenHandler handler) {
+        int i = start;
+        while (i < text.length()) {
+            int codePoint = Character.codePointAt(text, i);
+            if (!isCjk(codePoint)) {
+                break;
+            }
+            i += Character.charCount(codePoint);
+        }
+        term.clear();
+        term.append(text, start, i);
+        handler.token(term, start, i);
+        return i;
+    }
+
+    public static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL
+                // Prolonged sound mark (ー) is script COMMON but part of katakana words
+                || codePoint == 0x30FC;
+    }
+
+    /**
+     * Reusable term buffer handed out as the token view
+     */
+    private static final class Term implements CharSequence {
+
+        private char[] chars = new char[32];
+        private int length;
+
+        void clear() {
+            length = 0;
+        }
+
+        void append(int codePoint) {
+            ensureCapacity(length + 2);
+            length += Character.toChars(codePoint, chars, length);
+        }
+
+        void append(CharSequence text, int start, int end) {
+            ensureCapacity(length + end - start);
+            for (int i = start; i < end; i++) {
+                chars[length++] = text.charAt(i);
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(capacity, chars.length * 2));
+            }
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.graduate.novel.common.text;
+
+import java.nio.ByteBuffer;
+
+/**
+ * UTF-8 helpers for looking up terms in memory-mapped sorted vocabularies without encoding the
+ * term first. UTF-8 byte order equals code point order, so comparing code points gives the same
+ * result as comparing the encoded bytes.
+ */
+public final class Utf8 {
+
+    private Utf8() {
+    }
+
+    /**
+     * Compare UTF-8 bytes in a buffer with a range of a character sequence
+     * @return negative, zero or positive as the bytes sort before, equal to or after the characters
+     */
+    public static int compare(ByteBuffer buffer, int offset, int byteLength, CharSequence text, int start, int end) {
+        int position = offset;
+        int limit = offset + byteLength;
+        int i = start;
+        while (position < limit && i < end) {
+            int b = buffer.get(position) & 0xFF;
+            int codePoint;
+            if (b < 0x80) {
+                codePoint = b;
+                position += 1;
+            } else if (b < 0xE0) {
+                codePoint = ((b & 0x1F) << 6) | (buffer.get(position + 1) & 0x3F);
+                position += 2;
+            } else if (b < 0xF0) {
+                codePoint = ((b & 0x0F) << 12) | ((buffer.get(position + 1) & 0x3F) << 6)
+                        | (buffer.get(position + 2) & 0x3F);
+                position += 3;
+            } else {
+                codePoint = ((b & 0x07) << 18) | ((buffer.get(position + 1) & 0x3F) << 12)
+                        | ((buffer.get(position + 2) & 0x3F) << 6) | (buffer.get(position + 3) & 0x3F);
+                position += 4;
+            }
+            int other = Character.codePointAt(text, i);
+            if (codePoint != other) {
+                return Integer.compare(codePoint, other);
+            }
+            i += Character.charCount(other);
+        }
+        if (position < limit) {
+            return 1;
+        }
+        return i < end ? -1 : 0;
+    }
+}
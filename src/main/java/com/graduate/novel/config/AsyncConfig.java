@@ -1,11 +1,14 @@
 package com.graduate.novel.config;
 
+import com.graduate.novel.ai.config.GeminiConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableAsync
@@ -21,5 +24,89 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
 
+    /**
+     * Executor for translating chapter chunks in parallel.
+     * Pool size is the global bound on concurrent Gemini translation calls.
+     */
+    @Bean(name = "translationExecutor")
+    public ThreadPoolTaskExecutor translationExecutor(GeminiConfig geminiConfig) {
+        int parallelism = Math.max(1, geminiConfig.getTranslation().getMaxParallelChunks());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("translate-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor that runs jobs claimed from the job queue.
+     * Sized by app.job-queue.worker-threads; the worker never claims more jobs than that.
+     */
+    @Bean(name = "jobWorkerExecutor")
+    public ThreadPoolTaskExecutor jobWorkerExecutor(JobQueueProperties jobQueueProperties) {
+        int threads = Math.max(1, jobQueueProperties.getWorkerThreads());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("job-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for long-lived streaming responses (SSE).
+     * Each stream mostly waits on Gemini, so it gets its own virtual thread.
+     */
+    @Bean(name = "streamingExecutor", destroyMethod = "close")
+    public ExecutorService streamingExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Executor for the concurrent branches of a search request.
+     * The branches wait on the database and Gemini, so each gets its own virtual thread.
+     */
+    @Bean(name = "searchExecutor", destroyMethod = "close")
+    public ExecutorService searchExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Executor for crawls and their page fetches.
+     * They wait on per-host rate limits and the network, so each gets its own virtual thread.
+     */
+    @Bean(name = "crawlExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService crawlExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Executor for re-parsing archived pages: decompression and HTML parsing are CPU-bound,
+     * so one platform thread per core unless app.page-archive.reparse-threads says otherwise.
+     */
+    @Bean(name = "reparseExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService reparseExecutor(PageArchiveProperties pageArchiveProperties) {
+        int threads = pageArchiveProperties.getReparseThreads() > 0
+                ? pageArchiveProperties.getReparseThreads()
+                : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("reparse-", 0).factory());
+    }
+
+    /**
+     * Executor for duplicate scans: shingling and signature comparison are CPU-bound, so one
+     * platform thread per core unless app.duplicates.scan-threads says otherwise.
+     */
+    @Bean(name = "duplicateScanExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService duplicateScanExecutor(DuplicateDetectionProperties duplicateDetectionProperties) {
+        int threads = duplicateDetectionProperties.getScanThreads() > 0
+                ? duplicateDetectionProperties.getScanThreads()
+                : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("duplicate-scan-", 0).factory());
+    }
+}
@@ -0,0 +1,71 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the in-process chapter full-text index
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.chapter-search")
+@Data
+public class ChapterSearchProperties {
+
+    /**
+     * Whether the chapter index is built and searchable on this node
+     */
+    private boolean enabled = true;
+
+    /**
+     * Local directory holding the index segments (rebuilt from the database if deleted)
+     */
+    private String indexDir = "./data/chapter-index";
+
+    /**
+     * Delay between incremental index refreshes (milliseconds)
+     */
+    private long refreshIntervalMs = 30000;
+
+    /**
+     * Only chapters updated at least this long ago are indexed, so a row written by a transaction
+     * that commits late is not skipped by the watermark (seconds)
+     */
+    private long commitLagSeconds = 60;
+
+    /**
+     * Chapters read from the database per index update
+     */
+    private int refreshBatchSize = 200;
+
+    /**
+     * Upper bound on batches per refresh, so the initial build does not hold the scheduler for long
+     */
+    private int maxBatchesPerRefresh = 50;
+
+    /**
+     * Segments are merged while there are more than this
+     */
+    private int maxSegments = 8;
+
+    /**
+     * Merged segments are kept below this many chapters
+     */
+    private int maxMergeDocs = 500000;
+
+    /**
+     * Maximum hits returned by one search
+     */
+    private int maxResults = 50;
+
+    /**
+     * Length of the text snippet around the best match (characters)
+     */
+    private int snippetChars = 160;
+
+    /**
+     * How long deleted-chapter records are kept for indexes to pick up (days). An index further
+     * behind than this keeps deleted chapters, which searches then only skip when loading hits
+     */
+    private int tombstoneRetentionDays = 30;
+}
@@ -0,0 +1,62 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the crawl engine
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.crawl")
+@Data
+public class CrawlProperties {
+
+    /**
+     * Sustained request rate toward any one host, across all running crawls
+     */
+    private double hostRequestsPerSecond = 1.0;
+
+    /**
+     * Requests a host may receive back to back after being idle
+     */
+    private int hostBurst = 3;
+
+    /**
+     * Per-host rate overrides (host name to requests per second)
+     */
+    private Map<String, Double> hostRequestsPerSecondOverrides = new HashMap<>();
+
+    /**
+     * Chapters of one story fetched at the same time; all of them still wait for the host's rate
+     */
+    private int chapterConcurrency = 4;
+
+    /**
+     * Fetched chapters saved together in one short transaction
+     */
+    private int writeBatchSize = 20;
+
+    /**
+     * Delay before retrying a host that answered 429 or 503 without a Retry-After header (seconds)
+     */
+    private long defaultRetryAfterSeconds = 60;
+
+    /**
+     * Connection timeout (milliseconds)
+     */
+    private long connectTimeoutMs = 10000;
+
+    /**
+     * Timeout for a whole request, until the response body is read (milliseconds)
+     */
+    private long requestTimeoutMs = 30000;
+
+    /**
+     * User-Agent header sent with every request
+     */
+    private String userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+}
@@ -0,0 +1,52 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for near-duplicate story and chapter detection
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.duplicates")
+@Data
+public class DuplicateDetectionProperties {
+
+    /**
+     * Whether crawled chapters are checked against the index and the index is kept in memory
+     */
+    private boolean enabled = true;
+
+    /**
+     * Estimated Jaccard similarity of shingles at which a chapter counts as a copy of another
+     */
+    private double chapterThreshold = 0.85;
+
+    /**
+     * Estimated similarity at which a story counts as a copy of another. Lower than for chapters:
+     * a mirror is often missing a few chapters or has extra notes.
+     */
+    private double storyThreshold = 0.7;
+
+    /**
+     * LSH bands the 128-component signature is cut into; must divide 128. More bands find pairs
+     * of lower similarity, at the cost of more candidates to score.
+     */
+    private int bands = 16;
+
+    /**
+     * Threads signing and comparing chapters during a scan; 0 for one per CPU core
+     */
+    private int scanThreads = 0;
+
+    /**
+     * Chapters read, signed or updated per batch during a scan and index rebuilds
+     */
+    private int scanBatchSize = 500;
+
+    /**
+     * How often the in-memory index is rebuilt from the stored signatures, picking up chapters
+     * written by other nodes and dropping replaced entries (milliseconds)
+     */
+    private long rebuildIntervalMs = 3600000;
+}
@@ -0,0 +1,47 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for versioned story embeddings and background re-embedding.
+ * The embedding model in gemini.api.model is the target: when it differs from the model that
+ * produced the stored vectors, it is filled in as a shadow and cut over to once complete.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.embedding-migration")
+@Data
+public class EmbeddingMigrationProperties {
+
+    /**
+     * Run the re-embedding scheduler on this node
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between scheduler runs (ms)
+     */
+    private long intervalMs = 60000;
+
+    /**
+     * Stories re-embedded per run, in one batch request within the shared embedding quota
+     */
+    private int batchSize = 50;
+
+    /**
+     * How long a node keeps using its view of the active model before re-reading it (seconds)
+     */
+    private long modelCacheSeconds = 30;
+
+    /**
+     * Vectors of a replaced model are deleted this long after the cut-over, so nodes that have
+     * not switched yet keep working and the switch can be undone (hours)
+     */
+    private long retiredRetentionHours = 24;
+
+    /**
+     * Rows deleted per statement when purging a retired model
+     */
+    private int deleteBatchSize = 1000;
+}
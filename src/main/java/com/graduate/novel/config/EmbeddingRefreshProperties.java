@@ -0,0 +1,51 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for re-embedding stories after their text changes.
+ * Changes are queued per story; a story is embedded once it has been quiet for the debounce
+ * window, so a burst of edits costs one embedding.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.embedding-refresh")
+@Data
+public class EmbeddingRefreshProperties {
+
+    /**
+     * Queue changed stories and re-embed them automatically
+     */
+    private boolean enabled = true;
+
+    /**
+     * A story is embedded when it has not changed for this long (ms)
+     */
+    private long debounceMs = 30000;
+
+    /**
+     * ...but no later than this after its first queued change, even if edits keep coming (ms)
+     */
+    private long maxDelayMs = 300000;
+
+    /**
+     * How often due stories are sent for embedding (ms)
+     */
+    private long flushIntervalMs = 5000;
+
+    /**
+     * Stories per batch embedding request (the API accepts up to 100)
+     */
+    private int batchSize = 50;
+
+    /**
+     * Attempts per story before it is dropped from the queue
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Wait before the first retry of a failed batch, doubled for each further attempt (ms)
+     */
+    private long retryBackoffMs = 60000;
+}
@@ -0,0 +1,44 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for hybrid (full-text + vector) story search
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.hybrid-search")
+@Data
+public class HybridSearchProperties {
+
+    /**
+     * Results taken from each branch before fusion; pagination never goes past the fused list
+     */
+    private int candidates = 100;
+
+    /**
+     * Reciprocal rank fusion constant: a result at rank r scores 1 / (k + r) in each list
+     */
+    private int rrfK = 60;
+
+    /**
+     * Results per page when the request does not say
+     */
+    private int defaultPageSize = 10;
+
+    /**
+     * Largest page a request may ask for
+     */
+    private int maxPageSize = 50;
+
+    /**
+     * How long a search cursor stays valid after the first page (seconds)
+     */
+    private long cursorTtlSeconds = 300;
+
+    /**
+     * Fused result lists kept for cursors at most; the oldest are dropped first
+     */
+    private long maxCursors = 10000;
+}
@@ -0,0 +1,39 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for streaming job progress to watchers (SSE)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.job-events")
+@Data
+public class JobEventProperties {
+
+    /**
+     * Whether watched jobs are re-read periodically, to follow jobs running on other nodes
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often the watched jobs are re-read (one query for all of them)
+     */
+    private long pollIntervalMs = 2000;
+
+    /**
+     * A comment is sent to a watcher after this long without an event, so proxies keep the stream open
+     */
+    private int keepAliveSeconds = 15;
+
+    /**
+     * A stream is closed after this long even if the job is still running; clients reconnect
+     */
+    private int streamTimeoutMinutes = 60;
+
+    /**
+     * Minimum time between progress writes of a running job (milliseconds)
+     */
+    private long progressIntervalMs = 1000;
+}
@@ -0,0 +1,59 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the background job queue (crawl_jobs)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.job-queue")
+@Data
+public class JobQueueProperties {
+
+    /**
+     * Whether this node runs queue workers
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of jobs this node runs at the same time
+     */
+    private int workerThreads = 2;
+
+    /**
+     * Worker slots kept free of long-running jobs, for short jobs readers are waiting on
+     */
+    private int reservedShortJobSlots = 1;
+
+    /**
+     * Delay between polls for new jobs (milliseconds)
+     */
+    private long pollIntervalMs = 2000;
+
+    /**
+     * How long a claimed job stays locked without a heartbeat (seconds)
+     */
+    private long leaseSeconds = 300;
+
+    /**
+     * How often running jobs renew their lease (milliseconds). Must be well below leaseSeconds.
+     */
+    private long heartbeatIntervalMs = 60000;
+
+    /**
+     * Attempts before a job is marked FAILED for good
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * First retry delay; doubles on every further attempt (seconds)
+     */
+    private long backoffBaseSeconds = 30;
+
+    /**
+     * Upper bound for the retry delay (seconds)
+     */
+    private long backoffMaxSeconds = 3600;
+}
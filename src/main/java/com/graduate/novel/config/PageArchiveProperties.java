@@ -0,0 +1,45 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the raw page archive
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.page-archive")
+@Data
+public class PageArchiveProperties {
+
+    /**
+     * Whether fetched pages are archived
+     */
+    private boolean enabled = true;
+
+    /**
+     * Directory of the pack files. With several crawling nodes, a volume they all share:
+     * the index in the database points into it.
+     */
+    private String dir = "./data/page-archive";
+
+    /**
+     * Zstandard compression level (1-22); higher is smaller and slower to write, not to read
+     */
+    private int compressionLevel = 9;
+
+    /**
+     * Size at which a pack file is closed and a new one started (megabytes)
+     */
+    private int maxPackMb = 256;
+
+    /**
+     * Threads re-parsing archived pages; 0 for one per CPU core
+     */
+    private int reparseThreads = 0;
+
+    /**
+     * Chapters re-parsed per batch (one transaction per story in the batch)
+     */
+    private int reparseBatchSize = 200;
+}
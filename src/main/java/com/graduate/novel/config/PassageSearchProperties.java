@@ -0,0 +1,65 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for passage-level semantic search inside chapters
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.passage-search")
+@Data
+public class PassageSearchProperties {
+
+    /**
+     * Whether chapters are split into passages and embedded on this node
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between ingestion runs (milliseconds)
+     */
+    private long ingestIntervalMs = 60000;
+
+    /**
+     * Only chapters updated at least this long ago are ingested, so a row written by a transaction
+     * that commits late is not skipped by the watermark (seconds)
+     */
+    private long commitLagSeconds = 60;
+
+    /**
+     * Chapters read per ingestion run
+     */
+    private int chaptersPerRun = 100;
+
+    /**
+     * A passage ends at the first suitable paragraph break after this many characters
+     */
+    private int minPassageChars = 600;
+
+    /**
+     * Passages never exceed this many characters (a few hundred tokens)
+     */
+    private int maxPassageChars = 2000;
+
+    /**
+     * Passages per batch embedding request (the API accepts up to 100)
+     */
+    private int embedBatchSize = 100;
+
+    /**
+     * HNSW candidate list size for searches; higher trades latency for recall
+     */
+    private int efSearch = 100;
+
+    /**
+     * Maximum passages returned by one search
+     */
+    private int maxResults = 50;
+
+    /**
+     * How long the indexed passage count shown with search results is reused (seconds)
+     */
+    private long countCacheSeconds = 300;
+}
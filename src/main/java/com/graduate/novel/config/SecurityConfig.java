@@ -1,6 +1,7 @@
 package com.graduate.novel.config;
 
 import com.graduate.novel.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,6 +42,8 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches of SSE streams were already authorized on the initial request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Spring Boot default endpoints - no token required
                         .requestMatchers("/error", "/error/**").permitAll()
                         // Authentication endpoints - no token required
@@ -83,6 +86,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/stories/*/chapters").permitAll() // GET /api/stories/{storyId}/chapters
                         .requestMatchers(HttpMethod.GET, "/api/stories/*/chapters/*").permitAll() // GET /api/stories/{storyId}/chapters/{chapterId}
                         .requestMatchers(HttpMethod.GET, "/api/chapters/latest").permitAll() // GET /api/chapters/latest
+                        .requestMatchers(HttpMethod.GET, "/api/search/chapters").permitAll() // GET /api/search/chapters?q=
+                        .requestMatchers(HttpMethod.GET, "/api/search/passages").permitAll() // GET /api/search/passages?q=&storyId=
+                        .requestMatchers(HttpMethod.GET, "/api/search/stories").permitAll() // GET /api/search/stories?q=&cursor=
                         // Chapter CUD operations - authenticated required (ownership check in controller)
                         .requestMatchers(HttpMethod.POST, "/api/stories/*/chapters").hasAnyRole("ADMIN", "MODERATOR")
                         .requestMatchers(HttpMethod.PUT, "/api/stories/*/chapters/**").hasAnyRole("ADMIN", "MODERATOR")
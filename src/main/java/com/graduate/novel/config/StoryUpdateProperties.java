@@ -0,0 +1,90 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for scheduled update checks of ongoing stories
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.story-update")
+@Data
+public class StoryUpdateProperties {
+
+    /**
+     * Whether ongoing stories are checked for new chapters automatically
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between sweeps that queue due update checks (milliseconds)
+     */
+    private long sweepIntervalMs = 60000;
+
+    /**
+     * Page requests update checks may make per hour, across all nodes
+     */
+    private int requestsPerHour = 600;
+
+    /**
+     * Requests an update check costs before any chapter is fetched (novel page, last TOC page)
+     */
+    private int requestsPerCheck = 2;
+
+    /**
+     * Readers whose history changed within this window count as active (minutes)
+     */
+    private int activeReaderWindowMinutes = 60;
+
+    /**
+     * Weight of active readers relative to favorites in a story's priority
+     */
+    private double activeReaderWeight = 2.0;
+
+    /**
+     * Checks per expected release interval for a story with no followers; more followed stories
+     * are checked proportionally more often
+     */
+    private double checksPerRelease = 4;
+
+    /**
+     * Shortest time between two checks of a story (minutes)
+     */
+    private int minCheckIntervalMinutes = 5;
+
+    /**
+     * Longest time between two checks of an active story (minutes)
+     */
+    private int maxCheckIntervalMinutes = 1440;
+
+    /**
+     * Release interval assumed until a story's own is known (minutes)
+     */
+    private int defaultIntervalMinutes = 1440;
+
+    /**
+     * No checks during this fraction of the release interval after the latest release
+     */
+    private double quietFraction = 0.5;
+
+    /**
+     * Weight of the latest gap between releases in the smoothed interval (0-1)
+     */
+    private double intervalSmoothing = 0.3;
+
+    /**
+     * A story without a release for this long is considered dormant (days)
+     */
+    private int dormantAfterDays = 60;
+
+    /**
+     * Time between checks of a dormant story (minutes)
+     */
+    private int dormantCheckIntervalMinutes = 10080;
+
+    /**
+     * Time before a story is checked again if its check does not complete (minutes)
+     */
+    private int failureBackoffMinutes = 360;
+}
@@ -0,0 +1,44 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the corpus-trained TF-IDF embedding model
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.tfidf")
+@Data
+public class TfidfProperties {
+
+    /**
+     * Whether the model is retrained from the story corpus in the background (reads every story)
+     */
+    private boolean trainingEnabled = false;
+
+    /**
+     * Model file (memory-mapped); missing until the first training run
+     */
+    private String modelPath = "./data/tfidf-model.bin";
+
+    /**
+     * Delay between retraining runs (milliseconds)
+     */
+    private long retrainIntervalMs = 86400000;
+
+    /**
+     * Stories read from the database per page during training
+     */
+    private int trainingPageSize = 500;
+
+    /**
+     * Terms in fewer stories than this are too rare for the vocabulary
+     */
+    private int minDocFreq = 2;
+
+    /**
+     * Terms in more than this fraction of stories are too common (stop words)
+     */
+    private double maxDocFreqRatio = 0.5;
+}
@@ -0,0 +1,70 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for demand-driven translation prefetch
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.translation-prefetch")
+@Data
+public class TranslationPrefetchProperties {
+
+    /**
+     * Whether opened chapters and reader positions feed the translation queue
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether chapters opened by anonymous readers are translated on read (and read ahead).
+     * Off by default so crawlers hitting public chapter pages cannot spend translation quota.
+     */
+    private boolean anonymousReaders = false;
+
+    /**
+     * How many chapters past a reader's position to translate ahead
+     */
+    private int readAheadChapters = 5;
+
+    /**
+     * Readers whose history changed within this window count as active (minutes)
+     */
+    private int activeReaderWindowMinutes = 30;
+
+    /**
+     * Maximum number of active readers considered per sweep
+     */
+    private int maxActiveReaders = 500;
+
+    /**
+     * Number of most favorited stories to prefetch per sweep
+     */
+    private int favoriteStories = 20;
+
+    /**
+     * Untranslated chapters queued per favorite story per sweep
+     */
+    private int favoriteChaptersPerStory = 3;
+
+    /**
+     * Whether remaining untranslated chapters are queued at the lowest priority
+     */
+    private boolean backfillEnabled = false;
+
+    /**
+     * Backfill chapters queued per sweep
+     */
+    private int backfillBatchSize = 20;
+
+    /**
+     * Favorites and backfill are only topped up while fewer prefetch jobs than this are waiting
+     */
+    private int maxQueuedPrefetchJobs = 200;
+
+    /**
+     * Delay between prefetch sweeps (milliseconds)
+     */
+    private long sweepIntervalMs = 60000;
+}
@@ -0,0 +1,45 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the compressed in-memory story vector tier
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.vector-tier")
+@Data
+public class VectorTierProperties {
+
+    /**
+     * Keep quantized story embeddings in memory; vector search goes to the HNSW index when off
+     */
+    private boolean enabled = true;
+
+    /**
+     * int8 (one byte per dimension) or binary (one bit per dimension)
+     */
+    private String quantization = "int8";
+
+    /**
+     * Leading embedding dimensions kept in the tier (Matryoshka truncation); 0 = all of them
+     */
+    private int dimensions = 256;
+
+    /**
+     * Candidates taken from the compressed scan and re-ranked with full-precision vectors
+     */
+    private int rerankCandidates = 300;
+
+    /**
+     * Embeddings read from the database per query while building the tier
+     */
+    private int pageSize = 1000;
+
+    /**
+     * How often the tier is rebuilt from the database (ms); stories embedded in between are
+     * searched at full precision until then
+     */
+    private long refreshIntervalMs = 3600000;
+}
@@ -0,0 +1,108 @@
+package com.graduate.novel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the pre-trained word vectors behind the Word2Vec embedding strategy
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.word-vectors")
+@Data
+public class WordVectorProperties {
+
+    /**
+     * fastText/word2vec text file (.vec) to import; empty to only use an existing store
+     */
+    private String vectorsPath = "";
+
+    /**
+     * Binary store the vectors are imported into and memory-mapped from
+     */
+    private String storePath = "./data/word-vectors.store";
+
+    /**
+     * Longest piece (in characters) tried when an unknown word is split into known subwords
+     */
+    private int maxSubwordChars = 6;
+
+    /**
+     * Training word vectors from the chapter corpus
+     */
+    private Training training = new Training();
+
+    @Data
+    public static class Training {
+
+        /**
+         * Whether vectors are trained in the background; the result replaces the store
+         */
+        private boolean enabled = false;
+
+        /**
+         * Delay between training runs (milliseconds)
+         */
+        private long intervalMs = 604800000;
+
+        /**
+         * Vector size
+         */
+        private int dimension = 100;
+
+        /**
+         * Words on each side of the center word used as its context
+         */
+        private int window = 5;
+
+        /**
+         * Negative samples per context word
+         */
+        private int negative = 5;
+
+        /**
+         * Passes over the corpus
+         */
+        private int epochs = 5;
+
+        /**
+         * Words seen fewer times are left out of the vocabulary
+         */
+        private int minCount = 5;
+
+        /**
+         * Most frequent words kept in the vocabulary
+         */
+        private int maxVocabulary = 500000;
+
+        /**
+         * Subsampling threshold for frequent words (0 disables)
+         */
+        private double sample = 1e-4;
+
+        /**
+         * Starting learning rate, decayed linearly to near zero
+         */
+        private float learningRate = 0.025f;
+
+        /**
+         * Training threads; 0 uses all cores
+         */
+        private int threads = 0;
+
+        /**
+         * Chapters read from the database per page
+         */
+        private int pageSize = 100;
+
+        /**
+         * Model state saved during training so a restarted node resumes where it stopped
+         */
+        private String checkpointPath = "./data/word2vec.checkpoint";
+
+        /**
+         * Minimum time between checkpoints (seconds)
+         */
+        private long checkpointIntervalSeconds = 600;
+    }
+}
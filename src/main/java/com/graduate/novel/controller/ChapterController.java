@@ -5,13 +5,19 @@ import com.graduate.novel.domain.chapter.ChapterService;
 import com.graduate.novel.domain.chapter.CreateChapterRequest;
 import com.graduate.novel.domain.chapter.UpdateChapterRequest;
 import com.graduate.novel.domain.chapter.UpdateChapterTranslationRequest;
+import com.graduate.novel.domain.crawljob.CrawlJobDto;
+import com.graduate.novel.domain.crawljob.JobQueueService;
+import com.graduate.novel.domain.user.User;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -33,9 +39,10 @@ public class ChapterController {
     @GetMapping("/{chapterId}")
     public ResponseEntity<ChapterDto> getChapterById(
             @PathVariable Long storyId,
-            @PathVariable Long chapterId
+            @PathVariable Long chapterId,
+            @AuthenticationPrincipal User currentUser
     ) {
-        ChapterDto chapter = chapterService.getChapterById(storyId, chapterId);
+        ChapterDto chapter = chapterService.getChapterById(storyId, chapterId, currentUser != null);
         return ResponseEntity.ok(chapter);
     }
 
@@ -121,7 +128,7 @@ public class ChapterController {
 
     /**
      * Automatically translate a chapter using AI
-     * Returns immediately with 202 Accepted and runs translation in background
+     * Returns immediately with 202 Accepted and the queued job id
      */
     @PostMapping("/{chapterId}/translate")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('MODERATOR') and @securityExpressionHandler.canModifyChapter(authentication, #storyId, #chapterId))")
@@ -129,51 +136,85 @@ public class ChapterController {
             @PathVariable Long storyId,
             @PathVariable Long chapterId
     ) {
-        // Run translation in background to avoid client timeout
-        new Thread(() -> {
-            try {
-                chapterService.translateChapter(storyId, chapterId);
-            } catch (Exception e) {
-                log.error("Background translation failed for chapterId={}: {}", chapterId, e.getMessage());
-            }
-        }).start();
+        CrawlJobDto job = chapterService.enqueueChapterTranslation(storyId, chapterId, JobQueueService.PRIORITY_DEFAULT);
 
         Map<String, Object> response = Map.of(
-                "message", "Translation started for chapter",
+                "message", "Translation queued for chapter",
                 "storyId", storyId,
                 "chapterId", chapterId,
-                "status", "PENDING"
+                "jobId", job.id(),
+                "status", job.status()
         );
         return ResponseEntity.accepted().body(response);
     }
 
+    /**
+     * Translate a chapter and stream the Vietnamese text as it is generated (Server-Sent Events).
+     * Events: "chunk" {text}, then "done" with the saved chapter, or "error" {message}.
+     * Readers opening a chapter that is already streaming join the same translation.
+     * Starts a paid translation, so it is restricted like the translate endpoint.
+     */
+    @GetMapping(value = "/{chapterId}/translation/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('MODERATOR') and @securityExpressionHandler.canModifyChapter(authentication, #storyId, #chapterId))")
+    public SseEmitter streamChapterTranslation(
+            @PathVariable Long storyId,
+            @PathVariable Long chapterId
+    ) {
+        return chapterService.streamChapterTranslation(storyId, chapterId);
+    }
+
     /**
      * Translate all untranslated chapters for a story
+     * Returns immediately with 202 Accepted and the queued job id
      */
     @PostMapping("/translate-all")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('MODERATOR') and @securityExpressionHandler.canModifyStory(authentication, #storyId))")
-    public ResponseEntity<Map<String, String>> translateAllChapters(@PathVariable Long storyId) {
-        // Run in background to avoid timeout
-        new Thread(() -> chapterService.translateAllChaptersForStory(storyId)).start();
+    public ResponseEntity<Map<String, Object>> translateAllChapters(@PathVariable Long storyId) {
+        CrawlJobDto job = chapterService.translateAllChaptersForStory(storyId);
 
-        Map<String, String> response = Map.of(
-                "message", "Translation started for all chapters",
-                "storyId", storyId.toString()
+        Map<String, Object> response = Map.of(
+                "message", "Translation queued for all chapters",
+                "storyId", storyId,
+                "jobId", job.id(),
+                "status", job.status()
+        );
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Translate a story's chapters through the batch API: cheaper, results within hours.
+     * Returns immediately with 202 Accepted and the queued job id
+     */
+    @PostMapping("/translate-all/batch")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('MODERATOR') and @securityExpressionHandler.canModifyStory(authentication, #storyId))")
+    public ResponseEntity<Map<String, Object>> batchTranslateAllChapters(
+            @PathVariable Long storyId,
+            @RequestParam(defaultValue = "false") boolean retryFailed) {
+        CrawlJobDto job = chapterService.enqueueBatchStoryTranslation(storyId, retryFailed);
+
+        Map<String, Object> response = Map.of(
+                "message", "Batch translation queued",
+                "storyId", storyId,
+                "jobId", job.id(),
+                "status", job.status()
         );
         return ResponseEntity.accepted().body(response);
     }
 
     /**
      * Retry failed translations
+     * Returns immediately with 202 Accepted and the queued job id
      */
     @PostMapping("/retry-failed-translations")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('MODERATOR') and @securityExpressionHandler.canModifyStory(authentication, #storyId))")
-    public ResponseEntity<Map<String, String>> retryFailedTranslations(@PathVariable Long storyId) {
-        new Thread(() -> chapterService.retryFailedTranslations(storyId)).start();
+    public ResponseEntity<Map<String, Object>> retryFailedTranslations(@PathVariable Long storyId) {
+        CrawlJobDto job = chapterService.retryFailedTranslations(storyId);
 
-        Map<String, String> response = Map.of(
-                "message", "Retrying failed translations",
-                "storyId", storyId.toString()
+        Map<String, Object> response = Map.of(
+                "message", "Retry of failed translations queued",
+                "storyId", storyId,
+                "jobId", job.id(),
+                "status", job.status()
         );
         return ResponseEntity.accepted().body(response);
     }
@@ -1,11 +1,16 @@
 package com.graduate.novel.controller;
 
+import com.graduate.novel.domain.crawl.ArchiveReparseService;
 import com.graduate.novel.domain.crawl.CrawlNovelRequest;
 import com.graduate.novel.domain.crawl.CrawlNovelResponse;
 import com.graduate.novel.domain.crawl.SyosetuCrawlService;
+import com.graduate.novel.domain.crawljob.CrawlJobDto;
+import com.graduate.novel.domain.duplicate.DuplicateDetectionService;
+import com.graduate.novel.domain.story.DuplicateStory;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -17,12 +22,15 @@ import org.springframework.web.bind.annotation.*;
 public class CrawlController {
 
     private final SyosetuCrawlService syosetuCrawlService;
+    private final ArchiveReparseService archiveReparseService;
+    private final DuplicateDetectionService duplicateDetectionService;
 
     /**
-     * Crawl a novel from Syosetu
+     * Crawl a novel from Syosetu. The chapters are crawled in the background;
+     * follow the returned job for the outcome.
      *
      * @param request - Contains novelUrl, optional startChapter and endChapter
-     * @return CrawlNovelResponse with crawl results
+     * @return CrawlNovelResponse with the story and the crawl job
      */
     @PostMapping("/syosetu")
     @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
@@ -36,6 +44,39 @@ public class CrawlController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Extract chapter text again from the archived pages, without fetching from the site.
+     * Runs in the background; follow the returned job for the outcome.
+     *
+     * @param storyId - Only this story's chapters; all crawled chapters if omitted
+     */
+    @PostMapping("/reparse")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    public ResponseEntity<CrawlJobDto> reparseArchivedPages(@RequestParam(required = false) Long storyId) {
+        return ResponseEntity.ok(archiveReparseService.start(storyId));
+    }
+
+    /**
+     * Sign chapters crawled before duplicate detection existed and re-check every chapter and
+     * story for copies. Runs in the background; follow the returned job for the outcome.
+     */
+    @PostMapping("/duplicates/scan")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    public ResponseEntity<CrawlJobDto> scanDuplicates() {
+        return ResponseEntity.ok(duplicateDetectionService.startScan());
+    }
+
+    /**
+     * Stories flagged as copies of earlier stories, newest first
+     */
+    @GetMapping("/duplicates")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MODERATOR')")
+    public ResponseEntity<Page<DuplicateStory>> getDuplicateStories(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(duplicateDetectionService.getDuplicateStories(page, size));
+    }
+
     /**
      * Health check for crawl service
      */
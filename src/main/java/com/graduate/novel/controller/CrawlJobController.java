@@ -3,12 +3,15 @@ package com.graduate.novel.controller;
 import com.graduate.novel.domain.crawljob.CrawlJobDto;
 import com.graduate.novel.domain.crawljob.CrawlJobService;
 import com.graduate.novel.domain.crawljob.CreateCrawlJobRequest;
+import com.graduate.novel.domain.crawljob.JobEventBus;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -20,6 +23,7 @@ import java.util.Map;
 public class CrawlJobController {
 
     private final CrawlJobService crawlJobService;
+    private final JobEventBus jobEventBus;
 
     @GetMapping
     public ResponseEntity<List<CrawlJobDto>> getAllJobs(
@@ -37,6 +41,15 @@ public class CrawlJobController {
         return ResponseEntity.ok(job);
     }
 
+    /**
+     * Live progress of a job (SSE): "progress" events with item counts, throughput and ETA,
+     * then one "done" event when the job succeeds or finally fails
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJobEvents(@PathVariable Long id) {
+        return jobEventBus.subscribe(id);
+    }
+
     @PostMapping
     public ResponseEntity<CrawlJobDto> createJob(@Valid @RequestBody CreateCrawlJobRequest request) {
         CrawlJobDto job = crawlJobService.createJob(request);
@@ -0,0 +1,61 @@
+package com.graduate.novel.controller;
+
+import com.graduate.novel.ai.dto.HybridSearchResponse;
+import com.graduate.novel.ai.service.HybridSearchService;
+import com.graduate.novel.domain.passage.ChapterPassageService;
+import com.graduate.novel.domain.passage.PassageSearchResponse;
+import com.graduate.novel.domain.search.ChapterSearchResponse;
+import com.graduate.novel.domain.search.ChapterSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final ChapterSearchService chapterSearchService;
+    private final HybridSearchService hybridSearchService;
+    private final ChapterPassageService chapterPassageService;
+
+    /**
+     * Story search: full-text and semantic results fused into one ranking.
+     * Pass the returned cursor to get the next page of the same result list.
+     */
+    @GetMapping("/stories")
+    public ResponseEntity<HybridSearchResponse> searchStories(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor
+    ) {
+        return ResponseEntity.ok(hybridSearchService.search(query, size, cursor));
+    }
+
+    /**
+     * Full-text search inside chapters, ranked by BM25, with a snippet per hit
+     */
+    @GetMapping("/chapters")
+    public ResponseEntity<ChapterSearchResponse> searchChapters(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(chapterSearchService.search(query, limit));
+    }
+
+    /**
+     * Semantic search inside chapters: the passages closest in meaning to the query, with their
+     * story, chapter and character offsets in the chapter text
+     */
+    @GetMapping("/passages")
+    public ResponseEntity<PassageSearchResponse> searchPassages(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long storyId,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(chapterPassageService.search(query, storyId, limit));
+    }
+}
@@ -0,0 +1,185 @@
+package com.graduate.novel.domain.chapter;
+
+import com.graduate.novel.ai.config.GeminiConfig;
+import com.graduate.novel.ai.dto.BatchTranslationResult;
+import com.graduate.novel.ai.dto.BatchTranslationSource;
+import com.graduate.novel.ai.service.TranslationService;
+import com.graduate.novel.domain.crawljob.ClaimedJob;
+import com.graduate.novel.domain.crawljob.JobExecution;
+import com.graduate.novel.domain.crawljob.JobHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs STORY_BATCH_TRANSLATE jobs: submits a story's chapters to the provider's batch API,
+ * then re-queues itself to poll until the batch finishes and stores the results.
+ * The batch name is kept in the job's external_ref, so polling survives restarts and can
+ * continue on any node. Each run is short; the job never holds a worker while the batch runs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchTranslationJobHandler implements JobHandler {
+
+    /** UTF-8 bytes per character of Japanese text, used to keep a batch under the inline size limit */
+    private static final int BYTES_PER_CHAR = 3;
+
+    private final ChapterService chapterService;
+    private final ChapterRepository chapterRepository;
+    private final TranslationService translationService;
+    private final GeminiConfig geminiConfig;
+
+    @Override
+    public Set<String> jobTypes() {
+        return Set.of(ChapterService.STORY_BATCH_TRANSLATE);
+    }
+
+    @Override
+    public void execute(JobExecution execution) {
+        if (execution.job().externalRef() == null) {
+            submit(execution);
+        } else {
+            collect(execution);
+        }
+    }
+
+    private void submit(JobExecution execution) {
+        ClaimedJob job = execution.job();
+        List<Chapter> chapters = nextBatch(job);
+        if (chapters.isEmpty()) {
+            log.info("Job {}: no chapters left to batch-translate for storyId={}", job.id(), job.storyId());
+            return;
+        }
+
+        List<BatchTranslationSource> sources = new ArrayList<>();
+        for (Chapter chapter : chapters) {
+            String keyPrefix = chapterKey(chapter);
+            sources.add(new BatchTranslationSource(keyPrefix + ":content", chapter.getRawContent(), "ja"));
+            if (chapter.getRawTitle() != null && !chapter.getRawTitle().isBlank()) {
+                sources.add(new BatchTranslationSource(keyPrefix + ":title", chapter.getRawTitle(), "ja"));
+            }
+        }
+
+        String batchName = translationService.submitBatchTranslation(
+                "story-" + job.storyId() + "-job-" + job.id(), sources);
+        execution.setExternalRef(batchName);
+        execution.progress(chapters.size(), 0, 0);
+        execution.rescheduleIn(pollInterval());
+
+        log.info("Job {}: submitted batch {} with {} chapters of storyId={}",
+                job.id(), batchName, chapters.size(), job.storyId());
+    }
+
+    private void collect(JobExecution execution) {
+        ClaimedJob job = execution.job();
+        BatchTranslationResult result = translationService.collectBatchTranslation(job.externalRef());
+
+        if (!result.isDone()) {
+            execution.rescheduleIn(pollInterval());
+            return;
+        }
+
+        if (!result.isSucceeded()) {
+            // Forget the batch so the retry (with backoff) submits a fresh one
+            execution.setExternalRef(null);
+            throw new IllegalStateException(String.format("Batch %s ended in state %s",
+                    job.externalRef(), result.state()));
+        }
+
+        // chapterId -> source hash, from keys "c{id}:{hash}:content" / ":title"
+        Map<Long, String> chapterHashes = new LinkedHashMap<>();
+        result.translations().keySet().forEach(key -> putChapterKey(chapterHashes, key));
+        result.failedKeys().forEach(key -> putChapterKey(chapterHashes, key));
+
+        int completed = 0;
+        int skipped = 0;
+        int failed = 0;
+        for (Map.Entry<Long, String> entry : chapterHashes.entrySet()) {
+            String keyPrefix = "c" + entry.getKey() + ":" + entry.getValue();
+            String content = result.translations().get(keyPrefix + ":content");
+            if (content == null || result.failedKeys().contains(keyPrefix + ":content")) {
+                chapterService.markBatchTranslationFailed(entry.getKey());
+                failed++;
+                continue;
+            }
+            // A failed title is not worth failing the chapter; the raw title stays
+            String title = result.translations().get(keyPrefix + ":title");
+            if (chapterService.applyBatchTranslation(entry.getKey(), entry.getValue(), title, content)) {
+                completed++;
+            } else {
+                skipped++;
+            }
+        }
+
+        execution.setExternalRef(null);
+        execution.progress(chapterHashes.size(), completed, failed);
+        execution.setResultMessage(String.format("Batch %s: %d translated, %d skipped, %d failed",
+                job.externalRef(), completed, skipped, failed));
+        log.info("Job {}: batch {} applied for storyId={} ({} translated, {} skipped, {} failed)",
+                job.id(), job.externalRef(), job.storyId(), completed, skipped, failed);
+
+        // Stories larger than one batch continue with the next batch right away.
+        // Only for untranslated chapters: failed ones are now FAILED and drop out of the next selection.
+        if (completed > 0 && !ChapterService.STORY_TRANSLATE_FAILED.equals(job.payload())
+                && !chapterRepository.findIdsToTranslate(job.storyId(), "NONE").isEmpty()) {
+            execution.rescheduleIn(Duration.ZERO);
+        }
+    }
+
+    /**
+     * Chapters still to translate, as many as fit in one inline batch (at least one)
+     */
+    private List<Chapter> nextBatch(ClaimedJob job) {
+        String status = ChapterService.STORY_TRANSLATE_FAILED.equals(job.payload()) ? "FAILED" : "NONE";
+        List<Long> chapterIds = chapterRepository.findIdsToTranslate(job.storyId(), status);
+        long maxBytes = geminiConfig.getBatch().getMaxInlineBytes();
+
+        List<Chapter> batch = new ArrayList<>();
+        long bytes = 0;
+        // One chapter at a time, in reading order: a long story is never loaded whole
+        for (Long chapterId : chapterIds) {
+            Chapter chapter = chapterRepository.findById(chapterId).orElse(null);
+            if (chapter == null || chapter.getRawContent() == null || chapter.getRawContent().isBlank()) {
+                continue;
+            }
+            if (chapterService.copyDuplicateTranslation(chapter)) {
+                // Same text as an already translated chapter: nothing to send
+                chapterRepository.save(chapter);
+                continue;
+            }
+            long chapterBytes = (long) BYTES_PER_CHAR * (chapter.getRawContent().length()
+                    + (chapter.getRawTitle() != null ? chapter.getRawTitle().length() : 0));
+            if (!batch.isEmpty() && bytes + chapterBytes > maxBytes) {
+                break;
+            }
+            batch.add(chapter);
+            bytes += chapterBytes;
+        }
+        return batch;
+    }
+
+    private Duration pollInterval() {
+        return Duration.ofSeconds(geminiConfig.getBatch().getPollIntervalSeconds());
+    }
+
+    /**
+     * The key carries the hash of the raw content at submission, so an edited chapter is not
+     * overwritten with a translation of its old text
+     */
+    private static String chapterKey(Chapter chapter) {
+        return "c" + chapter.getId() + ":" + Chapter.shortHash(chapter.getRawContent());
+    }
+
+    private static void putChapterKey(Map<Long, String> chapterHashes, String key) {
+        String[] parts = key.split(":");
+        chapterHashes.put(Long.parseLong(parts[0].substring(1)), parts[1]);
+    }
+}
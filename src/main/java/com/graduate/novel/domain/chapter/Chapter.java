@@ -1,11 +1,17 @@
 package com.graduate.novel.domain.chapter;
 
+import com.graduate.novel.common.text.MinHash;
 import com.graduate.novel.domain.base.BaseEntity;
 import com.graduate.novel.domain.story.Story;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
 
 @Entity
 @Table(name = "story_chapters")
@@ -15,8 +21,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @SuperBuilder
 public class Chapter extends BaseEntity {
+    // Sequence rather than IDENTITY so inserts can be sent as JDBC batches (see V28)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "story_chapters_id_seq")
+    @SequenceGenerator(name = "story_chapters_id_seq", sequenceName = "story_chapters_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -46,6 +54,30 @@ public class Chapter extends BaseEntity {
     @Column(name = "crawl_time")
     private LocalDateTime crawlTime;
 
+    // Publish or revision time listed in the source table of contents
+    @Column(name = "source_updated_at")
+    private LocalDateTime sourceUpdatedAt;
+
+    // Validators of the last fetched page, sent back to re-fetch it conditionally
+    @Column(length = 255)
+    private String etag;
+
+    @Column(name = "last_modified", length = 64)
+    private String lastModified;
+
+    // SHA-256 of rawContent, kept up to date on every write
+    @Column(name = "content_hash")
+    private byte[] contentHash;
+
+    // MinHash signature of rawContent (see MinHash), null for text too short to compare
+    @Column(name = "minhash")
+    private byte[] minhash;
+
+    // Earlier chapter of another story with near-identical text. Only DuplicateDetectionService
+    // writes it, with bulk updates, so a chapter loaded before a scan never saves back a stale flag.
+    @Column(name = "duplicate_of_chapter_id", updatable = false)
+    private Long duplicateOfChapterId;
+
     // TRANSLATED content
     @Column(name = "translated_content", columnDefinition = "TEXT")
     private String translatedContent;
@@ -57,6 +89,10 @@ public class Chapter extends BaseEntity {
     @Column(name = "translate_time")
     private LocalDateTime translateTime;
 
+    // When a moderator last saved the translation by hand; cleared when a machine translation replaces it
+    @Column(name = "translation_reviewed_at")
+    private LocalDateTime translationReviewedAt;
+
     @PrePersist
     protected void onCreate() {
         if (crawlStatus == null) {
@@ -65,5 +101,39 @@ public class Chapter extends BaseEntity {
         if (translateStatus == null) {
             translateStatus = "NONE";
         }
+        contentHash = hashContent(rawContent);
+        minhash = MinHash.signatureBytes(rawContent);
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        byte[] hash = hashContent(rawContent);
+        if (!Arrays.equals(hash, contentHash)) {
+            // New text: the old signature no longer applies (the caller re-checks the duplicate flag)
+            minhash = MinHash.signatureBytes(rawContent);
+            contentHash = hash;
+        }
+    }
+
+    /**
+     * SHA-256 of chapter text, as stored in content_hash
+     */
+    public static byte[] hashContent(String content) {
+        if (content == null) {
+            return null;
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Short hex fingerprint of chapter text (a prefix of {@link #hashContent}), carried in batch
+     * translation keys to detect edits between submission and result
+     */
+    public static String shortHash(String content) {
+        return HexFormat.of().formatHex(hashContent(content != null ? content : "")).substring(0, 16);
     }
 }
@@ -0,0 +1,33 @@
+package com.graduate.novel.domain.chapter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Crawl bookkeeping of a chapter, as read when deciding what a re-crawl has to fetch
+ */
+public record ChapterCrawlState(Integer chapterIndex, String crawlStatus, LocalDateTime crawlTime,
+                                LocalDateTime sourceUpdatedAt, String etag, String lastModified) {
+
+    /**
+     * Whether a chapter listed with this date in the table of contents may differ from the stored text.
+     * A chapter stored before listed dates were recorded is not refetched; its date is only recorded
+     * (see {@link #lacksSourceDate}), since the crawl time says nothing about the listed revision.
+     */
+    public boolean isStale(LocalDateTime listedAt) {
+        if (!"SUCCESS".equals(crawlStatus)) {
+            return true;
+        }
+        if (listedAt == null || sourceUpdatedAt == null) {
+            // No date listed: only new chapters are found
+            return false;
+        }
+        return listedAt.isAfter(sourceUpdatedAt);
+    }
+
+    /**
+     * Whether the listed date should be recorded for a stored chapter that has none
+     */
+    public boolean lacksSourceDate(LocalDateTime listedAt) {
+        return "SUCCESS".equals(crawlStatus) && sourceUpdatedAt == null && listedAt != null;
+    }
+}
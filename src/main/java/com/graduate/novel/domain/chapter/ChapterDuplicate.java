@@ -0,0 +1,7 @@
+package com.graduate.novel.domain.chapter;
+
+/**
+ * A chapter flagged as a copy, and the earlier chapter it copies
+ */
+public record ChapterDuplicate(Long chapterId, Long duplicateOfChapterId) {
+}
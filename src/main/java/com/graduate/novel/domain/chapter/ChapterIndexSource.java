@@ -0,0 +1,9 @@
+package com.graduate.novel.domain.chapter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Chapter text as read by the full-text indexer, without the story association
+ */
+public record ChapterIndexSource(Long chapterId, Long storyId, LocalDateTime updatedAt, String translatedTitle,
+                                 String rawTitle, String translatedContent, String rawContent) {}
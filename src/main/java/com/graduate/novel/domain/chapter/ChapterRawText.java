@@ -0,0 +1,7 @@
+package com.graduate.novel.domain.chapter;
+
+/**
+ * The raw text of a chapter, without loading the entity
+ */
+public record ChapterRawText(Long id, String rawContent) {
+}
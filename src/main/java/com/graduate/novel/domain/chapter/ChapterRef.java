@@ -0,0 +1,6 @@
+package com.graduate.novel.domain.chapter;
+
+/**
+ * Chapter id together with its story id, without loading the chapter
+ */
+public record ChapterRef(Long chapterId, Long storyId) {}
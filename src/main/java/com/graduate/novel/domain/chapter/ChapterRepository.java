@@ -2,9 +2,13 @@ package com.graduate.novel.domain.chapter;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,12 +18,113 @@ public interface ChapterRepository extends JpaRepository<Chapter, Long> {
     List<Chapter> findByStoryIdAndChapterIndexBetweenOrderByChapterIndexAsc(Long storyId, Integer startIndex, Integer endIndex);
     Optional<Chapter> findByStoryIdAndId(Long storyId, Long chapterId);
     Optional<Chapter> findByStoryIdAndChapterIndex(Long storyId, Integer chapterIndex);
+    List<Chapter> findByStoryIdAndChapterIndexIn(Long storyId, Collection<Integer> chapterIndexes);
+
+    // What a re-crawl needs to know about each chapter of a story, without the chapter text
+    @Query("SELECT new com.graduate.novel.domain.chapter.ChapterCrawlState(c.chapterIndex, c.crawlStatus, " +
+           "c.crawlTime, c.sourceUpdatedAt, c.etag, c.lastModified) FROM Chapter c WHERE c.story.id = :storyId")
+    List<ChapterCrawlState> findCrawlStates(@Param("storyId") Long storyId);
+
+    // Crawled chapters in id order (of one story, or all if storyId is null), for re-parsing archived pages
+    @Query("SELECT new com.graduate.novel.domain.chapter.ChapterSource(c.id, s.id, c.chapterIndex, s.sourceUrl) " +
+           "FROM Chapter c JOIN c.story s WHERE c.id > :afterId AND (:storyId IS NULL OR s.id = :storyId) " +
+           "AND s.sourceUrl IS NOT NULL ORDER BY c.id ASC")
+    List<ChapterSource> findSourcesAfter(@Param("afterId") Long afterId, @Param("storyId") Long storyId,
+                                         Pageable pageable);
+
     boolean existsByStoryIdAndChapterIndex(Long storyId, Integer chapterIndex);
     List<Chapter> findByCrawlStatus(String status);
     List<Chapter> findByTranslateStatus(String status);
     List<Chapter> findByStoryIdAndTranslateStatus(Long storyId, String status);
     List<Chapter> findByStoryIdAndTranslateStatusAndRawContentIsNotNull(Long storyId, String status);
 
+    // Ids only, so queue jobs don't load every chapter body up front
+    @Query("SELECT c.id FROM Chapter c WHERE c.story.id = :storyId AND c.translateStatus = :status " +
+           "AND c.rawContent IS NOT NULL ORDER BY c.chapterIndex ASC")
+    List<Long> findIdsToTranslate(@Param("storyId") Long storyId, @Param("status") String status);
+
+    // Untranslated chapters of a story after a position, nearest first (translation read-ahead)
+    @Query("SELECT c.id FROM Chapter c WHERE c.story.id = :storyId AND c.chapterIndex > :afterIndex " +
+           "AND c.translateStatus = 'NONE' AND c.rawContent IS NOT NULL AND c.duplicateOfChapterId IS NULL " +
+           "ORDER BY c.chapterIndex ASC")
+    List<Long> findUntranslatedIdsAfter(@Param("storyId") Long storyId, @Param("afterIndex") Integer afterIndex,
+                                        Pageable pageable);
+
+    // Chapters left PENDING by a translation that died with its node (see V33)
+    @Modifying
+    @Query("UPDATE Chapter c SET c.translateStatus = 'NONE' WHERE c.translateStatus = 'PENDING' " +
+           "AND c.updatedAt < :staleBefore")
+    int resetStalePendingTranslations(@Param("staleBefore") LocalDateTime staleBefore);
+
+    // Keep a running translation from counting as stale (see resetStalePendingTranslations)
+    @Modifying
+    @Transactional
+    @Query("UPDATE Chapter c SET c.updatedAt = :now WHERE c.id = :id AND c.translateStatus = 'PENDING'")
+    int touchPendingTranslation(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Translated chapter titles of a story, used as a glossary for consistent translation
+    @Query("SELECT new com.graduate.novel.domain.chapter.ChapterTitlePair(c.rawTitle, c.translatedTitle) " +
+           "FROM Chapter c WHERE c.story.id = :storyId AND c.translateStatus = 'SUCCESS' " +
+           "AND c.rawTitle IS NOT NULL AND c.translatedTitle IS NOT NULL ORDER BY c.chapterIndex ASC")
+    List<ChapterTitlePair> findTranslatedTitles(@Param("storyId") Long storyId, Pageable pageable);
+
+    // Translation a moderator reviewed most recently, the story's sample for the translation context
+    Optional<Chapter> findFirstByStoryIdAndTranslationReviewedAtIsNotNullOrderByTranslationReviewedAtDesc(Long storyId);
+
+    // Oldest untranslated chapters across all stories (translation backfill); copies of other chapters are skipped
+    @Query("SELECT new com.graduate.novel.domain.chapter.ChapterRef(c.id, c.story.id) FROM Chapter c " +
+           "WHERE c.translateStatus = 'NONE' AND c.rawContent IS NOT NULL AND c.duplicateOfChapterId IS NULL " +
+           "ORDER BY c.story.id ASC, c.chapterIndex ASC")
+    List<ChapterRef> findUntranslatedChapters(Pageable pageable);
+
+    // Chapters changed after the index watermark, in (updated_at, id) order so paging never skips a row
+    @Query("SELECT new com.graduate.novel.domain.chapter.ChapterIndexSource(c.id, c.story.id, c.updatedAt, " +
+           "c.translatedTitle, c.rawTitle, c.translatedContent, c.rawContent) FROM Chapter c " +
+           "WHERE (c.updatedAt > :updatedAt OR (c.updatedAt = :updatedAt AND c.id > :chapterId)) " +
+           "AND c.updatedAt < :before ORDER BY c.updatedAt ASC, c.id ASC")
+    List<ChapterIndexSource> findChangedForIndexing(@Param("updatedAt") LocalDateTime updatedAt,
+                                                    @Param("chapterId") Long chapterId,
+                                                    @Param("before") LocalDateTime before,
+                                                    Pageable pageable);
+
+    // Chapter text in id order, for streaming over the whole corpus page by page
+    @Query("SELECT new com.graduate.novel.domain.chapter.ChapterText(c.id, c.translatedContent, c.rawContent) " +
+           "FROM Chapter c WHERE c.id > :afterId ORDER BY c.id ASC")
+    List<ChapterText> findTextsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Stored MinHash signatures in id order, for rebuilding the duplicate index
+    @Query("SELECT new com.graduate.novel.domain.chapter.ChapterSignature(c.id, c.story.id, c.minhash) " +
+           "FROM Chapter c WHERE c.id > :afterId AND c.minhash IS NOT NULL ORDER BY c.id ASC")
+    List<ChapterSignature> findSignaturesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Chapters with text but no signature (written before signatures existed, or too short to sign)
+    @Query("SELECT new com.graduate.novel.domain.chapter.ChapterRawText(c.id, c.rawContent) FROM Chapter c " +
+           "WHERE c.id > :afterId AND c.minhash IS NULL AND c.rawContent IS NOT NULL ORDER BY c.id ASC")
+    List<ChapterRawText> findUnsignedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.graduate.novel.domain.chapter.ChapterDuplicate(c.id, c.duplicateOfChapterId) " +
+           "FROM Chapter c WHERE c.duplicateOfChapterId IS NOT NULL")
+    List<ChapterDuplicate> findDuplicates();
+
+    // Bulk updates: no entity callbacks, and updated_at is left alone since the text did not change
+    // Listed date of a chapter crawled before dates were recorded; the text is not refetched
+    @Modifying
+    @Query("UPDATE Chapter c SET c.sourceUpdatedAt = :sourceUpdatedAt WHERE c.story.id = :storyId " +
+           "AND c.chapterIndex = :chapterIndex AND c.sourceUpdatedAt IS NULL")
+    void recordSourceUpdatedAt(@Param("storyId") Long storyId, @Param("chapterIndex") Integer chapterIndex,
+                               @Param("sourceUpdatedAt") LocalDateTime sourceUpdatedAt);
+
+    @Modifying
+    @Query("UPDATE Chapter c SET c.minhash = :minhash WHERE c.id = :id")
+    void updateMinhash(@Param("id") Long id, @Param("minhash") byte[] minhash);
+
+    @Modifying
+    @Query("UPDATE Chapter c SET c.duplicateOfChapterId = :duplicateOf WHERE c.id = :id")
+    void updateDuplicateOf(@Param("id") Long id, @Param("duplicateOf") Long duplicateOf);
+
+    @Query("SELECT c FROM Chapter c JOIN FETCH c.story WHERE c.id IN :ids")
+    List<Chapter> findWithStoryByIdIn(@Param("ids") Collection<Long> ids);
+
     // Homepage features
 
     // Count chapters by story ID
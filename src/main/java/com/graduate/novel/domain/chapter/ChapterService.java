@@ -4,17 +4,31 @@ import com.graduate.novel.ai.service.TranslationService;
 import com.graduate.novel.common.exception.BadRequestException;
 import com.graduate.novel.common.exception.ResourceNotFoundException;
 import com.graduate.novel.common.mapper.ChapterMapper;
+import com.graduate.novel.config.JobQueueProperties;
+import com.graduate.novel.config.TranslationPrefetchProperties;
+import com.graduate.novel.domain.crawljob.CrawlJobDto;
 import com.graduate.novel.domain.crawljob.CrawlJobService;
+import com.graduate.novel.domain.crawljob.JobQueueService;
+import com.graduate.novel.domain.duplicate.DuplicateDetectionService;
 import com.graduate.novel.domain.story.Story;
 import com.graduate.novel.domain.story.StoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +41,21 @@ public class ChapterService {
     private final ChapterMapper chapterMapper;
     private final TranslationService translationService;
     private final CrawlJobService crawlJobService;
+    private final ChapterTranslationStreamRegistry translationStreamRegistry;
+    private final ExecutorService streamingExecutor;
+    private final JobQueueService jobQueueService;
+    private final TranslationPrefetchService translationPrefetchService;
+    private final JobQueueProperties jobQueueProperties;
+    private final TranslationPrefetchProperties translationPrefetchProperties;
+    private final DuplicateDetectionService duplicateDetectionService;
+
+    /** STORY_TRANSLATE payloads: which chapters the job picks up */
+    public static final String STORY_TRANSLATE_UNTRANSLATED = "UNTRANSLATED";
+    public static final String STORY_TRANSLATE_FAILED = "FAILED";
+    /** CHAPTER_TRANSLATE payload for demand-driven jobs: skipped if the chapter is already translated */
+    public static final String CHAPTER_TRANSLATE_PREFETCH = "PREFETCH";
+    /** Bulk translation of a story through the provider's batch API (payload: UNTRANSLATED or FAILED) */
+    public static final String STORY_BATCH_TRANSLATE = "STORY_BATCH_TRANSLATE";
 
     @Transactional(readOnly = true)
     public List<ChapterDto> getChaptersByStoryId(Long storyId) {
@@ -40,10 +69,24 @@ public class ChapterService {
                 .toList();
     }
 
+    /**
+     * @param signedIn whether the reader is authenticated; anonymous reads only feed the
+     *                 translation queue when app.translation-prefetch.anonymous-readers is set
+     */
     @Transactional(readOnly = true)
-    public ChapterDto getChapterById(Long storyId, Long chapterId) {
+    public ChapterDto getChapterById(Long storyId, Long chapterId, boolean signedIn) {
         Chapter chapter = chapterRepository.findByStoryIdAndId(storyId, chapterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Chapter not found"));
+        if (!signedIn && !translationPrefetchProperties.isAnonymousReaders()) {
+            return chapterMapper.toDto(chapter);
+        }
+        try {
+            translationPrefetchService.onChapterOpened(storyId, chapterId, chapter.getChapterIndex(),
+                    chapter.getTranslateStatus());
+        } catch (TaskRejectedException e) {
+            // Prefetch is best effort; never fail a read because the async pool is saturated
+            log.debug("Translation prefetch skipped for chapterId={}: {}", chapterId, e.getMessage());
+        }
         return chapterMapper.toDto(chapter);
     }
 
@@ -68,8 +111,13 @@ public class ChapterService {
         Chapter chapter = chapterRepository.findByStoryIdAndId(storyId, chapterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Chapter not found"));
 
+        byte[] hash = chapter.getContentHash();
         chapterMapper.updateEntity(request, chapter);
+        if (request.translatedContent() != null) {
+            chapter.setTranslationReviewedAt(LocalDateTime.now());
+        }
         chapter = chapterRepository.save(chapter);
+        recheckDuplicateIfChanged(storyId, chapter, hash);
         return chapterMapper.toDto(chapter);
     }
 
@@ -85,14 +133,26 @@ public class ChapterService {
         Chapter chapter = chapterRepository.findByStoryIdAndId(storyId, chapterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Chapter not found"));
 
+        byte[] hash = chapter.getContentHash();
         chapter.setRawContent(rawContent);
         chapter.setCrawlStatus("SUCCESS");
         chapter.setCrawlTime(LocalDateTime.now());
 
         chapter = chapterRepository.save(chapter);
+        recheckDuplicateIfChanged(storyId, chapter, hash);
         return chapterMapper.toDto(chapter);
     }
 
+    /**
+     * Re-check the duplicate flag of a chapter whose text an edit changed; the flag of the old
+     * text no longer applies
+     */
+    private void recheckDuplicateIfChanged(Long storyId, Chapter chapter, byte[] previousHash) {
+        if (!Arrays.equals(previousHash, Chapter.hashContent(chapter.getRawContent()))) {
+            duplicateDetectionService.flagChapters(storyId, List.of(chapter));
+        }
+    }
+
     @Transactional
     public ChapterDto updateTranslation(Long storyId, Long chapterId, String translatedContent) {
         Chapter chapter = chapterRepository.findByStoryIdAndId(storyId, chapterId)
@@ -101,6 +161,7 @@ public class ChapterService {
         chapter.setTranslatedContent(translatedContent);
         chapter.setTranslateStatus("SUCCESS");
         chapter.setTranslateTime(LocalDateTime.now());
+        chapter.setTranslationReviewedAt(LocalDateTime.now());
 
         chapter = chapterRepository.save(chapter);
         return chapterMapper.toDto(chapter);
@@ -150,192 +211,331 @@ public class ChapterService {
     }
 
     /**
-     * Automatically translate a chapter using Gemini AI
+     * Translate a chapter while streaming the Vietnamese text to the caller over SSE.
+     * Readers who open the same chapter while it is being translated join the running stream.
+     * The translation is persisted when the stream completes. Not transactional on purpose:
+     * no DB connection is held while Gemini is generating.
      */
-    @Transactional
-    public ChapterDto translateChapter(Long storyId, Long chapterId) {
+    public SseEmitter streamChapterTranslation(Long storyId, Long chapterId) {
         Chapter chapter = chapterRepository.findByStoryIdAndId(storyId, chapterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Chapter not found"));
 
-        if (chapter.getRawContent() == null || chapter.getRawContent().trim().isEmpty()) {
-            throw new BadRequestException("Cannot translate: Chapter has no raw content");
+        SseEmitter joined = translationStreamRegistry.join(chapterId);
+        if (joined != null) {
+            return joined;
         }
 
-        // Check if there's already an active translation job for this chapter
-        boolean hasActiveTranslationJob = crawlJobService.hasActiveJobForChapter(chapterId, "CHAPTER_TRANSLATE");
-        if (hasActiveTranslationJob) {
-            throw new BadRequestException(
-                String.format("Chapter %d is already being translated. Please wait for the current job to complete.",
-                    chapterId)
-            );
+        if ("SUCCESS".equals(chapter.getTranslateStatus()) && chapter.getTranslatedContent() != null) {
+            return ChapterTranslationStreamRegistry.singleEvent("done", chapterMapper.toDto(chapter));
+        }
+        if (chapter.getRawContent() == null || chapter.getRawContent().trim().isEmpty()) {
+            return ChapterTranslationStreamRegistry.singleEvent("error",
+                    Map.of("message", "Cannot translate: Chapter has no raw content"));
+        }
+        // A queued job that has not started yet doesn't block the reader; it is skipped once this stream saves
+        if (isTranslationInProgress(chapter)) {
+            return ChapterTranslationStreamRegistry.singleEvent("error",
+                    Map.of("message", String.format("Chapter %d is already being translated", chapterId)));
         }
 
-        // Check if already being translated (status PENDING)
-        if ("PENDING".equals(chapter.getTranslateStatus())) {
-            throw new BadRequestException(
-                String.format("Chapter %d is already in translation queue (status: PENDING)", chapterId)
-            );
+        ChapterTranslationStreamRegistry.LiveTranslation live = translationStreamRegistry.begin(chapterId);
+        if (live == null) {
+            // Another reader started the stream between our check and now
+            SseEmitter raced = translationStreamRegistry.join(chapterId);
+            return raced != null ? raced : streamChapterTranslation(storyId, chapterId);
         }
 
-        log.info("Starting translation for chapterId={} (index={}) of storyId={}",
-                chapterId, chapter.getChapterIndex(), storyId);
+        SseEmitter emitter = live.subscribe();
+        streamingExecutor.execute(() -> runStreamingTranslation(chapter, live));
+        return emitter;
+    }
 
+    private void runStreamingTranslation(Chapter chapter, ChapterTranslationStreamRegistry.LiveTranslation live) {
+        Long chapterId = chapter.getId();
         try {
-            // Set status to PENDING
+            if (copyDuplicateTranslation(chapter)) {
+                live.complete(chapterMapper.toDto(chapterRepository.save(chapter)));
+                return;
+            }
+
             chapter.setTranslateStatus("PENDING");
-            chapterRepository.save(chapter);
+            Chapter saved = chapterRepository.save(chapter);
 
-            // Translate chapter title if raw title exists
-            if (chapter.getRawTitle() != null && !chapter.getRawTitle().trim().isEmpty()) {
-                log.info("Translating chapter title for chapterId={} (index={})",
-                        chapterId, chapter.getChapterIndex());
-                String translatedTitle = translationService.translateToVietnamese(chapter.getRawTitle());
-                chapter.setTranslatedTitle(translatedTitle);
-                // Also update the main title field for backward compatibility
-                chapter.setTitle(translatedTitle);
-                log.info("Chapter title translated successfully: '{}' -> '{}'",
-                        chapter.getRawTitle(), translatedTitle);
-            }
+            log.info("Starting streaming translation for chapterId={} (index={})",
+                    chapterId, saved.getChapterIndex());
 
-            // Perform translation of content
-            String translatedContent = translationService.translateToVietnamese(chapter.getRawContent());
+            if (saved.getRawTitle() != null && !saved.getRawTitle().trim().isEmpty()) {
+                String translatedTitle = translationService.translateToVietnamese(saved.getRawTitle());
+                saved.setTranslatedTitle(translatedTitle);
+                saved.setTitle(translatedTitle);
+            }
 
-            // Update chapter with translation
-            chapter.setTranslatedContent(translatedContent);
-            chapter.setTranslateStatus("SUCCESS");
-            chapter.setTranslateTime(LocalDateTime.now());
+            String translatedContent = translationService.streamTranslateToVietnamese(
+                    saved.getRawContent(), "ja", saved.getStory().getId(), keepPendingFresh(chapterId, live::append));
 
-            chapter = chapterRepository.save(chapter);
-            log.info("✅ Successfully translated chapterId={} (index={}) of storyId={}",
-                    chapterId, chapter.getChapterIndex(), storyId);
+            saved.setTranslatedContent(translatedContent);
+            saved.setTranslationReviewedAt(null);
+            saved.setTranslateStatus("SUCCESS");
+            saved.setTranslateTime(LocalDateTime.now());
+            saved = chapterRepository.save(saved);
 
-            return chapterMapper.toDto(chapter);
+            log.info("✅ Streaming translation persisted for chapterId={} (index={})",
+                    chapterId, saved.getChapterIndex());
+            live.complete(chapterMapper.toDto(saved));
 
         } catch (Exception e) {
-            log.error("❌ Failed to translate chapterId={} (index={}) of storyId={}: {}",
-                    chapterId, chapter.getChapterIndex(), storyId, e.getMessage());
-            chapter.setTranslateStatus("FAILED");
-            chapter.setTranslateTime(LocalDateTime.now());
-            chapterRepository.save(chapter);
-            throw new RuntimeException("Translation failed: " + e.getMessage(), e);
+            log.error("❌ Streaming translation failed for chapterId={}: {}", chapterId, e.getMessage());
+            chapterRepository.findById(chapterId).ifPresent(failed -> {
+                failed.setTranslateStatus("FAILED");
+                failed.setTranslateTime(LocalDateTime.now());
+                chapterRepository.save(failed);
+            });
+            live.fail("Translation failed: " + e.getMessage());
+        } finally {
+            translationStreamRegistry.end(chapterId);
         }
     }
 
     /**
-     * Translate all chapters of a story that have raw content but no translation
+     * Queue a chapter translation. Returns the job immediately; a queue worker translates it.
      */
     @Transactional
-    public void translateAllChaptersForStory(Long storyId) {
-        if (!storyRepository.existsById(storyId)) {
-            throw new ResourceNotFoundException("Story not found with id: " + storyId);
+    public CrawlJobDto enqueueChapterTranslation(Long storyId, Long chapterId, int priority) {
+        Chapter chapter = chapterRepository.findByStoryIdAndId(storyId, chapterId)
+                .orElseThrow(() -> new ResourceNotFoundException("Chapter not found"));
+
+        if (chapter.getRawContent() == null || chapter.getRawContent().trim().isEmpty()) {
+            throw new BadRequestException("Cannot translate: Chapter has no raw content");
         }
 
-        // Check if there's already an active translation job for this story
-        boolean hasActiveTranslationJob = crawlJobService.hasActiveJobForStory(storyId, "STORY_TRANSLATE");
-        if (hasActiveTranslationJob) {
+        if (crawlJobService.hasActiveJobForChapter(chapterId, "CHAPTER_TRANSLATE")) {
             throw new BadRequestException(
-                String.format("Story %d is already being translated. Please wait for the current job to complete.",
-                    storyId)
+                String.format("Chapter %d is already being translated. Please wait for the current job to complete.",
+                    chapterId)
             );
         }
 
-        List<Chapter> chapters = chapterRepository.findByStoryIdAndTranslateStatusAndRawContentIsNotNull(
-                storyId, "NONE");
+        try {
+            return jobQueueService.enqueue("CHAPTER_TRANSLATE", storyId, chapterId, priority, null);
+        } catch (DataIntegrityViolationException e) {
+            // Queued concurrently (uq_crawl_jobs_active_chapter)
+            throw new BadRequestException(
+                String.format("Chapter %d is already being translated. Please wait for the current job to complete.",
+                    chapterId)
+            );
+        }
+    }
 
-        log.info("Found {} chapters to translate for storyId={}", chapters.size(), storyId);
+    /**
+     * Queue translation of all chapters of a story that have raw content but no translation.
+     * Returns the job immediately; a queue worker translates chapter by chapter.
+     */
+    @Transactional
+    public CrawlJobDto translateAllChaptersForStory(Long storyId) {
+        return enqueueStoryTranslation(storyId, STORY_TRANSLATE_UNTRANSLATED);
+    }
 
-        for (Chapter chapter : chapters) {
-            try {
-                log.info("Translating chapterId={} (index={}) of storyId={}",
-                        chapter.getId(), chapter.getChapterIndex(), storyId);
+    /**
+     * Queue a retry of the failed translations of a story
+     */
+    @Transactional
+    public CrawlJobDto retryFailedTranslations(Long storyId) {
+        return enqueueStoryTranslation(storyId, STORY_TRANSLATE_FAILED);
+    }
 
-                chapter.setTranslateStatus("PENDING");
-                chapterRepository.save(chapter);
+    private CrawlJobDto enqueueStoryTranslation(Long storyId, String mode) {
+        if (!storyRepository.existsById(storyId)) {
+            throw new ResourceNotFoundException("Story not found with id: " + storyId);
+        }
 
-                // Translate chapter title if raw title exists
-                if (chapter.getRawTitle() != null && !chapter.getRawTitle().trim().isEmpty()) {
-                    String translatedTitle = translationService.translateToVietnamese(chapter.getRawTitle());
-                    chapter.setTranslatedTitle(translatedTitle);
-                    chapter.setTitle(translatedTitle);
-                }
+        requireNoActiveStoryTranslation(storyId);
 
-                String translatedContent = translationService.translateToVietnamese(chapter.getRawContent());
+        return jobQueueService.enqueue("STORY_TRANSLATE", storyId, null, JobQueueService.PRIORITY_DEFAULT, mode);
+    }
 
-                chapter.setTranslatedContent(translatedContent);
-                chapter.setTranslateStatus("SUCCESS");
-                chapter.setTranslateTime(LocalDateTime.now());
-                chapterRepository.save(chapter);
+    /**
+     * Queue bulk translation of a story's chapters through the batch API.
+     * Cheaper than interactive translation but results arrive within hours, so it suits backfill.
+     * @param retryFailed translate FAILED chapters instead of untranslated ones
+     */
+    public CrawlJobDto enqueueBatchStoryTranslation(Long storyId, boolean retryFailed) {
+        if (!storyRepository.existsById(storyId)) {
+            throw new ResourceNotFoundException("Story not found with id: " + storyId);
+        }
+
+        requireNoActiveStoryTranslation(storyId);
 
-                log.info("✅ Successfully translated chapterId={} (index={})",
-                        chapter.getId(), chapter.getChapterIndex());
+        String mode = retryFailed ? STORY_TRANSLATE_FAILED : STORY_TRANSLATE_UNTRANSLATED;
+        return jobQueueService.enqueue(STORY_BATCH_TRANSLATE, storyId, null, JobQueueService.PRIORITY_BACKFILL, mode);
+    }
+
+    private void requireNoActiveStoryTranslation(Long storyId) {
+        // Interactive and batch translation of the same story would translate chapters twice
+        if (crawlJobService.hasActiveJobForStory(storyId, "STORY_TRANSLATE")
+                || crawlJobService.hasActiveJobForStory(storyId, STORY_BATCH_TRANSLATE)) {
+            throw new BadRequestException(
+                String.format("Story %d is already being translated. Please wait for the current job to complete.",
+                    storyId)
+            );
+        }
+    }
 
-                // Add small delay to avoid rate limiting
-                Thread.sleep(1000);
+    /**
+     * Store a translation produced by a batch job.
+     * Skipped when the chapter was translated meanwhile or its raw content changed since submission.
+     * @return true if the translation was stored
+     */
+    @Transactional
+    public boolean applyBatchTranslation(Long chapterId, String sourceHash, String translatedTitle,
+                                         String translatedContent) {
+        Chapter chapter = chapterRepository.findById(chapterId).orElse(null);
+        if (chapter == null || "SUCCESS".equals(chapter.getTranslateStatus())
+                || !sourceHash.equals(Chapter.shortHash(chapter.getRawContent()))) {
+            return false;
+        }
 
-            } catch (Exception e) {
-                log.error("❌ Failed to translate chapterId={} (index={}): {}",
-                        chapter.getId(), chapter.getChapterIndex(), e.getMessage());
+        if (translatedTitle != null && !translatedTitle.isBlank()) {
+            chapter.setTranslatedTitle(translatedTitle);
+            chapter.setTitle(translatedTitle);
+        }
+        chapter.setTranslatedContent(translatedContent);
+        chapter.setTranslationReviewedAt(null);
+        chapter.setTranslateStatus("SUCCESS");
+        chapter.setTranslateTime(LocalDateTime.now());
+        chapterRepository.save(chapter);
+        return true;
+    }
+
+    /**
+     * Mark a chapter FAILED after its batch translation failed, unless it was translated meanwhile
+     */
+    @Transactional
+    public void markBatchTranslationFailed(Long chapterId) {
+        chapterRepository.findById(chapterId).ifPresent(chapter -> {
+            if (!"SUCCESS".equals(chapter.getTranslateStatus())) {
                 chapter.setTranslateStatus("FAILED");
                 chapter.setTranslateTime(LocalDateTime.now());
                 chapterRepository.save(chapter);
             }
-        }
-
-        log.info("Completed translation for storyId={}", storyId);
+        });
     }
 
     /**
-     * Retry failed translations for a story
+     * Translate one chapter for a queue job. Not transactional on purpose: the Gemini calls run
+     * without holding a DB connection, and each save commits its own short transaction.
+     * With skipIfTranslated, a chapter that is already translated or in progress is left alone.
      */
-    @Transactional
-    public void retryFailedTranslations(Long storyId) {
-        // Check if there's already an active translation job for this story
-        boolean hasActiveTranslationJob = crawlJobService.hasActiveJobForStory(storyId, "STORY_TRANSLATE");
-        if (hasActiveTranslationJob) {
-            throw new BadRequestException(
-                String.format("Story %d is already being translated. Please wait for the current job to complete.",
-                    storyId)
-            );
+    public void translateQueuedChapter(Long chapterId, boolean skipIfTranslated) {
+        Chapter chapter = chapterRepository.findById(chapterId)
+                .orElseThrow(() -> new ResourceNotFoundException("Chapter not found"));
+
+        if (skipIfTranslated && ("SUCCESS".equals(chapter.getTranslateStatus()) || isTranslationInProgress(chapter))) {
+            log.debug("Skipping chapterId={}: translate status is {}", chapterId, chapter.getTranslateStatus());
+            return;
         }
 
-        List<Chapter> failedChapters = chapterRepository.findByStoryIdAndTranslateStatus(storyId, "FAILED");
+        if (chapter.getRawContent() == null || chapter.getRawContent().trim().isEmpty()) {
+            throw new BadRequestException("Cannot translate: Chapter has no raw content");
+        }
 
-        log.info("Retrying {} failed translations for storyId={}", failedChapters.size(), storyId);
+        try {
+            if (copyDuplicateTranslation(chapter)) {
+                chapterRepository.save(chapter);
+                return;
+            }
 
-        for (Chapter chapter : failedChapters) {
-            try {
-                if (chapter.getRawContent() != null && !chapter.getRawContent().trim().isEmpty()) {
-                    log.info("Retrying chapterId={} (index={})", chapter.getId(), chapter.getChapterIndex());
+            chapter.setTranslateStatus("PENDING");
+            chapter = chapterRepository.save(chapter);
 
-                    chapter.setTranslateStatus("PENDING");
-                    chapterRepository.save(chapter);
+            // Translate chapter title if raw title exists
+            if (chapter.getRawTitle() != null && !chapter.getRawTitle().trim().isEmpty()) {
+                String translatedTitle = translationService.translateToVietnamese(chapter.getRawTitle());
+                chapter.setTranslatedTitle(translatedTitle);
+                chapter.setTitle(translatedTitle);
+            }
 
-                    // Translate chapter title if raw title exists
-                    if (chapter.getRawTitle() != null && !chapter.getRawTitle().trim().isEmpty()) {
-                        String translatedTitle = translationService.translateToVietnamese(chapter.getRawTitle());
-                        chapter.setTranslatedTitle(translatedTitle);
-                        chapter.setTitle(translatedTitle);
-                    }
+            // Story context (names, glossary) is reused from the context cache across the story's chapters
+            String translatedContent = translationService.translateToVietnamese(
+                    chapter.getRawContent(), chapter.getStory().getId());
 
-                    String translatedContent = translationService.translateToVietnamese(chapter.getRawContent());
+            chapter.setTranslatedContent(translatedContent);
+            chapter.setTranslationReviewedAt(null);
+            chapter.setTranslateStatus("SUCCESS");
+            chapter.setTranslateTime(LocalDateTime.now());
+            chapterRepository.save(chapter);
 
-                    chapter.setTranslatedContent(translatedContent);
-                    chapter.setTranslateStatus("SUCCESS");
-                    chapter.setTranslateTime(LocalDateTime.now());
-                    chapterRepository.save(chapter);
+            log.info("✅ Successfully translated chapterId={} (index={})",
+                    chapterId, chapter.getChapterIndex());
 
-                    log.info("✅ Retry succeeded for chapterId={} (index={})",
-                            chapter.getId(), chapter.getChapterIndex());
+        } catch (Exception e) {
+            log.error("❌ Failed to translate chapterId={} (index={}): {}",
+                    chapterId, chapter.getChapterIndex(), e.getMessage());
+            chapter.setTranslateStatus("FAILED");
+            chapter.setTranslateTime(LocalDateTime.now());
+            chapterRepository.save(chapter);
+            throw new RuntimeException("Translation failed: " + e.getMessage(), e);
+        }
+    }
 
-                    Thread.sleep(1000);
+    /**
+     * Pass streamed text on, and mark the chapter's PENDING translation as still running at most
+     * once per heartbeat interval (a stream has no job whose heartbeat would do it)
+     */
+    private Consumer<String> keepPendingFresh(Long chapterId, Consumer<String> onText) {
+        long interval = TimeUnit.MILLISECONDS.toNanos(jobQueueProperties.getHeartbeatIntervalMs());
+        long[] touchedAt = {System.nanoTime()};
+        return text -> {
+            onText.accept(text);
+            long now = System.nanoTime();
+            if (now - touchedAt[0] >= interval) {
+                touchedAt[0] = now;
+                try {
+                    chapterRepository.touchPendingTranslation(chapterId, LocalDateTime.now());
+                } catch (Exception e) {
+                    log.warn("Failed to refresh pending translation of chapterId={}: {}", chapterId, e.getMessage());
                 }
-            } catch (Exception e) {
-                log.error("❌ Retry failed for chapterId={} (index={}): {}",
-                        chapter.getId(), chapter.getChapterIndex(), e.getMessage());
-                chapter.setTranslateStatus("FAILED");
-                chapterRepository.save(chapter);
             }
+        };
+    }
+
+    /**
+     * Whether another worker or stream is translating the chapter right now. Both refresh the
+     * chapter while they run, so a chapter PENDING and untouched for longer than a job lease was
+     * left behind by a node that died (see
+     * JobQueueService#resetStaleChapterTranslations) and may be translated again.
+     */
+    private boolean isTranslationInProgress(Chapter chapter) {
+        return "PENDING".equals(chapter.getTranslateStatus()) && chapter.getUpdatedAt() != null
+                && chapter.getUpdatedAt().isAfter(LocalDateTime.now().minusSeconds(jobQueueProperties.getLeaseSeconds()));
+    }
+
+    /**
+     * Give a chapter flagged as a copy of another (see DuplicateDetectionService) that chapter's
+     * translation, if that one is translated and has exactly the same raw title and text.
+     * Only sets the fields; the caller saves the chapter.
+     * @return true if the translation was copied and nothing needs translating
+     */
+    public boolean copyDuplicateTranslation(Chapter chapter) {
+        if (chapter.getDuplicateOfChapterId() == null) {
+            return false;
         }
+        Chapter original = chapterRepository.findById(chapter.getDuplicateOfChapterId()).orElse(null);
+        if (original == null || !"SUCCESS".equals(original.getTranslateStatus())
+                || original.getTranslatedContent() == null
+                || !Arrays.equals(original.getContentHash(), Chapter.hashContent(chapter.getRawContent()))
+                || !Objects.equals(original.getRawTitle(), chapter.getRawTitle())) {
+            return false;
+        }
+        if (original.getTranslatedTitle() != null) {
+            chapter.setTranslatedTitle(original.getTranslatedTitle());
+            chapter.setTitle(original.getTranslatedTitle());
+        }
+        chapter.setTranslatedContent(original.getTranslatedContent());
+        chapter.setTranslationReviewedAt(null);
+        chapter.setTranslateStatus("SUCCESS");
+        chapter.setTranslateTime(LocalDateTime.now());
+        log.info("Chapter {} repeats chapter {}: copied its translation", chapter.getId(), original.getId());
+        return true;
     }
 
     // ========== Homepage Features ==========
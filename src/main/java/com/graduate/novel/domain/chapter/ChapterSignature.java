@@ -0,0 +1,7 @@
+package com.graduate.novel.domain.chapter;
+
+/**
+ * A chapter's stored MinHash signature, for rebuilding the duplicate index without loading text
+ */
+public record ChapterSignature(Long chapterId, Long storyId, byte[] minhash) {
+}
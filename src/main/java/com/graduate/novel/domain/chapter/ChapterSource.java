@@ -0,0 +1,7 @@
+package com.graduate.novel.domain.chapter;
+
+/**
+ * Where a chapter was crawled from: its story's source URL and its index there
+ */
+public record ChapterSource(Long chapterId, Long storyId, Integer chapterIndex, String sourceUrl) {
+}
@@ -0,0 +1,6 @@
+package com.graduate.novel.domain.chapter;
+
+/**
+ * The text of a chapter used to train word vectors, without loading the entity
+ */
+public record ChapterText(Long id, String translatedContent, String rawContent) {}
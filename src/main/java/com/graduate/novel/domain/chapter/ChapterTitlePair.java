@@ -0,0 +1,6 @@
+package com.graduate.novel.domain.chapter;
+
+/**
+ * Original and translated title of a chapter
+ */
+public record ChapterTitlePair(String rawTitle, String translatedTitle) {}
@@ -0,0 +1,93 @@
+package com.graduate.novel.domain.chapter;
+
+import com.graduate.novel.domain.crawljob.ClaimedJob;
+import com.graduate.novel.domain.crawljob.JobExecution;
+import com.graduate.novel.domain.crawljob.JobHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs queued CHAPTER_TRANSLATE and STORY_TRANSLATE jobs.
+ * Each chapter is committed on its own, so a job interrupted midway resumes where it stopped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChapterTranslationJobHandler implements JobHandler {
+
+    /** Consecutive chapter failures after which a story job backs off (Gemini is likely down) */
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+    private final ChapterService chapterService;
+    private final ChapterRepository chapterRepository;
+
+    @Override
+    public Set<String> jobTypes() {
+        return Set.of("CHAPTER_TRANSLATE", "STORY_TRANSLATE");
+    }
+
+    @Override
+    public Set<String> longRunningJobTypes() {
+        return Set.of("STORY_TRANSLATE");
+    }
+
+    @Override
+    public void execute(JobExecution execution) {
+        ClaimedJob job = execution.job();
+        if ("CHAPTER_TRANSLATE".equals(job.jobType())) {
+            execution.progress(1, 0, 0);
+            chapterService.translateQueuedChapter(job.chapterId(),
+                    ChapterService.CHAPTER_TRANSLATE_PREFETCH.equals(job.payload()));
+            execution.progress(1, 1, 0);
+        } else {
+            translateStory(execution);
+        }
+    }
+
+    private void translateStory(JobExecution execution) {
+        ClaimedJob job = execution.job();
+        String status = ChapterService.STORY_TRANSLATE_FAILED.equals(job.payload()) ? "FAILED" : "NONE";
+        List<Long> chapterIds = chapterRepository.findIdsToTranslate(job.storyId(), status);
+
+        log.info("Job {}: {} chapters to translate for storyId={}", job.id(), chapterIds.size(), job.storyId());
+
+        int completed = 0;
+        int failed = 0;
+        int consecutiveFailures = 0;
+        execution.progress(chapterIds.size(), completed, failed);
+
+        for (Long chapterId : chapterIds) {
+            if (execution.isLeaseLost()) {
+                log.warn("Job {} lost its lease; stopping after {} chapters", job.id(), completed + failed);
+                return;
+            }
+
+            try {
+                chapterService.translateQueuedChapter(chapterId, false);
+                completed++;
+                consecutiveFailures = 0;
+            } catch (Exception e) {
+                failed++;
+                consecutiveFailures++;
+            }
+            execution.progress(chapterIds.size(), completed, failed);
+
+            if (consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
+                // Chapters not reached yet keep their status; the retry continues with them
+                throw new IllegalStateException(String.format(
+                        "%d consecutive chapter translations failed; backing off", consecutiveFailures));
+            }
+        }
+
+        if (failed > 0) {
+            execution.setResultMessage(String.format("%d of %d chapters failed to translate",
+                    failed, chapterIds.size()));
+        }
+        log.info("Job {}: translated {} chapters for storyId={} ({} failed)",
+                job.id(), completed, job.storyId(), failed);
+    }
+}
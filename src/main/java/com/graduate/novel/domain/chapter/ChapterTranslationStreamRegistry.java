@@ -0,0 +1,134 @@
+package com.graduate.novel.domain.chapter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks chapter translations that are currently being streamed on this node.
+ * Every reader who opens the same chapter shares one Gemini stream: late subscribers first
+ * receive the text translated so far, then the live fragments.
+ */
+@Component
+@Slf4j
+public class ChapterTranslationStreamRegistry {
+
+    private static final long EMITTER_TIMEOUT_MS = 10 * 60 * 1000L;
+
+    private final Map<Long, LiveTranslation> liveTranslations = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribe to an in-flight translation, or return null if none is running for this chapter
+     */
+    public SseEmitter join(Long chapterId) {
+        LiveTranslation live = liveTranslations.get(chapterId);
+        return live != null ? live.subscribe() : null;
+    }
+
+    /**
+     * Register a new live translation. Returns null if another request started one first.
+     */
+    public LiveTranslation begin(Long chapterId) {
+        LiveTranslation live = new LiveTranslation(chapterId);
+        return liveTranslations.putIfAbsent(chapterId, live) == null ? live : null;
+    }
+
+    public void end(Long chapterId) {
+        liveTranslations.remove(chapterId);
+    }
+
+    /**
+     * Emitter that sends a single event and completes (already translated, or rejected)
+     */
+    public static SseEmitter singleEvent(String eventName, Object data) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * One streamed translation and its subscribers
+     */
+    public static class LiveTranslation {
+        private final Long chapterId;
+        private final StringBuilder translatedSoFar = new StringBuilder();
+        private final List<SseEmitter> subscribers = new ArrayList<>();
+        /** "done" or "error" once the translation has ended, replayed to readers who join after that */
+        private String finalEvent;
+        private Object finalData;
+
+        LiveTranslation(Long chapterId) {
+            this.chapterId = chapterId;
+        }
+
+        public synchronized SseEmitter subscribe() {
+            if (finalEvent != null) {
+                // Joined between the end of the translation and its removal from the registry
+                return singleEvent(finalEvent, finalData);
+            }
+            SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+            emitter.onCompletion(() -> unsubscribe(emitter));
+            emitter.onTimeout(() -> unsubscribe(emitter));
+            emitter.onError(e -> unsubscribe(emitter));
+            try {
+                if (!translatedSoFar.isEmpty()) {
+                    emitter.send(SseEmitter.event().name("chunk").data(Map.of("text", translatedSoFar.toString())));
+                }
+                subscribers.add(emitter);
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+            return emitter;
+        }
+
+        public synchronized void append(String fragment) {
+            translatedSoFar.append(fragment);
+            broadcast("chunk", Map.of("text", fragment));
+        }
+
+        public synchronized void complete(ChapterDto chapter) {
+            finish("done", chapter);
+        }
+
+        public synchronized void fail(String message) {
+            finish("error", Map.of("message", message != null ? message : "Translation failed"));
+        }
+
+        private void finish(String eventName, Object data) {
+            finalEvent = eventName;
+            finalData = data;
+            broadcast(eventName, data);
+            List<SseEmitter> toComplete = new ArrayList<>(subscribers);
+            subscribers.clear();
+            toComplete.forEach(SseEmitter::complete);
+        }
+
+        private synchronized void unsubscribe(SseEmitter emitter) {
+            subscribers.remove(emitter);
+        }
+
+        private void broadcast(String eventName, Object data) {
+            subscribers.removeIf(emitter -> {
+                try {
+                    emitter.send(SseEmitter.event().name(eventName).data(data));
+                    return false;
+                } catch (IOException | IllegalStateException e) {
+                    // Reader went away; the translation keeps running for the others
+                    log.debug("Dropping subscriber of chapter {} translation stream: {}", chapterId, e.getMessage());
+                    return true;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.graduate.novel.domain.chapter;
+
+import com.graduate.novel.config.TranslationPrefetchProperties;
+import com.graduate.novel.domain.crawljob.CrawlJobRepository;
+import com.graduate.novel.domain.crawljob.JobQueueService;
+import com.graduate.novel.domain.favorite.FavoriteRepository;
+import com.graduate.novel.domain.history.ReaderPosition;
+import com.graduate.novel.domain.history.ReadingHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Feeds the translation queue in order of reader demand:
+ * the chapter being opened, then the chapters right after active readers,
+ * then chapters of the most favorited stories, then backfill.
+ * Prefetch jobs are skipped by the worker if the chapter got translated meanwhile.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TranslationPrefetchService {
+
+    private final ChapterRepository chapterRepository;
+    private final ReadingHistoryRepository readingHistoryRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final CrawlJobRepository crawlJobRepository;
+    private final JobQueueService jobQueueService;
+    private final TranslationPrefetchProperties properties;
+
+    /**
+     * A reader opened a chapter: translate it first if needed, and the next chapters right behind it.
+     * Runs off the request thread so reading is never slowed down.
+     */
+    @Async("taskExecutor")
+    public void onChapterOpened(Long storyId, Long chapterId, Integer chapterIndex, String translateStatus) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            if ("NONE".equals(translateStatus)) {
+                prefetch(storyId, chapterId, JobQueueService.PRIORITY_OPENING);
+            }
+            readAhead(storyId, chapterIndex);
+        } catch (Exception e) {
+            log.warn("Translation prefetch failed for chapterId={}: {}", chapterId, e.getMessage());
+        }
+    }
+
+    /**
+     * Periodic sweep over active readers, favorites and backfill
+     */
+    public void sweep() {
+        int queued = 0;
+
+        // Active readers: next chapters after each current position
+        LocalDateTime since = LocalDateTime.now().minusMinutes(properties.getActiveReaderWindowMinutes());
+        List<ReaderPosition> positions = readingHistoryRepository.findActiveReaderPositions(
+                since, PageRequest.of(0, properties.getMaxActiveReaders()));
+        Set<ReaderPosition> seen = new HashSet<>();
+        for (ReaderPosition position : positions) {
+            if (seen.add(position)) {
+                queued += readAhead(position.storyId(), position.chapterIndex());
+            }
+        }
+
+        // Favorites and backfill only top up the queue; they never flood it
+        long waiting = crawlJobRepository.countByJobTypeAndStatusAndPayload(
+                "CHAPTER_TRANSLATE", "PENDING", ChapterService.CHAPTER_TRANSLATE_PREFETCH);
+        int budget = (int) Math.max(0, properties.getMaxQueuedPrefetchJobs() - waiting);
+
+        List<Long> favoriteStoryIds = favoriteRepository.findMostFavoritedStoryIds(
+                PageRequest.of(0, properties.getFavoriteStories()));
+        for (int rank = 0; rank < favoriteStoryIds.size() && budget > 0; rank++) {
+            Long storyId = favoriteStoryIds.get(rank);
+            List<Long> chapterIds = chapterRepository.findUntranslatedIdsAfter(
+                    storyId, Integer.MIN_VALUE, PageRequest.of(0, properties.getFavoriteChaptersPerStory()));
+            for (Long chapterId : chapterIds) {
+                // More favorited stories rank higher within the favorites tier
+                if (budget > 0 && prefetch(storyId, chapterId, JobQueueService.PRIORITY_FAVORITE - rank)) {
+                    queued++;
+                    budget--;
+                }
+            }
+        }
+
+        if (properties.isBackfillEnabled() && budget > 0) {
+            List<ChapterRef> backfill = chapterRepository.findUntranslatedChapters(
+                    PageRequest.of(0, Math.min(budget, properties.getBackfillBatchSize())));
+            // Stories with a batch translation in flight are already being backfilled at lower cost
+            Map<Long, Boolean> batchActive = new HashMap<>();
+            for (ChapterRef chapter : backfill) {
+                if (batchActive.computeIfAbsent(chapter.storyId(), storyId -> crawlJobRepository
+                        .existsActiveJobByStoryIdAndJobType(storyId, ChapterService.STORY_BATCH_TRANSLATE))) {
+                    continue;
+                }
+                if (prefetch(chapter.storyId(), chapter.chapterId(), JobQueueService.PRIORITY_BACKFILL)) {
+                    queued++;
+                }
+            }
+        }
+
+        if (queued > 0) {
+            log.info("Translation prefetch sweep queued {} chapters ({} active readers)", queued, seen.size());
+        }
+    }
+
+    private int readAhead(Long storyId, Integer chapterIndex) {
+        if (chapterIndex == null) {
+            return 0;
+        }
+        List<Long> nextChapterIds = chapterRepository.findUntranslatedIdsAfter(
+                storyId, chapterIndex, PageRequest.of(0, properties.getReadAheadChapters()));
+
+        int queued = 0;
+        for (int distance = 0; distance < nextChapterIds.size(); distance++) {
+            // The very next chapter is needed soonest
+            if (prefetch(storyId, nextChapterIds.get(distance), JobQueueService.PRIORITY_READ_AHEAD - distance)) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    private boolean prefetch(Long storyId, Long chapterId, int priority) {
+        return jobQueueService.enqueueForChapterIfAbsent("CHAPTER_TRANSLATE", storyId, chapterId, priority,
+                ChapterService.CHAPTER_TRANSLATE_PREFETCH);
+    }
+}
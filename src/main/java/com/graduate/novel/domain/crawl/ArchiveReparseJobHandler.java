@@ -0,0 +1,152 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.common.exception.BadRequestException;
+import com.graduate.novel.config.PageArchiveProperties;
+import com.graduate.novel.domain.chapter.ChapterRepository;
+import com.graduate.novel.domain.chapter.ChapterSource;
+import com.graduate.novel.domain.crawljob.ClaimedJob;
+import com.graduate.novel.domain.crawljob.JobExecution;
+import com.graduate.novel.domain.crawljob.JobHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs ARCHIVE_REPARSE jobs: extracts chapter titles and text again from the latest archived
+ * fetch of each chapter page, with the current extraction code. Pages are decompressed and parsed
+ * in parallel on the reparse executor; each batch is then saved a story per transaction, so a
+ * chapter whose text comes out the same is not touched and keeps its translation.
+ * The last chapter id done is kept in the job's external_ref, so a reclaimed job resumes there.
+ */
+@Component
+@Slf4j
+public class ArchiveReparseJobHandler implements JobHandler {
+
+    private final ChapterRepository chapterRepository;
+    private final ArchivedPageRepository archivedPageRepository;
+    private final PageArchive pageArchive;
+    private final ChapterBatchWriter chapterBatchWriter;
+    private final PageArchiveProperties properties;
+    private final ExecutorService reparseExecutor;
+
+    public ArchiveReparseJobHandler(ChapterRepository chapterRepository,
+                                    ArchivedPageRepository archivedPageRepository,
+                                    PageArchive pageArchive,
+                                    ChapterBatchWriter chapterBatchWriter,
+                                    PageArchiveProperties properties,
+                                    @Qualifier("reparseExecutor") ExecutorService reparseExecutor) {
+        this.chapterRepository = chapterRepository;
+        this.archivedPageRepository = archivedPageRepository;
+        this.pageArchive = pageArchive;
+        this.chapterBatchWriter = chapterBatchWriter;
+        this.properties = properties;
+        this.reparseExecutor = reparseExecutor;
+    }
+
+    @Override
+    public Set<String> jobTypes() {
+        return Set.of(ArchiveReparseService.ARCHIVE_REPARSE);
+    }
+
+    @Override
+    public Set<String> longRunningJobTypes() {
+        return Set.of(ArchiveReparseService.ARCHIVE_REPARSE);
+    }
+
+    @Override
+    public void execute(JobExecution execution) {
+        ClaimedJob job = execution.job();
+        long afterId = job.externalRef() != null ? Long.parseLong(job.externalRef()) : 0;
+        int parsed = 0;
+        int changed = 0;
+        int missing = 0;
+        int failed = 0;
+
+        while (!execution.isLeaseLost()) {
+            List<ChapterSource> batch = chapterRepository.findSourcesAfter(afterId, job.storyId(),
+                    PageRequest.of(0, properties.getReparseBatchSize()));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Map<String, ChapterSource> byUrl = new LinkedHashMap<>();
+            for (ChapterSource source : batch) {
+                try {
+                    byUrl.put("https://ncode.syosetu.com/" + SyosetuCrawlService.extractNovelCode(source.sourceUrl())
+                            + "/" + source.chapterIndex() + "/", source);
+                } catch (BadRequestException e) {
+                    missing++;
+                }
+            }
+            Map<String, ArchivedPage> pages = archivedPageRepository.findLatestByUrlIn(byUrl.keySet()).stream()
+                    .collect(Collectors.toMap(ArchivedPage::getUrl, Function.identity()));
+            missing += byUrl.size() - pages.size();
+
+            List<CompletableFuture<Reparsed>> futures = new ArrayList<>(pages.size());
+            pages.forEach((url, page) -> {
+                ChapterSource source = byUrl.get(url);
+                futures.add(CompletableFuture.supplyAsync(() -> reparse(source, page), reparseExecutor));
+            });
+
+            Map<Long, List<CrawledChapter>> byStory = new LinkedHashMap<>();
+            for (CompletableFuture<Reparsed> future : futures) {
+                Reparsed reparsed = future.join();
+                if (reparsed.chapter() == null) {
+                    failed++;
+                    continue;
+                }
+                parsed++;
+                byStory.computeIfAbsent(reparsed.storyId(), id -> new ArrayList<>()).add(reparsed.chapter());
+            }
+            for (Map.Entry<Long, List<CrawledChapter>> story : byStory.entrySet()) {
+                changed += chapterBatchWriter.write(story.getKey(), story.getValue());
+            }
+
+            afterId = batch.get(batch.size() - 1).chapterId();
+            execution.setExternalRef(String.valueOf(afterId));
+            execution.progress(null, parsed, failed);
+        }
+
+        execution.setResultMessage(String.format("%d re-parsed (%d changed), %d not archived, %d failed",
+                parsed, changed, missing, failed));
+        log.info("Job {}: re-parsed {} archived chapter pages ({} changed, {} not archived, {} failed)",
+                job.id(), parsed, changed, missing, failed);
+    }
+
+    private record Reparsed(Long storyId, CrawledChapter chapter) {
+    }
+
+    /**
+     * Extract a chapter from its archived page, as the crawler would have
+     * @return the chapter, or a null chapter if the page cannot be read or has no text
+     */
+    private Reparsed reparse(ChapterSource source, ArchivedPage page) {
+        try {
+            SyosetuChapterPage.Extract extract = SyosetuChapterPage.parse(
+                    new ByteArrayInputStream(pageArchive.read(page)), page.getCharset(), page.getUrl());
+            if (extract.isErrorPage() || extract.content() == null || extract.content().isBlank()) {
+                return new Reparsed(source.storyId(), null);
+            }
+            String title = extract.title() != null ? extract.title() : "Chapter " + source.chapterIndex();
+            return new Reparsed(source.storyId(), new CrawledChapter(source.chapterIndex(),
+                    CrawledChapter.Outcome.REPARSED, title, extract.content(), null, null, null));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not re-parse archived page {} of chapter {}: {}", page.getId(), source.chapterId(),
+                    e.getMessage());
+            return new Reparsed(source.storyId(), null);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.common.exception.ResourceNotFoundException;
+import com.graduate.novel.domain.crawljob.CrawlJobDto;
+import com.graduate.novel.domain.crawljob.JobQueueService;
+import com.graduate.novel.domain.story.StoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Starts re-extraction of chapter text from the page archive, e.g. after a selector fix,
+ * without fetching anything from the source site again
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveReparseService {
+
+    public static final String ARCHIVE_REPARSE = "ARCHIVE_REPARSE";
+
+    private final JobQueueService jobQueueService;
+    private final StoryRepository storyRepository;
+
+    /**
+     * Queue a re-parse of one story's chapters, or of every crawled chapter if storyId is null
+     */
+    public CrawlJobDto start(Long storyId) {
+        if (storyId != null && !storyRepository.existsById(storyId)) {
+            throw new ResourceNotFoundException("Story not found with id: " + storyId);
+        }
+        log.info("Re-parsing archived chapter pages of {}", storyId != null ? "story " + storyId : "all stories");
+        return jobQueueService.enqueue(ARCHIVE_REPARSE, storyId, null, JobQueueService.PRIORITY_BACKFILL, null);
+    }
+}
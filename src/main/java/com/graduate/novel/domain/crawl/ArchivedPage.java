@@ -0,0 +1,47 @@
+package com.graduate.novel.domain.crawl;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One fetched page in the page archive: a zstd frame at an offset in a pack file
+ */
+@Entity
+@Table(name = "archived_pages")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedPage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String url;
+
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt;
+
+    @Column(name = "content_hash", nullable = false)
+    private byte[] contentHash; // SHA-256 of the uncompressed page
+
+    @Column(length = 40)
+    private String charset; // From the Content-Type header, if given
+
+    @Column(name = "pack_file", nullable = false, length = 100)
+    private String packFile;
+
+    @Column(name = "pack_offset", nullable = false)
+    private Long packOffset;
+
+    @Column(name = "compressed_size", nullable = false)
+    private Integer compressedSize;
+
+    @Column(name = "raw_size", nullable = false)
+    private Integer rawSize;
+}
@@ -0,0 +1,22 @@
+package com.graduate.novel.domain.crawl;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedPageRepository extends JpaRepository<ArchivedPage, Long> {
+
+    // An earlier fetch with the same bytes, whose frame a new fetch can share
+    Optional<ArchivedPage> findFirstByContentHash(byte[] contentHash);
+
+    // Latest archived fetch of each URL
+    @Query(value = "SELECT DISTINCT ON (url) * FROM archived_pages WHERE url IN (:urls) " +
+            "ORDER BY url, fetched_at DESC", nativeQuery = true)
+    List<ArchivedPage> findLatestByUrlIn(@Param("urls") Collection<String> urls);
+}
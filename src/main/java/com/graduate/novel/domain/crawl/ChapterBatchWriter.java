@@ -0,0 +1,141 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.domain.chapter.Chapter;
+import com.graduate.novel.domain.chapter.ChapterRepository;
+import com.graduate.novel.domain.duplicate.DuplicateDetectionService;
+import com.graduate.novel.domain.story.Story;
+import com.graduate.novel.domain.story.StoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write stage of a crawl: saves fetched chapters a batch per transaction. Network fetches never
+ * run inside these transactions, so a crawl only holds a connection while a batch is written.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChapterBatchWriter {
+
+    private final ChapterRepository chapterRepository;
+    private final StoryRepository storyRepository;
+    private final DuplicateDetectionService duplicateDetectionService;
+
+    /**
+     * Create or update the chapters of a story. New chapters are inserted as one JDBC batch;
+     * a chapter whose text is unchanged keeps its translation, and only its crawl bookkeeping is
+     * updated if that changed. Written chapters are checked for copies of other stories.
+     * @return chapters whose text was written
+     */
+    @Transactional
+    public int write(Long storyId, List<CrawledChapter> crawled) {
+        Story story = storyRepository.getReferenceById(storyId);
+        Map<Integer, Chapter> existing = chapterRepository.findByStoryIdAndChapterIndexIn(storyId,
+                        crawled.stream().map(CrawledChapter::chapterIndex).toList())
+                .stream()
+                .collect(Collectors.toMap(Chapter::getChapterIndex, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Chapter> inserted = new ArrayList<>();
+        List<Chapter> written = new ArrayList<>();
+        for (CrawledChapter page : crawled) {
+            Chapter chapter = existing.get(page.chapterIndex());
+            if (chapter == null) {
+                if (page.outcome() == CrawledChapter.Outcome.NOT_MODIFIED
+                        || page.outcome() == CrawledChapter.Outcome.REPARSED) {
+                    continue;
+                }
+                chapter = Chapter.builder()
+                        .story(story)
+                        .chapterIndex(page.chapterIndex())
+                        .build();
+                inserted.add(chapter);
+            }
+
+            switch (page.outcome()) {
+                case FAILED -> {
+                    // Keep whatever content the chapter had
+                    if (page.title() != null) {
+                        chapter.setTitle(page.title());
+                    }
+                    chapter.setCrawlStatus("FAILED");
+                    chapter.setCrawlTime(now);
+                }
+                case NOT_MODIFIED -> updateSourceState(chapter, page);
+                case FETCHED, REPARSED -> {
+                    if ("SUCCESS".equals(chapter.getCrawlStatus())
+                            && Arrays.equals(chapter.getContentHash(), Chapter.hashContent(page.content()))
+                            && Objects.equals(chapter.getRawTitle(), page.title())) {
+                        // Same text as stored: no rewrite, and the translation stays valid
+                        updateSourceState(chapter, page);
+                        continue;
+                    }
+                    if (chapter.getId() != null) {
+                        // Reset translation status since content has been updated
+                        // Old translation no longer matches new content
+                        chapter.setTranslateStatus("NONE");
+                        chapter.setTranslatedTitle(null);
+                        chapter.setTranslatedContent(null);
+                        chapter.setTranslationReviewedAt(null);
+                        chapter.setTranslateTime(null);
+                        log.info("Re-crawled existing chapter {} - translation status reset to NONE", page.chapterIndex());
+                    }
+                    chapter.setTitle(page.title());
+                    chapter.setRawTitle(page.title());
+                    chapter.setRawContent(page.content());
+                    chapter.setCrawlStatus("SUCCESS");
+                    if (page.outcome() == CrawledChapter.Outcome.FETCHED) {
+                        chapter.setCrawlTime(now);
+                        chapter.setSourceUpdatedAt(page.sourceUpdatedAt());
+                        chapter.setEtag(page.etag());
+                        chapter.setLastModified(page.lastModified());
+                    }
+                    written.add(chapter);
+                }
+            }
+        }
+
+        // Updates of loaded chapters are flushed with the commit; unchanged ones are not written at all
+        chapterRepository.saveAll(inserted);
+        duplicateDetectionService.flagChapters(storyId, written);
+        log.debug("Saved {} chapters of story {} ({} new, {} rewritten)", crawled.size(), storyId,
+                inserted.size(), written.size());
+        return written.size();
+    }
+
+    /**
+     * Record that the stored chapter is current as of this fetch. Setting equal values leaves the
+     * entity clean, so nothing is written when nothing changed.
+     */
+    private static void updateSourceState(Chapter chapter, CrawledChapter page) {
+        if (page.sourceUpdatedAt() != null) {
+            chapter.setSourceUpdatedAt(page.sourceUpdatedAt());
+        }
+        if (page.etag() != null) {
+            chapter.setEtag(page.etag());
+        }
+        if (page.lastModified() != null) {
+            chapter.setLastModified(page.lastModified());
+        }
+    }
+
+    /**
+     * Record the listed dates of stored chapters that have none, without touching their text
+     * @param dates chapter index -> date listed in the table of contents
+     */
+    @Transactional
+    public void recordSourceDates(Long storyId, Map<Integer, LocalDateTime> dates) {
+        dates.forEach((chapterIndex, date) -> chapterRepository.recordSourceUpdatedAt(storyId, chapterIndex, date));
+    }
+}
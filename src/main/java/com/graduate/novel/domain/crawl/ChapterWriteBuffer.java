@@ -0,0 +1,95 @@
+package com.graduate.novel.domain.crawl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects the chapters a crawl's fetch threads produce and hands them to the
+ * {@link ChapterBatchWriter} a batch at a time. Whichever fetch thread fills the batch writes it.
+ * A lock rather than synchronized, so a virtual thread waiting for the write does not pin its
+ * carrier thread.
+ */
+@Slf4j
+class ChapterWriteBuffer {
+
+    private final ChapterBatchWriter writer;
+    private final Long storyId;
+    private final int batchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<CrawledChapter> pending = new ArrayList<>();
+    private int writeFailures;
+    private int written;
+
+    ChapterWriteBuffer(ChapterBatchWriter writer, Long storyId, int batchSize) {
+        this.writer = writer;
+        this.storyId = storyId;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    void add(CrawledChapter chapter) {
+        lock.lock();
+        try {
+            pending.add(chapter);
+            if (pending.size() >= batchSize) {
+                writePending();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write what is left
+     */
+    void flush() {
+        lock.lock();
+        try {
+            writePending();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Successfully fetched chapters that could not be saved
+     */
+    int writeFailures() {
+        lock.lock();
+        try {
+            return writeFailures;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Chapters whose text was written (new or changed)
+     */
+    int written() {
+        lock.lock();
+        try {
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writePending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<CrawledChapter> batch = List.copyOf(pending);
+        pending.clear();
+        try {
+            written += writer.write(storyId, batch);
+        } catch (Exception e) {
+            // The batch rolled back as a whole; the crawl goes on with the next one
+            writeFailures += (int) batch.stream().filter(CrawledChapter::succeeded).count();
+            log.error("Failed to save chapters {} to {} of story {}: {}", batch.get(0).chapterIndex(),
+                    batch.get(batch.size() - 1).chapterIndex(), storyId, e.getMessage(), e);
+        }
+    }
+}
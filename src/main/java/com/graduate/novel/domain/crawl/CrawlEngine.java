@@ -0,0 +1,67 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.config.CrawlProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+
+/**
+ * Fetches the pages of a crawl on virtual threads (crawls themselves run as queued jobs).
+ * <p>
+ * Every page a crawl fetches gets its own thread, up to app.crawl.chapter-concurrency per crawl. Nothing here bounds the total: the threads spend
+ * their time waiting on {@link HostRateLimiter} and the network, so the request rate each host
+ * allows is the only limit, and crawls of different hosts proceed in parallel.
+ */
+@Component
+public class CrawlEngine {
+
+    private final ExecutorService crawlExecutor;
+    private final CrawlProperties properties;
+
+    public CrawlEngine(@Qualifier("crawlExecutor") ExecutorService crawlExecutor, CrawlProperties properties) {
+        this.crawlExecutor = crawlExecutor;
+        this.properties = properties;
+    }
+
+    /**
+     * Run a task for each of count items, chapter-concurrency at a time, and wait for all of them
+     * @return the results in item order
+     */
+    public <T> List<T> forEach(int count, IntFunction<Callable<T>> task) throws InterruptedException {
+        Semaphore permits = new Semaphore(Math.max(1, properties.getChapterConcurrency()));
+        List<Future<T>> futures = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                Callable<T> callable = task.apply(i);
+                permits.acquire();
+                futures.add(crawlExecutor.submit(() -> {
+                    try {
+                        return callable.call();
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            List<T> results = new ArrayList<>(count);
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            // Interrupted or failed: stop the fetches still running
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+}
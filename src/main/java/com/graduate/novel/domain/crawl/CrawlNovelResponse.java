@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class CrawlNovelResponse {
+    private Long jobId;
     private Long storyId;
     private String title;
     private String description;
@@ -0,0 +1,29 @@
+package com.graduate.novel.domain.crawl;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of crawling a story's chapters
+ * @param targets            chapters that had to be fetched
+ * @param succeeded          chapters fetched or confirmed unchanged, and saved
+ * @param written            chapters whose text was new or changed
+ * @param newChapters        chapters the story did not have before
+ * @param latestRelease      date of the newest chapter in the table of contents, if read
+ * @param tocIntervalMinutes release interval estimated from the table of contents, if read
+ * @param lastChapter        set when probing for the next chapter found none: the story's last chapter
+ */
+record CrawlSummary(int targets, int succeeded, int written, int notModified, int failed, int notFound,
+                    int newChapters, LocalDateTime latestRelease, Double tocIntervalMinutes, Integer lastChapter) {
+
+    /**
+     * Whether probing for the chapter after the last one found nothing
+     */
+    boolean noNextChapter() {
+        return lastChapter != null;
+    }
+
+    String describe() {
+        return String.format("%d new, %d with new text, %d not modified, %d failed, %d not found",
+                newChapters, written, notModified, failed, notFound);
+    }
+}
@@ -0,0 +1,31 @@
+package com.graduate.novel.domain.crawl;
+
+import java.time.LocalDateTime;
+
+/**
+ * A chapter page as fetched, waiting to be saved
+ * @param content         null unless the page was fetched with content
+ * @param sourceUpdatedAt date listed in the table of contents, if any
+ * @param etag            validators of the response, for the next conditional fetch
+ */
+public record CrawledChapter(int chapterIndex, Outcome outcome, String title, String content,
+                             LocalDateTime sourceUpdatedAt, String etag, String lastModified) {
+
+    public enum Outcome {
+        FETCHED,
+        /** The server answered 304: the stored chapter is current */
+        NOT_MODIFIED,
+        /** Extracted again from an archived page: replaces the text, not the fetch bookkeeping */
+        REPARSED,
+        /** No content could be extracted, or the fetch failed */
+        FAILED
+    }
+
+    static CrawledChapter failed(int chapterIndex, String title) {
+        return new CrawledChapter(chapterIndex, Outcome.FAILED, title, null, null, null, null);
+    }
+
+    public boolean succeeded() {
+        return outcome != Outcome.FAILED;
+    }
+}
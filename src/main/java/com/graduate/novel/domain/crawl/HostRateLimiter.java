@@ -0,0 +1,106 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.config.CrawlProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket per host, shared by every crawl on this node.
+ * <p>
+ * Each request reserves the next token of its host and sleeps until that token exists, so
+ * concurrent crawls of one host are spaced at the host's rate in arrival order, while crawls of
+ * different hosts never wait for each other. Waiting happens on virtual threads and costs no
+ * platform thread. A host that answers 429/503 is paused for the time it asked for.
+ */
+@Component
+public class HostRateLimiter {
+
+    private final CrawlProperties properties;
+    private final Clock clock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private static final class Bucket {
+        private final double ratePerMs;
+        private final double capacity;
+        /** Tokens available at refilledAt; negative when requests are queued for the next ones */
+        private double tokens;
+        /** Tokens accumulate from this time on; in the future while the host is paused */
+        private long refilledAt;
+
+        private Bucket(double requestsPerSecond, int burst, long now) {
+            this.ratePerMs = requestsPerSecond / 1000.0;
+            this.capacity = Math.max(1, burst);
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+    }
+
+    @Autowired
+    public HostRateLimiter(CrawlProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    HostRateLimiter(CrawlProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Block until a request to the host may be sent
+     */
+    public void acquire(String host) throws InterruptedException {
+        long waitMs = reserve(host);
+        if (waitMs > 0) {
+            Thread.sleep(waitMs);
+        }
+    }
+
+    /**
+     * Take the host's next token
+     * @return milliseconds until it is available
+     */
+    long reserve(String host) {
+        Bucket bucket = bucket(host);
+        long now = clock.millis();
+        synchronized (bucket) {
+            if (now > bucket.refilledAt) {
+                bucket.tokens = Math.min(bucket.capacity, bucket.tokens + (now - bucket.refilledAt) * bucket.ratePerMs);
+                bucket.refilledAt = now;
+            }
+            bucket.tokens -= 1;
+            long wait = bucket.refilledAt - now;
+            if (bucket.tokens < 0) {
+                wait += (long) Math.ceil(-bucket.tokens / bucket.ratePerMs);
+            }
+            return wait;
+        }
+    }
+
+    /**
+     * Send nothing more to the host for a while, e.g. after it answered 429
+     */
+    public void pause(String host, Duration delay) {
+        Bucket bucket = bucket(host);
+        long until = clock.millis() + delay.toMillis();
+        synchronized (bucket) {
+            if (until > bucket.refilledAt) {
+                // One request may go when the pause ends; requests already waiting keep their place behind it
+                bucket.tokens = Math.min(bucket.tokens, 1);
+                bucket.refilledAt = until;
+            }
+        }
+    }
+
+    private Bucket bucket(String host) {
+        String key = host.toLowerCase(Locale.ROOT);
+        return buckets.computeIfAbsent(key, h -> new Bucket(
+                properties.getHostRequestsPerSecondOverrides().getOrDefault(h, properties.getHostRequestsPerSecond()),
+                properties.getHostBurst(), clock.millis()));
+    }
+}
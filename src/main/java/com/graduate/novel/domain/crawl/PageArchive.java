@@ -0,0 +1,169 @@
+package com.graduate.novel.domain.crawl;
+
+import com.github.luben.zstd.Zstd;
+import com.graduate.novel.config.PageArchiveProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local archive of every page the crawler fetches, so extraction can be re-run without
+ * fetching again.
+ * <p>
+ * Each page is compressed into one zstd frame and appended to the current pack file; packs are
+ * closed at a size limit and never modified afterwards (a pack is a valid multi-frame .zst file
+ * on its own). The archived_pages table indexes the frames by URL and fetch time. Pages are
+ * content-addressed by SHA-256: bytes already archived are not stored twice.
+ */
+@Component
+@Slf4j
+public class PageArchive {
+
+    private static final DateTimeFormatter PACK_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ArchivedPageRepository archivedPageRepository;
+    private final PageArchiveProperties properties;
+    private final Path dir;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel pack;
+    private String packName;
+    private long packSize;
+
+    public PageArchive(ArchivedPageRepository archivedPageRepository, PageArchiveProperties properties) {
+        this.archivedPageRepository = archivedPageRepository;
+        this.properties = properties;
+        this.dir = Path.of(properties.getDir());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Archive a fetched page. Never throws: a crawl does not fail because its page could not be archived.
+     * @param charset from the response's Content-Type header, or null
+     */
+    public void store(String url, String charset, byte[] page) {
+        try {
+            byte[] hash = sha256(page);
+            ArchivedPage.ArchivedPageBuilder row = ArchivedPage.builder()
+                    .url(url)
+                    .fetchedAt(LocalDateTime.now())
+                    .contentHash(hash)
+                    .charset(charset)
+                    .rawSize(page.length);
+
+            Optional<ArchivedPage> same = archivedPageRepository.findFirstByContentHash(hash);
+            if (same.isPresent()) {
+                row.packFile(same.get().getPackFile())
+                        .packOffset(same.get().getPackOffset())
+                        .compressedSize(same.get().getCompressedSize());
+            } else {
+                // Compressed outside the lock, so fetch threads only queue for the append
+                byte[] frame = Zstd.compress(page, properties.getCompressionLevel());
+                lock.lock();
+                try {
+                    long offset = append(frame);
+                    row.packFile(packName).packOffset(offset).compressedSize(frame.length);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            archivedPageRepository.save(row.build());
+        } catch (Exception e) {
+            log.warn("Failed to archive {}: {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * The uncompressed bytes of an archived page
+     * @throws IOException if the pack is missing or the frame does not match its hash
+     */
+    public byte[] read(ArchivedPage page) throws IOException {
+        byte[] frame = new byte[page.getCompressedSize()];
+        try (FileChannel channel = FileChannel.open(dir.resolve(page.getPackFile()), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, page.getPackOffset() + buffer.position()) < 0) {
+                    throw new EOFException("Pack " + page.getPackFile() + " ends before page " + page.getId());
+                }
+            }
+        }
+        byte[] data = Zstd.decompress(frame, page.getRawSize());
+        if (!Arrays.equals(sha256(data), page.getContentHash())) {
+            throw new IOException("Archived page " + page.getId() + " is corrupt");
+        }
+        return data;
+    }
+
+    /**
+     * Append a frame to the current pack, starting a new pack when it is full
+     * @return offset of the frame
+     */
+    private long append(byte[] frame) throws IOException {
+        if (pack == null || packSize >= (long) properties.getMaxPackMb() * 1024 * 1024) {
+            openNewPack();
+        }
+        long offset = packSize;
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        while (buffer.hasRemaining()) {
+            pack.write(buffer);
+        }
+        packSize += frame.length;
+        return offset;
+    }
+
+    private void openNewPack() throws IOException {
+        closePack();
+        Files.createDirectories(dir);
+        // Unique across nodes writing to a shared directory
+        packName = "pack-" + LocalDateTime.now().format(PACK_TIME) + "-"
+                + UUID.randomUUID().toString().substring(0, 8) + ".zst";
+        pack = FileChannel.open(dir.resolve(packName), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        packSize = 0;
+        log.info("Started page archive pack {}", packName);
+    }
+
+    private void closePack() throws IOException {
+        if (pack != null) {
+            pack.close();
+            pack = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            closePack();
+        } catch (IOException e) {
+            log.warn("Failed to close page archive pack {}: {}", packName, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
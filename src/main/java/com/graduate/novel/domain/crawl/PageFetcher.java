@@ -0,0 +1,180 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.config.CrawlProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Fetches and parses crawled pages through one shared HTTP client, so connections to a host are
+ * kept alive and reused across chapters and stories (HTTP/2 where the host offers it). Responses
+ * are requested gzip-compressed. Every request waits for its host's turn in {@link HostRateLimiter}.
+ * Successful responses are kept in the {@link PageArchive} when it is enabled.
+ */
+@Component
+@Slf4j
+public class PageFetcher {
+
+    private final HttpClient httpClient;
+    private final HostRateLimiter hostRateLimiter;
+    private final PageArchive pageArchive;
+    private final CrawlProperties properties;
+
+    public PageFetcher(HostRateLimiter hostRateLimiter, PageArchive pageArchive, CrawlProperties properties) {
+        this.hostRateLimiter = hostRateLimiter;
+        this.pageArchive = pageArchive;
+        this.properties = properties;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .build();
+    }
+
+    /**
+     * Turns a response body into what the caller needs. It may stop reading early; the rest of the
+     * body is then skipped unparsed.
+     * @param charset from the Content-Type header, or null if the server did not say
+     */
+    @FunctionalInterface
+    public interface BodyParser<T> {
+        T parse(InputStream body, String charset, String url) throws IOException;
+    }
+
+    /**
+     * A fetched page
+     * @param page         the parsed page; null if it does not exist or has not changed
+     * @param notModified  true if the server answered 304 to a conditional request
+     * @param etag         validators to send with the next request for this page
+     */
+    public record Result<T>(T page, boolean notModified, String etag, String lastModified) {
+    }
+
+    /**
+     * Fetch and parse a page into a full DOM
+     * @return the page, or null if it does not exist (404/410)
+     * @throws IOException for any other failure, including other error statuses
+     */
+    public Document fetch(String url) throws IOException, InterruptedException {
+        return fetch(url, null, null, (body, charset, baseUri) -> Jsoup.parse(body, charset, baseUri)).page();
+    }
+
+    /**
+     * Fetch a page unless it is unchanged since the validators of an earlier fetch
+     * (If-None-Match / If-Modified-Since), and parse it with the given parser. A 304 costs the
+     * host no page render and us no body.
+     * @throws IOException for a failure or an error status other than 404/410
+     */
+    public <T> Result<T> fetch(String url, String etag, String lastModified, BodyParser<T> parser)
+            throws IOException, InterruptedException {
+        URI uri = URI.create(url);
+        hostRateLimiter.acquire(uri.getHost());
+        log.debug("Fetching URL: {}", url);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(properties.getRequestTimeoutMs()))
+                .header("User-Agent", properties.getUserAgent())
+                .header("Accept", "text/html,application/xhtml+xml")
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+
+        try (InputStream raw = response.body()) {
+            int status = response.statusCode();
+            if (status == 304) {
+                return new Result<>(null, true, etag, lastModified);
+            }
+            if (status == 404 || status == 410) {
+                return new Result<>(null, false, null, null);
+            }
+            if (status == 429 || status == 503) {
+                long retryAfter = response.headers().firstValue("Retry-After")
+                        .map(PageFetcher::parseSeconds)
+                        .filter(seconds -> seconds > 0)
+                        .orElse(properties.getDefaultRetryAfterSeconds());
+                hostRateLimiter.pause(uri.getHost(), Duration.ofSeconds(retryAfter));
+                throw new IOException("HTTP " + status + " from " + url + ", host paused for " + retryAfter + "s");
+            }
+            if (status >= 400) {
+                throw new IOException("HTTP " + status + " from " + url);
+            }
+            String charset = charset(response);
+            T page;
+            // Only a page response has a body worth decoding; a 304 or an empty gzip body has no header
+            try (InputStream body = decode(response, raw)) {
+                if (pageArchive.isEnabled()) {
+                    // The archive needs the whole page anyway, so it is parsed from memory
+                    byte[] bytes = body.readAllBytes();
+                    pageArchive.store(url, charset, bytes);
+                    page = parser.parse(new ByteArrayInputStream(bytes), charset, response.uri().toString());
+                } else {
+                    page = parser.parse(body, charset, response.uri().toString());
+                    // Read what a streaming parser left, so the connection can be reused
+                    body.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+            return new Result<>(page, false,
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
+        }
+    }
+
+    /**
+     * Reader over a body for a streaming parser, which cannot sniff the charset from the page:
+     * Syosetu always declares it in the header, and serves UTF-8
+     */
+    static Reader reader(InputStream body, String charset) {
+        return new InputStreamReader(body, charset != null ? Charset.forName(charset) : StandardCharsets.UTF_8);
+    }
+
+    private static InputStream decode(HttpResponse<InputStream> response, InputStream body) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        boolean empty = response.headers().firstValueAsLong("Content-Length").orElse(-1) == 0;
+        return encoding.equalsIgnoreCase("gzip") && !empty ? new GZIPInputStream(body) : body;
+    }
+
+    /**
+     * Charset from the Content-Type header, or null to let Jsoup read it from the page
+     */
+    private static String charset(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index < 0) {
+            return null;
+        }
+        String charset = contentType.substring(index + 8).split(";")[0].trim().replace("\"", "");
+        return charset.isEmpty() ? null : charset;
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Math.max(1, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            // An HTTP date; the default pause is close enough
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.domain.crawljob.ClaimedJob;
+import com.graduate.novel.domain.crawljob.JobExecution;
+import com.graduate.novel.domain.crawljob.JobHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Runs queued STORY_CRAWL jobs started from the crawl endpoint: a range of chapters (payload
+ * "start-end"), or the new and changed chapters if there is no payload. The job's items are the
+ * chapters that had to be fetched; its result message says how many were written.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StoryCrawlJobHandler implements JobHandler {
+
+    private final SyosetuCrawlService syosetuCrawlService;
+
+    @Override
+    public Set<String> jobTypes() {
+        return Set.of(SyosetuCrawlService.STORY_CRAWL);
+    }
+
+    @Override
+    public Set<String> longRunningJobTypes() {
+        return Set.of(SyosetuCrawlService.STORY_CRAWL);
+    }
+
+    @Override
+    public void execute(JobExecution execution) throws Exception {
+        ClaimedJob job = execution.job();
+        Integer start = null;
+        Integer end = null;
+        if (job.payload() != null) {
+            String[] range = job.payload().split("-");
+            start = Integer.parseInt(range[0]);
+            end = Integer.parseInt(range[1]);
+        }
+
+        CrawlSummary summary = syosetuCrawlService.crawlStory(job.storyId(), start, end, execution::progress);
+        if (summary.noNextChapter()) {
+            // Nothing to retry: the story simply has no newer chapter yet
+            execution.setResultMessage(String.format(
+                    "No next chapter available. Story already has all available chapters (last chapter: %d)",
+                    summary.lastChapter()));
+            return;
+        }
+        execution.setResultMessage(summary.describe());
+        log.info("Job {}: crawled storyId={}: {}", job.id(), job.storyId(), summary.describe());
+    }
+}
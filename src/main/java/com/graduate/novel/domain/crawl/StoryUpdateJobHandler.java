@@ -0,0 +1,50 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.domain.crawljob.ClaimedJob;
+import com.graduate.novel.domain.crawljob.CrawlJobService;
+import com.graduate.novel.domain.crawljob.JobExecution;
+import com.graduate.novel.domain.crawljob.JobHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Runs queued STORY_UPDATE jobs: checks one story for new and changed chapters.
+ * The job's items are the chapters that had to be fetched, which the update scheduler counts
+ * against its hourly request budget.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StoryUpdateJobHandler implements JobHandler {
+
+    private final SyosetuCrawlService syosetuCrawlService;
+    private final CrawlJobService crawlJobService;
+
+    @Override
+    public Set<String> jobTypes() {
+        return Set.of(StoryUpdateService.STORY_UPDATE);
+    }
+
+    @Override
+    public Set<String> longRunningJobTypes() {
+        return Set.of(StoryUpdateService.STORY_UPDATE);
+    }
+
+    @Override
+    public void execute(JobExecution execution) throws Exception {
+        ClaimedJob job = execution.job();
+        if (crawlJobService.hasActiveJobForStory(job.storyId(), "STORY_CRAWL")) {
+            // A crawl started meanwhile brings the story up to date anyway
+            execution.setResultMessage("Skipped: story is being crawled");
+            return;
+        }
+        CrawlSummary summary = syosetuCrawlService.checkForUpdates(job.storyId(), execution::progress);
+        execution.setResultMessage(summary.describe());
+        if (summary.newChapters() > 0) {
+            log.info("Job {}: {} new chapters for storyId={}", job.id(), summary.newChapters(), job.storyId());
+        }
+    }
+}
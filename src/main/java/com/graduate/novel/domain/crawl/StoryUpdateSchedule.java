@@ -0,0 +1,40 @@
+package com.graduate.novel.domain.crawl;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * When an ongoing story is next checked for new chapters, and the release cadence that
+ * check time is derived from
+ */
+@Entity
+@Table(name = "story_update_schedule")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoryUpdateSchedule {
+
+    @Id
+    @Column(name = "story_id")
+    private Long storyId;
+
+    @Column(name = "interval_minutes")
+    private Double intervalMinutes; // Smoothed gap between releases; null until known
+
+    @Column(name = "last_release_at")
+    private LocalDateTime lastReleaseAt;
+
+    @Column(name = "last_checked_at")
+    private LocalDateTime lastCheckedAt;
+
+    @Column(name = "next_check_at", nullable = false)
+    private LocalDateTime nextCheckAt;
+
+    @Column(name = "empty_checks", nullable = false)
+    @Builder.Default
+    private Integer emptyChecks = 0;
+}
@@ -0,0 +1,30 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.domain.story.StoryStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StoryUpdateScheduleRepository extends JpaRepository<StoryUpdateSchedule, Long> {
+
+    // Crawled stories of the given status that are due (or were never checked) and have no crawl in flight,
+    // with their favorite count and the number of readers active since :since
+    @Query("SELECT new com.graduate.novel.domain.crawl.UpdateCandidate(s.id, u.intervalMinutes, u.lastCheckedAt, " +
+           "(SELECT COUNT(f) FROM Favorite f WHERE f.story.id = s.id), " +
+           "(SELECT COUNT(h) FROM ReadingHistory h WHERE h.story.id = s.id AND h.lastReadAt >= :since)) " +
+           "FROM Story s LEFT JOIN StoryUpdateSchedule u ON u.storyId = s.id " +
+           "WHERE s.status = :status AND s.sourceSite = 'syosetu' AND s.sourceUrl IS NOT NULL " +
+           "AND (u.nextCheckAt IS NULL OR u.nextCheckAt <= :now) " +
+           "AND NOT EXISTS (SELECT 1 FROM CrawlJob j WHERE j.story.id = s.id AND j.jobType IN :jobTypes " +
+           "AND j.status IN ('PENDING', 'PROCESSING'))")
+    List<UpdateCandidate> findDueCandidates(@Param("status") StoryStatus status,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("since") LocalDateTime since,
+                                            @Param("jobTypes") Collection<String> jobTypes);
+}
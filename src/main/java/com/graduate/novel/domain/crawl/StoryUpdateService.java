@@ -0,0 +1,131 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.config.StoryUpdateProperties;
+import com.graduate.novel.domain.crawljob.CrawlJobRepository;
+import com.graduate.novel.domain.crawljob.JobQueueService;
+import com.graduate.novel.domain.favorite.FavoriteRepository;
+import com.graduate.novel.domain.history.ReadingHistoryRepository;
+import com.graduate.novel.domain.story.StoryStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps ongoing stories up to date without a moderator starting crawls.
+ * <p>
+ * Every story tracks its release cadence. A sweep queues STORY_UPDATE jobs for the due stories,
+ * those most likely to have a new chapter and with the most favorites and active readers first,
+ * until the hourly request budget is spent. After each check the next one is scheduled from the
+ * cadence: well-followed stories are polled several times per expected release, dormant ones
+ * about once a week.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoryUpdateService {
+
+    public static final String STORY_UPDATE = "STORY_UPDATE";
+
+    private final StoryUpdateScheduleRepository scheduleRepository;
+    private final CrawlJobRepository crawlJobRepository;
+    private final JobQueueService jobQueueService;
+    private final FavoriteRepository favoriteRepository;
+    private final ReadingHistoryRepository readingHistoryRepository;
+    private final StoryUpdateProperties properties;
+
+    /**
+     * Queue update checks for due stories, best first, within what is left of the hourly budget
+     * @return checks queued
+     */
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int budget = remainingBudget(now);
+        if (budget < properties.getRequestsPerCheck()) {
+            log.debug("Story update budget spent for this hour");
+            return 0;
+        }
+
+        List<UpdateCandidate> due = scheduleRepository.findDueCandidates(StoryStatus.PUBLISHED, now,
+                now.minusMinutes(properties.getActiveReaderWindowMinutes()), List.of("STORY_CRAWL", STORY_UPDATE));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        List<UpdateCandidate> ranked = due.stream()
+                .sorted(Comparator.comparingDouble((UpdateCandidate candidate) ->
+                        UpdateCadence.score(candidate, now, properties)).reversed())
+                .toList();
+
+        int queued = 0;
+        for (UpdateCandidate candidate : ranked) {
+            if (budget < properties.getRequestsPerCheck()) {
+                break;
+            }
+            queueCheck(candidate.storyId(), now);
+            budget -= properties.getRequestsPerCheck();
+            queued++;
+        }
+        log.info("Queued update checks for {} of {} due stories ({} requests left this hour)",
+                queued, due.size(), budget);
+        return queued;
+    }
+
+    /**
+     * Learn from a finished update check and schedule the next one
+     */
+    @Transactional
+    public void recordCheck(Long storyId, CrawlSummary summary) {
+        LocalDateTime now = LocalDateTime.now();
+        StoryUpdateSchedule schedule = scheduleRepository.findById(storyId)
+                .orElseGet(() -> StoryUpdateSchedule.builder().storyId(storyId).build());
+
+        schedule.setIntervalMinutes(UpdateCadence.updateInterval(schedule.getIntervalMinutes(),
+                schedule.getLastReleaseAt(), summary.latestRelease(), summary.newChapters(),
+                summary.tocIntervalMinutes(), properties.getIntervalSmoothing()));
+        if (summary.latestRelease() != null && (schedule.getLastReleaseAt() == null
+                || summary.latestRelease().isAfter(schedule.getLastReleaseAt()))) {
+            schedule.setLastReleaseAt(summary.latestRelease());
+        }
+        schedule.setEmptyChecks(summary.newChapters() > 0 ? 0 : schedule.getEmptyChecks() + 1);
+        schedule.setLastCheckedAt(now);
+
+        double weight = UpdateCadence.weight(favoriteRepository.countByStoryId(storyId),
+                readingHistoryRepository.countByStoryIdAndLastReadAtGreaterThanEqual(storyId,
+                        now.minusMinutes(properties.getActiveReaderWindowMinutes())),
+                properties.getActiveReaderWeight());
+        Duration delay = UpdateCadence.nextCheckDelay(schedule.getIntervalMinutes(), schedule.getLastReleaseAt(),
+                now, weight, properties);
+        schedule.setNextCheckAt(now.plus(delay));
+        scheduleRepository.save(schedule);
+
+        log.debug("Story {}: {} new chapters, interval {} min, next check in {} min", storyId,
+                summary.newChapters(), schedule.getIntervalMinutes(), delay.toMinutes());
+    }
+
+    private void queueCheck(Long storyId, LocalDateTime now) {
+        // Not due again until the check reschedules it; if the check never completes, it backs off
+        StoryUpdateSchedule schedule = scheduleRepository.findById(storyId)
+                .orElseGet(() -> StoryUpdateSchedule.builder().storyId(storyId).build());
+        schedule.setNextCheckAt(now.plusMinutes(properties.getFailureBackoffMinutes()));
+        scheduleRepository.save(schedule);
+
+        jobQueueService.enqueue(STORY_UPDATE, storyId, null, JobQueueService.PRIORITY_DEFAULT, null);
+    }
+
+    /**
+     * Requests left this hour: each check queued in the last hour costs its fixed requests plus
+     * the chapters it fetched
+     */
+    private int remainingBudget(LocalDateTime now) {
+        LocalDateTime hourAgo = now.minusHours(1);
+        long spent = crawlJobRepository.countByJobTypeAndCreatedAtAfter(STORY_UPDATE, hourAgo)
+                * properties.getRequestsPerCheck()
+                + crawlJobRepository.sumTotalItemsByJobTypeSince(STORY_UPDATE, hourAgo);
+        return (int) Math.max(0, properties.getRequestsPerHour() - spent);
+    }
+}
@@ -0,0 +1,110 @@
+package com.graduate.novel.domain.crawl;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Title and text of a Syosetu chapter page, for both the current layout (.p-novel__body) and the
+ * older one (#novel_honbun).
+ * <p>
+ * Pages are read with Jsoup's streaming parser, which stops as soon as the novel body element is
+ * complete: the footer, ads and scripts after it are never turned into nodes. The text is taken
+ * from the body element directly (whitespace-normalized, as {@link Element#text()} does, through
+ * Jsoup's pooled builders) instead of serializing it to HTML and parsing that a second time.
+ */
+final class SyosetuChapterPage {
+
+    /** Elements holding the whole novel body in the known layouts; nothing after them is needed */
+    private static final Evaluator BODY_END = QueryParser.parse("#novel_honbun, div.p-novel__body");
+
+    private static final String[] TITLE_SELECTORS = {
+            ".novel_subtitle", "p.novel_subtitle", ".p-novel__title", "#novel_subtitle"};
+
+    private static final String[] CONTENT_SELECTORS = {
+            "#novel_honbun", "div.novel_view", "#novel_color", "div#novel_no", ".novel_body", "div.p-novel__body"};
+
+    /**
+     * @param pageTitle the page's title tag
+     * @param title     chapter title (subtitle), or null if none was found
+     * @param content   chapter text, or null if no body element was found
+     */
+    record Extract(String pageTitle, String title, String content) {
+
+        /**
+         * Syosetu answers a missing chapter with an error page rather than a 404 status
+         */
+        boolean isErrorPage() {
+            return pageTitle != null && (pageTitle.contains("404") || pageTitle.contains("Not Found"));
+        }
+    }
+
+    private SyosetuChapterPage() {
+    }
+
+    /**
+     * Parse a page as far as the end of the novel body
+     */
+    static Extract parse(InputStream body, String charset, String url) throws IOException {
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(PageFetcher.reader(body, charset), url)) {
+            // Parses up to the body element, or to the end of a page without one
+            streamer.selectNext(BODY_END);
+            return extract(streamer.document());
+        }
+    }
+
+    /**
+     * Extract from a page parsed (at least) up to the novel body
+     */
+    static Extract extract(Document doc) {
+        String pageTitle = doc.title();
+        return new Extract(pageTitle, title(doc, pageTitle), content(doc));
+    }
+
+    private static String title(Document doc, String pageTitle) {
+        for (String selector : TITLE_SELECTORS) {
+            Element element = doc.selectFirst(selector);
+            if (element != null && !element.text().trim().isEmpty()) {
+                return element.text().trim();
+            }
+        }
+
+        // Sometimes the chapter title is the h1 (unless it is the site name)
+        Element heading = doc.selectFirst("h1");
+        if (heading != null && !heading.text().trim().isEmpty() && !heading.text().contains("小説家になろう")) {
+            return heading.text().trim();
+        }
+        Element element = doc.selectFirst(".chapter-title");
+        if (element != null && !element.text().trim().isEmpty()) {
+            return element.text().trim();
+        }
+
+        // Last resort: page title in the form "Chapter Title - Novel Title"
+        if (pageTitle != null && !pageTitle.isEmpty()) {
+            String[] parts = pageTitle.split("-|｜|\\|");
+            if (parts.length > 1) {
+                String possibleTitle = parts[0].trim();
+                if (!possibleTitle.isEmpty() && !possibleTitle.equals("小説家になろう")) {
+                    return possibleTitle;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String content(Document doc) {
+        for (String selector : CONTENT_SELECTORS) {
+            Element element = doc.selectFirst(selector);
+            if (element != null) {
+                return element.text();
+            }
+        }
+        return null;
+    }
+}
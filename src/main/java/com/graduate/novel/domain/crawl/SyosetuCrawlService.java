@@ -1,45 +1,65 @@
 package com.graduate.novel.domain.crawl;
 
 import com.graduate.novel.common.exception.BadRequestException;
-import com.graduate.novel.domain.chapter.Chapter;
+import com.graduate.novel.common.exception.ResourceNotFoundException;
+import com.graduate.novel.config.CrawlProperties;
+import com.graduate.novel.config.JobEventProperties;
+import com.graduate.novel.domain.chapter.ChapterCrawlState;
 import com.graduate.novel.domain.chapter.ChapterRepository;
 import com.graduate.novel.domain.crawljob.CrawlJobService;
-import com.graduate.novel.domain.crawljob.CreateCrawlJobRequest;
+import com.graduate.novel.domain.crawljob.CrawlJobDto;
+import com.graduate.novel.domain.crawljob.JobQueueService;
+import com.graduate.novel.domain.crawljob.ProgressListener;
 import com.graduate.novel.domain.story.Story;
+import com.graduate.novel.domain.story.StoryContentChangedEvent;
 import com.graduate.novel.domain.story.StoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Random;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SyosetuCrawlService {
 
+    public static final String STORY_CRAWL = "STORY_CRAWL";
+
     private final StoryRepository storyRepository;
     private final ChapterRepository chapterRepository;
     private final CrawlJobService crawlJobService;
-
-    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
-    private static final int MIN_DELAY_MS = 1000;
-    private static final int MAX_DELAY_MS = 3000;
-    private static final int TIMEOUT_MS = 30000;
-    private static final Random random = new Random();
+    private final JobQueueService jobQueueService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PageFetcher pageFetcher;
+    private final CrawlEngine crawlEngine;
+    private final ChapterBatchWriter chapterBatchWriter;
+    private final CrawlProperties crawlProperties;
+    private final StoryUpdateService storyUpdateService;
+    private final JobEventProperties jobEventProperties;
 
     /**
-     * Main entry point to crawl a novel from Syosetu
+     * Main entry point to crawl a novel from Syosetu.
+     * Reads the novel page and queues a STORY_CRAWL job in the calling thread; a queue worker
+     * crawls the chapters (see {@link StoryCrawlJobHandler}), and the job records the outcome.
      */
-    @Transactional
     public CrawlNovelResponse crawlNovel(CrawlNovelRequest request) {
         log.info("Starting crawl for novel URL: {}", request.getNovelUrl());
 
@@ -50,12 +70,14 @@ public class SyosetuCrawlService {
         String novelCode = extractNovelCode(request.getNovelUrl());
         String baseUrl = "https://ncode.syosetu.com/" + novelCode + "/";
 
-        Long jobId = null;
-        Story story = null;
+        Story story;
 
         try {
             // Step 1: Crawl main page to get title and description
-            Document mainPage = fetchDocument(baseUrl);
+            Document mainPage = pageFetcher.fetch(baseUrl);
+            if (mainPage == null) {
+                throw new BadRequestException("Novel not found: " + baseUrl);
+            }
             String title = extractTitle(mainPage);
             String description = extractDescription(mainPage);
             String authorName = extractAuthorName(mainPage);
@@ -67,7 +89,8 @@ public class SyosetuCrawlService {
             story = saveOrUpdateStory(baseUrl, title, description, authorName);
 
             // Step 2.5: Check if there's already an active crawl job for this story
-            boolean hasActiveCrawlJob = crawlJobService.hasActiveJobForStory(story.getId(), "STORY_CRAWL");
+            boolean hasActiveCrawlJob = crawlJobService.hasActiveJobForStory(story.getId(), STORY_CRAWL)
+                    || crawlJobService.hasActiveJobForStory(story.getId(), StoryUpdateService.STORY_UPDATE);
             if (hasActiveCrawlJob) {
                 throw new BadRequestException(
                     String.format("Story ID %d is already being crawled. Please wait for the current job to complete.",
@@ -75,115 +98,224 @@ public class SyosetuCrawlService {
                 );
             }
 
-            // Step 3: Determine chapter range
-            int startChapter;
-            int endChapter;
-
-            // If no parameters provided, crawl next chapter after the last one in DB
-            if (request.getStartChapter() == null && request.getEndChapter() == null) {
-                Integer maxChapterIndex = chapterRepository.findMaxChapterIndexByStoryId(story.getId());
-                if (maxChapterIndex == null) {
-                    // No chapters yet, start from chapter 1
-                    startChapter = 1;
-                    endChapter = 1;
-                } else {
-                    // Crawl next chapter
-                    startChapter = maxChapterIndex + 1;
-                    endChapter = maxChapterIndex + 1;
-                }
-                log.info("No chapter range specified. Auto-detected next chapter to crawl: {}", startChapter);
-            } else {
-                // Use provided values or defaults
-                startChapter = request.getStartChapter() != null ? request.getStartChapter() : 1;
-                endChapter = request.getEndChapter() != null ? request.getEndChapter() : startChapter;
-            }
-
-            if (endChapter < startChapter) {
-                throw new BadRequestException("End chapter must be greater than or equal to start chapter");
-            }
-
-            // Create crawl job for tracking
-            CreateCrawlJobRequest jobRequest = new CreateCrawlJobRequest(
-                    story.getId(),
-                    null, // no specific chapter for story-level crawl
-                    "STORY_CRAWL"
-            );
-            var jobDto = crawlJobService.createJob(jobRequest);
-            jobId = jobDto.id();
-            log.info("Created crawl job with jobId={} for storyId={}", jobId, story.getId());
-
-            // Set job status to PROCESSING to prevent concurrent crawls
-            crawlJobService.updateJobStatus(jobId, "PROCESSING", null);
-            log.info("Set crawl job {} to PROCESSING status", jobId);
-
-            log.info("Crawling chapters {} to {} for storyId={}", startChapter, endChapter, story.getId());
-
-            // Step 4: Crawl chapters
-            int succeeded = 0;
-            int failed = 0;
-            int notFound = 0;
-
-            for (int chapterNum = startChapter; chapterNum <= endChapter; chapterNum++) {
-                try {
-                    // Add polite delay between requests
-                    if (chapterNum > startChapter) {
-                        addPoliteDelay();
-                    }
-
-                    Boolean result = crawlAndSaveChapter(story, baseUrl, chapterNum);
-                    if (result == null) {
-                        // Chapter doesn't exist
-                        notFound++;
-                        log.warn("Chapter {} does not exist", chapterNum);
-
-                        // If this is an auto-detected next chapter and it doesn't exist, throw specific error
-                        if (request.getStartChapter() == null && request.getEndChapter() == null) {
-                            throw new BadRequestException(
-                                String.format("No next chapter available. Story already has all available chapters (last chapter: %d)",
-                                    chapterNum - 1)
-                            );
-                        }
-                    } else if (result) {
-                        succeeded++;
-                        log.info("Successfully crawled chapter {}/{}", chapterNum, endChapter);
-                    } else {
-                        failed++;
-                        log.warn("Failed to crawl chapter {}/{}", chapterNum, endChapter);
-                    }
-                } catch (Exception e) {
-                    failed++;
-                    log.error("Error crawling chapter {}: {}", chapterNum, e.getMessage(), e);
+            // Step 3: Determine chapter range (none: bring the story up to date)
+            Integer startChapter = request.getStartChapter();
+            Integer endChapter = request.getEndChapter();
+            if (startChapter != null || endChapter != null) {
+                startChapter = startChapter != null ? startChapter : 1;
+                endChapter = endChapter != null ? endChapter : startChapter;
+                if (endChapter < startChapter) {
+                    throw new BadRequestException("End chapter must be greater than or equal to start chapter");
                 }
             }
 
-            int totalCrawled = endChapter - startChapter + 1;
-
-            // Update job status to SUCCESS
-            crawlJobService.updateJobStatus(jobId, "SUCCESS", null);
-            log.info("✅ Crawl job {} completed successfully", jobId);
+            // Step 4: Queue the chapter crawl; the job queue leases it, so another node picks it up
+            // if this one dies, and reports progress and the outcome on the job
+            Integer start = startChapter;
+            Integer end = endChapter;
+            CrawlJobDto job = jobQueueService.enqueue(STORY_CRAWL, story.getId(), null,
+                    JobQueueService.PRIORITY_DEFAULT, start != null ? start + "-" + end : null);
 
             return CrawlNovelResponse.builder()
+                    .jobId(job.id())
                     .storyId(story.getId())
                     .title(story.getTitle())
                     .description(story.getDescription())
-                    .chaptersCrawled(totalCrawled)
-                    .chaptersSucceeded(succeeded)
-                    .chaptersFailed(failed)
-                    .message(String.format("Crawl completed: %d succeeded, %d failed out of %d chapters",
-                            succeeded, failed, totalCrawled))
+                    .message(start != null
+                            ? String.format("Crawl of chapters %d to %d queued as job %d", start, end, job.id())
+                            : String.format("Update check queued as job %d", job.id()))
                     .build();
 
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("❌ Error during novel crawl: {}", e.getMessage(), e);
+            throw new BadRequestException("Failed to crawl novel: " + e.getMessage());
+        }
+    }
+
+    /** Newest table-of-contents dates the release interval is estimated from */
+    private static final int CADENCE_SAMPLE = 11;
+
+    /**
+     * A chapter the crawl has to fetch
+     * @param listedAt date in the table of contents, if listed
+     * @param state    what is stored for the chapter, if anything
+     */
+    private record Target(int chapterIndex, LocalDateTime listedAt, ChapterCrawlState state) {
+    }
 
-            // Update job status to FAILED if job was created
-            if (jobId != null) {
-                crawlJobService.updateJobStatus(jobId, "FAILED", e.getMessage());
-                log.error("Crawl job {} marked as FAILED", jobId);
+    /**
+     * Check a story already in the library for new and changed chapters, in the calling thread.
+     * Used by queued STORY_UPDATE jobs; the caller tracks the job.
+     */
+    public CrawlSummary checkForUpdates(Long storyId, ProgressListener progress)
+            throws IOException, InterruptedException {
+        return crawlStory(storyId, null, null, progress);
+    }
+
+    /**
+     * Crawl a story already in the library, in the calling thread: a range of chapters, or the
+     * new and changed ones if no range is given. Used by queued STORY_CRAWL and STORY_UPDATE
+     * jobs; the caller tracks the job.
+     */
+    public CrawlSummary crawlStory(Long storyId, Integer startChapter, Integer endChapter, ProgressListener progress)
+            throws IOException, InterruptedException {
+        Story story = storyRepository.findById(storyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Story not found with id: " + storyId));
+        String baseUrl = "https://ncode.syosetu.com/" + extractNovelCode(story.getSourceUrl()) + "/";
+
+        Document mainPage = pageFetcher.fetch(baseUrl);
+        if (mainPage == null) {
+            throw new IOException("Novel no longer available: " + baseUrl);
+        }
+        story = saveOrUpdateStory(story.getSourceUrl(), extractTitle(mainPage), extractDescription(mainPage),
+                extractAuthorName(mainPage));
+
+        CrawlSummary summary = crawlChapters(story, baseUrl, SyosetuToc.parse(mainPage), startChapter, endChapter,
+                progress);
+        if (startChapter == null) {
+            storyUpdateService.recordCheck(storyId, summary);
+        }
+        return summary;
+    }
+
+    /**
+     * Crawl the new and changed chapters of a story, within the range if one is given. Pages are
+     * fetched several at a time with no transaction open; fetched chapters are saved in batches,
+     * each in its own short transaction. Progress is reported per chapter fetched, at most once per
+     * app.job-events.progress-interval-ms.
+     */
+    private CrawlSummary crawlChapters(Story story, String baseUrl, SyosetuToc.Page firstTocPage,
+                                       Integer startChapter, Integer endChapter, ProgressListener progress)
+            throws IOException, InterruptedException {
+        log.info("Crawling {} for storyId={}", startChapter != null
+                ? "chapters " + startChapter + " to " + endChapter : "new and changed chapters", story.getId());
+        ChapterWriteBuffer buffer = new ChapterWriteBuffer(chapterBatchWriter, story.getId(),
+                crawlProperties.getWriteBatchSize());
+        Map<Integer, ChapterCrawlState> states = chapterRepository.findCrawlStates(story.getId()).stream()
+                .collect(Collectors.toMap(ChapterCrawlState::chapterIndex, Function.identity()));
+        int nextChapter = states.keySet().stream().max(Integer::compare).orElse(0) + 1;
+        List<SyosetuToc.Entry> toc = readToc(baseUrl, firstTocPage, startChapter, endChapter, nextChapter);
+
+        List<Target> targets = new ArrayList<>();
+        int notFound = 0;
+        boolean probing = toc.isEmpty();
+        if (probing) {
+            // No table of contents (short story, or a layout we do not know): probe by index
+            int first = startChapter != null ? startChapter : nextChapter;
+            int last = endChapter != null ? endChapter : first;
+            for (int index = first; index <= last; index++) {
+                targets.add(new Target(index, null, states.get(index)));
+            }
+        } else {
+            Set<Integer> listed = new HashSet<>();
+            Map<Integer, LocalDateTime> sourceDates = new HashMap<>();
+            for (SyosetuToc.Entry entry : toc) {
+                if (startChapter != null && (entry.chapterIndex() < startChapter || entry.chapterIndex() > endChapter)) {
+                    continue;
+                }
+                listed.add(entry.chapterIndex());
+                ChapterCrawlState state = states.get(entry.chapterIndex());
+                if (state == null || state.isStale(entry.updatedAt())) {
+                    targets.add(new Target(entry.chapterIndex(), entry.updatedAt(), state));
+                } else if (state.lacksSourceDate(entry.updatedAt())) {
+                    sourceDates.put(entry.chapterIndex(), entry.updatedAt());
+                }
+            }
+            if (!sourceDates.isEmpty()) {
+                chapterBatchWriter.recordSourceDates(story.getId(), sourceDates);
             }
+            if (startChapter != null) {
+                notFound = endChapter - startChapter + 1 - listed.size();
+            }
+        }
+        log.info("Story {}: {} chapters to fetch", story.getId(), targets.size());
+
+        ProgressListener fetchProgress = ProgressListener.throttled(progress, jobEventProperties.getProgressIntervalMs());
+        AtomicInteger fetched = new AtomicInteger();
+        AtomicInteger fetchFailures = new AtomicInteger();
+        fetchProgress.progress(targets.size(), 0, 0);
+        List<CrawledChapter> results = crawlEngine.forEach(targets.size(), i -> () -> {
+            CrawledChapter chapter = fetchChapter(baseUrl, targets.get(i));
+            if (chapter != null) {
+                buffer.add(chapter);
+            }
+            if (chapter != null && !chapter.succeeded()) {
+                fetchFailures.incrementAndGet();
+            } else {
+                fetched.incrementAndGet();
+            }
+            fetchProgress.progress(targets.size(), fetched.get(), fetchFailures.get());
+            return chapter;
+        });
+        buffer.flush();
+
+        int succeeded = 0;
+        int notModified = 0;
+        int newChapters = 0;
+        int failed = buffer.writeFailures();
+        for (int i = 0; i < results.size(); i++) {
+            CrawledChapter result = results.get(i);
+            if (result == null) {
+                // Chapter doesn't exist
+                notFound++;
+                log.warn("Chapter {} does not exist", targets.get(i).chapterIndex());
+            } else if (result.succeeded()) {
+                succeeded++;
+                if (result.outcome() == CrawledChapter.Outcome.NOT_MODIFIED) {
+                    notModified++;
+                }
+                if (targets.get(i).state() == null) {
+                    newChapters++;
+                }
+            } else {
+                failed++;
+            }
+        }
+        succeeded -= buffer.writeFailures();
+        progress.progress(targets.size(), targets.size() - failed, failed);
+
+        // Newest chapters in the table of contents, for the release cadence
+        List<SyosetuToc.Entry> latest = toc.stream()
+                .sorted(Comparator.comparingInt(SyosetuToc.Entry::chapterIndex))
+                .skip(Math.max(0, toc.size() - CADENCE_SAMPLE))
+                .toList();
+        return new CrawlSummary(targets.size(), succeeded, buffer.written(), notModified, failed, notFound,
+                newChapters, latest.isEmpty() ? null : latest.get(latest.size() - 1).updatedAt(),
+                UpdateCadence.medianGapMinutes(latest.stream().map(SyosetuToc.Entry::updatedAt).toList()),
+                // Probing for the next chapter found nothing
+                probing && startChapter == null && notFound > 0 ? targets.get(0).chapterIndex() - 1 : null);
+    }
 
-            throw new BadRequestException("Failed to crawl novel: " + e.getMessage());
+    /**
+     * Table-of-contents entries relevant to the crawl. Long novels list 100 chapters per page:
+     * for a range, the pages covering it are read; for an update check, every page from the one
+     * listing the first chapter not stored yet to the last. The first page is the novel page
+     * itself, already fetched.
+     * @param nextChapter index after the highest stored chapter (1 if none)
+     */
+    List<SyosetuToc.Entry> readToc(String baseUrl, SyosetuToc.Page firstPage, Integer startChapter,
+                                   Integer endChapter, int nextChapter) throws IOException, InterruptedException {
+        List<SyosetuToc.Entry> entries = new ArrayList<>(firstPage.entries());
+        int perPage = firstPage.entries().size();
+        if (firstPage.lastPage() <= 1 || perPage == 0) {
+            return entries;
         }
+
+        int lastPage = firstPage.lastPage();
+        int fromPage = Math.max(2, ((startChapter != null ? startChapter : nextChapter) - 1) / perPage + 1);
+        int toPage = startChapter != null ? Math.min(lastPage, (endChapter - 1) / perPage + 1) : lastPage;
+        // Everything stored: the last page still lists new chapters and revisions
+        fromPage = Math.min(fromPage, lastPage);
+        for (int page = fromPage; page <= toPage; page++) {
+            SyosetuToc.Page tocPage = pageFetcher.fetch(baseUrl + "?p=" + page, null, null, SyosetuToc::parse).page();
+            if (tocPage != null) {
+                entries.addAll(tocPage.entries());
+            }
+        }
+        return entries;
     }
 
     /**
@@ -198,7 +330,7 @@ public class SyosetuCrawlService {
     /**
      * Extract novel code from URL (e.g., "n5375cy" from "https://ncode.syosetu.com/n5375cy/")
      */
-    private String extractNovelCode(String url) {
+    static String extractNovelCode(String url) {
         Pattern pattern = Pattern.compile("ncode\\.syosetu\\.com/([a-z0-9]+)", Pattern.CASE_INSENSITIVE);
         Matcher matcher = pattern.matcher(url);
 
@@ -209,40 +341,6 @@ public class SyosetuCrawlService {
         throw new BadRequestException("Could not extract novel code from URL");
     }
 
-    /**
-     * Fetch a document from URL with proper headers and encoding
-     */
-    private Document fetchDocument(String url) throws Exception {
-        log.debug("Fetching URL: {}", url);
-
-        return Jsoup.connect(url)
-                .userAgent(USER_AGENT)
-                .timeout(TIMEOUT_MS)
-                .followRedirects(true)
-                .ignoreHttpErrors(false)
-                .get();
-    }
-
-    /**
-     * Fetch a document from URL and return null if 404 (for checking chapter existence)
-     */
-    private Document fetchDocumentOrNull(String url) {
-        log.debug("Fetching URL with error handling: {}", url);
-
-        try {
-            return Jsoup.connect(url)
-                    .userAgent(USER_AGENT)
-                    .timeout(TIMEOUT_MS)
-                    .followRedirects(true)
-                    .ignoreHttpErrors(true)
-                    .execute()
-                    .parse();
-        } catch (Exception e) {
-            log.warn("Failed to fetch URL {}: {}", url, e.getMessage());
-            return null;
-        }
-    }
-
     /**
      * Extract title from main page
      */
@@ -274,12 +372,8 @@ public class SyosetuCrawlService {
     private String extractDescription(Document doc) {
         Element descElement = doc.selectFirst("#novel_ex");
         if (descElement != null) {
-            // Get text but preserve line breaks
-            String html = descElement.html();
-            // Replace <br> tags with newlines
-            html = html.replaceAll("<br\\s*/?>", "\n");
-            // Remove all other HTML tags
-            return Jsoup.parse(html).text();
+            // Whitespace-normalized, so <br> line breaks become spaces (as re-parsing its HTML did)
+            return descElement.text();
         }
         return null;
     }
@@ -320,7 +414,6 @@ public class SyosetuCrawlService {
 
     /**
      * Save or update story in database
-     * Note: This method is called within a transactional context from crawlNovel()
      */
     private Story saveOrUpdateStory(String sourceUrl, String title, String description, String authorName) {
         // Check if story already exists by source URL
@@ -328,6 +421,9 @@ public class SyosetuCrawlService {
 
         if (!existingStories.isEmpty()) {
             Story story = existingStories.get(0);
+            String titleBefore = story.getTitle();
+            String authorBefore = story.getAuthorName();
+            String descriptionBefore = story.getDescription();
 
             // Always update raw columns since this is fresh crawled data
             story.setRawTitle(title);
@@ -358,7 +454,14 @@ public class SyosetuCrawlService {
             }
 
             log.info("Updating existing story ID: {} (preserving translations)", story.getId());
-            return storyRepository.save(story);
+            boolean contentChanged = !Objects.equals(titleBefore, story.getTitle())
+                    || !Objects.equals(authorBefore, story.getAuthorName())
+                    || !Objects.equals(descriptionBefore, story.getDescription());
+            story = storyRepository.save(story);
+            if (contentChanged) {
+                eventPublisher.publishEvent(new StoryContentChangedEvent(story.getId()));
+            }
+            return story;
         } else {
             // Create new story - save to raw columns since this is crawled data
             Story story = Story.builder()
@@ -372,317 +475,72 @@ public class SyosetuCrawlService {
                     .sourceSite("syosetu")
                     .build();
             story = storyRepository.save(story);
+            eventPublisher.publishEvent(new StoryContentChangedEvent(story.getId()));
             log.info("Created new story with ID: {}", story.getId());
             return story;
         }
     }
 
     /**
-     * Crawl a specific chapter and save to database
-     * Returns: true if success, false if failed, null if chapter doesn't exist (404)
+     * Fetch a chapter page and extract its title and content
+     * Returns: null if the chapter doesn't exist (404), otherwise the fetched, unmodified or failed chapter
      */
-    private Boolean crawlAndSaveChapter(Story story, String baseUrl, int chapterNum) {
+    private CrawledChapter fetchChapter(String baseUrl, Target target) throws InterruptedException {
+        int chapterNum = target.chapterIndex();
         String chapterUrl = baseUrl + chapterNum + "/";
 
         log.info("Crawling chapter {} from URL: {}", chapterNum, chapterUrl);
 
         try {
-            // Fetch chapter page with error handling
-            Document chapterDoc = fetchDocumentOrNull(chapterUrl);
+            // Fetch chapter page, conditionally if a previous fetch returned validators
+            boolean stored = target.state() != null && "SUCCESS".equals(target.state().crawlStatus());
+            PageFetcher.Result<SyosetuChapterPage.Extract> page = pageFetcher.fetch(chapterUrl,
+                    stored ? target.state().etag() : null, stored ? target.state().lastModified() : null,
+                    SyosetuChapterPage::parse);
+            if (page.notModified()) {
+                log.info("Chapter {} not modified since the last crawl", chapterNum);
+                return new CrawledChapter(chapterNum, CrawledChapter.Outcome.NOT_MODIFIED, null, null,
+                        target.listedAt(), page.etag(), page.lastModified());
+            }
+            SyosetuChapterPage.Extract chapterPage = page.page();
 
-            if (chapterDoc == null) {
-                log.warn("Chapter {} does not exist or could not be fetched", chapterNum);
+            if (chapterPage == null) {
+                log.warn("Chapter {} does not exist", chapterNum);
                 return null; // Chapter doesn't exist
             }
 
             // Check if page is 404 error page
-            String pageTitle = chapterDoc.title();
-            if (pageTitle != null && (pageTitle.contains("404") || pageTitle.contains("Not Found"))) {
+            if (chapterPage.isErrorPage()) {
                 log.warn("Chapter {} returned 404 error page", chapterNum);
                 return null; // Chapter doesn't exist
             }
 
-            log.debug("Fetched chapter page. Title: {}", chapterDoc.title());
-            log.info("📄 Page URL: {}", chapterUrl);
-            log.info("📄 Page title tag: {}", chapterDoc.title());
+            log.debug("Fetched chapter page {}. Title: {}", chapterUrl, chapterPage.pageTitle());
 
-            // Extract chapter title (subtitle)
-            String chapterTitle = extractChapterTitle(chapterDoc, chapterNum);
+            // Chapter title (subtitle)
+            String chapterTitle = chapterPage.title();
+            if (chapterTitle == null) {
+                log.warn("Could not find chapter title using any known selector for chapter {}", chapterNum);
+                chapterTitle = "Chapter " + chapterNum;
+            }
             log.info("📝 Extracted chapter title: {}", chapterTitle);
 
-            // Extract chapter content
-            String content = extractChapterContent(chapterDoc);
+            // Chapter content
+            String content = chapterPage.content();
 
             if (content == null || content.trim().isEmpty()) {
-                log.error("❌ No content found for chapter {} at URL: {}", chapterNum, chapterUrl);
-                log.error("Page HTML preview: {}", chapterDoc.html().substring(0, Math.min(500, chapterDoc.html().length())));
-                saveFailedChapter(story, chapterNum, chapterTitle);
-                return false;
+                log.error("❌ No content found for chapter {} at URL: {} (page title: {})",
+                        chapterNum, chapterUrl, chapterPage.pageTitle());
+                return CrawledChapter.failed(chapterNum, chapterTitle);
             }
 
             log.info("✅ Successfully extracted content for chapter {}: {} characters", chapterNum, content.length());
+            return new CrawledChapter(chapterNum, CrawledChapter.Outcome.FETCHED, chapterTitle, content,
+                    target.listedAt(), page.etag(), page.lastModified());
 
-            // Check if chapter already exists
-            var existingChapter = chapterRepository.findByStoryIdAndChapterIndex(story.getId(), chapterNum);
-
-            Chapter chapter;
-            if (existingChapter.isPresent()) {
-                // Update existing chapter
-                chapter = existingChapter.get();
-                chapter.setTitle(chapterTitle);
-                chapter.setRawTitle(chapterTitle);
-                chapter.setRawContent(content);
-                chapter.setCrawlStatus("SUCCESS");
-                chapter.setCrawlTime(LocalDateTime.now());
-
-                // Reset translation status since content has been updated
-                // Old translation no longer matches new content
-                chapter.setTranslateStatus("NONE");
-                chapter.setTranslatedTitle(null);
-                chapter.setTranslatedContent(null);
-                chapter.setTranslateTime(null);
-
-                log.info("Re-crawled existing chapter {} - translation status reset to NONE", chapterNum);
-                log.debug("Updating existing chapter {} for story ID: {}", chapterNum, story.getId());
-            } else {
-                // Create new chapter
-                chapter = Chapter.builder()
-                        .story(story)
-                        .chapterIndex(chapterNum)
-                        .title(chapterTitle)
-                        .rawTitle(chapterTitle)
-                        .rawContent(content)
-                        .crawlStatus("SUCCESS")
-                        .crawlTime(LocalDateTime.now())
-                        .build();
-                log.debug("Creating new chapter {} for story ID: {}", chapterNum, story.getId());
-            }
-
-            chapterRepository.save(chapter);
-            return true;
-
-        } catch (Exception e) {
+        } catch (IOException e) {
             log.error("Failed to crawl chapter {}: {}", chapterNum, e.getMessage(), e);
-            saveFailedChapter(story, chapterNum, null);
-            return false;
-        }
-    }
-
-    /**
-     * Extract chapter title (subtitle)
-     */
-    private String extractChapterTitle(Document doc, int chapterNum) {
-        log.debug("Attempting to extract chapter title for chapter {}", chapterNum);
-
-        // Try .novel_subtitle first (most common)
-        Element subtitleElement = doc.selectFirst(".novel_subtitle");
-        if (subtitleElement != null && !subtitleElement.text().trim().isEmpty()) {
-            String title = subtitleElement.text().trim();
-            log.info("Found chapter title using .novel_subtitle: {}", title);
-            return title;
-        }
-
-        // Try p.novel_subtitle
-        subtitleElement = doc.selectFirst("p.novel_subtitle");
-        if (subtitleElement != null && !subtitleElement.text().trim().isEmpty()) {
-            String title = subtitleElement.text().trim();
-            log.info("Found chapter title using p.novel_subtitle: {}", title);
-            return title;
-        }
-
-        // Try .p-novel__title
-        subtitleElement = doc.selectFirst(".p-novel__title");
-        if (subtitleElement != null && !subtitleElement.text().trim().isEmpty()) {
-            String title = subtitleElement.text().trim();
-            log.info("Found chapter title using .p-novel__title: {}", title);
-            return title;
-        }
-
-        // Try #novel_subtitle
-        subtitleElement = doc.selectFirst("#novel_subtitle");
-        if (subtitleElement != null && !subtitleElement.text().trim().isEmpty()) {
-            String title = subtitleElement.text().trim();
-            log.info("Found chapter title using #novel_subtitle: {}", title);
-            return title;
-        }
-
-        // Try h1 (sometimes chapter title is in h1)
-        subtitleElement = doc.selectFirst("h1");
-        if (subtitleElement != null) {
-            String text = subtitleElement.text().trim();
-            // Check if it's not the main novel title (usually main title is longer)
-            if (!text.isEmpty() && !text.contains("小説家になろう")) {
-                log.info("Found chapter title using h1: {}", text);
-                return text;
-            }
-        }
-
-        // Try .chapter-title or similar
-        subtitleElement = doc.selectFirst(".chapter-title");
-        if (subtitleElement != null && !subtitleElement.text().trim().isEmpty()) {
-            String title = subtitleElement.text().trim();
-            log.info("Found chapter title using .chapter-title: {}", title);
-            return title;
-        }
-
-        // Debug: Log available classes and IDs
-        log.warn("Could not find chapter title using any known selector for chapter {}", chapterNum);
-        log.debug("Available classes in page: {}",
-            doc.select("[class]").stream()
-                .map(Element::className)
-                .distinct()
-                .limit(20)
-                .toList());
-        log.debug("Available IDs in page: {}",
-            doc.select("[id]").stream()
-                .map(Element::id)
-                .distinct()
-                .limit(20)
-                .toList());
-
-        // Last resort: check page title
-        String pageTitle = doc.title();
-        if (pageTitle != null && !pageTitle.isEmpty()) {
-            // Try to extract subtitle from page title (format: "Chapter Title - Novel Title")
-            String[] parts = pageTitle.split("-|｜|\\|");
-            if (parts.length > 1) {
-                String possibleTitle = parts[0].trim();
-                if (!possibleTitle.isEmpty() && !possibleTitle.equals("小説家になろう")) {
-                    log.info("Extracted chapter title from page title: {}", possibleTitle);
-                    return possibleTitle;
-                }
-            }
-        }
-
-        // Fallback to generic title
-        log.warn("Using fallback generic title for chapter {}", chapterNum);
-        return "Chapter " + chapterNum;
-    }
-
-    /**
-     * Extract chapter content (main body text)
-     */
-    private String extractChapterContent(Document doc) {
-        log.debug("Extracting chapter content...");
-
-        Element contentElement = doc.selectFirst("#novel_honbun");
-        if (contentElement == null) {
-            log.warn("Content element #novel_honbun not found! Trying alternative selectors...");
-
-            // Try alternative selectors for Syosetu
-            contentElement = doc.selectFirst("div.novel_view");
-            if (contentElement != null) {
-                log.info("Found content with selector: div.novel_view");
-            }
-        }
-
-        if (contentElement == null) {
-            contentElement = doc.selectFirst("#novel_color");
-            if (contentElement != null) {
-                log.info("Found content with selector: #novel_color");
-            }
-        }
-
-        if (contentElement == null) {
-            contentElement = doc.selectFirst("div#novel_no");
-            if (contentElement != null) {
-                log.info("Found content with selector: div#novel_no");
-            }
-        }
-
-        if (contentElement == null) {
-            contentElement = doc.selectFirst(".novel_body");
-            if (contentElement != null) {
-                log.info("Found content with selector: .novel_body");
-            }
-        }
-
-        if (contentElement == null) {
-            // Try to find any div containing paragraph tags as last resort
-            contentElement = doc.selectFirst("div.p-novel__body");
-            if (contentElement != null) {
-                log.info("Found content with selector: div.p-novel__body");
-            }
-        }
-
-        if (contentElement == null) {
-            log.error("No content element found with any selector!");
-            log.debug("Page title: {}", doc.title());
-            log.debug("Available IDs in page: {}", doc.select("[id]").stream()
-                    .map(e -> e.id())
-                    .limit(10)
-                    .toList());
-            log.debug("Available classes in page: {}", doc.select("[class]").stream()
-                    .map(e -> e.className())
-                    .distinct()
-                    .limit(10)
-                    .toList());
-            return null;
-        }
-
-        // Get HTML and preserve line breaks
-        String html = contentElement.html();
-        log.debug("Raw HTML length: {}", html.length());
-
-        // Replace <br> tags with newlines
-        html = html.replaceAll("<br\\s*/?>", "\n");
-
-        // Replace </p> tags with double newlines for paragraph breaks
-        html = html.replaceAll("</p>", "\n\n");
-
-        // Remove all other HTML tags
-        String text = Jsoup.parse(html).text();
-
-        // Clean up excessive whitespace but preserve intentional line breaks
-        text = text.replaceAll("[ \\t]+", " "); // Replace multiple spaces/tabs with single space
-        text = text.replaceAll("\n{3,}", "\n\n"); // Replace 3+ newlines with double newline
-
-        String result = text.trim();
-        log.debug("Extracted content length: {}", result.length());
-        if (result.length() > 0) {
-            log.debug("Content preview: {}", result.length() > 100 ? result.substring(0, 100) + "..." : result);
-        }
-
-        return result;
-    }
-
-    /**
-     * Save a failed chapter placeholder
-     */
-    private void saveFailedChapter(Story story, int chapterNum, String chapterTitle) {
-        var existingChapter = chapterRepository.findByStoryIdAndChapterIndex(story.getId(), chapterNum);
-
-        Chapter chapter;
-        if (existingChapter.isPresent()) {
-            chapter = existingChapter.get();
-        } else {
-            chapter = Chapter.builder()
-                    .story(story)
-                    .chapterIndex(chapterNum)
-                    .build();
-        }
-
-        if (chapterTitle != null) {
-            chapter.setTitle(chapterTitle);
-        }
-        chapter.setCrawlStatus("FAILED");
-        chapter.setCrawlTime(LocalDateTime.now());
-
-        chapterRepository.save(chapter);
-    }
-
-    /**
-     * Add a random delay between requests to be polite
-     */
-    private void addPoliteDelay() {
-        try {
-            int delayMs = MIN_DELAY_MS + random.nextInt(MAX_DELAY_MS - MIN_DELAY_MS + 1);
-            log.debug("Adding polite delay of {}ms", delayMs);
-            TimeUnit.MILLISECONDS.sleep(delayMs);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Delay interrupted", e);
+            return CrawledChapter.failed(chapterNum, null);
         }
     }
 }
-
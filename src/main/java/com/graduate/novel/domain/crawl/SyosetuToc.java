@@ -0,0 +1,108 @@
+package com.graduate.novel.domain.crawl;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One page of a Syosetu novel's table of contents (the novel page, and ?p=N for long novels).
+ * Handles both the current layout (.p-eplist) and the older one (dl.novel_sublist2).
+ */
+final class SyosetuToc {
+
+    private static final Pattern CHAPTER_HREF = Pattern.compile("/n[0-9a-z]+/(\\d+)/?$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PAGE_PARAM = Pattern.compile("[?&]p=(\\d+)");
+    private static final Pattern DATE = Pattern.compile("(\\d{4})/(\\d{1,2})/(\\d{1,2}) (\\d{1,2}):(\\d{2})");
+    private static final ZoneId SYOSETU_ZONE = ZoneId.of("Asia/Tokyo");
+    private static final Evaluator CHAPTER_LIST = QueryParser.parse(".p-eplist, .index_box");
+    private static final Evaluator PAGER = QueryParser.parse(".c-pager, .novelview_pager");
+
+    /**
+     * A chapter listed in the table of contents
+     * @param updatedAt when it was published or last revised (改稿), in this server's time zone; null if not shown
+     */
+    record Entry(int chapterIndex, String title, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * @param lastPage number of table-of-contents pages (1 if not paginated)
+     */
+    record Page(List<Entry> entries, int lastPage) {
+    }
+
+    private SyosetuToc() {
+    }
+
+    /**
+     * Parse a table-of-contents page with the streaming parser, up to the pager that follows the
+     * chapter list (or the end of the page if there is none)
+     */
+    static Page parse(InputStream body, String charset, String url) throws IOException {
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(PageFetcher.reader(body, charset), url)) {
+            if (streamer.selectNext(CHAPTER_LIST) != null) {
+                streamer.selectNext(PAGER);
+            }
+            return parse(streamer.document());
+        }
+    }
+
+    static Page parse(Document doc) {
+        List<Entry> entries = new ArrayList<>();
+        for (Element row : doc.select(".p-eplist__sublist, dl.novel_sublist2")) {
+            Element link = row.selectFirst("a[href]");
+            if (link == null) {
+                continue;
+            }
+            Matcher matcher = CHAPTER_HREF.matcher(link.attr("href"));
+            if (!matcher.find()) {
+                continue;
+            }
+            Element update = row.selectFirst(".p-eplist__update, .long_update");
+            entries.add(new Entry(Integer.parseInt(matcher.group(1)), link.text().trim(),
+                    update != null ? latestDate(update) : null));
+        }
+
+        int lastPage = 1;
+        Element last = doc.selectFirst("a.c-pager__item--last, a.novelview_pager-last");
+        if (last != null) {
+            Matcher matcher = PAGE_PARAM.matcher(last.attr("href"));
+            if (matcher.find()) {
+                lastPage = Integer.parseInt(matcher.group(1));
+            }
+        }
+        return new Page(entries, lastPage);
+    }
+
+    /**
+     * The latest date shown for an entry: the revision date in the 改 marker's title if there is one
+     */
+    private static LocalDateTime latestDate(Element update) {
+        StringBuilder text = new StringBuilder(update.text());
+        update.select("[title]").forEach(element -> text.append(' ').append(element.attr("title")));
+
+        LocalDateTime latest = null;
+        Matcher matcher = DATE.matcher(text);
+        while (matcher.find()) {
+            LocalDateTime date = LocalDateTime.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                    Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4)),
+                    Integer.parseInt(matcher.group(5)));
+            if (latest == null || date.isAfter(latest)) {
+                latest = date;
+            }
+        }
+        return latest == null ? null
+                : latest.atZone(SYOSETU_ZONE).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
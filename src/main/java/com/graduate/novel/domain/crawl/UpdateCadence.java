@@ -0,0 +1,106 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.config.StoryUpdateProperties;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scheduling arithmetic for update checks. Releases are treated as a Poisson process with the
+ * story's learned interval as mean gap, so the chance that a new chapter appeared since the last
+ * check is {@code 1 - exp(-elapsed / interval)}. A story's weight grows with its favorites and
+ * active readers (logarithmically, so one huge story cannot starve the rest).
+ */
+final class UpdateCadence {
+
+    private UpdateCadence() {
+    }
+
+    static double weight(long favorites, long activeReaders, double activeReaderWeight) {
+        return 1 + Math.log1p(favorites) + activeReaderWeight * Math.log1p(activeReaders);
+    }
+
+    /**
+     * Expected value of checking a due story now: chance of a new chapter times the story's weight.
+     * A story never checked before counts as certain to have news.
+     */
+    static double score(UpdateCandidate candidate, LocalDateTime now, StoryUpdateProperties properties) {
+        double weight = weight(candidate.favorites(), candidate.activeReaders(), properties.getActiveReaderWeight());
+        if (candidate.lastCheckedAt() == null) {
+            return weight;
+        }
+        double interval = candidate.intervalMinutes() != null
+                ? candidate.intervalMinutes() : properties.getDefaultIntervalMinutes();
+        double elapsed = Math.max(0, Duration.between(candidate.lastCheckedAt(), now).toMinutes());
+        return (1 - Math.exp(-elapsed / Math.max(1, interval))) * weight;
+    }
+
+    /**
+     * Time until the next check. Followed stories are polled several times per expected release;
+     * right after a release nothing is expected for a while, and dormant stories are polled rarely.
+     */
+    static Duration nextCheckDelay(Double intervalMinutes, LocalDateTime lastReleaseAt, LocalDateTime now,
+                                   double weight, StoryUpdateProperties properties) {
+        double interval = intervalMinutes != null ? intervalMinutes : properties.getDefaultIntervalMinutes();
+        if (lastReleaseAt != null
+                && Duration.between(lastReleaseAt, now).toDays() >= properties.getDormantAfterDays()) {
+            return Duration.ofMinutes(properties.getDormantCheckIntervalMinutes());
+        }
+
+        double poll = interval / (properties.getChecksPerRelease() * weight);
+        long delay = Math.round(Math.min(Math.max(poll, properties.getMinCheckIntervalMinutes()),
+                properties.getMaxCheckIntervalMinutes()));
+        if (lastReleaseAt != null) {
+            long quiet = Duration.between(now, lastReleaseAt.plusMinutes(
+                    Math.round(interval * properties.getQuietFraction()))).toMinutes();
+            delay = Math.max(delay, Math.min(quiet, properties.getMaxCheckIntervalMinutes()));
+        }
+        return Duration.ofMinutes(delay);
+    }
+
+    /**
+     * New smoothed release interval after a check
+     * @param current         interval so far, or null if not known yet
+     * @param previousRelease latest release before the check
+     * @param latestRelease   latest release the check saw
+     * @param newChapters     chapters released since the previous check
+     * @param tocEstimate     interval estimated from the table of contents, used as the first value
+     */
+    static Double updateInterval(Double current, LocalDateTime previousRelease, LocalDateTime latestRelease,
+                                 int newChapters, Double tocEstimate, double smoothing) {
+        if (current == null) {
+            return tocEstimate;
+        }
+        if (newChapters > 0 && previousRelease != null && latestRelease != null
+                && latestRelease.isAfter(previousRelease)) {
+            double gap = (double) Duration.between(previousRelease, latestRelease).toMinutes() / newChapters;
+            return smoothing * gap + (1 - smoothing) * current;
+        }
+        return current;
+    }
+
+    /**
+     * Median gap between consecutive release dates (in chapter order), in minutes. The median
+     * shrugs off dates moved by revisions and one-off bursts or breaks.
+     * @return null if there are fewer than two dates
+     */
+    static Double medianGapMinutes(List<LocalDateTime> releases) {
+        List<Long> gaps = new ArrayList<>();
+        for (int i = 1; i < releases.size(); i++) {
+            if (releases.get(i - 1) != null && releases.get(i) != null) {
+                long gap = Duration.between(releases.get(i - 1), releases.get(i)).toMinutes();
+                if (gap > 0) {
+                    gaps.add(gap);
+                }
+            }
+        }
+        if (gaps.isEmpty()) {
+            return null;
+        }
+        gaps.sort(null);
+        int middle = gaps.size() / 2;
+        return gaps.size() % 2 == 1 ? gaps.get(middle) : (gaps.get(middle - 1) + gaps.get(middle)) / 2.0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.graduate.novel.domain.crawl;
+
+import java.time.LocalDateTime;
+
+/**
+ * An ongoing story due for an update check, with what its priority is computed from
+ * @param intervalMinutes learned release interval, or null (never checked)
+ * @param lastCheckedAt   last completed check, or null
+ */
+public record UpdateCandidate(Long storyId, Double intervalMinutes, LocalDateTime lastCheckedAt,
+                              Long favorites, Long activeReaders) {
+}
@@ -0,0 +1,15 @@
+package com.graduate.novel.domain.crawljob;
+
+/**
+ * Snapshot of a job claimed by a worker, detached from the persistence context
+ */
+public record ClaimedJob(
+    Long id,
+    String jobType,
+    Long storyId,
+    Long chapterId,
+    String payload,
+    String externalRef,
+    int attempts,
+    int maxAttempts
+) {}
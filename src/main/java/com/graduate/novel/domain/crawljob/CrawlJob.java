@@ -7,6 +7,8 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "crawl_jobs")
 @Getter
@@ -41,6 +43,51 @@ public class CrawlJob extends BaseEntity {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
+    // ===== Queue fields =====
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer priority = 0; // Higher runs first
+
+    @Column(columnDefinition = "TEXT")
+    private String payload; // Job-type specific options
+
+    @Column(name = "external_ref", length = 255)
+    private String externalRef; // Provider-side id the job waits on (e.g. Gemini batch name)
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt; // Not claimable before this (retry backoff)
+
+    @Column(name = "max_attempts", nullable = false)
+    @Builder.Default
+    private Integer maxAttempts = 5;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy; // Worker holding the lease
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "total_items")
+    private Integer totalItems;
+
+    @Column(name = "completed_items", nullable = false)
+    @Builder.Default
+    private Integer completedItems = 0;
+
+    @Column(name = "failed_items", nullable = false)
+    @Builder.Default
+    private Integer failedItems = 0;
+
     @PrePersist
     protected void onCreate() {
         if (status == null) {
@@ -49,6 +96,21 @@ public class CrawlJob extends BaseEntity {
         if (attempts == null) {
             attempts = 0;
         }
+        if (priority == null) {
+            priority = 0;
+        }
+        if (nextRunAt == null) {
+            nextRunAt = LocalDateTime.now();
+        }
+        if (maxAttempts == null) {
+            maxAttempts = 5;
+        }
+        if (completedItems == null) {
+            completedItems = 0;
+        }
+        if (failedItems == null) {
+            failedItems = 0;
+        }
     }
 }
 
@@ -10,6 +10,17 @@ public record CrawlJobDto(
     String status,
     Integer attempts,
     String errorMessage,
+    Integer priority,
+    String externalRef,
+    LocalDateTime nextRunAt,
+    Integer maxAttempts,
+    String lockedBy,
+    LocalDateTime leaseExpiresAt,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    Integer totalItems,
+    Integer completedItems,
+    Integer failedItems,
     LocalDateTime createdAt,
     LocalDateTime updatedAt,
     Long createdBy,
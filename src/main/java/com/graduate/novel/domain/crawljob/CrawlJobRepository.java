@@ -1,10 +1,13 @@
 package com.graduate.novel.domain.crawljob;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,6 +15,13 @@ public interface CrawlJobRepository extends JpaRepository<CrawlJob, Long> {
     List<CrawlJob> findByStatus(String status);
     List<CrawlJob> findByStoryIdAndJobType(Long storyId, String jobType);
     List<CrawlJob> findByChapterId(Long chapterId);
+    long countByJobTypeAndStatusAndPayload(String jobType, String status, String payload);
+
+    // Jobs of a type created since the given time, and the items they processed (request budgets)
+    long countByJobTypeAndCreatedAtAfter(String jobType, LocalDateTime since);
+
+    @Query("SELECT COALESCE(SUM(j.totalItems), 0) FROM CrawlJob j WHERE j.jobType = :jobType AND j.createdAt > :since")
+    long sumTotalItemsByJobTypeSince(@Param("jobType") String jobType, @Param("since") LocalDateTime since);
 
     // Check if there's an active job for a story (PENDING or PROCESSING)
     @Query("SELECT CASE WHEN COUNT(j) > 0 THEN true ELSE false END FROM CrawlJob j " +
@@ -24,5 +34,54 @@ public interface CrawlJobRepository extends JpaRepository<CrawlJob, Long> {
            "WHERE j.chapter.id = :chapterId AND j.jobType = :jobType " +
            "AND j.status IN ('PENDING', 'PROCESSING')")
     boolean existsActiveJobByChapterIdAndJobType(@Param("chapterId") Long chapterId, @Param("jobType") String jobType);
-}
 
+    // Lock up to :limit due jobs for this worker. SKIP LOCKED lets workers on other nodes
+    // claim different rows concurrently instead of blocking on each other.
+    @Query(value = "SELECT CAST(id AS BIGINT) FROM crawl_jobs " +
+           "WHERE job_type IN (:jobTypes) " +
+           "AND ((status = 'PENDING' AND next_run_at <= :now) " +
+           "  OR (status = 'PROCESSING' AND lease_expires_at < :now)) " +
+           "ORDER BY priority DESC, next_run_at, id " +
+           "LIMIT :limit " +
+           "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimableJobIds(@Param("jobTypes") Collection<String> jobTypes,
+                                   @Param("now") LocalDateTime now,
+                                   @Param("limit") int limit);
+
+    // Extend the lease of a job still held by this worker; returns 0 if the lease was lost
+    @Modifying
+    @Query("UPDATE CrawlJob j SET j.leaseExpiresAt = :leaseExpiresAt, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.lockedBy = :workerId AND j.status = 'PROCESSING'")
+    int renewLease(@Param("id") Long id, @Param("workerId") String workerId,
+                   @Param("now") LocalDateTime now, @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    @Modifying
+    @Query("UPDATE CrawlJob j SET j.totalItems = :total, j.completedItems = :completed, " +
+           "j.failedItems = :failed, j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.lockedBy = :workerId AND j.status = 'PROCESSING'")
+    int updateProgress(@Param("id") Long id, @Param("workerId") String workerId,
+                       @Param("total") Integer total, @Param("completed") int completed,
+                       @Param("failed") int failed, @Param("now") LocalDateTime now);
+
+    // Queue a chapter job unless one is already active (uq_crawl_jobs_active_chapter);
+    // returns 0 if one was
+    @Modifying
+    @Query(value = "INSERT INTO crawl_jobs (story_id, chapter_id, job_type, status, attempts, priority, payload, " +
+           "next_run_at, max_attempts, completed_items, failed_items, created_at, updated_at) " +
+           "VALUES (:storyId, :chapterId, :jobType, 'PENDING', 0, :priority, :payload, " +
+           ":now, :maxAttempts, 0, 0, :now, :now) " +
+           "ON CONFLICT (chapter_id, job_type) " +
+           "WHERE chapter_id IS NOT NULL AND status IN ('PENDING', 'PROCESSING') DO NOTHING", nativeQuery = true)
+    int insertChapterJobIfAbsent(@Param("jobType") String jobType, @Param("storyId") Long storyId,
+                                 @Param("chapterId") Long chapterId, @Param("priority") int priority,
+                                 @Param("payload") String payload, @Param("maxAttempts") int maxAttempts,
+                                 @Param("now") LocalDateTime now);
+
+    // Raise a queued (not yet started) chapter job to a higher priority
+    @Modifying
+    @Query("UPDATE CrawlJob j SET j.priority = :priority, j.updatedAt = :now " +
+           "WHERE j.chapter.id = :chapterId AND j.jobType = :jobType " +
+           "AND j.status = 'PENDING' AND j.priority < :priority")
+    int raisePendingChapterJobPriority(@Param("jobType") String jobType, @Param("chapterId") Long chapterId,
+                                       @Param("priority") int priority, @Param("now") LocalDateTime now);
+}
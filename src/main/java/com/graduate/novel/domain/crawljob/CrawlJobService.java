@@ -7,6 +7,7 @@ import com.graduate.novel.domain.chapter.ChapterRepository;
 import com.graduate.novel.domain.story.Story;
 import com.graduate.novel.domain.story.StoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +22,7 @@ public class CrawlJobService {
     private final StoryRepository storyRepository;
     private final ChapterRepository chapterRepository;
     private final CrawlJobMapper crawlJobMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<CrawlJobDto> getAllJobs() {
@@ -76,15 +78,37 @@ public class CrawlJobService {
         if (errorMessage != null) {
             job.setErrorMessage(errorMessage);
         }
+        LocalDateTime now = LocalDateTime.now();
         if ("PROCESSING".equals(status)) {
             job.setAttempts(job.getAttempts() + 1);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(now);
+            }
         }
-        job.setUpdatedAt(LocalDateTime.now());
+        if (JobProgress.isFinished(status)) {
+            job.setFinishedAt(now);
+        }
+        job.setUpdatedAt(now);
 
         job = crawlJobRepository.save(job);
+        eventPublisher.publishEvent(new JobChangedEvent(id));
         return crawlJobMapper.toDto(job);
     }
 
+    /**
+     * Record progress of a job run outside the queue (e.g. a crawl started from the API)
+     */
+    @Transactional
+    public void updateProgress(Long id, Integer total, int completed, int failed) {
+        crawlJobRepository.findById(id).ifPresent(job -> {
+            job.setTotalItems(total);
+            job.setCompletedItems(completed);
+            job.setFailedItems(failed);
+            job.setUpdatedAt(LocalDateTime.now());
+            eventPublisher.publishEvent(new JobChangedEvent(id));
+        });
+    }
+
     @Transactional
     public void deleteJob(Long id) {
         CrawlJob job = crawlJobRepository.findById(id)
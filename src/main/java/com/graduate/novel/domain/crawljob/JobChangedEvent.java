@@ -0,0 +1,7 @@
+package com.graduate.novel.domain.crawljob;
+
+/**
+ * A job's row changed (status or progress); watchers of the job are sent its new state
+ */
+public record JobChangedEvent(Long jobId) {
+}
@@ -0,0 +1,200 @@
+package com.graduate.novel.domain.crawljob;
+
+import com.graduate.novel.common.exception.ResourceNotFoundException;
+import com.graduate.novel.config.JobEventProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams job progress to any number of watchers over SSE, reading each job once per change
+ * however many watch it.
+ * <p>
+ * Changes made on this node publish a {@link JobChangedEvent}: once committed, the job is read and
+ * its new state sent to every watcher; changes arriving while that read is queued share it. Jobs
+ * running on other nodes are followed by {@link #refreshWatched()}, which re-reads all watched jobs
+ * in one query. Watchers get "progress" events, then a "done" event when the job finishes.
+ */
+@Component
+@Slf4j
+public class JobEventBus {
+
+    private final CrawlJobRepository crawlJobRepository;
+    private final JobEventProperties properties;
+    private final ExecutorService streamingExecutor;
+    private final Map<Long, Watch> watches = new ConcurrentHashMap<>();
+
+    public JobEventBus(CrawlJobRepository crawlJobRepository,
+                       JobEventProperties properties,
+                       @Qualifier("streamingExecutor") ExecutorService streamingExecutor) {
+        this.crawlJobRepository = crawlJobRepository;
+        this.properties = properties;
+        this.streamingExecutor = streamingExecutor;
+    }
+
+    /**
+     * A watched job and its watchers on this node
+     */
+    private static final class Watch {
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean readQueued = new AtomicBoolean();
+        /** Serializes sends, so every watcher sees the events in order */
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile JobProgress last;
+        private volatile long lastReadAt = System.currentTimeMillis();
+        private volatile long lastSentAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Watch a job: its current state is sent at once, then every change until it finishes
+     */
+    public SseEmitter subscribe(Long jobId) {
+        CrawlJob job = crawlJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job not found with id: " + jobId));
+        JobProgress progress = JobProgress.of(job, LocalDateTime.now());
+        SseEmitter emitter = new SseEmitter(Duration.ofMinutes(properties.getStreamTimeoutMinutes()).toMillis());
+
+        if (JobProgress.isFinished(progress.status())) {
+            if (send(emitter, "done", progress)) {
+                emitter.complete();
+            }
+            return emitter;
+        }
+        if (!send(emitter, "progress", progress)) {
+            return emitter;
+        }
+        watches.compute(jobId, (id, watch) -> {
+            Watch target = watch != null ? watch : new Watch();
+            target.emitters.add(emitter);
+            return target;
+        });
+        emitter.onCompletion(() -> unsubscribe(jobId, emitter));
+        emitter.onTimeout(() -> unsubscribe(jobId, emitter));
+        emitter.onError(e -> unsubscribe(jobId, emitter));
+        return emitter;
+    }
+
+    /**
+     * Send a job's new state to its watchers once the change is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        Watch watch = watches.get(event.jobId());
+        if (watch == null || !watch.readQueued.compareAndSet(false, true)) {
+            return;
+        }
+        // Off the job's thread: a slow watcher must not slow the job down
+        streamingExecutor.execute(() -> {
+            watch.readQueued.set(false);
+            try {
+                publish(event.jobId(), watch, crawlJobRepository.findById(event.jobId()).orElse(null));
+            } catch (Exception e) {
+                log.warn("Failed to send progress of job {}: {}", event.jobId(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Re-read watched jobs that had no change from this node for a poll interval, in one query,
+     * and keep idle streams open
+     */
+    public void refreshWatched() {
+        long now = System.currentTimeMillis();
+        List<Long> due = watches.entrySet().stream()
+                .filter(entry -> now - entry.getValue().lastReadAt >= properties.getPollIntervalMs())
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!due.isEmpty()) {
+            Map<Long, CrawlJob> jobs = crawlJobRepository.findAllById(due).stream()
+                    .collect(Collectors.toMap(CrawlJob::getId, Function.identity()));
+            for (Long jobId : due) {
+                Watch watch = watches.get(jobId);
+                if (watch != null) {
+                    publish(jobId, watch, jobs.get(jobId));
+                }
+            }
+        }
+
+        long keepAliveMs = properties.getKeepAliveSeconds() * 1000L;
+        watches.values().stream()
+                .filter(watch -> now - watch.lastSentAt >= keepAliveMs)
+                .forEach(watch -> broadcast(watch, SseEmitter.event().comment("keep-alive")));
+    }
+
+    private void publish(Long jobId, Watch watch, CrawlJob job) {
+        watch.lock.lock();
+        try {
+            watch.lastReadAt = System.currentTimeMillis();
+            if (job == null) {
+                // Deleted
+                watches.remove(jobId, watch);
+                watch.emitters.forEach(SseEmitter::complete);
+                return;
+            }
+            JobProgress progress = JobProgress.of(job, LocalDateTime.now());
+            boolean finished = JobProgress.isFinished(progress.status());
+            if (!finished && progress.sameState(watch.last)) {
+                return;
+            }
+            watch.last = progress;
+            broadcast(watch, SseEmitter.event().name(finished ? "done" : "progress").data(progress));
+            if (finished) {
+                watches.remove(jobId, watch);
+                watch.emitters.forEach(SseEmitter::complete);
+            }
+        } finally {
+            watch.lock.unlock();
+        }
+    }
+
+    private void broadcast(Watch watch, SseEmitter.SseEventBuilder event) {
+        watch.lock.lock();
+        try {
+            watch.lastSentAt = System.currentTimeMillis();
+            watch.emitters.removeIf(emitter -> {
+                try {
+                    emitter.send(event);
+                    return false;
+                } catch (IOException | IllegalStateException e) {
+                    // Watcher went away
+                    log.debug("Dropping job event subscriber: {}", e.getMessage());
+                    return true;
+                }
+            });
+        } finally {
+            watch.lock.unlock();
+        }
+    }
+
+    private void unsubscribe(Long jobId, SseEmitter emitter) {
+        watches.computeIfPresent(jobId, (id, watch) -> {
+            watch.emitters.remove(emitter);
+            return watch.emitters.isEmpty() ? null : watch;
+        });
+    }
+
+    private static boolean send(SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+            return true;
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.graduate.novel.domain.crawljob;
+
+import java.time.Duration;
+
+/**
+ * A job running on this node. Handlers report progress through it and should stop
+ * early once {@link #isLeaseLost()} is true: another worker owns the job by then.
+ */
+public class JobExecution {
+
+    private final ClaimedJob job;
+    private final String workerId;
+    private final JobQueueService jobQueueService;
+    private volatile boolean leaseLost = false;
+    private volatile String resultMessage;
+    private volatile Duration rescheduleDelay;
+
+    JobExecution(ClaimedJob job, String workerId, JobQueueService jobQueueService) {
+        this.job = job;
+        this.workerId = workerId;
+        this.jobQueueService = jobQueueService;
+    }
+
+    public ClaimedJob job() {
+        return job;
+    }
+
+    public String workerId() {
+        return workerId;
+    }
+
+    public boolean isLeaseLost() {
+        return leaseLost;
+    }
+
+    void markLeaseLost() {
+        this.leaseLost = true;
+    }
+
+    public String resultMessage() {
+        return resultMessage;
+    }
+
+    /**
+     * Note stored on the job when it completes (e.g. how many items failed)
+     */
+    public void setResultMessage(String resultMessage) {
+        this.resultMessage = resultMessage;
+    }
+
+    public Duration rescheduleDelay() {
+        return rescheduleDelay;
+    }
+
+    /**
+     * Instead of completing, run this job again after the delay (not counted as an attempt)
+     */
+    public void rescheduleIn(Duration delay) {
+        this.rescheduleDelay = delay;
+    }
+
+    /**
+     * Store the provider-side id this job waits on
+     */
+    public void setExternalRef(String externalRef) {
+        jobQueueService.setExternalRef(job.id(), workerId, externalRef);
+    }
+
+    /**
+     * Persist progress (short transaction). Also detects a lost lease.
+     */
+    public void progress(Integer total, int completed, int failed) {
+        if (!jobQueueService.updateProgress(job.id(), workerId, total, completed, failed)) {
+            markLeaseLost();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.graduate.novel.domain.crawljob;
+
+import java.util.Set;
+
+/**
+ * Executes queued jobs of one or more job types.
+ * Returning normally completes the job; throwing schedules a retry with backoff.
+ */
+public interface JobHandler {
+
+    Set<String> jobTypes();
+
+    /**
+     * Job types that occupy a worker for a long time (whole stories). The worker keeps
+     * reserved slots free of these so single-chapter jobs for readers never wait behind them.
+     */
+    default Set<String> longRunningJobTypes() {
+        return Set.of();
+    }
+
+    void execute(JobExecution execution) throws Exception;
+}
@@ -0,0 +1,81 @@
+package com.graduate.novel.domain.crawljob;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A job's state as streamed to watchers
+ * @param itemsPerMinute items done per minute since the job started; null until one is done
+ * @param etaSeconds     estimated time to finish the remaining items at that rate; null if unknown
+ */
+public record JobProgress(
+    Long jobId,
+    String jobType,
+    String status,
+    Long storyId,
+    Long chapterId,
+    Integer totalItems,
+    Integer completedItems,
+    Integer failedItems,
+    Double itemsPerMinute,
+    Long etaSeconds,
+    String message,
+    LocalDateTime startedAt,
+    LocalDateTime updatedAt
+) {
+
+    static JobProgress of(CrawlJob job, LocalDateTime now) {
+        int completed = job.getCompletedItems() != null ? job.getCompletedItems() : 0;
+        int failed = job.getFailedItems() != null ? job.getFailedItems() : 0;
+        int done = completed + failed;
+
+        Double itemsPerMinute = null;
+        Long etaSeconds = null;
+        if (job.getStartedAt() != null && done > 0) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : now;
+            long elapsedMs = Duration.between(job.getStartedAt(), end).toMillis();
+            if (elapsedMs > 0) {
+                itemsPerMinute = done * 60_000.0 / elapsedMs;
+                if (job.getTotalItems() != null && !isFinished(job.getStatus())) {
+                    etaSeconds = Math.round(Math.max(0, job.getTotalItems() - done) * 60 / itemsPerMinute);
+                }
+            }
+        }
+
+        return new JobProgress(
+                job.getId(),
+                job.getJobType(),
+                job.getStatus(),
+                job.getStory() != null ? job.getStory().getId() : null,
+                job.getChapter() != null ? job.getChapter().getId() : null,
+                job.getTotalItems(),
+                job.getCompletedItems(),
+                job.getFailedItems(),
+                itemsPerMinute,
+                etaSeconds,
+                job.getErrorMessage(),
+                job.getStartedAt(),
+                job.getUpdatedAt());
+    }
+
+    /**
+     * SUCCESS and FAILED are final; a failed attempt that will be retried is PENDING again
+     */
+    public static boolean isFinished(String status) {
+        return "SUCCESS".equals(status) || "FAILED".equals(status);
+    }
+
+    /**
+     * Whether the stored job changed between two snapshots (rate and ETA aside)
+     */
+    boolean sameState(JobProgress other) {
+        return other != null
+                && Objects.equals(status, other.status)
+                && Objects.equals(totalItems, other.totalItems)
+                && Objects.equals(completedItems, other.completedItems)
+                && Objects.equals(failedItems, other.failedItems)
+                && Objects.equals(message, other.message)
+                && Objects.equals(updatedAt, other.updatedAt);
+    }
+}
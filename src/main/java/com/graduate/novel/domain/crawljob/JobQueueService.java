@@ -0,0 +1,299 @@
+package com.graduate.novel.domain.crawljob;
+
+import com.graduate.novel.common.mapper.CrawlJobMapper;
+import com.graduate.novel.config.JobQueueProperties;
+import com.graduate.novel.domain.chapter.ChapterRepository;
+import com.graduate.novel.domain.story.StoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable job queue on top of crawl_jobs.
+ * Every method is one short transaction; no transaction is held while a job runs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobQueueService {
+
+    /** Queue priorities, highest first: what readers are waiting for comes before bulk work */
+    public static final int PRIORITY_OPENING = 1000;   // chapter a reader is opening right now
+    public static final int PRIORITY_READ_AHEAD = 500; // next chapters after an active reader (minus distance)
+    public static final int PRIORITY_FAVORITE = 100;   // stories with the most favorites
+    public static final int PRIORITY_DEFAULT = 0;      // manually requested translations
+    public static final int PRIORITY_BACKFILL = -100;  // everything else
+
+    private final CrawlJobRepository crawlJobRepository;
+    private final StoryRepository storyRepository;
+    private final ChapterRepository chapterRepository;
+    private final CrawlJobMapper crawlJobMapper;
+    private final JobQueueProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Add a job to the queue. It runs as soon as a worker has capacity.
+     */
+    @Transactional
+    public CrawlJobDto enqueue(String jobType, Long storyId, Long chapterId, int priority, String payload) {
+        CrawlJob job = CrawlJob.builder()
+                .jobType(jobType)
+                .status("PENDING")
+                .attempts(0)
+                .priority(priority)
+                .payload(payload)
+                .maxAttempts(properties.getMaxAttempts())
+                .nextRunAt(LocalDateTime.now())
+                .build();
+
+        if (storyId != null) {
+            job.setStory(storyRepository.getReferenceById(storyId));
+        }
+        if (chapterId != null) {
+            job.setChapter(chapterRepository.getReferenceById(chapterId));
+        }
+
+        job = crawlJobRepository.save(job);
+        log.info("Enqueued {} job {} (storyId={}, chapterId={}, priority={})",
+                jobType, job.getId(), storyId, chapterId, priority);
+        return crawlJobMapper.toDto(job);
+    }
+
+    /**
+     * Enqueue a job for a chapter unless one is already queued or running.
+     * A queued job that has not started yet is raised to the higher priority.
+     * The active-job unique index makes this safe against concurrent callers.
+     * Returns true if a new job was created.
+     */
+    @Transactional
+    public boolean enqueueForChapterIfAbsent(String jobType, Long storyId, Long chapterId, int priority, String payload) {
+        LocalDateTime now = LocalDateTime.now();
+        int inserted = crawlJobRepository.insertChapterJobIfAbsent(jobType, storyId, chapterId, priority, payload,
+                properties.getMaxAttempts(), now);
+        if (inserted == 0) {
+            crawlJobRepository.raisePendingChapterJobPriority(jobType, chapterId, priority, now);
+            return false;
+        }
+
+        log.info("Enqueued {} job (storyId={}, chapterId={}, priority={})", jobType, storyId, chapterId, priority);
+        return true;
+    }
+
+    /**
+     * Claim up to {@code limit} due jobs of the given types for this worker.
+     * Jobs whose previous owner stopped heart-beating are reclaimed as well.
+     */
+    @Transactional
+    public List<ClaimedJob> claim(String workerId, Collection<String> jobTypes, int limit) {
+        if (limit <= 0 || jobTypes.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = crawlJobRepository.lockClaimableJobIds(jobTypes, now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<ClaimedJob> claimed = new ArrayList<>();
+        boolean reclaimed = false;
+        for (CrawlJob job : crawlJobRepository.findAllById(ids)) {
+            if ("PROCESSING".equals(job.getStatus())) {
+                log.warn("Reclaiming job {} from {} (lease expired at {})",
+                        job.getId(), job.getLockedBy(), job.getLeaseExpiresAt());
+                reclaimed = true;
+                if (job.getAttempts() >= job.getMaxAttempts()) {
+                    // Keeps crashing whoever runs it
+                    markFailed(job, "Lease expired after " + job.getAttempts() + " attempts", now);
+                    continue;
+                }
+            }
+
+            job.setStatus("PROCESSING");
+            job.setLockedBy(workerId);
+            job.setLeaseExpiresAt(now.plusSeconds(properties.getLeaseSeconds()));
+            job.setHeartbeatAt(now);
+            job.setAttempts(job.getAttempts() + 1);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(now);
+            }
+            job.setUpdatedAt(now);
+            eventPublisher.publishEvent(new JobChangedEvent(job.getId()));
+
+            claimed.add(new ClaimedJob(
+                    job.getId(),
+                    job.getJobType(),
+                    job.getStory() != null ? job.getStory().getId() : null,
+                    job.getChapter() != null ? job.getChapter().getId() : null,
+                    job.getPayload(),
+                    job.getExternalRef(),
+                    job.getAttempts(),
+                    job.getMaxAttempts()
+            ));
+        }
+        if (reclaimed) {
+            // The dead worker's chapter is still PENDING, which selection and prefetch skip
+            resetStaleChapterTranslations(now);
+        }
+        return claimed;
+    }
+
+    /**
+     * Put chapters left PENDING for longer than a lease back to NONE, so they can be selected
+     * and streamed again: their translation died with its worker or reader stream. Running
+     * translations stay fresh through the job heartbeat or the stream's progress.
+     * @return chapters reset
+     */
+    @Transactional
+    public int resetStaleChapterTranslations() {
+        return resetStaleChapterTranslations(LocalDateTime.now());
+    }
+
+    private int resetStaleChapterTranslations(LocalDateTime now) {
+        int reset = chapterRepository.resetStalePendingTranslations(now.minusSeconds(properties.getLeaseSeconds()));
+        if (reset > 0) {
+            log.warn("Reset {} chapters stuck in PENDING translation to NONE", reset);
+        }
+        return reset;
+    }
+
+    /**
+     * Wrap a claimed job for execution on this node
+     */
+    public JobExecution newExecution(ClaimedJob job, String workerId) {
+        return new JobExecution(job, workerId, this);
+    }
+
+    /**
+     * Renew the lease of a running job. Returns false (and flags the execution) if this
+     * worker no longer owns it. A chapter job also keeps its chapter's PENDING translation
+     * fresh, so a translation running longer than a lease is not reset under it.
+     */
+    @Transactional
+    public boolean heartbeat(JobExecution execution) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean renewed = crawlJobRepository.renewLease(execution.job().id(), execution.workerId(), now,
+                now.plusSeconds(properties.getLeaseSeconds())) > 0;
+        if (!renewed) {
+            execution.markLeaseLost();
+        } else if (execution.job().chapterId() != null) {
+            chapterRepository.touchPendingTranslation(execution.job().chapterId(), now);
+        }
+        return renewed;
+    }
+
+    /**
+     * Record progress of a running job. Returns false if this worker no longer owns it.
+     */
+    @Transactional
+    public boolean updateProgress(Long jobId, String workerId, Integer total, int completed, int failed) {
+        if (crawlJobRepository.updateProgress(jobId, workerId, total, completed, failed, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new JobChangedEvent(jobId));
+        return true;
+    }
+
+    /**
+     * Remember the provider-side id a job waits on, so a later run (on any node) can resume
+     */
+    @Transactional
+    public void setExternalRef(Long jobId, String workerId, String externalRef) {
+        crawlJobRepository.findById(jobId)
+                .filter(job -> workerId.equals(job.getLockedBy()))
+                .ifPresent(job -> {
+                    job.setExternalRef(externalRef);
+                    job.setUpdatedAt(LocalDateTime.now());
+                });
+    }
+
+    /**
+     * Put a job back in the queue to run again later without counting it as a failed attempt
+     * (e.g. polling an external batch that is still running)
+     */
+    @Transactional
+    public void reschedule(Long jobId, String workerId, Duration delay) {
+        crawlJobRepository.findById(jobId)
+                .filter(job -> workerId.equals(job.getLockedBy()))
+                .ifPresent(job -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    job.setStatus("PENDING");
+                    job.setAttempts(Math.max(0, job.getAttempts() - 1));
+                    job.setNextRunAt(now.plus(delay));
+                    releaseLease(job, now);
+                });
+    }
+
+    @Transactional
+    public void complete(Long jobId, String workerId, String message) {
+        crawlJobRepository.findById(jobId)
+                .filter(job -> workerId.equals(job.getLockedBy()))
+                .ifPresent(job -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    job.setStatus("SUCCESS");
+                    job.setErrorMessage(message);
+                    releaseLease(job, now);
+                    job.setFinishedAt(now);
+                });
+    }
+
+    /**
+     * Retry with exponential backoff, or mark FAILED once attempts are used up
+     */
+    @Transactional
+    public void fail(Long jobId, String workerId, String errorMessage) {
+        crawlJobRepository.findById(jobId)
+                .filter(job -> workerId.equals(job.getLockedBy()))
+                .ifPresent(job -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    if (job.getAttempts() >= job.getMaxAttempts()) {
+                        markFailed(job, errorMessage, now);
+                        log.error("Job {} failed permanently after {} attempts: {}",
+                                jobId, job.getAttempts(), errorMessage);
+                        return;
+                    }
+
+                    long delaySeconds = backoffSeconds(job.getAttempts());
+                    job.setStatus("PENDING");
+                    job.setErrorMessage(errorMessage);
+                    job.setNextRunAt(now.plusSeconds(delaySeconds));
+                    releaseLease(job, now);
+                    log.warn("Job {} attempt {}/{} failed, retrying in {}s: {}",
+                            jobId, job.getAttempts(), job.getMaxAttempts(), delaySeconds, errorMessage);
+                });
+    }
+
+    private long backoffSeconds(int attempts) {
+        long base = properties.getBackoffBaseSeconds();
+        long delay = base << Math.min(Math.max(attempts - 1, 0), 20);
+        delay = Math.min(delay, properties.getBackoffMaxSeconds());
+        // Jitter so jobs that failed together don't all retry together
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private void markFailed(CrawlJob job, String errorMessage, LocalDateTime now) {
+        job.setStatus("FAILED");
+        job.setErrorMessage(errorMessage);
+        releaseLease(job, now);
+        job.setFinishedAt(now);
+    }
+
+    /**
+     * Every outcome of a run ends here, so watchers of the job hear about it
+     */
+    private void releaseLease(CrawlJob job, LocalDateTime now) {
+        job.setLockedBy(null);
+        job.setLeaseExpiresAt(null);
+        job.setUpdatedAt(now);
+        eventPublisher.publishEvent(new JobChangedEvent(job.getId()));
+    }
+}
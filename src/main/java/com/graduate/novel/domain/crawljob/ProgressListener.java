@@ -0,0 +1,32 @@
+package com.graduate.novel.domain.crawljob;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receives the progress of work that may run as a job, without the work knowing about jobs.
+ * {@link JobExecution#progress} is one.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    ProgressListener NONE = (total, completed, failed) -> {
+    };
+
+    void progress(Integer total, int completed, int failed);
+
+    /**
+     * Forward at most one update per interval, and always the one where every item is done.
+     * Safe to call from several threads; updates in between are dropped, not delayed.
+     */
+    static ProgressListener throttled(ProgressListener target, long intervalMs) {
+        AtomicLong nextAt = new AtomicLong();
+        return (total, completed, failed) -> {
+            long now = System.currentTimeMillis();
+            long due = nextAt.get();
+            boolean finished = total != null && completed + failed >= total;
+            if (finished || (now >= due && nextAt.compareAndSet(due, now + intervalMs))) {
+                target.progress(total, completed, failed);
+            }
+        };
+    }
+}
@@ -0,0 +1,274 @@
+package com.graduate.novel.domain.duplicate;
+
+import com.graduate.novel.common.text.MinHash;
+import com.graduate.novel.config.DuplicateDetectionProperties;
+import com.graduate.novel.domain.chapter.Chapter;
+import com.graduate.novel.domain.chapter.ChapterDuplicate;
+import com.graduate.novel.domain.chapter.ChapterRepository;
+import com.graduate.novel.domain.chapter.ChapterSignature;
+import com.graduate.novel.domain.crawljob.CrawlJobDto;
+import com.graduate.novel.domain.crawljob.JobQueueService;
+import com.graduate.novel.domain.story.DuplicateStory;
+import com.graduate.novel.domain.story.StoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flags stories and chapters whose text is nearly the same as an earlier one from another story:
+ * re-uploads, mirrors and the same web novel crawled under two URLs. Copies are not translated
+ * speculatively, and an exact copy reuses the translation of the chapter it copies.
+ * <p>
+ * Each chapter's MinHash signature is written with its text (see {@link Chapter}); a story's is
+ * the component-wise minimum over its chapters. Signatures are looked up in in-memory LSH indexes
+ * (see {@link LshIndex}), so checking a crawled batch costs microseconds per chapter. Chapters
+ * are only compared with chapters that existed before them, so the earlier copy is the original.
+ * <p>
+ * At ingest a story's signature is merged with the new chapters' and never loses old text; a
+ * {@link #startScan() scan} recomputes it exactly and re-checks every flag. Until the indexes are
+ * first built (shortly after startup) crawled chapters are signed but not checked.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DuplicateDetectionService {
+
+    public static final String DUPLICATE_SCAN = "DUPLICATE_SCAN";
+
+    private final DuplicateDetectionProperties properties;
+    private final ChapterRepository chapterRepository;
+    private final StoryRepository storyRepository;
+    private final JobQueueService jobQueueService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Committed signatures to add to the indexes
+     * @param story story signature after the merge, or null
+     */
+    record SignaturesChanged(Long storyId, List<ChapterEntry> chapters, int[] story) {
+    }
+
+    record ChapterEntry(long chapterId, long storyId, int[] signature) {
+    }
+
+    /**
+     * Indexes built from the database, with the exact story signatures they were built from
+     */
+    record Indexes(LshIndex chapters, LshIndex stories, Map<Long, int[]> storySignatures) {
+    }
+
+    private final Object rebuildLock = new Object();
+    private volatile Indexes indexes;
+    /** Changes committed while a rebuild runs, replayed onto the new indexes; null when none runs */
+    private List<SignaturesChanged> replay;
+
+    /**
+     * Check chapters whose text was just written and record the result with them: flag each
+     * chapter that copies an earlier chapter of another story and clear the flag of the others,
+     * merge their signatures into the story's and flag the story if that now matches an earlier
+     * story. Flags are written with bulk updates; the entities only mirror them.
+     */
+    @Transactional
+    public void flagChapters(Long storyId, List<Chapter> chapters) {
+        if (chapters.isEmpty()) {
+            return;
+        }
+        // Runs the entity callbacks, which sign changed text
+        chapterRepository.flush();
+
+        Indexes current = properties.isEnabled() ? indexes : null;
+        int[] storySignature = MinHash.fromBytes(storyRepository.findMinhash(storyId));
+        List<ChapterEntry> entries = new ArrayList<>(chapters.size());
+        int flagged = 0;
+        for (Chapter chapter : chapters) {
+            int[] signature = MinHash.fromBytes(chapter.getMinhash());
+            Long duplicateOf = null;
+            if (signature != null && current != null) {
+                long chapterId = chapter.getId();
+                LshIndex.Match match = current.chapters().bestMatch(signature, storyId,
+                        properties.getChapterThreshold(), candidate -> candidate < chapterId);
+                duplicateOf = match != null ? match.id() : null;
+            }
+            if (!Objects.equals(duplicateOf, chapter.getDuplicateOfChapterId())) {
+                chapterRepository.updateDuplicateOf(chapter.getId(), duplicateOf);
+                chapter.setDuplicateOfChapterId(duplicateOf);
+            }
+            if (duplicateOf != null) {
+                flagged++;
+            }
+            if (signature == null || !properties.isEnabled()) {
+                continue;
+            }
+            if (storySignature == null) {
+                storySignature = signature.clone();
+            } else {
+                MinHash.merge(storySignature, signature);
+            }
+            entries.add(new ChapterEntry(chapter.getId(), storyId, signature));
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Long duplicateOf = null;
+        if (current != null) {
+            LshIndex.Match match = current.stories().bestMatch(storySignature, storyId,
+                    properties.getStoryThreshold(), candidate -> candidate < storyId);
+            duplicateOf = match != null ? match.id() : null;
+        }
+        storyRepository.updateDuplicateState(storyId, MinHash.toBytes(storySignature), duplicateOf);
+        eventPublisher.publishEvent(new SignaturesChanged(storyId, entries, storySignature));
+        if (flagged > 0 || duplicateOf != null) {
+            log.info("Story {}: {} of {} written chapters copy other stories{}", storyId, flagged, chapters.size(),
+                    duplicateOf != null ? "; story copies story " + duplicateOf : "");
+        }
+    }
+
+    /**
+     * Add committed signatures to the indexes (at once outside a transaction)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSignaturesChanged(SignaturesChanged event) {
+        synchronized (rebuildLock) {
+            if (replay != null) {
+                replay.add(event);
+            }
+            Indexes current = indexes;
+            if (current != null) {
+                add(current, event);
+            }
+        }
+    }
+
+    /**
+     * Build new indexes from the stored chapter signatures and swap them in. Story signatures
+     * are merged from their chapters', so the story index is exact even where the stored story
+     * signature has drifted.
+     * @return the new indexes, or null if another rebuild is running
+     */
+    public Indexes rebuildIndexes() {
+        synchronized (rebuildLock) {
+            if (replay != null) {
+                return null;
+            }
+            replay = new ArrayList<>();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LshIndex chapters = new LshIndex(properties.getBands());
+            Map<Long, int[]> storySignatures = new ConcurrentHashMap<>();
+            long afterId = 0;
+            while (true) {
+                List<ChapterSignature> page = chapterRepository.findSignaturesAfter(afterId,
+                        PageRequest.of(0, properties.getScanBatchSize()));
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (ChapterSignature row : page) {
+                    int[] signature = MinHash.fromBytes(row.minhash());
+                    if (signature != null) {
+                        chapters.add(row.chapterId(), row.storyId(), signature);
+                        storySignatures.merge(row.storyId(), signature.clone(), (into, other) -> {
+                            MinHash.merge(into, other);
+                            return into;
+                        });
+                    }
+                }
+                afterId = page.get(page.size() - 1).chapterId();
+            }
+            LshIndex stories = new LshIndex(properties.getBands());
+            storySignatures.forEach((storyId, signature) -> stories.add(storyId, storyId, signature));
+
+            Indexes built = new Indexes(chapters, stories, storySignatures);
+            synchronized (rebuildLock) {
+                replay.forEach(event -> add(built, event));
+                indexes = built;
+            }
+            log.info("Duplicate indexes rebuilt: {} chapters, {} stories in {} ms", chapters.size(),
+                    stories.size(), System.currentTimeMillis() - start);
+            return built;
+        } finally {
+            synchronized (rebuildLock) {
+                replay = null;
+            }
+        }
+    }
+
+    /**
+     * Queue a scan that signs unsigned chapters and re-checks every chapter and story
+     */
+    public CrawlJobDto startScan() {
+        log.info("Scanning all stories for duplicates");
+        return jobQueueService.enqueue(DUPLICATE_SCAN, null, null, JobQueueService.PRIORITY_BACKFILL, null);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<DuplicateStory> getDuplicateStories(int page, int size) {
+        return storyRepository.findDuplicates(PageRequest.of(page, size));
+    }
+
+    /**
+     * Store signatures computed by a scan
+     */
+    @Transactional
+    public void saveChapterSignatures(Map<Long, byte[]> signatures) {
+        signatures.forEach(chapterRepository::updateMinhash);
+    }
+
+    /**
+     * Replace all chapter flags with a scan's result
+     * @param flags chapter id -> chapter it copies, for every chapter found to be a copy
+     * @return chapters whose flag changed
+     */
+    @Transactional
+    public int replaceChapterFlags(Map<Long, Long> flags) {
+        int changed = 0;
+        for (ChapterDuplicate existing : chapterRepository.findDuplicates()) {
+            if (!flags.containsKey(existing.chapterId())) {
+                chapterRepository.updateDuplicateOf(existing.chapterId(), null);
+                changed++;
+            } else if (existing.duplicateOfChapterId().equals(flags.get(existing.chapterId()))) {
+                flags.remove(existing.chapterId());
+            }
+        }
+        flags.forEach(chapterRepository::updateDuplicateOf);
+        return changed + flags.size();
+    }
+
+    /**
+     * Store exact story signatures and flags computed by a scan; stories without signed chapters
+     * lose their flag
+     * @param flags story id -> story it copies, for every story found to be a copy
+     */
+    @Transactional
+    public void replaceStoryState(Map<Long, int[]> signatures, Map<Long, Long> flags) {
+        for (Long storyId : storyRepository.findDuplicateStoryIds()) {
+            if (!signatures.containsKey(storyId)) {
+                storyRepository.updateDuplicateState(storyId, null, null);
+            }
+        }
+        signatures.forEach((storyId, signature) ->
+                storyRepository.updateDuplicateState(storyId, MinHash.toBytes(signature), flags.get(storyId)));
+    }
+
+    private static void add(Indexes target, SignaturesChanged event) {
+        for (ChapterEntry entry : event.chapters()) {
+            target.chapters().add(entry.chapterId(), entry.storyId(), entry.signature());
+        }
+        if (event.story() != null) {
+            target.stories().add(event.storyId(), event.storyId(), event.story());
+            target.storySignatures().put(event.storyId(), event.story());
+        }
+    }
+}
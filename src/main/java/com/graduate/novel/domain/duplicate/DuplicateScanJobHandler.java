@@ -0,0 +1,145 @@
+package com.graduate.novel.domain.duplicate;
+
+import com.graduate.novel.common.text.MinHash;
+import com.graduate.novel.config.DuplicateDetectionProperties;
+import com.graduate.novel.domain.chapter.ChapterRawText;
+import com.graduate.novel.domain.chapter.ChapterRepository;
+import com.graduate.novel.domain.crawljob.ClaimedJob;
+import com.graduate.novel.domain.crawljob.JobExecution;
+import com.graduate.novel.domain.crawljob.JobHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs DUPLICATE_SCAN jobs over the whole corpus:
+ * <ol>
+ *   <li>signs chapters that have text but no signature, in parallel on the scan executor</li>
+ *   <li>rebuilds the indexes, which also merges exact story signatures from the chapters'</li>
+ *   <li>looks up every chapter's best earlier match, slices of the index in parallel, and
+ *       replaces the chapter flags with the result</li>
+ *   <li>does the same for stories and stores their exact signatures</li>
+ * </ol>
+ * The signing step resumes from the last chapter id in the job's external_ref; the checks are
+ * cheap enough to redo in full.
+ */
+@Component
+@Slf4j
+public class DuplicateScanJobHandler implements JobHandler {
+
+    /** Index positions checked per task */
+    private static final int CHECK_SLICE = 4096;
+
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final ChapterRepository chapterRepository;
+    private final DuplicateDetectionProperties properties;
+    private final ExecutorService duplicateScanExecutor;
+
+    public DuplicateScanJobHandler(DuplicateDetectionService duplicateDetectionService,
+                                   ChapterRepository chapterRepository,
+                                   DuplicateDetectionProperties properties,
+                                   @Qualifier("duplicateScanExecutor") ExecutorService duplicateScanExecutor) {
+        this.duplicateDetectionService = duplicateDetectionService;
+        this.chapterRepository = chapterRepository;
+        this.properties = properties;
+        this.duplicateScanExecutor = duplicateScanExecutor;
+    }
+
+    @Override
+    public Set<String> jobTypes() {
+        return Set.of(DuplicateDetectionService.DUPLICATE_SCAN);
+    }
+
+    @Override
+    public Set<String> longRunningJobTypes() {
+        return Set.of(DuplicateDetectionService.DUPLICATE_SCAN);
+    }
+
+    @Override
+    public void execute(JobExecution execution) {
+        ClaimedJob job = execution.job();
+        long afterId = job.externalRef() != null ? Long.parseLong(job.externalRef()) : 0;
+        int signed = 0;
+
+        while (true) {
+            if (execution.isLeaseLost()) {
+                return;
+            }
+            List<ChapterRawText> batch = chapterRepository.findUnsignedAfter(afterId,
+                    PageRequest.of(0, properties.getScanBatchSize()));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<CompletableFuture<byte[]>> futures = new ArrayList<>(batch.size());
+            for (ChapterRawText chapter : batch) {
+                futures.add(CompletableFuture.supplyAsync(() -> MinHash.signatureBytes(chapter.rawContent()),
+                        duplicateScanExecutor));
+            }
+            Map<Long, byte[]> signatures = new HashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                byte[] signature = futures.get(i).join();
+                // Too short to compare: stays unsigned
+                if (signature != null) {
+                    signatures.put(batch.get(i).id(), signature);
+                }
+            }
+            duplicateDetectionService.saveChapterSignatures(signatures);
+            signed += signatures.size();
+
+            afterId = batch.get(batch.size() - 1).id();
+            execution.setExternalRef(String.valueOf(afterId));
+            execution.progress(null, signed, 0);
+        }
+
+        DuplicateDetectionService.Indexes indexes = duplicateDetectionService.rebuildIndexes();
+        if (indexes == null) {
+            throw new IllegalStateException("Duplicate indexes are being rebuilt; retrying later");
+        }
+
+        int positions = indexes.chapters().positions();
+        Map<Long, Long> chapterFlags = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> checks = new ArrayList<>();
+        for (int from = 0; from < positions; from += CHECK_SLICE) {
+            int start = from;
+            checks.add(CompletableFuture.runAsync(() -> indexes.chapters().forEachBestMatch(start,
+                    start + CHECK_SLICE, properties.getChapterThreshold(), (id, match) -> {
+                        if (match != null) {
+                            chapterFlags.put(id, match.id());
+                        }
+                    }), duplicateScanExecutor));
+        }
+        for (int i = 0; i < checks.size(); i++) {
+            checks.get(i).join();
+            execution.progress(positions, Math.min((i + 1) * CHECK_SLICE, positions), 0);
+        }
+        int chapterCopies = chapterFlags.size();
+        int changed = duplicateDetectionService.replaceChapterFlags(chapterFlags);
+
+        Map<Long, int[]> storySignatures = new HashMap<>(indexes.storySignatures());
+        Map<Long, Long> storyFlags = new HashMap<>();
+        storySignatures.forEach((storyId, signature) -> {
+            LshIndex.Match match = indexes.stories().bestMatch(signature, storyId,
+                    properties.getStoryThreshold(), candidate -> candidate < storyId);
+            if (match != null) {
+                storyFlags.put(storyId, match.id());
+            }
+        });
+        duplicateDetectionService.replaceStoryState(storySignatures, storyFlags);
+
+        execution.setExternalRef(null);
+        execution.setResultMessage(String.format("%d chapters signed; %d chapter copies (%d flags changed), %d story copies",
+                signed, chapterCopies, changed, storyFlags.size()));
+        log.info("Job {}: duplicate scan signed {} chapters, found {} chapter copies ({} flags changed) and {} story copies",
+                job.id(), signed, chapterCopies, changed, storyFlags.size());
+    }
+}
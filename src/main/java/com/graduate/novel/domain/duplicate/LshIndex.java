@@ -0,0 +1,241 @@
+package com.graduate.novel.domain.duplicate;
+
+import com.graduate.novel.common.text.MinHash;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory locality-sensitive hash index over MinHash signatures, for finding near-duplicates
+ * in well under a millisecond.
+ * <p>
+ * A signature is cut into {@code bands} bands of consecutive components; two entries are
+ * candidates if any band is identical, which is likely above a similarity of about
+ * (1/bands)^(1/rows) and unlikely well below it. Candidates are then scored on a one-byte-per-
+ * component sketch (the low byte of each component: b-bit MinHash), corrected for the 1/256
+ * chance of bytes agreeing by accident. Per entry this keeps the sketch, the band keys and their
+ * bucket chains in primitive arrays, roughly 450 bytes. Entries are replaced by re-adding their
+ * id; replaced entries stay as tombstones until the index is rebuilt.
+ */
+final class LshIndex {
+
+    /**
+     * An indexed entry similar to the query
+     * @param group story of a chapter entry (entries of the query's group are never matched)
+     */
+    record Match(long id, long group, double similarity) {
+    }
+
+    private final int bands;
+    private final int rows;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private int count;
+    /** 0 for a replaced entry */
+    private long[] ids = new long[1024];
+    private long[] groups = new long[1024];
+    private byte[] sketches = new byte[1024 * MinHash.HASHES];
+    /** bands keys per entry */
+    private int[] bandKeys;
+    /** bands links per entry: the next entry in the same bucket of that band, or -1 */
+    private int[] next;
+    /** Per band, bucket -> first entry, or -1 */
+    private int[][] heads;
+
+    LshIndex(int bands) {
+        if (bands < 1 || MinHash.HASHES % bands != 0) {
+            throw new IllegalArgumentException("Bands must divide " + MinHash.HASHES);
+        }
+        this.bands = bands;
+        this.rows = MinHash.HASHES / bands;
+        this.bandKeys = new int[ids.length * bands];
+        this.next = new int[ids.length * bands];
+        this.heads = newHeads(ids.length * 2);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add an entry, replacing an earlier one with the same id
+     */
+    void add(long id, long group, int[] signature) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = positions.get(id);
+            if (previous != null) {
+                ids[previous] = 0;
+            }
+            if (count == ids.length) {
+                grow();
+            }
+            int position = count++;
+            ids[position] = id;
+            groups[position] = group;
+            for (int i = 0; i < MinHash.HASHES; i++) {
+                sketches[position * MinHash.HASHES + i] = (byte) signature[i];
+            }
+            for (int band = 0; band < bands; band++) {
+                bandKeys[position * bands + band] = bandKey(signature, band);
+            }
+            link(position);
+            positions.put(id, position);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The most similar entry outside a group, at or above the threshold; ties go to the lowest id
+     * @param accept further condition on candidate ids (e.g. added before the query's entry)
+     */
+    Match bestMatch(int[] signature, long excludeGroup, double threshold, LongPredicate accept) {
+        int[] keys = new int[bands];
+        byte[] sketch = new byte[MinHash.HASHES];
+        for (int band = 0; band < bands; band++) {
+            keys[band] = bandKey(signature, band);
+        }
+        for (int i = 0; i < MinHash.HASHES; i++) {
+            sketch[i] = (byte) signature[i];
+        }
+        lock.readLock().lock();
+        try {
+            return bestMatch(keys, 0, sketch, 0, excludeGroup, threshold, accept);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entries added so far, including replaced ones: positions range over [0, positions())
+     */
+    int positions() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit the live entries at positions [from, to) with their best match among entries of
+     * lower id (null if none). Ranges can be visited from several threads at once.
+     */
+    void forEachBestMatch(int from, int to, double threshold, MatchVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            for (int position = from; position < Math.min(to, count); position++) {
+                long id = ids[position];
+                if (id == 0) {
+                    continue;
+                }
+                Match match = bestMatch(bandKeys, position * bands, sketches, position * MinHash.HASHES,
+                        groups[position], threshold, candidate -> candidate < id);
+                visitor.visit(id, match);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    interface MatchVisitor {
+        void visit(long id, Match match);
+    }
+
+    private Match bestMatch(int[] keys, int keyOffset, byte[] sketch, int sketchOffset, long excludeGroup,
+                            double threshold, LongPredicate accept) {
+        int mask = heads[0].length - 1;
+        Match best = null;
+        for (int band = 0; band < bands; band++) {
+            int key = keys[keyOffset + band];
+            for (int entry = heads[band][key & mask]; entry >= 0; entry = next[entry * bands + band]) {
+                long id = ids[entry];
+                if (id == 0 || bandKeys[entry * bands + band] != key || groups[entry] == excludeGroup
+                        || matchedEarlierBand(entry, keys, keyOffset, band) || !accept.test(id)) {
+                    continue;
+                }
+                double similarity = similarity(sketch, sketchOffset, entry * MinHash.HASHES);
+                if (similarity >= threshold && (best == null || similarity > best.similarity()
+                        || (similarity == best.similarity() && id < best.id()))) {
+                    best = new Match(id, groups[entry], similarity);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Whether a candidate was already seen through an earlier band
+     */
+    private boolean matchedEarlierBand(int entry, int[] keys, int keyOffset, int band) {
+        for (int earlier = 0; earlier < band; earlier++) {
+            if (bandKeys[entry * bands + earlier] == keys[keyOffset + earlier]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double similarity(byte[] sketch, int offset, int entryOffset) {
+        int equal = 0;
+        for (int i = 0; i < MinHash.HASHES; i++) {
+            if (sketch[offset + i] == sketches[entryOffset + i]) {
+                equal++;
+            }
+        }
+        double agreement = (double) equal / MinHash.HASHES;
+        return Math.max(0, (agreement - 1 / 256.0) / (1 - 1 / 256.0));
+    }
+
+    private int bandKey(int[] signature, int band) {
+        int hash = band * 0x9e3779b9;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            hash = (hash ^ signature[i]) * 0x01000193;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    private void link(int position) {
+        int mask = heads[0].length - 1;
+        for (int band = 0; band < bands; band++) {
+            int bucket = bandKeys[position * bands + band] & mask;
+            next[position * bands + band] = heads[band][bucket];
+            heads[band][bucket] = position;
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        groups = Arrays.copyOf(groups, capacity);
+        sketches = Arrays.copyOf(sketches, capacity * MinHash.HASHES);
+        bandKeys = Arrays.copyOf(bandKeys, capacity * bands);
+        next = Arrays.copyOf(next, capacity * bands);
+        heads = newHeads(capacity * 2);
+        for (int position = 0; position < count; position++) {
+            link(position);
+        }
+    }
+
+    private int[][] newHeads(int buckets) {
+        int[][] table = new int[bands][buckets];
+        for (int[] band : table) {
+            Arrays.fill(band, -1);
+        }
+        return table;
+    }
+}
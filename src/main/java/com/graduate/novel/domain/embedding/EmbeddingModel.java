@@ -0,0 +1,57 @@
+package com.graduate.novel.domain.embedding;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A version of the story vectors: the embedding model and output dimension that produced them.
+ * A model used again later gets a new row.
+ */
+@Entity
+@Table(name = "embedding_models")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmbeddingModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private Integer dimension;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmbeddingModelStatus status;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "activated_at")
+    private LocalDateTime activatedAt;
+
+    @Column(name = "retired_at")
+    private LocalDateTime retiredAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public boolean matches(String modelName, int modelDimension) {
+        return name.equals(modelName) && dimension == modelDimension;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + dimension + "d)";
+    }
+}
@@ -0,0 +1,16 @@
+package com.graduate.novel.domain.embedding;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EmbeddingModelRepository extends JpaRepository<EmbeddingModel, Long> {
+
+    Optional<EmbeddingModel> findByStatus(EmbeddingModelStatus status);
+
+    List<EmbeddingModel> findByStatusAndRetiredAtBefore(EmbeddingModelStatus status, LocalDateTime before);
+}
@@ -0,0 +1,7 @@
+package com.graduate.novel.domain.embedding;
+
+public enum EmbeddingModelStatus {
+    SHADOW,     // Being filled in the background; written to, not searched
+    ACTIVE,     // Serves searches and recommendations
+    RETIRED     // Replaced; rows kept for a while so nodes that have not switched yet still work
+}
@@ -0,0 +1,27 @@
+package com.graduate.novel.domain.embedding;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A story's embedding under one model. Read-only mapping: rows are written with
+ * {@link StoryVectorRepository#upsert}, which casts the text form to the vector type.
+ */
+@Entity
+@Table(name = "story_embeddings")
+@Getter
+@NoArgsConstructor
+public class StoryVector {
+
+    @EmbeddedId
+    private StoryVectorId id;
+
+    // pgvector text form "[0.1,0.2,...]"
+    @Column(name = "embedding", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String embedding;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
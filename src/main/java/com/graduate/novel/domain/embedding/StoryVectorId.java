@@ -0,0 +1,26 @@
+package com.graduate.novel.domain.embedding;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class StoryVectorId implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "model_id")
+    private Long modelId;
+
+    @Column(name = "story_id")
+    private Long storyId;
+}
@@ -0,0 +1,87 @@
+package com.graduate.novel.domain.embedding;
+
+import com.graduate.novel.domain.story.StoryEmbedding;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoryVectorRepository extends JpaRepository<StoryVector, StoryVectorId>, StoryVectorRepositoryCustom {
+
+    // Insert or replace a story's embedding under a model, with explicit CAST to vector type
+    @Modifying
+    @Query(value = "INSERT INTO story_embeddings (model_id, story_id, embedding) " +
+            "VALUES (:modelId, :storyId, CAST(:embeddingString AS vector)) " +
+            "ON CONFLICT (model_id, story_id) DO UPDATE " +
+            "SET embedding = EXCLUDED.embedding, created_at = NOW()", nativeQuery = true)
+    void upsert(@Param("modelId") Long modelId,
+                @Param("storyId") Long storyId,
+                @Param("embeddingString") String embeddingString);
+
+    @Query("SELECT v.embedding FROM StoryVector v WHERE v.id.modelId = :modelId AND v.id.storyId = :storyId")
+    Optional<String> findEmbedding(@Param("modelId") Long modelId, @Param("storyId") Long storyId);
+
+    // Exact re-rank of candidate stories. The candidates are materialized first so the planner
+    // computes the distance for each of them instead of walking the HNSW index and filtering,
+    // which can return fewer rows than asked for.
+    @Query(value = "WITH candidates AS MATERIALIZED (" +
+            "SELECT story_id, embedding FROM story_embeddings WHERE model_id = :modelId AND story_id IN (:ids)) " +
+            "SELECT story_id FROM candidates " +
+            "ORDER BY embedding <=> CAST(:queryEmbedding AS vector) " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> findStoryIdsBySimilarityAmong(@Param("modelId") Long modelId,
+                                             @Param("queryEmbedding") String queryEmbedding,
+                                             @Param("ids") Collection<Long> ids,
+                                             @Param("limit") int limit);
+
+    // Story embeddings in id order, for streaming over all vectors of a model page by page
+    @Query("SELECT new com.graduate.novel.domain.story.StoryEmbedding(v.id.storyId, v.embedding) " +
+           "FROM StoryVector v WHERE v.id.modelId = :modelId AND v.id.storyId > :afterId " +
+           "ORDER BY v.id.storyId ASC")
+    List<StoryEmbedding> findEmbeddingsAfter(@Param("modelId") Long modelId,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    @Query("SELECT new com.graduate.novel.domain.story.StoryEmbedding(v.id.storyId, v.embedding) " +
+           "FROM StoryVector v WHERE v.id.modelId = :modelId AND v.id.storyId IN :ids")
+    List<StoryEmbedding> findEmbeddingsByIdIn(@Param("modelId") Long modelId,
+                                              @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT v.id.storyId FROM StoryVector v WHERE v.id.modelId = :modelId AND v.id.storyId IN :ids")
+    List<Long> findStoryIdsWithEmbedding(@Param("modelId") Long modelId, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(v) FROM StoryVector v WHERE v.id.modelId = :modelId")
+    long countByModelId(@Param("modelId") Long modelId);
+
+    // Stories embedded under the source model but not yet under the target model
+    @Query(value = "SELECT s.story_id FROM story_embeddings s " +
+            "WHERE s.model_id = :sourceModelId AND NOT EXISTS (" +
+            "SELECT 1 FROM story_embeddings t WHERE t.model_id = :targetModelId AND t.story_id = s.story_id) " +
+            "ORDER BY s.story_id LIMIT :limit", nativeQuery = true)
+    List<Long> findStoryIdsMissingFrom(@Param("targetModelId") Long targetModelId,
+                                       @Param("sourceModelId") Long sourceModelId,
+                                       @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM story_embeddings s " +
+            "WHERE s.model_id = :sourceModelId AND NOT EXISTS (" +
+            "SELECT 1 FROM story_embeddings t WHERE t.model_id = :targetModelId AND t.story_id = s.story_id)",
+            nativeQuery = true)
+    long countMissingFrom(@Param("targetModelId") Long targetModelId, @Param("sourceModelId") Long sourceModelId);
+
+    @Modifying
+    @Query("DELETE FROM StoryVector v WHERE v.id.modelId = :modelId AND v.id.storyId IN :storyIds")
+    void deleteByModelIdAndStoryIdIn(@Param("modelId") Long modelId, @Param("storyIds") Collection<Long> storyIds);
+
+    // Delete a retired model's vectors a batch at a time so no single statement holds many row locks
+    @Modifying
+    @Query(value = "DELETE FROM story_embeddings WHERE model_id = :modelId AND story_id IN (" +
+            "SELECT story_id FROM story_embeddings WHERE model_id = :modelId LIMIT :limit)", nativeQuery = true)
+    int deleteBatch(@Param("modelId") Long modelId, @Param("limit") int limit);
+}
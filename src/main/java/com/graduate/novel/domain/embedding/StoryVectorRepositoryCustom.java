@@ -0,0 +1,24 @@
+package com.graduate.novel.domain.embedding;
+
+import java.util.List;
+
+/**
+ * Queries whose SQL depends on the model: each model's vectors are indexed by a partial HNSW
+ * index on {@code (embedding::vector(<dimension>)) WHERE model_id = <id>}, and the planner only
+ * uses it when the query repeats that expression and predicate literally.
+ */
+public interface StoryVectorRepositoryCustom {
+
+    /**
+     * Stories nearest to the query embedding under a model, using the model's HNSW index
+     */
+    List<Long> findStoryIdsBySimilarity(EmbeddingModel model, String queryEmbedding, int limit);
+
+    /**
+     * Build the model's HNSW index without blocking writes (CREATE INDEX CONCURRENTLY)
+     * @return false if another node is building it
+     */
+    boolean createVectorIndex(EmbeddingModel model);
+
+    void dropVectorIndex(EmbeddingModel model);
+}
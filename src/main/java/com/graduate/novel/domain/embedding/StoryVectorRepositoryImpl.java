@@ -0,0 +1,44 @@
+package com.graduate.novel.domain.embedding;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StoryVectorRepositoryImpl implements StoryVectorRepositoryCustom {
+
+    private static final String TABLE = "story_embeddings";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final VectorIndexes vectorIndexes;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> findStoryIdsBySimilarity(EmbeddingModel model, String queryEmbedding, int limit) {
+        // Id and dimension are inlined (both integers from the database) so a generic plan can use
+        // the partial index too
+        String sql = "SELECT story_id FROM story_embeddings " +
+                "WHERE model_id = " + model.getId() + " " +
+                "ORDER BY (embedding::vector(" + model.getDimension() + ")) <=> CAST(:queryEmbedding AS vector) " +
+                "LIMIT :limit";
+        List<Number> ids = entityManager.createNativeQuery(sql)
+                .setParameter("queryEmbedding", queryEmbedding)
+                .setParameter("limit", limit)
+                .getResultList();
+        return ids.stream().map(Number::longValue).toList();
+    }
+
+    @Override
+    public boolean createVectorIndex(EmbeddingModel model) {
+        return vectorIndexes.create(TABLE, "vector", model);
+    }
+
+    @Override
+    public void dropVectorIndex(EmbeddingModel model) {
+        vectorIndexes.drop(TABLE, model);
+    }
+}
@@ -0,0 +1,120 @@
+package com.graduate.novel.domain.embedding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Per-model HNSW indexes on tables holding vectors of several embedding models in one untyped
+ * column. Each model gets a partial index on {@code (embedding::<type>(<dimension>)) WHERE
+ * model_id = <id>}; queries must repeat that expression and predicate literally to use it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VectorIndexes {
+
+    /** pgvector cannot build an HNSW index on vectors with more dimensions than this */
+    private static final int MAX_HNSW_DIMENSION = 2000;
+    /** ...or on half-precision vectors with more than this */
+    private static final int MAX_HNSW_HALFVEC_DIMENSION = 4000;
+
+    private final DataSource dataSource;
+
+    /**
+     * Build the model's index without blocking writes (CREATE INDEX CONCURRENTLY). Builds are
+     * serialized across nodes by an advisory lock on the index name, so an invalid index is only
+     * dropped when no node is still building it.
+     * @param type vector or halfvec, the type of the column
+     * @return true if the index is in place (or the model cannot have one); false if another node
+     *         is building it
+     */
+    public boolean create(String table, String type, EmbeddingModel model) {
+        int maxDimension = "halfvec".equals(type) ? MAX_HNSW_HALFVEC_DIMENSION : MAX_HNSW_DIMENSION;
+        if (model.getDimension() > maxDimension) {
+            log.warn("Embedding model {} has more than {} dimensions; {} is searched without an index",
+                    model, maxDimension, table);
+            return true;
+        }
+        String name = indexName(table, model);
+        // CONCURRENTLY cannot run inside a transaction, and the session lock must stay on one connection
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            if (!advisoryLock(connection, "pg_try_advisory_lock", name)) {
+                log.debug("Another node is building index {}", name);
+                return false;
+            }
+            try {
+                Boolean valid = isValidIndex(connection, name);
+                if (Boolean.TRUE.equals(valid)) {
+                    return true;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    if (valid != null) {
+                        // Left behind by an interrupted concurrent build; IF NOT EXISTS would keep it
+                        statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+                    }
+                    log.info("Building vector index {}", name);
+                    statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " ON " + table + " " +
+                            "USING hnsw ((embedding::" + type + "(" + model.getDimension() + ")) " + type +
+                            "_cosine_ops) WITH (m = 16, ef_construction = 64) WHERE model_id = " + model.getId());
+                }
+                return true;
+            } finally {
+                advisoryLock(connection, "pg_advisory_unlock", name);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to build index " + name, e);
+        }
+    }
+
+    public void drop(String table, EmbeddingModel model) {
+        execute("DROP INDEX CONCURRENTLY IF EXISTS " + indexName(table, model));
+    }
+
+    private static String indexName(String table, EmbeddingModel model) {
+        return "idx_" + table + "_model_" + model.getId();
+    }
+
+    /**
+     * @return whether the index is valid, or null if there is no such index
+     */
+    private static Boolean isValidIndex(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT i.indisvalid FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid WHERE c.relname = ?")) {
+            statement.setString(1, name);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getBoolean(1) : null;
+            }
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String function, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(hashtext(?))")) {
+            statement.setString(1, name);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * CONCURRENTLY cannot run inside a transaction, so this uses its own auto-commit connection
+     */
+    private void execute(String sql) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to run: " + sql, e);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -37,5 +38,11 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
      * Count favorites for a story
      */
     long countByStoryId(Long storyId);
+
+    /**
+     * Most favorited stories first
+     */
+    @Query("SELECT f.story.id FROM Favorite f GROUP BY f.story.id ORDER BY COUNT(f) DESC")
+    List<Long> findMostFavoritedStoryIds(Pageable pageable);
 }
 
@@ -0,0 +1,6 @@
+package com.graduate.novel.domain.history;
+
+/**
+ * Where a reader currently is in a story
+ */
+public record ReaderPosition(Long storyId, Integer chapterIndex) {}
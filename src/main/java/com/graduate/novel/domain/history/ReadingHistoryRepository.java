@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -23,6 +25,14 @@ public interface ReadingHistoryRepository extends JpaRepository<ReadingHistory,
     @Query("SELECT h FROM ReadingHistory h WHERE h.user.id = :userId AND h.story.id = :storyId ORDER BY h.lastReadAt DESC LIMIT 1")
     Optional<ReadingHistory> findByUserIdAndStoryId(@Param("userId") Long userId, @Param("storyId") Long storyId);
 
+    // Current chapter positions of readers active since the given time (translation read-ahead)
+    @Query("SELECT new com.graduate.novel.domain.history.ReaderPosition(h.story.id, c.chapterIndex) " +
+           "FROM ReadingHistory h JOIN h.chapter c WHERE h.lastReadAt >= :since ORDER BY h.lastReadAt DESC")
+    List<ReaderPosition> findActiveReaderPositions(@Param("since") LocalDateTime since, Pageable pageable);
+
+    // Readers of a story active since the given time (update check scheduling)
+    long countByStoryIdAndLastReadAtGreaterThanEqual(Long storyId, LocalDateTime since);
+
     // Count methods for cold-start detection
     long countByUserId(Long userId);
 }
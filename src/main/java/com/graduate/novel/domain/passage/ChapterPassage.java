@@ -0,0 +1,54 @@
+package com.graduate.novel.domain.passage;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A passage of a chapter, embedded under one model. The embedding itself is not mapped: it is
+ * only written by {@link ChapterPassageRepository} native inserts and only read by vector search.
+ */
+@Entity
+@Table(name = "chapter_passages")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChapterPassage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chapter_id", nullable = false)
+    private Long chapterId;
+
+    @Column(name = "story_id", nullable = false)
+    private Long storyId;
+
+    @Column(name = "model_id", nullable = false)
+    private Long modelId;
+
+    @Column(name = "passage_index", nullable = false)
+    private Integer passageIndex;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PassageSource source;
+
+    // [start, end) in characters (code points) of the source text
+    @Column(name = "start_offset", nullable = false)
+    private Integer startOffset;
+
+    @Column(name = "end_offset", nullable = false)
+    private Integer endOffset;
+
+    // SHA-256 of the passage text
+    @Column(name = "content_hash", nullable = false)
+    private byte[] contentHash;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,56 @@
+package com.graduate.novel.domain.passage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChapterPassageRepository extends JpaRepository<ChapterPassage, Long>, ChapterPassageRepositoryCustom {
+
+    List<ChapterPassage> findByChapterIdAndModelId(Long chapterId, Long modelId);
+
+    long countByModelId(Long modelId);
+
+    // Insert a passage reusing the vector of an identical passage already embedded under the model
+    // (in any chapter); inserts nothing if there is none
+    @Modifying
+    @Query(value = "INSERT INTO chapter_passages (chapter_id, story_id, model_id, passage_index, source, " +
+            "start_offset, end_offset, content_hash, embedding) " +
+            "SELECT :chapterId, :storyId, :modelId, :passageIndex, :source, :startOffset, :endOffset, " +
+            ":contentHash, p.embedding FROM chapter_passages p " +
+            "WHERE p.model_id = :modelId AND p.content_hash = :contentHash LIMIT 1", nativeQuery = true)
+    int insertWithKnownEmbedding(@Param("chapterId") Long chapterId,
+                                 @Param("storyId") Long storyId,
+                                 @Param("modelId") Long modelId,
+                                 @Param("passageIndex") int passageIndex,
+                                 @Param("source") String source,
+                                 @Param("startOffset") int startOffset,
+                                 @Param("endOffset") int endOffset,
+                                 @Param("contentHash") byte[] contentHash);
+
+    // Insert a passage with a new vector, with explicit CAST to the half-precision vector type
+    @Modifying
+    @Query(value = "INSERT INTO chapter_passages (chapter_id, story_id, model_id, passage_index, source, " +
+            "start_offset, end_offset, content_hash, embedding) " +
+            "VALUES (:chapterId, :storyId, :modelId, :passageIndex, :source, :startOffset, :endOffset, " +
+            ":contentHash, CAST(:embeddingString AS halfvec))", nativeQuery = true)
+    void insert(@Param("chapterId") Long chapterId,
+                @Param("storyId") Long storyId,
+                @Param("modelId") Long modelId,
+                @Param("passageIndex") int passageIndex,
+                @Param("source") String source,
+                @Param("startOffset") int startOffset,
+                @Param("endOffset") int endOffset,
+                @Param("contentHash") byte[] contentHash,
+                @Param("embeddingString") String embeddingString);
+
+    // Delete a retired model's passages a batch at a time
+    @Modifying
+    @Query(value = "DELETE FROM chapter_passages WHERE id IN (" +
+            "SELECT id FROM chapter_passages WHERE model_id = :modelId LIMIT :limit)", nativeQuery = true)
+    int deleteBatch(@Param("modelId") Long modelId, @Param("limit") int limit);
+}
@@ -0,0 +1,27 @@
+package com.graduate.novel.domain.passage;
+
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+
+import java.util.List;
+
+/**
+ * Vector search over passages, whose SQL names the model's partial HNSW index expression
+ * (see {@link com.graduate.novel.domain.embedding.VectorIndexes})
+ */
+public interface ChapterPassageRepositoryCustom {
+
+    /**
+     * Passages nearest to the query embedding under a model, with their chapter and story
+     * @param storyId    only passages of this story, or null for all
+     * @param efSearch   HNSW candidate list size; higher finds more of the true nearest passages
+     */
+    List<PassageSearchHit> search(EmbeddingModel model, String queryEmbedding, Long storyId, int limit, int efSearch);
+
+    /**
+     * Build the model's HNSW index without blocking writes (CREATE INDEX CONCURRENTLY)
+     * @return false if another node is building it
+     */
+    boolean createVectorIndex(EmbeddingModel model);
+
+    void dropVectorIndex(EmbeddingModel model);
+}
@@ -0,0 +1,85 @@
+package com.graduate.novel.domain.passage;
+
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+import com.graduate.novel.domain.embedding.VectorIndexes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ChapterPassageRepositoryImpl implements ChapterPassageRepositoryCustom {
+
+    private static final String TABLE = "chapter_passages";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final VectorIndexes vectorIndexes;
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<PassageSearchHit> search(EmbeddingModel model, String queryEmbedding, Long storyId,
+                                         int limit, int efSearch) {
+        // Transaction-local planner settings. With a story filter the index scan continues until it
+        // has found enough passages of that story instead of returning fewer than asked for.
+        entityManager.createNativeQuery("SELECT set_config('hnsw.ef_search', :efSearch, true)")
+                .setParameter("efSearch", String.valueOf(efSearch))
+                .getSingleResult();
+        if (storyId != null) {
+            entityManager.createNativeQuery("SELECT set_config('hnsw.iterative_scan', 'relaxed_order', true)")
+                    .getSingleResult();
+        }
+
+        // Id and dimension are inlined (both integers from the database) so the partial index is used.
+        // The nearest passages are found first; chapter text is only read for those.
+        String distance = "(embedding::halfvec(" + model.getDimension() + ")) <=> CAST(:queryEmbedding AS halfvec(" +
+                model.getDimension() + "))";
+        String sql = "WITH nearest AS MATERIALIZED (" +
+                "SELECT chapter_id, story_id, source, start_offset, end_offset, " + distance + " AS distance " +
+                "FROM chapter_passages WHERE model_id = " + model.getId() +
+                (storyId != null ? " AND story_id = :storyId" : "") + " " +
+                "ORDER BY " + distance + " LIMIT :limit) " +
+                "SELECT n.story_id, s.title, n.chapter_id, c.chapter_index, COALESCE(c.translated_title, c.title), " +
+                "n.source, n.start_offset, n.end_offset, 1 - n.distance, " +
+                "substring(CASE WHEN n.source = 'TRANSLATED' THEN c.translated_content ELSE c.raw_content END " +
+                "FROM n.start_offset + 1 FOR n.end_offset - n.start_offset) " +
+                "FROM nearest n JOIN story_chapters c ON c.id = n.chapter_id JOIN stories s ON s.id = n.story_id " +
+                "ORDER BY n.distance";
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("queryEmbedding", queryEmbedding)
+                .setParameter("limit", limit);
+        if (storyId != null) {
+            query.setParameter("storyId", storyId);
+        }
+
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new PassageSearchHit(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        ((Number) row[2]).longValue(),
+                        ((Number) row[3]).intValue(),
+                        (String) row[4],
+                        PassageSource.valueOf((String) row[5]),
+                        ((Number) row[6]).intValue(),
+                        ((Number) row[7]).intValue(),
+                        ((Number) row[8]).doubleValue(),
+                        (String) row[9]))
+                .toList();
+    }
+
+    @Override
+    public boolean createVectorIndex(EmbeddingModel model) {
+        return vectorIndexes.create(TABLE, "halfvec", model);
+    }
+
+    @Override
+    public void dropVectorIndex(EmbeddingModel model) {
+        vectorIndexes.drop(TABLE, model);
+    }
+}
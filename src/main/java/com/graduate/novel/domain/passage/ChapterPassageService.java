@@ -0,0 +1,118 @@
+package com.graduate.novel.domain.passage;
+
+import com.graduate.novel.ai.service.EmbeddingVersionService;
+import com.graduate.novel.common.exception.BadRequestException;
+import com.graduate.novel.config.PassageSearchProperties;
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Semantic search over chapter passages, and the passage writes of {@link PassageIngestService}
+ */
+@Service
+@Slf4j
+public class ChapterPassageService {
+
+    private final ChapterPassageRepository chapterPassageRepository;
+    private final PassageIngestProgressRepository passageIngestProgressRepository;
+    private final EmbeddingVersionService embeddingVersionService;
+    private final PassageSearchProperties properties;
+    /** Model id -> passages indexed under it; only informational, so counted every few minutes */
+    private final Cache<Long, Long> passageCounts;
+
+    public ChapterPassageService(ChapterPassageRepository chapterPassageRepository,
+                                 PassageIngestProgressRepository passageIngestProgressRepository,
+                                 EmbeddingVersionService embeddingVersionService,
+                                 PassageSearchProperties properties) {
+        this.chapterPassageRepository = chapterPassageRepository;
+        this.passageIngestProgressRepository = passageIngestProgressRepository;
+        this.embeddingVersionService = embeddingVersionService;
+        this.properties = properties;
+        this.passageCounts = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(properties.getCountCacheSeconds()))
+                .build();
+    }
+
+    /**
+     * A passage to be stored
+     * @param start start offset in characters (code points)
+     */
+    record NewPassage(int index, PassageSource source, int start, int end, byte[] hash) {
+    }
+
+    /**
+     * Passages of the chapters that best match the query's meaning, best first
+     * The query is embedded before any transaction is opened, so no connection is held while
+     * the embedding API is called.
+     * @param storyId only search this story, or null for all
+     */
+    public PassageSearchResponse search(String query, Long storyId, int limit) {
+        long start = System.currentTimeMillis();
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        EmbeddingModel model = embeddingVersionService.activeModel();
+        float[] queryEmbedding = embeddingVersionService.embed(query.strip(), model);
+        List<PassageSearchHit> hits = chapterPassageRepository.search(model,
+                EmbeddingVersionService.toVectorString(queryEmbedding), storyId,
+                Math.min(Math.max(limit, 1), properties.getMaxResults()), properties.getEfSearch());
+        long indexed = passageCounts.get(model.getId(), chapterPassageRepository::countByModelId);
+        return new PassageSearchResponse(query, hits, indexed, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Insert passages whose text is already embedded under the model somewhere
+     * @return the passages that were not, and need an embedding
+     */
+    @Transactional
+    public List<NewPassage> insertKnownPassages(Long chapterId, Long storyId, EmbeddingModel model,
+                                                List<NewPassage> passages) {
+        return passages.stream()
+                .filter(passage -> chapterPassageRepository.insertWithKnownEmbedding(chapterId, storyId, model.getId(),
+                        passage.index(), passage.source().name(), passage.start(), passage.end(), passage.hash()) == 0)
+                .toList();
+    }
+
+    /**
+     * Insert passages with their new embeddings
+     */
+    @Transactional
+    public void insertEmbeddedPassages(Long chapterId, Long storyId, EmbeddingModel model,
+                                       List<NewPassage> passages, List<float[]> embeddings) {
+        for (int i = 0; i < passages.size(); i++) {
+            NewPassage passage = passages.get(i);
+            chapterPassageRepository.insert(chapterId, storyId, model.getId(), passage.index(),
+                    passage.source().name(), passage.start(), passage.end(), passage.hash(),
+                    EmbeddingVersionService.toVectorString(embeddings.get(i)));
+        }
+    }
+
+    /**
+     * Finish a chapter in one transaction: move the unchanged passages to their new position,
+     * delete the ones no longer in the text, and advance the ingestion watermark past it
+     */
+    @Transactional
+    public void completeChapter(List<ChapterPassage> moved, List<Long> obsoleteIds, PassageIngestProgress progress) {
+        chapterPassageRepository.saveAll(moved);
+        if (!obsoleteIds.isEmpty()) {
+            chapterPassageRepository.deleteAllByIdInBatch(obsoleteIds);
+        }
+        passageIngestProgressRepository.save(progress);
+    }
+
+    /**
+     * Delete up to a batch of a model's passages
+     * @return rows deleted
+     */
+    @Transactional
+    public int deletePassages(EmbeddingModel model, int batchSize) {
+        return chapterPassageRepository.deleteBatch(model.getId(), batchSize);
+    }
+}
@@ -0,0 +1,30 @@
+package com.graduate.novel.domain.passage;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Watermark of passage ingestion for one embedding model: chapters are read in
+ * (updated_at, id) order, and everything up to this point has been ingested
+ */
+@Entity
+@Table(name = "passage_ingest_progress")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PassageIngestProgress {
+
+    @Id
+    @Column(name = "model_id")
+    private Long modelId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "chapter_id", nullable = false)
+    private Long chapterId;
+}
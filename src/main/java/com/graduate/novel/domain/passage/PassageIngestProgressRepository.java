@@ -0,0 +1,8 @@
+package com.graduate.novel.domain.passage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PassageIngestProgressRepository extends JpaRepository<PassageIngestProgress, Long> {
+}
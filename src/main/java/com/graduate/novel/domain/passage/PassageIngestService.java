@@ -0,0 +1,270 @@
+package com.graduate.novel.domain.passage;
+
+import com.graduate.novel.ai.service.EmbeddingQuota;
+import com.graduate.novel.ai.service.EmbeddingVersionService;
+import com.graduate.novel.common.exception.RateLimitExceededException;
+import com.graduate.novel.common.exception.ServiceUnavailableException;
+import com.graduate.novel.config.PassageSearchProperties;
+import com.graduate.novel.domain.chapter.ChapterIndexSource;
+import com.graduate.novel.domain.chapter.ChapterRepository;
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps chapter passages in step with the chapter text under the active embedding model.
+ * <p>
+ * Chapters are read in (updated_at, id) order after a per-model watermark, so each run only
+ * looks at what changed and a new model starts over from the first chapter. A changed chapter is
+ * split again and its passages are matched to the stored ones by content hash: unchanged passages
+ * keep their vectors, passages whose text is embedded elsewhere copy that vector, and only the
+ * rest are embedded, in batch requests within the shared embedding quota. Running a chapter twice
+ * changes nothing, so a run cut short by the quota simply resumes at the same chapter.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PassageIngestService {
+
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ChapterRepository chapterRepository;
+    private final ChapterPassageRepository chapterPassageRepository;
+    private final PassageIngestProgressRepository passageIngestProgressRepository;
+    private final ChapterPassageService chapterPassageService;
+    private final EmbeddingVersionService embeddingVersionService;
+    private final EmbeddingQuota embeddingQuota;
+    private final PassageSearchProperties properties;
+    /** Models whose vector index is in place; the build is only attempted until it succeeds */
+    private final Set<Long> indexedModels = ConcurrentHashMap.newKeySet();
+
+    /**
+     * A passage of the current chapter text, with what is needed to store it
+     */
+    private record Cut(ChapterPassageService.NewPassage passage, String text, String hashKey) {
+    }
+
+    /**
+     * Ingest chapters changed since the watermark, as far as the embedding quota allows
+     * @return number of chapters brought up to date
+     */
+    public int ingest() {
+        EmbeddingModel model = embeddingVersionService.activeModel();
+        if (!indexedModels.contains(model.getId()) && chapterPassageRepository.createVectorIndex(model)) {
+            indexedModels.add(model.getId());
+        }
+        PassageIngestProgress progress = passageIngestProgressRepository.findById(model.getId())
+                .orElseGet(() -> PassageIngestProgress.builder()
+                        .modelId(model.getId())
+                        .updatedAt(START)
+                        .chapterId(0L)
+                        .build());
+
+        // Rows of transactions still open carry an earlier updated_at than their commit; stay behind them
+        LocalDateTime before = LocalDateTime.now().minusSeconds(properties.getCommitLagSeconds());
+        List<ChapterIndexSource> changed = chapterRepository.findChangedForIndexing(progress.getUpdatedAt(),
+                progress.getChapterId(), before, PageRequest.of(0, properties.getChaptersPerRun()));
+
+        int ingested = 0;
+        int embedded = 0;
+        for (ChapterIndexSource chapter : changed) {
+            int result;
+            try {
+                result = ingestChapter(chapter, model);
+            } catch (ServiceUnavailableException | RateLimitExceededException e) {
+                log.warn("Passage ingestion paused at chapter {}: {}", chapter.chapterId(), e.getMessage());
+                break;
+            }
+            if (result < 0) {
+                log.debug("Embedding quota used up, passage ingestion resumes at chapter {}", chapter.chapterId());
+                break;
+            }
+            ingested++;
+            embedded += result;
+        }
+
+        if (ingested > 0) {
+            log.info("Ingested passages of {} chapters under {} ({} passages embedded)", ingested, model, embedded);
+        }
+        return ingested;
+    }
+
+    /**
+     * Bring one chapter's passages up to date
+     * @return passages embedded, or -1 if the quota ran out before the chapter was done
+     */
+    private int ingestChapter(ChapterIndexSource chapter, EmbeddingModel model) {
+        List<Cut> cuts = cut(chapter);
+
+        // Match stored passages by hash; whatever is left over is no longer in the text
+        Map<String, Deque<ChapterPassage>> stored = new HashMap<>();
+        for (ChapterPassage passage : chapterPassageRepository.findByChapterIdAndModelId(chapter.chapterId(), model.getId())) {
+            stored.computeIfAbsent(hashKey(passage.getContentHash()), key -> new ArrayDeque<>()).add(passage);
+        }
+        List<ChapterPassage> moved = new ArrayList<>();
+        List<Cut> fresh = new ArrayList<>();
+        for (Cut cut : cuts) {
+            Deque<ChapterPassage> matches = stored.get(cut.hashKey());
+            ChapterPassage match = matches != null ? matches.poll() : null;
+            if (match == null) {
+                fresh.add(cut);
+            } else if (move(match, cut.passage())) {
+                moved.add(match);
+            }
+        }
+        List<Long> obsoleteIds = stored.values().stream()
+                .flatMap(Deque::stream)
+                .map(ChapterPassage::getId)
+                .toList();
+
+        int embedded = 0;
+        if (!fresh.isEmpty()) {
+            List<ChapterPassageService.NewPassage> unknown = chapterPassageService.insertKnownPassages(
+                    chapter.chapterId(), chapter.storyId(), model,
+                    fresh.stream().map(Cut::passage).toList());
+            embedded = embed(chapter, model, fresh, unknown);
+            if (embedded < 0) {
+                return -1;
+            }
+        }
+
+        chapterPassageService.completeChapter(moved, obsoleteIds, PassageIngestProgress.builder()
+                .modelId(model.getId())
+                .updatedAt(chapter.updatedAt())
+                .chapterId(chapter.chapterId())
+                .build());
+        return embedded;
+    }
+
+    /**
+     * Embed and insert passages no vector exists for. Each batch is stored as soon as it is
+     * embedded, so a chapter interrupted by the quota keeps what it has paid for.
+     * @return passages embedded, or -1 if the quota ran out
+     */
+    private int embed(ChapterIndexSource chapter, EmbeddingModel model, List<Cut> fresh,
+                      List<ChapterPassageService.NewPassage> unknown) {
+        Map<ChapterPassageService.NewPassage, Cut> cutsByPassage = new HashMap<>();
+        fresh.forEach(cut -> cutsByPassage.put(cut.passage(), cut));
+        // A text repeated within the chapter is embedded once
+        Map<String, List<ChapterPassageService.NewPassage>> byHash = new LinkedHashMap<>();
+        for (ChapterPassageService.NewPassage passage : unknown) {
+            byHash.computeIfAbsent(cutsByPassage.get(passage).hashKey(), key -> new ArrayList<>()).add(passage);
+        }
+        List<List<ChapterPassageService.NewPassage>> groups = new ArrayList<>(byHash.values());
+
+        int embedded = 0;
+        for (int from = 0; from < groups.size(); from += properties.getEmbedBatchSize()) {
+            List<List<ChapterPassageService.NewPassage>> batch =
+                    groups.subList(from, Math.min(from + properties.getEmbedBatchSize(), groups.size()));
+            int granted = embeddingQuota.tryAcquire(batch.size());
+            if (granted < batch.size()) {
+                embeddingQuota.release(granted);
+                return -1;
+            }
+
+            List<String> texts = batch.stream().map(group -> cutsByPassage.get(group.get(0)).text()).toList();
+            List<float[]> embeddings;
+            try {
+                embeddings = embeddingVersionService.embedAll(texts, model);
+            } catch (ServiceUnavailableException e) {
+                // Rejected by the circuit breaker before any request was made
+                embeddingQuota.release(batch.size());
+                throw e;
+            }
+
+            List<ChapterPassageService.NewPassage> passages = new ArrayList<>();
+            List<float[]> vectors = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                for (ChapterPassageService.NewPassage passage : batch.get(i)) {
+                    passages.add(passage);
+                    vectors.add(embeddings.get(i));
+                }
+            }
+            chapterPassageService.insertEmbeddedPassages(chapter.chapterId(), chapter.storyId(), model,
+                    passages, vectors);
+            embedded += batch.size();
+        }
+        return embedded;
+    }
+
+    /**
+     * Split the chapter's translated text, or its raw text if it is not translated yet
+     */
+    private List<Cut> cut(ChapterIndexSource chapter) {
+        PassageSource source = PassageSource.TRANSLATED;
+        String text = chapter.translatedContent();
+        if (text == null || text.isBlank()) {
+            source = PassageSource.RAW;
+            text = chapter.rawContent();
+        }
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        List<Cut> cuts = new ArrayList<>();
+        int index = 0;
+        int position = 0;
+        int codePoints = 0;
+        for (PassageSplitter.Span span : PassageSplitter.split(text, properties.getMinPassageChars(),
+                properties.getMaxPassageChars())) {
+            // Offsets are stored in code points, which is what the database counts in substring()
+            codePoints += text.codePointCount(position, span.start());
+            int start = codePoints;
+            codePoints += text.codePointCount(span.start(), span.end());
+            position = span.end();
+
+            String passageText = text.substring(span.start(), span.end());
+            byte[] hash = sha256(passageText);
+            cuts.add(new Cut(new ChapterPassageService.NewPassage(index++, source, start, codePoints, hash),
+                    passageText, hashKey(hash)));
+        }
+        return cuts;
+    }
+
+    /**
+     * Give a stored passage the position of its text in the new split
+     * @return true if anything changed
+     */
+    private static boolean move(ChapterPassage stored, ChapterPassageService.NewPassage passage) {
+        if (Objects.equals(stored.getPassageIndex(), passage.index()) && stored.getSource() == passage.source()
+                && Objects.equals(stored.getStartOffset(), passage.start())
+                && Objects.equals(stored.getEndOffset(), passage.end())) {
+            return false;
+        }
+        stored.setPassageIndex(passage.index());
+        stored.setSource(passage.source());
+        stored.setStartOffset(passage.start());
+        stored.setEndOffset(passage.end());
+        return true;
+    }
+
+    private static byte[] sha256(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String hashKey(byte[] hash) {
+        return HexFormat.of().formatHex(hash);
+    }
+}
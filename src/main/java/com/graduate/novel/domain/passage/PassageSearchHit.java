@@ -0,0 +1,20 @@
+package com.graduate.novel.domain.passage;
+
+/**
+ * One passage matching a semantic query
+ * @param startOffset start of the passage in the chapter's source text (characters)
+ * @param endOffset   end of the passage, exclusive
+ * @param score       cosine similarity to the query
+ */
+public record PassageSearchHit(
+    Long storyId,
+    String storyTitle,
+    Long chapterId,
+    Integer chapterIndex,
+    String chapterTitle,
+    PassageSource source,
+    int startOffset,
+    int endOffset,
+    double score,
+    String text
+) {}
@@ -0,0 +1,10 @@
+package com.graduate.novel.domain.passage;
+
+import java.util.List;
+
+public record PassageSearchResponse(
+    String query,
+    List<PassageSearchHit> hits,
+    long indexedPassages,
+    long tookMs
+) {}
@@ -0,0 +1,9 @@
+package com.graduate.novel.domain.passage;
+
+/**
+ * Which chapter text a passage was cut from
+ */
+public enum PassageSource {
+    TRANSLATED,   // story_chapters.translated_content
+    RAW           // story_chapters.raw_content, for chapters not translated yet
+}
@@ -0,0 +1,124 @@
+package com.graduate.novel.domain.passage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cuts chapter text into passages along paragraph breaks.
+ * <p>
+ * Boundaries are content-defined: once a passage has minChars, it ends after a paragraph whose
+ * text hashes to one of {@value #BOUNDARY_ONE_IN} buckets (or when the next paragraph would take it
+ * past maxChars). Whether a paragraph ends a passage thus depends on that paragraph, not on where
+ * the chapter starts, so after an edit the boundaries fall back into place within a passage or two
+ * and the passages after it keep their exact text, hash and embedding. Paragraphs longer than
+ * maxChars are cut at sentence ends.
+ */
+final class PassageSplitter {
+
+    /** On average one paragraph in this many may end a passage that is long enough */
+    static final int BOUNDARY_ONE_IN = 4;
+
+    private static final String SENTENCE_ENDS = "。！？!?.…」』";
+
+    /** [start, end) in UTF-16 units of the text */
+    record Span(int start, int end) {
+    }
+
+    private PassageSplitter() {
+    }
+
+    static List<Span> split(String text, int minChars, int maxChars) {
+        List<Span> spans = new ArrayList<>();
+        int passageStart = -1;
+        int passageEnd = -1;
+        int position = 0;
+        while (position < text.length()) {
+            int lineEnd = text.indexOf('\n', position);
+            if (lineEnd < 0) {
+                lineEnd = text.length();
+            }
+            int start = skipWhitespace(text, position, lineEnd);
+            int end = trimWhitespace(text, start, lineEnd);
+            position = lineEnd + 1;
+            if (start == end) {
+                continue;
+            }
+
+            if (end - start > maxChars) {
+                if (passageStart >= 0) {
+                    spans.add(new Span(passageStart, passageEnd));
+                    passageStart = -1;
+                }
+                splitParagraph(text, start, end, minChars, maxChars, spans);
+                continue;
+            }
+            if (passageStart >= 0 && end - passageStart > maxChars) {
+                spans.add(new Span(passageStart, passageEnd));
+                passageStart = -1;
+            }
+            if (passageStart < 0) {
+                passageStart = start;
+            }
+            passageEnd = end;
+            if (passageEnd - passageStart >= minChars && isBoundary(text, start, end)) {
+                spans.add(new Span(passageStart, passageEnd));
+                passageStart = -1;
+            }
+        }
+        if (passageStart >= 0) {
+            spans.add(new Span(passageStart, passageEnd));
+        }
+        return spans;
+    }
+
+    private static boolean isBoundary(String text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, BOUNDARY_ONE_IN) == 0;
+    }
+
+    /**
+     * Cut an overlong paragraph after the last sentence end that keeps each piece within maxChars
+     */
+    private static void splitParagraph(String text, int start, int end, int minChars, int maxChars, List<Span> spans) {
+        while (end - start > maxChars) {
+            int cut = -1;
+            for (int i = start + maxChars - 1; i >= start + minChars; i--) {
+                if (SENTENCE_ENDS.indexOf(text.charAt(i)) >= 0) {
+                    cut = i + 1;
+                    break;
+                }
+            }
+            if (cut < 0) {
+                cut = start + maxChars;
+                if (Character.isHighSurrogate(text.charAt(cut - 1))) {
+                    cut--;
+                }
+            }
+            spans.add(new Span(start, trimWhitespace(text, start, cut)));
+            start = skipWhitespace(text, cut, end);
+        }
+        if (start < end) {
+            spans.add(new Span(start, end));
+        }
+    }
+
+    private static int skipWhitespace(String text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimWhitespace(String text, int start, int end) {
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+}
@@ -1,7 +1,11 @@
 package com.graduate.novel.domain.recommendation;
 
+import com.graduate.novel.ai.service.EmbeddingVersionService;
 import com.graduate.novel.ai.service.SemanticSearchService;
+import com.graduate.novel.ai.service.StoryVectorTier;
 import com.graduate.novel.common.mapper.StoryMapper;
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+import com.graduate.novel.domain.embedding.StoryVectorRepository;
 import com.graduate.novel.domain.rating.RatingRepository;
 import com.graduate.novel.domain.story.Story;
 import com.graduate.novel.domain.story.StoryDto;
@@ -26,6 +30,9 @@ public class RecommendationService {
     private final StoryRepository storyRepository;
     private final RatingRepository ratingRepository;
     private final SemanticSearchService semanticSearchService;
+    private final StoryVectorTier storyVectorTier;
+    private final EmbeddingVersionService embeddingVersionService;
+    private final StoryVectorRepository storyVectorRepository;
     private final StoryMapper storyMapper;
 
     /**
@@ -48,7 +55,7 @@ public class RecommendationService {
     @Transactional(readOnly = true)
     public RecommendationDto getHybridRecommendationsWithExclusions(Long userId, int limit, Set<Long> excludeStoryIds) {
         int normalizedLimit = normalizeLimit(limit);
-        Set<Long> safeExcludeIds = excludeStoryIds != null ? excludeStoryIds : Collections.emptySet();
+        Set<Long> safeExcludeIds = withDuplicateStories(excludeStoryIds != null ? excludeStoryIds : Collections.emptySet());
         log.info("Generating hybrid recommendations for user {} with {} exclusions", userId, safeExcludeIds.size());
 
         // Combine multiple recommendation sources with weights
@@ -154,7 +161,7 @@ public class RecommendationService {
         int normalizedLimit = normalizeLimit(limit);
         log.info("Generating content-based recommendations for user: {}", userId);
 
-        Set<Long> excludeStoryIds = userPreferenceService.getUserInteractedStoryIds(userId);
+        Set<Long> excludeStoryIds = withDuplicateStories(userPreferenceService.getUserInteractedStoryIds(userId));
         List<Story> stories = getContentBasedRecommendationsInternal(userId, normalizedLimit, excludeStoryIds);
 
         List<StoryDto> storyDtos = stories.stream()
@@ -177,7 +184,7 @@ public class RecommendationService {
         int normalizedLimit = normalizeLimit(limit);
         log.info("Generating collaborative recommendations for user: {}", userId);
 
-        Set<Long> excludeStoryIds = userPreferenceService.getUserInteractedStoryIds(userId);
+        Set<Long> excludeStoryIds = withDuplicateStories(userPreferenceService.getUserInteractedStoryIds(userId));
         List<Story> stories = getCollaborativeRecommendationsInternal(userId, normalizedLimit, excludeStoryIds);
 
         List<StoryDto> storyDtos = stories.stream()
@@ -205,6 +212,7 @@ public class RecommendationService {
 
         Set<Long> excludeStoryIds = new HashSet<>();
         excludeStoryIds.add(storyId); // Exclude the source story itself
+        excludeStoryIds.addAll(storyRepository.findDuplicateStoryIds()); // Copies would only repeat other stories
 
         if (userId != null) {
             try {
@@ -217,14 +225,17 @@ public class RecommendationService {
         List<Story> similarStories = new ArrayList<>();
 
         // 1. Try semantic similarity first (if embeddings exist)
-        if (sourceStory.getEmbedding() != null && !sourceStory.getEmbedding().isEmpty()
-            && !sourceStory.getEmbedding().equals("[]")) {
+        EmbeddingModel model = embeddingVersionService.activeModel();
+        String sourceEmbedding = storyVectorRepository.findEmbedding(model.getId(), storyId).orElse(null);
+        if (sourceEmbedding != null && !sourceEmbedding.isEmpty() && !sourceEmbedding.equals("[]")) {
             try {
                 log.debug("Attempting semantic similarity search for story: {}", storyId);
-                List<Long> similarIds = storyRepository.findStoryIdsBySimilarity(
-                    sourceStory.getEmbedding(),
-                    normalizedLimit * 2
-                );
+                List<Long> similarIds = storyVectorTier.search(model, sourceEmbedding, normalizedLimit * 2)
+                    .orElseGet(() -> new ArrayList<>(storyVectorRepository.findStoryIdsBySimilarity(
+                        model,
+                        sourceEmbedding,
+                        normalizedLimit * 2
+                    )));
 
                 if (similarIds != null && !similarIds.isEmpty()) {
                     similarIds.removeIf(excludeStoryIds::contains);
@@ -388,6 +399,15 @@ public class RecommendationService {
         return stories;
     }
 
+    /**
+     * The exclusions plus stories flagged as copies of earlier stories
+     */
+    private Set<Long> withDuplicateStories(Set<Long> excludeStoryIds) {
+        Set<Long> excluded = new HashSet<>(excludeStoryIds);
+        excluded.addAll(storyRepository.findDuplicateStoryIds());
+        return excluded;
+    }
+
     private int normalizeLimit(int limit) {
         return Math.max(1, Math.min(limit, 50));
     }
@@ -1,6 +1,9 @@
 package com.graduate.novel.domain.recommendation.coldstart;
 
+import com.graduate.novel.ai.service.EmbeddingVersionService;
 import com.graduate.novel.common.mapper.StoryMapper;
+import com.graduate.novel.domain.embedding.StoryVectorRepository;
+import com.graduate.novel.domain.story.Story;
 import com.graduate.novel.domain.story.StoryDto;
 import com.graduate.novel.domain.story.StoryRepository;
 import lombok.RequiredArgsConstructor;
@@ -10,7 +13,9 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +29,8 @@ public class NewItemStrategy implements ColdStartStrategy {
 
     private final StoryRepository storyRepository;
     private final StoryMapper storyMapper;
+    private final StoryVectorRepository storyVectorRepository;
+    private final EmbeddingVersionService embeddingVersionService;
 
     // Stories created within this many days are considered "new"
     private static final int NEW_ITEM_DAYS = 14;
@@ -39,13 +46,17 @@ public class NewItemStrategy implements ColdStartStrategy {
             PageRequest.of(0, limit * 2, Sort.by("createdAt").descending())
         );
 
+        List<Long> newStoryIds = newStories.getContent().stream().map(Story::getId).toList();
+        Set<Long> embedded = newStoryIds.isEmpty() ? Set.of() : new HashSet<>(
+            storyVectorRepository.findStoryIdsWithEmbedding(embeddingVersionService.activeModel().getId(), newStoryIds));
+
         // Filter and prioritize by content features
         List<StoryDto> recommendations = newStories.getContent().stream()
             .filter(story -> story.getCreatedAt() != null && story.getCreatedAt().isAfter(since))
             // Prioritize stories with embeddings (better quality)
             .sorted((a, b) -> {
-                boolean aHasEmb = a.getEmbedding() != null && !a.getEmbedding().isEmpty();
-                boolean bHasEmb = b.getEmbedding() != null && !b.getEmbedding().isEmpty();
+                boolean aHasEmb = embedded.contains(a.getId());
+                boolean bHasEmb = embedded.contains(b.getId());
                 if (aHasEmb && !bHasEmb) return -1;
                 if (!aHasEmb && bHasEmb) return 1;
                 return 0;
@@ -0,0 +1,497 @@
+package com.graduate.novel.domain.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BM25 inverted index over chapter text, kept as immutable memory-mapped segment files in a
+ * local directory plus a manifest (segment list, deleted docs, and how far the index has read).
+ * <p>
+ * Each update writes one new segment; a re-indexed or removed chapter is marked deleted in its
+ * old segment. Small segments are merged in the background so a query touches only a few.
+ * Searches read an immutable snapshot and never block on updates; updates and merges are serialized.
+ * Snapshots are reference counted, and a segment file is only deleted once no snapshot uses it.
+ */
+@Slf4j
+public class ChapterIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final String MANIFEST = "manifest.json";
+
+    /**
+     * A chapter to (re)index. Blank text removes the chapter from the index.
+     */
+    public record Document(long chapterId, long storyId, String text) {
+    }
+
+    public record Hit(long chapterId, long storyId, float score) {
+    }
+
+    /**
+     * Position in the chapter table (by updated_at, then id) up to which the index is current
+     */
+    public record Watermark(LocalDateTime updatedAt, long chapterId) {
+        public static final Watermark INITIAL = new Watermark(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+    }
+
+    /**
+     * @param tombstoneId last chapter deletion applied (see {@link #remove}); 0 in manifests
+     *                    written before deletions were tracked
+     */
+    record Manifest(int nextSegmentId, String watermarkUpdatedAt, long watermarkChapterId, long tombstoneId,
+                    List<ManifestSegment> segments) {
+    }
+
+    record ManifestSegment(int id, String deleted) {
+    }
+
+    /**
+     * What a search sees. Never mutated once published; deleted bitsets are copied on write.
+     * The index holds one reference while the snapshot is current and each search one more;
+     * the snapshot holds a reference on each of its segments until its own count drops to 0.
+     */
+    private static final class Snapshot {
+        private final List<IndexSegment> segments;
+        private final List<BitSet> deleted;
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        Snapshot(List<IndexSegment> segments, List<BitSet> deleted) {
+            this.segments = List.copyOf(segments);
+            this.deleted = List.copyOf(deleted);
+            this.segments.forEach(IndexSegment::incRef);
+        }
+
+        List<IndexSegment> segments() {
+            return segments;
+        }
+
+        List<BitSet> deleted() {
+            return deleted;
+        }
+
+        long liveDocs() {
+            long live = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                live += segments.get(i).docCount() - deleted.get(i).cardinality();
+            }
+            return live;
+        }
+
+        boolean tryIncRef() {
+            int count;
+            do {
+                count = refs.get();
+                if (count <= 0) {
+                    return false; // released meanwhile; the caller reads the newer snapshot
+                }
+            } while (!refs.compareAndSet(count, count + 1));
+            return true;
+        }
+    }
+
+    private final Path directory;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile Snapshot snapshot;
+
+    // Writer state, guarded by this
+    private Watermark watermark;
+    private long tombstoneId;
+    private int nextSegmentId;
+    private final Map<Long, Long> locations = new HashMap<>(); // chapterId -> segmentId << 32 | doc
+
+    private ChapterIndex(Path directory) {
+        this.directory = directory;
+    }
+
+    public static ChapterIndex open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ChapterIndex index = new ChapterIndex(directory);
+        index.load();
+        return index;
+    }
+
+    /**
+     * Index a batch of chapters and advance the watermark, atomically: a crash before the
+     * manifest is written leaves the previous state, and the batch is simply read again.
+     */
+    public synchronized void update(List<Document> documents, Watermark newWatermark) throws IOException {
+        Map<Long, Document> latest = new LinkedHashMap<>();
+        documents.forEach(document -> latest.put(document.chapterId(), document));
+
+        Snapshot current = snapshot;
+        List<BitSet> deleted = new ArrayList<>(current.deleted());
+        Set<Integer> copied = new HashSet<>();
+        SegmentBuilder builder = new SegmentBuilder();
+        List<Long> added = new ArrayList<>();
+
+        for (Document document : latest.values()) {
+            Long location = locations.get(document.chapterId());
+            if (location != null) {
+                int segmentIndex = indexOfSegment(current, (int) (location >>> 32));
+                if (copied.add(segmentIndex)) {
+                    deleted.set(segmentIndex, (BitSet) deleted.get(segmentIndex).clone());
+                }
+                deleted.get(segmentIndex).set((int) (long) location);
+            }
+            if (document.text() != null && !document.text().isBlank()) {
+                builder.addDocument(document.chapterId(), document.storyId(), document.text());
+                added.add(document.chapterId());
+            }
+        }
+
+        List<IndexSegment> segments = new ArrayList<>(current.segments());
+        int segmentId = -1;
+        if (builder.docCount() > 0) {
+            segmentId = nextSegmentId;
+            builder.writeTo(segmentPath(segmentId));
+            segments.add(IndexSegment.open(segmentId, segmentPath(segmentId)));
+            deleted.add(new BitSet());
+        }
+
+        Snapshot next = new Snapshot(segments, deleted);
+        writeManifest(next, segmentId >= 0 ? segmentId + 1 : nextSegmentId, newWatermark, tombstoneId);
+
+        // Manifest is durable: publish
+        latest.keySet().forEach(locations::remove);
+        for (int doc = 0; doc < added.size(); doc++) {
+            locations.put(added.get(doc), pack(segmentId, doc));
+        }
+        if (segmentId >= 0) {
+            nextSegmentId = segmentId + 1;
+        }
+        watermark = newWatermark;
+        publish(next);
+    }
+
+    /**
+     * Remove deleted chapters and record the last deletion applied, atomically like {@link #update}.
+     * Chapters that are not in the index are ignored.
+     */
+    public synchronized void remove(List<Long> chapterIds, long newTombstoneId) throws IOException {
+        Snapshot current = snapshot;
+        List<BitSet> deleted = new ArrayList<>(current.deleted());
+        Set<Integer> copied = new HashSet<>();
+        for (Long chapterId : chapterIds) {
+            Long location = locations.get(chapterId);
+            if (location != null) {
+                int segmentIndex = indexOfSegment(current, (int) (location >>> 32));
+                if (copied.add(segmentIndex)) {
+                    deleted.set(segmentIndex, (BitSet) deleted.get(segmentIndex).clone());
+                }
+                deleted.get(segmentIndex).set((int) (long) location);
+            }
+        }
+
+        Snapshot next = new Snapshot(current.segments(), deleted);
+        writeManifest(next, nextSegmentId, watermark, newTombstoneId);
+
+        chapterIds.forEach(locations::remove);
+        tombstoneId = newTombstoneId;
+        publish(next);
+    }
+
+    /**
+     * Merge the smallest segments while there are more than maxSegments.
+     * A merged segment never exceeds maxMergeDocs live docs.
+     * @return true if a merge was done
+     */
+    public synchronized boolean mergeIfNeeded(int maxSegments, int maxMergeDocs) throws IOException {
+        Snapshot current = snapshot;
+        if (current.segments().size() <= maxSegments) {
+            return false;
+        }
+
+        List<Integer> bySize = new ArrayList<>();
+        for (int i = 0; i < current.segments().size(); i++) {
+            bySize.add(i);
+        }
+        bySize.sort(Comparator.comparingInt(i -> liveDocs(current, i)));
+
+        int wanted = Math.max(2, current.segments().size() - maxSegments + 1);
+        List<Integer> chosen = new ArrayList<>();
+        long mergedDocs = 0;
+        for (int i : bySize) {
+            if (chosen.size() == wanted || mergedDocs + liveDocs(current, i) > maxMergeDocs) {
+                break;
+            }
+            chosen.add(i);
+            mergedDocs += liveDocs(current, i);
+        }
+        if (chosen.size() < 2) {
+            return false;
+        }
+        chosen.sort(Comparator.naturalOrder());
+
+        List<IndexSegment> sources = chosen.stream().map(i -> current.segments().get(i)).toList();
+        int segmentId = nextSegmentId;
+        SegmentMerger.merge(sources, chosen.stream().map(i -> current.deleted().get(i)).toList(),
+                segmentPath(segmentId));
+        IndexSegment merged = IndexSegment.open(segmentId, segmentPath(segmentId));
+
+        List<IndexSegment> segments = new ArrayList<>();
+        List<BitSet> deleted = new ArrayList<>();
+        for (int i = 0; i < current.segments().size(); i++) {
+            if (!chosen.contains(i)) {
+                segments.add(current.segments().get(i));
+                deleted.add(current.deleted().get(i));
+            }
+        }
+        segments.add(merged);
+        deleted.add(new BitSet());
+
+        Snapshot next = new Snapshot(segments, deleted);
+        writeManifest(next, segmentId + 1, watermark, tombstoneId);
+
+        for (int doc = 0; doc < merged.docCount(); doc++) {
+            locations.put(merged.chapterId(doc), pack(segmentId, doc));
+        }
+        nextSegmentId = segmentId + 1;
+        // The source files are deleted once searches still reading older snapshots are done
+        publish(next);
+        log.info("Merged {} chapter index segments into segment {} ({} docs)", sources.size(), segmentId, mergedDocs);
+        return true;
+    }
+
+    /**
+     * Top chapters by BM25 score for any of the terms (disjunctive query)
+     */
+    public List<Hit> search(List<String> terms, int limit) {
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = acquire();
+        try {
+            return search(current, terms, limit);
+        } finally {
+            release(current);
+        }
+    }
+
+    private static List<Hit> search(Snapshot current, List<String> terms, int limit) {
+        long liveDocs = current.liveDocs();
+        if (liveDocs == 0) {
+            return List.of();
+        }
+
+        long totalDocs = 0;
+        long totalLength = 0;
+        for (IndexSegment segment : current.segments()) {
+            totalDocs += segment.docCount();
+            totalLength += segment.totalLength();
+        }
+        float avgDocLength = Math.max(1f, (float) totalLength / totalDocs);
+
+        int[][] ords = new int[current.segments().size()][terms.size()];
+        float[] idf = new float[terms.size()];
+        for (int t = 0; t < terms.size(); t++) {
+            long docFreq = 0;
+            for (int s = 0; s < current.segments().size(); s++) {
+                ords[s][t] = current.segments().get(s).findTerm(terms.get(t));
+                if (ords[s][t] >= 0) {
+                    docFreq += current.segments().get(s).docFreq(ords[s][t]);
+                }
+            }
+            idf[t] = (float) Math.log(1 + (liveDocs - docFreq + 0.5) / (docFreq + 0.5));
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::score));
+        for (int s = 0; s < current.segments().size(); s++) {
+            scoreSegment(current.segments().get(s), current.deleted().get(s), ords[s], idf, avgDocLength, top, limit);
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+        return hits;
+    }
+
+    public synchronized Watermark watermark() {
+        return watermark;
+    }
+
+    /**
+     * Last chapter deletion applied, 0 if none
+     */
+    public synchronized long tombstoneId() {
+        return tombstoneId;
+    }
+
+    public int segmentCount() {
+        return snapshot.segments().size();
+    }
+
+    public long docCount() {
+        return snapshot.liveDocs();
+    }
+
+    private static void scoreSegment(IndexSegment segment, BitSet deleted, int[] ords, float[] idf,
+                                     float avgDocLength, PriorityQueue<Hit> top, int limit) {
+        float[] scores = null;
+        int[] touched = null;
+        int touchedCount = 0;
+
+        for (int t = 0; t < ords.length; t++) {
+            if (ords[t] < 0) {
+                continue;
+            }
+            if (scores == null) {
+                scores = new float[segment.docCount()];
+                touched = new int[segment.docCount()];
+            }
+            IndexSegment.Postings postings = segment.postings(ords[t]);
+            while (postings.next()) {
+                int doc = postings.doc();
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                float freq = postings.freq();
+                float norm = K1 * (1 - B + B * segment.docLength(doc) / avgDocLength);
+                if (scores[doc] == 0) {
+                    touched[touchedCount++] = doc;
+                }
+                scores[doc] += idf[t] * freq * (K1 + 1) / (freq + norm);
+            }
+        }
+
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            if (top.size() < limit || scores[doc] > top.peek().score()) {
+                top.add(new Hit(segment.chapterId(doc), segment.storyId(doc), scores[doc]));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        Path manifestPath = directory.resolve(MANIFEST);
+        List<IndexSegment> segments = new ArrayList<>();
+        List<BitSet> deleted = new ArrayList<>();
+        Set<Path> live = new HashSet<>(Set.of(manifestPath));
+
+        if (Files.exists(manifestPath)) {
+            Manifest manifest = objectMapper.readValue(manifestPath.toFile(), Manifest.class);
+            for (ManifestSegment entry : manifest.segments()) {
+                IndexSegment segment = IndexSegment.open(entry.id(), segmentPath(entry.id()));
+                BitSet segmentDeleted = BitSet.valueOf(Base64.getDecoder().decode(entry.deleted()));
+                segments.add(segment);
+                deleted.add(segmentDeleted);
+                live.add(segment.path());
+                for (int doc = 0; doc < segment.docCount(); doc++) {
+                    if (!segmentDeleted.get(doc)) {
+                        locations.put(segment.chapterId(doc), pack(segment.id(), doc));
+                    }
+                }
+            }
+            nextSegmentId = manifest.nextSegmentId();
+            watermark = new Watermark(LocalDateTime.parse(manifest.watermarkUpdatedAt()), manifest.watermarkChapterId());
+            tombstoneId = manifest.tombstoneId();
+        } else {
+            nextSegmentId = 1;
+            watermark = Watermark.INITIAL;
+        }
+        snapshot = new Snapshot(segments, deleted);
+
+        // Leftovers of an interrupted write or merge
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (!live.contains(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        log.info("Opened chapter index at {}: {} segments, {} chapters, watermark {}",
+                directory, segments.size(), snapshot.liveDocs(), watermark);
+    }
+
+    private Snapshot acquire() {
+        while (true) {
+            Snapshot current = snapshot;
+            if (current.tryIncRef()) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Drop a reference; the last one releases the snapshot's segments, and a segment no
+     * snapshot uses any more (merged away) has its file deleted
+     */
+    private void release(Snapshot released) {
+        if (released.refs.decrementAndGet() > 0) {
+            return;
+        }
+        for (IndexSegment segment : released.segments()) {
+            if (segment.decRef()) {
+                try {
+                    Files.deleteIfExists(segment.path());
+                } catch (IOException e) {
+                    // Removed as a leftover the next time the index is opened
+                    log.warn("Could not delete chapter index segment {}: {}", segment.path(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Caller holds the monitor
+    private void publish(Snapshot next) {
+        Snapshot previous = snapshot;
+        snapshot = next;
+        release(previous);
+    }
+
+    private void writeManifest(Snapshot next, int nextId, Watermark newWatermark, long newTombstoneId) throws IOException {
+        List<ManifestSegment> entries = new ArrayList<>();
+        for (int i = 0; i < next.segments().size(); i++) {
+            entries.add(new ManifestSegment(next.segments().get(i).id(),
+                    Base64.getEncoder().encodeToString(next.deleted().get(i).toByteArray())));
+        }
+        Manifest manifest = new Manifest(nextId, newWatermark.updatedAt().toString(), newWatermark.chapterId(),
+                newTombstoneId, entries);
+
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        objectMapper.writeValue(temp.toFile(), manifest);
+        Files.move(temp, directory.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path segmentPath(int segmentId) {
+        return directory.resolve(String.format("seg-%08d.bin", segmentId));
+    }
+
+    private static int indexOfSegment(Snapshot snapshot, int segmentId) {
+        for (int i = 0; i < snapshot.segments().size(); i++) {
+            if (snapshot.segments().get(i).id() == segmentId) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Unknown chapter index segment " + segmentId);
+    }
+
+    private static int liveDocs(Snapshot snapshot, int segmentIndex) {
+        return snapshot.segments().get(segmentIndex).docCount() - snapshot.deleted().get(segmentIndex).cardinality();
+    }
+
+    private static long pack(int segmentId, int doc) {
+        return ((long) segmentId << 32) | (doc & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,19 @@
+package com.graduate.novel.domain.search;
+
+import java.util.List;
+
+/**
+ * One chapter matching a full-text query
+ * @param snippet    text around the best match
+ * @param highlights [start, end) character ranges of matched terms within the snippet
+ */
+public record ChapterSearchHit(
+    Long storyId,
+    String storyTitle,
+    Long chapterId,
+    Integer chapterIndex,
+    String chapterTitle,
+    float score,
+    String snippet,
+    List<int[]> highlights
+) {}
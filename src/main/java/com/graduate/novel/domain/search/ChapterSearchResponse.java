@@ -0,0 +1,10 @@
+package com.graduate.novel.domain.search;
+
+import java.util.List;
+
+public record ChapterSearchResponse(
+    String query,
+    List<ChapterSearchHit> hits,
+    long indexedChapters,
+    long tookMs
+) {}
@@ -0,0 +1,192 @@
+package com.graduate.novel.domain.search;
+
+import com.graduate.novel.common.exception.BadRequestException;
+import com.graduate.novel.common.text.TextTokenizer;
+import com.graduate.novel.config.ChapterSearchProperties;
+import com.graduate.novel.domain.chapter.Chapter;
+import com.graduate.novel.domain.chapter.ChapterIndexSource;
+import com.graduate.novel.domain.chapter.ChapterRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search inside chapters (translated and raw text) with BM25 ranking.
+ * The index lives on this node's local disk and follows the database incrementally:
+ * every refresh reads the chapters changed since the last one (crawled, translated, edited).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChapterSearchService {
+
+    private final ChapterSearchProperties properties;
+    private final ChapterRepository chapterRepository;
+    private final ChapterTombstoneRepository tombstoneRepository;
+
+    private volatile ChapterIndex index;
+
+    @PostConstruct
+    void openIndex() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            index = ChapterIndex.open(Path.of(properties.getIndexDir()));
+        } catch (IOException e) {
+            // Search is unavailable but the application still starts; the scheduler retries
+            log.error("Could not open chapter index at {}: {}", properties.getIndexDir(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Index chapters changed and drop chapters deleted since the last refresh, then merge
+     * segments if there are too many
+     * @return number of chapters indexed or removed
+     */
+    public int refresh() throws IOException {
+        if (index == null) {
+            openIndex();
+            if (index == null) {
+                return 0;
+            }
+        }
+
+        // Rows of transactions still open carry an earlier updated_at than their commit; stay behind them
+        LocalDateTime before = LocalDateTime.now().minusSeconds(properties.getCommitLagSeconds());
+        int indexed = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRefresh(); batch++) {
+            ChapterIndex.Watermark watermark = index.watermark();
+            List<ChapterIndexSource> changed = chapterRepository.findChangedForIndexing(
+                    watermark.updatedAt(), watermark.chapterId(), before,
+                    PageRequest.of(0, properties.getRefreshBatchSize()));
+            if (changed.isEmpty()) {
+                break;
+            }
+
+            List<ChapterIndex.Document> documents = changed.stream()
+                    .map(source -> new ChapterIndex.Document(source.chapterId(), source.storyId(), indexText(source)))
+                    .toList();
+            ChapterIndexSource last = changed.get(changed.size() - 1);
+            index.update(documents, new ChapterIndex.Watermark(last.updatedAt(), last.chapterId()));
+            indexed += changed.size();
+
+            if (changed.size() < properties.getRefreshBatchSize()) {
+                break;
+            }
+        }
+
+        indexed += removeDeleted(before);
+
+        while (index.mergeIfNeeded(properties.getMaxSegments(), properties.getMaxMergeDocs())) {
+            // Keep merging until the segment count is within bounds
+        }
+
+        if (indexed > 0) {
+            log.info("Chapter index refreshed: {} chapters indexed or removed, {} chapters in {} segments",
+                    indexed, index.docCount(), index.segmentCount());
+        }
+        return indexed;
+    }
+
+    /**
+     * Drop chapters deleted since the last refresh, and prune tombstones every index has had
+     * time to read
+     */
+    private int removeDeleted(LocalDateTime before) throws IOException {
+        int removed = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRefresh(); batch++) {
+            List<ChapterTombstone> tombstones = tombstoneRepository.findByIdGreaterThanAndDeletedAtBeforeOrderByIdAsc(
+                    index.tombstoneId(), before, PageRequest.of(0, properties.getRefreshBatchSize()));
+            if (tombstones.isEmpty()) {
+                break;
+            }
+            index.remove(tombstones.stream().map(ChapterTombstone::getChapterId).toList(),
+                    tombstones.get(tombstones.size() - 1).getId());
+            removed += tombstones.size();
+            if (tombstones.size() < properties.getRefreshBatchSize()) {
+                break;
+            }
+        }
+        tombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(properties.getTombstoneRetentionDays()));
+        return removed;
+    }
+
+    /**
+     * Search chapter text. Matches in either the translated or the raw text count.
+     */
+    @Transactional(readOnly = true)
+    public ChapterSearchResponse search(String query, int limit) {
+        long start = System.currentTimeMillis();
+        if (index == null) {
+            throw new BadRequestException("Chapter search is not available on this server");
+        }
+
+        List<String> terms = TextTokenizer.queryTerms(query);
+        if (terms.isEmpty()) {
+            return new ChapterSearchResponse(query, List.of(), index.docCount(), 0);
+        }
+
+        List<ChapterIndex.Hit> hits = index.search(terms, Math.min(Math.max(limit, 1), properties.getMaxResults()));
+        Map<Long, Chapter> chapters = chapterRepository.findWithStoryByIdIn(
+                        hits.stream().map(ChapterIndex.Hit::chapterId).toList()).stream()
+                .collect(Collectors.toMap(Chapter::getId, Function.identity()));
+
+        Set<String> termSet = new HashSet<>(terms);
+        List<ChapterSearchHit> results = new ArrayList<>();
+        for (ChapterIndex.Hit hit : hits) {
+            Chapter chapter = chapters.get(hit.chapterId());
+            if (chapter == null) {
+                // Deleted after the last refresh
+                continue;
+            }
+            SnippetBuilder.Snippet snippet = bestSnippet(chapter, termSet);
+            results.add(new ChapterSearchHit(
+                    chapter.getStory().getId(),
+                    chapter.getStory().getTitle(),
+                    chapter.getId(),
+                    chapter.getChapterIndex(),
+                    chapter.getTitle(),
+                    hit.score(),
+                    snippet.text(),
+                    snippet.highlights()));
+        }
+
+        return new ChapterSearchResponse(query, results, index.docCount(), System.currentTimeMillis() - start);
+    }
+
+    private SnippetBuilder.Snippet bestSnippet(Chapter chapter, Set<String> terms) {
+        SnippetBuilder.Snippet translated = SnippetBuilder.build(chapter.getTranslatedContent(), terms,
+                properties.getSnippetChars());
+        if (translated.matches() > 0) {
+            return translated;
+        }
+        SnippetBuilder.Snippet raw = SnippetBuilder.build(chapter.getRawContent(), terms, properties.getSnippetChars());
+        return raw.matches() > 0 || translated.text().isEmpty() ? raw : translated;
+    }
+
+    private static String indexText(ChapterIndexSource source) {
+        StringBuilder text = new StringBuilder();
+        for (String part : new String[]{source.translatedTitle(), source.rawTitle(),
+                source.translatedContent(), source.rawContent()}) {
+            if (part != null && !part.isBlank()) {
+                text.append(part).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.graduate.novel.domain.search;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A deleted chapter, recorded by a database trigger (also for chapters removed with their story)
+ * so every node can drop it from its local full-text index. Never written by the application.
+ */
+@Entity
+@Table(name = "chapter_tombstones")
+@Getter
+@NoArgsConstructor
+public class ChapterTombstone {
+
+    @Id
+    private Long id;
+
+    @Column(name = "chapter_id", nullable = false)
+    private Long chapterId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
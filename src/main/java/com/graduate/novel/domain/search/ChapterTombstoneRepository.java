@@ -0,0 +1,25 @@
+package com.graduate.novel.domain.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChapterTombstoneRepository extends JpaRepository<ChapterTombstone, Long> {
+
+    // Deletions after the index's last one, committed long enough ago that none can still appear before them
+    List<ChapterTombstone> findByIdGreaterThanAndDeletedAtBeforeOrderByIdAsc(Long id, LocalDateTime before,
+                                                                             Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ChapterTombstone t WHERE t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,190 @@
+package com.graduate.novel.domain.search;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only view of a segment file written by {@link SegmentWriter}, memory-mapped so the
+ * OS page cache holds the hot parts and the heap holds nothing but this object.
+ * Thread-safe: all reads use absolute positions. Counts the index snapshots that use it, so
+ * its file is only deleted when none does.
+ */
+final class IndexSegment {
+
+    private final int id;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int docCount;
+    private final int termCount;
+    private final long totalLength;
+    private final int postingsOffset;
+    private final int termBytesOffset;
+    private final int termIndexOffset;
+    private final AtomicInteger refs = new AtomicInteger();
+
+    private IndexSegment(int id, Path path, MappedByteBuffer buffer) throws IOException {
+        this.id = id;
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != SegmentWriter.MAGIC || buffer.getInt(4) != SegmentWriter.VERSION) {
+            throw new IOException("Not a chapter index segment: " + path);
+        }
+        this.docCount = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.totalLength = buffer.getLong(16);
+        this.postingsOffset = (int) buffer.getLong(24);
+        this.termBytesOffset = (int) buffer.getLong(32);
+        this.termIndexOffset = (int) buffer.getLong(40);
+    }
+
+    static IndexSegment open(int id, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new IndexSegment(id, path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    void incRef() {
+        refs.incrementAndGet();
+    }
+
+    /**
+     * @return true if no snapshot uses this segment any more
+     */
+    boolean decRef() {
+        return refs.decrementAndGet() == 0;
+    }
+
+    int id() {
+        return id;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    long chapterId(int doc) {
+        return buffer.getLong(SegmentWriter.HEADER_BYTES + doc * SegmentWriter.DOC_BYTES);
+    }
+
+    long storyId(int doc) {
+        return buffer.getLong(SegmentWriter.HEADER_BYTES + doc * SegmentWriter.DOC_BYTES + 8);
+    }
+
+    int docLength(int doc) {
+        return buffer.getInt(SegmentWriter.HEADER_BYTES + doc * SegmentWriter.DOC_BYTES + 16);
+    }
+
+    byte[] term(int ord) {
+        int entry = termIndexOffset + ord * SegmentWriter.TERM_ENTRY_BYTES;
+        byte[] term = new byte[buffer.getInt(entry + 4)];
+        buffer.get(termBytesOffset + buffer.getInt(entry), term);
+        return term;
+    }
+
+    int docFreq(int ord) {
+        return buffer.getInt(termIndexOffset + ord * SegmentWriter.TERM_ENTRY_BYTES + 16);
+    }
+
+    /**
+     * Ordinal of a term, or -1 if this segment does not contain it
+     */
+    int findTerm(String term) {
+        byte[] key = term.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareTerm(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    Postings postings(int ord) {
+        int entry = termIndexOffset + ord * SegmentWriter.TERM_ENTRY_BYTES;
+        return new Postings(postingsOffset + (int) buffer.getLong(entry + 8), buffer.getInt(entry + 16));
+    }
+
+    private int compareTerm(int ord, byte[] key) {
+        int entry = termIndexOffset + ord * SegmentWriter.TERM_ENTRY_BYTES;
+        int start = termBytesOffset + buffer.getInt(entry);
+        int length = buffer.getInt(entry + 4);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(start + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * Cursor over one term's postings: call {@link #next()} before reading doc/freq
+     */
+    final class Postings {
+        private int position;
+        private int remaining;
+        private int doc = 0;
+        private int freq;
+
+        private Postings(int position, int docFreq) {
+            this.position = position;
+            this.remaining = docFreq;
+        }
+
+        boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            doc += readVarInt();
+            freq = readVarInt();
+            return true;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int freq() {
+            return freq;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
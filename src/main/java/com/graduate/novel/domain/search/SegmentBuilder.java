@@ -0,0 +1,98 @@
+package com.graduate.novel.domain.search;
+
+import com.graduate.novel.common.text.TermTable;
+import com.graduate.novel.common.text.TextTokenizer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects freshly indexed chapters in memory and writes them out as one new segment
+ */
+final class SegmentBuilder {
+
+    private final List<long[]> docs = new ArrayList<>(); // chapterId, storyId, length
+    /** Term ids index {@link #postings} */
+    private final TermTable terms = new TermTable();
+    private final List<PostingsBuffer> postings = new ArrayList<>();
+    /** Term frequencies of the document being added; reused */
+    private final TermTable docTerms = new TermTable();
+
+    /**
+     * Tokenize and add a document; its doc number is the order of addition
+     */
+    void addDocument(long chapterId, long storyId, CharSequence text) {
+        int doc = docs.size();
+        docTerms.clear();
+        TextTokenizer.forEachToken(text, TextTokenizer.CjkMode.BIGRAMS, (term, start, end) -> docTerms.add(term));
+
+        int[] length = new int[1];
+        docTerms.forEach((term, freq) -> {
+            int id = terms.add(term);
+            if (id == postings.size()) {
+                postings.add(new PostingsBuffer());
+            }
+            postings.get(id).add(doc, freq);
+            length[0] += freq;
+        });
+        docs.add(new long[]{chapterId, storyId, length[0]});
+    }
+
+    int docCount() {
+        return docs.size();
+    }
+
+    void writeTo(Path path) throws IOException {
+        List<byte[]> sortedTerms = new ArrayList<>(terms.size());
+        List<PostingsBuffer> sortedPostings = new ArrayList<>(terms.size());
+        Integer[] order = new Integer[terms.size()];
+        byte[][] utf8 = new byte[terms.size()][];
+        for (int id = 0; id < order.length; id++) {
+            order[id] = id;
+            utf8[id] = terms.term(id).getBytes(StandardCharsets.UTF_8);
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(utf8[a], utf8[b]));
+        for (Integer id : order) {
+            sortedTerms.add(utf8[id]);
+            sortedPostings.add(postings.get(id));
+        }
+
+        try (SegmentWriter writer = new SegmentWriter(path)) {
+            for (long[] doc : docs) {
+                writer.addDoc(doc[0], doc[1], (int) doc[2]);
+            }
+            for (int i = 0; i < sortedTerms.size(); i++) {
+                PostingsBuffer buffer = sortedPostings.get(i);
+                writer.addTerm(sortedTerms.get(i), buffer.docs, buffer.freqs, buffer.size);
+            }
+            writer.finish();
+        }
+    }
+
+    /**
+     * Growable doc/frequency arrays for one term; docs arrive in ascending order
+     */
+    static final class PostingsBuffer {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size = 0;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.graduate.novel.domain.search;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges segments into one, dropping deleted docs. Terms are streamed in sorted order
+ * (k-way merge over the segments' sorted dictionaries), so memory use is one term's postings.
+ */
+final class SegmentMerger {
+
+    private SegmentMerger() {
+    }
+
+    /**
+     * @param segments segments to merge, oldest first
+     * @param deleted  deleted docs of each segment (same order)
+     */
+    static void merge(List<IndexSegment> segments, List<BitSet> deleted, Path path) throws IOException {
+        // Old doc -> new doc per segment (-1 for deleted); docs keep their relative order
+        int[][] docMaps = new int[segments.size()][];
+
+        try (SegmentWriter writer = new SegmentWriter(path)) {
+            int nextDoc = 0;
+            for (int s = 0; s < segments.size(); s++) {
+                IndexSegment segment = segments.get(s);
+                docMaps[s] = new int[segment.docCount()];
+                for (int doc = 0; doc < segment.docCount(); doc++) {
+                    if (deleted.get(s).get(doc)) {
+                        docMaps[s][doc] = -1;
+                    } else {
+                        docMaps[s][doc] = nextDoc++;
+                        writer.addDoc(segment.chapterId(doc), segment.storyId(doc), segment.docLength(doc));
+                    }
+                }
+            }
+
+            PriorityQueue<TermCursor> queue = new PriorityQueue<>();
+            for (int s = 0; s < segments.size(); s++) {
+                TermCursor cursor = new TermCursor(s, segments.get(s));
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+
+            SegmentBuilder.PostingsBuffer merged = new SegmentBuilder.PostingsBuffer();
+            while (!queue.isEmpty()) {
+                byte[] term = queue.peek().term;
+                merged.clear();
+                // Cursors pop in segment order for equal terms, so new doc numbers stay ascending
+                while (!queue.isEmpty() && Arrays.equals(queue.peek().term, term)) {
+                    TermCursor cursor = queue.poll();
+                    IndexSegment.Postings postings = cursor.segment.postings(cursor.ord);
+                    while (postings.next()) {
+                        int newDoc = docMaps[cursor.segmentIndex][postings.doc()];
+                        if (newDoc >= 0) {
+                            merged.add(newDoc, postings.freq());
+                        }
+                    }
+                    if (cursor.advance()) {
+                        queue.add(cursor);
+                    }
+                }
+                if (merged.size > 0) {
+                    writer.addTerm(term, merged.docs, merged.freqs, merged.size);
+                }
+            }
+            writer.finish();
+        }
+    }
+
+    private static final class TermCursor implements Comparable<TermCursor> {
+        private final int segmentIndex;
+        private final IndexSegment segment;
+        private int ord = -1;
+        private byte[] term;
+
+        TermCursor(int segmentIndex, IndexSegment segment) {
+            this.segmentIndex = segmentIndex;
+            this.segment = segment;
+        }
+
+        boolean advance() {
+            if (++ord >= segment.termCount()) {
+                return false;
+            }
+            term = segment.term(ord);
+            return true;
+        }
+
+        @Override
+        public int compareTo(TermCursor other) {
+            int cmp = Arrays.compareUnsigned(term, other.term);
+            return cmp != 0 ? cmp : Integer.compare(segmentIndex, other.segmentIndex);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.graduate.novel.domain.search;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes one immutable segment file (read back by {@link IndexSegment}).
+ * <pre>
+ * header   magic, version, docCount, termCount, totalLength, section offsets
+ * docs     docCount x (chapterId long, storyId long, length int)
+ * postings per term: docFreq x (doc delta varint, term frequency varint)
+ * terms    UTF-8 term bytes, back to back
+ * termIdx  termCount x (term start int, term length int, postings start long, docFreq int),
+ *          sorted by unsigned UTF-8 bytes so lookups are a binary search
+ * </pre>
+ * Docs must all be added before the first term, and terms in sorted order.
+ * The file is written under a temporary name and moved into place by {@link #finish()}.
+ */
+final class SegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x424D3235; // "BM25"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 48;
+    static final int DOC_BYTES = 20;
+    static final int TERM_ENTRY_BYTES = 20;
+
+    private final Path path;
+    private final Path tempPath;
+    private final DataOutputStream out;
+
+    private int docCount = 0;
+    private long totalLength = 0;
+    private long postingsOffset = -1;
+    private long postingsBytes = 0;
+    private final List<byte[]> terms = new ArrayList<>();
+    private final List<long[]> termEntries = new ArrayList<>(); // postings start, docFreq
+
+    SegmentWriter(Path path) throws IOException {
+        this.path = path;
+        this.tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath), 1 << 16));
+        out.write(new byte[HEADER_BYTES]);
+    }
+
+    void addDoc(long chapterId, long storyId, int length) throws IOException {
+        if (postingsOffset >= 0) {
+            throw new IllegalStateException("Docs must be added before terms");
+        }
+        out.writeLong(chapterId);
+        out.writeLong(storyId);
+        out.writeInt(length);
+        docCount++;
+        totalLength += length;
+    }
+
+    /**
+     * Add a term with its postings (docs ascending, within [0, docCount))
+     */
+    void addTerm(byte[] term, int[] docs, int[] freqs, int count) throws IOException {
+        if (postingsOffset < 0) {
+            postingsOffset = HEADER_BYTES + (long) docCount * DOC_BYTES;
+        }
+        terms.add(term);
+        termEntries.add(new long[]{postingsBytes, count});
+
+        int previousDoc = 0;
+        for (int i = 0; i < count; i++) {
+            postingsBytes += writeVarInt(docs[i] - previousDoc);
+            postingsBytes += writeVarInt(freqs[i]);
+            previousDoc = docs[i];
+        }
+    }
+
+    /**
+     * Write the term dictionary, fill in the header and move the file into place
+     */
+    void finish() throws IOException {
+        if (postingsOffset < 0) {
+            postingsOffset = HEADER_BYTES + (long) docCount * DOC_BYTES;
+        }
+        long termBytesOffset = postingsOffset + postingsBytes;
+        int termBytes = 0;
+        for (byte[] term : terms) {
+            out.write(term);
+            termBytes += term.length;
+        }
+        long termIndexOffset = termBytesOffset + termBytes;
+
+        int termStart = 0;
+        for (int i = 0; i < terms.size(); i++) {
+            out.writeInt(termStart);
+            out.writeInt(terms.get(i).length);
+            out.writeLong(termEntries.get(i)[0]);
+            out.writeInt((int) termEntries.get(i)[1]);
+            termStart += terms.get(i).length;
+        }
+        out.close();
+
+        if (termIndexOffset + (long) terms.size() * TERM_ENTRY_BYTES > Integer.MAX_VALUE) {
+            Files.deleteIfExists(tempPath);
+            throw new IOException("Segment exceeds 2 GB; lower app.chapter-search.max-merge-docs");
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(docCount).putInt(terms.size())
+                .putLong(totalLength).putLong(postingsOffset).putLong(termBytesOffset).putLong(termIndexOffset);
+        header.flip();
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+        Files.deleteIfExists(tempPath);
+    }
+
+    private int writeVarInt(int value) throws IOException {
+        int bytes = 1;
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+            bytes++;
+        }
+        out.writeByte(value);
+        return bytes;
+    }
+}
@@ -0,0 +1,79 @@
+package com.graduate.novel.domain.search;
+
+import com.graduate.novel.common.text.TermTable;
+import com.graduate.novel.common.text.TextTokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Picks the window of a chapter with the most query term matches
+ */
+final class SnippetBuilder {
+
+    record Snippet(String text, List<int[]> highlights, int matches) {
+    }
+
+    private SnippetBuilder() {
+    }
+
+    /**
+     * @return the best window, or a snippet with zero matches (the start of the text) if none match
+     */
+    static Snippet build(String text, Set<String> queryTerms, int maxChars) {
+        if (text == null || text.isEmpty()) {
+            return new Snippet("", List.of(), 0);
+        }
+
+        TermTable wanted = new TermTable();
+        queryTerms.forEach(wanted::add);
+        // Offsets {start, end} of the tokens that are query terms
+        List<int[]> matches = new ArrayList<>();
+        TextTokenizer.forEachToken(text, TextTokenizer.CjkMode.BIGRAMS, (term, start, end) -> {
+            if (wanted.indexOf(term) >= 0) {
+                matches.add(new int[]{start, end});
+            }
+        });
+        if (matches.isEmpty()) {
+            return new Snippet(text.substring(0, Math.min(maxChars, text.length())).strip(), List.of(), 0);
+        }
+
+        // Sliding window over the matches: the most matches starting within maxChars
+        int bestFirst = 0;
+        int bestCount = 0;
+        int last = 0;
+        for (int first = 0; first < matches.size(); first++) {
+            last = Math.max(last, first);
+            while (last + 1 < matches.size() && matches.get(last + 1)[1] - matches.get(first)[0] <= maxChars) {
+                last++;
+            }
+            if (last - first + 1 > bestCount) {
+                bestCount = last - first + 1;
+                bestFirst = first;
+            }
+        }
+
+        int matchStart = matches.get(bestFirst)[0];
+        int matchEnd = matches.get(bestFirst + bestCount - 1)[1];
+        // Center the matched span in the window
+        int start = Math.max(0, matchStart - Math.max(0, maxChars - (matchEnd - matchStart)) / 2);
+        int end = Math.min(text.length(), start + maxChars);
+        start = Math.max(0, end - maxChars);
+
+        List<int[]> highlights = new ArrayList<>();
+        for (int i = bestFirst; i < bestFirst + bestCount; i++) {
+            int[] match = matches.get(i);
+            if (match[0] >= start && match[1] <= end) {
+                int[] previous = highlights.isEmpty() ? null : highlights.get(highlights.size() - 1);
+                // Overlapping CJK bigrams merge into one highlight
+                if (previous != null && match[0] - start <= previous[1]) {
+                    previous[1] = Math.max(previous[1], match[1] - start);
+                } else {
+                    highlights.add(new int[]{match[0] - start, match[1] - start});
+                }
+            }
+        }
+        return new Snippet(text.substring(start, end), highlights, bestCount);
+    }
+}
@@ -0,0 +1,8 @@
+package com.graduate.novel.domain.story;
+
+/**
+ * A story flagged as a copy of an earlier one
+ */
+public record DuplicateStory(Long storyId, String title, String sourceUrl,
+                             Long duplicateOfStoryId, String duplicateOfTitle, String duplicateOfSourceUrl) {
+}
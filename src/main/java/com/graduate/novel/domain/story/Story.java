@@ -52,12 +52,6 @@ public class Story extends BaseEntity {
     @Column(name = "cover_image_url", columnDefinition = "TEXT")
     private String coverImageUrl;
 
-    // PGVector embedding - stored as String in format "[0.1,0.2,...]" which PostgreSQL casts to vector
-    // Using TEXT columnDefinition and marking as non-insertable/updatable to avoid Hibernate casting issues
-    // Use StoryRepository.updateEmbedding() to update this field with proper CAST
-    @Column(name = "embedding", columnDefinition = "TEXT", nullable = true, insertable = false, updatable = false)
-    private String embedding;
-
     @Column(name = "source_url", columnDefinition = "TEXT")
     private String sourceUrl;
 
@@ -96,6 +90,14 @@ public class Story extends BaseEntity {
     @Builder.Default
     private StoryStatus status = StoryStatus.PUBLISHED;
 
+    // Union of its chapters' MinHash signatures (see MinHash), maintained by DuplicateDetectionService
+    @Column(name = "minhash")
+    private byte[] minhash;
+
+    // Earlier story whose chapters this one mostly repeats (a re-upload or mirror)
+    @Column(name = "duplicate_of_story_id")
+    private Long duplicateOfStoryId;
+
     @PrePersist
     protected void onCreate() {
         if (sourceSite == null) {
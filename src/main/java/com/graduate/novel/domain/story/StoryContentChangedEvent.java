@@ -0,0 +1,8 @@
+package com.graduate.novel.domain.story;
+
+/**
+ * Published when a story's title, author or description changes, i.e. the text its embedding is
+ * made from. Listeners that act on the database should run after the transaction commits.
+ */
+public record StoryContentChangedEvent(Long storyId) {
+}
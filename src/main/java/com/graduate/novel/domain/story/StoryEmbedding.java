@@ -0,0 +1,6 @@
+package com.graduate.novel.domain.story;
+
+/**
+ * A story's embedding in pgvector text form ("[0.1,0.2,...]"), without loading the entity
+ */
+public record StoryEmbedding(Long id, String embedding) {}
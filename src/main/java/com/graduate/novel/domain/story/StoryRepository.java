@@ -25,28 +25,60 @@ public interface StoryRepository extends JpaRepository<Story, Long> {
     List<Story> findBySourceSite(String sourceSite);
     List<Story> findBySourceUrl(String sourceUrl);
 
-    // Find stories without embeddings
-    @Query("SELECT s FROM Story s WHERE s.embedding IS NULL")
-    List<Story> findStoriesWithoutEmbedding();
+    // Story text in id order, for streaming over the whole corpus page by page
+    @Query("SELECT new com.graduate.novel.domain.story.StoryText(s.id, s.title, s.authorName, s.description) " +
+           "FROM Story s WHERE s.id > :afterId ORDER BY s.id ASC")
+    List<StoryText> findTextsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Find stories without an embedding under the given model
+    @Query("SELECT s FROM Story s WHERE NOT EXISTS " +
+           "(SELECT 1 FROM StoryVector v WHERE v.id.modelId = :modelId AND v.id.storyId = s.id)")
+    List<Story> findStoriesWithoutEmbedding(@Param("modelId") Long modelId);
+
+    // Full-text search over title, author and description ('simple' config: no stemming, any language).
+    // Exact title/author matches come first, then ts_rank with title and author weighted above the description.
+    // The WHERE expressions match the GIN expression indexes so each branch is an index scan.
+    @Query(value = "SELECT id FROM stories " +
+            "WHERE to_tsvector('simple', title) @@ plainto_tsquery('simple', :query) " +
+            "OR to_tsvector('simple', author_name) @@ plainto_tsquery('simple', :query) " +
+            "OR to_tsvector('simple', description) @@ plainto_tsquery('simple', :query) " +
+            "ORDER BY COALESCE(lower(title) = lower(:query) OR lower(author_name) = lower(:query), false) DESC, " +
+            "ts_rank(setweight(to_tsvector('simple', title), 'A') " +
+            "|| setweight(to_tsvector('simple', COALESCE(author_name, '')), 'A') " +
+            "|| setweight(to_tsvector('simple', COALESCE(description, '')), 'C'), " +
+            "plainto_tsquery('simple', :query)) DESC, id ASC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> findStoryIdsByFullText(@Param("query") String query, @Param("limit") int limit);
 
-    // Update embedding with explicit CAST to vector type
-    @Modifying
-    @Query(value = "UPDATE stories SET embedding = CAST(:embeddingString AS vector) WHERE id = :storyId",
-           nativeQuery = true)
-    void updateEmbedding(@Param("storyId") Long storyId,
-                        @Param("embeddingString") String embeddingString);
-
-    // Semantic search using cosine similarity (1 - cosine distance)
-    // queryEmbedding should be in format: "[0.1,0.2,0.3,...]"
-    // Note: We need to use a two-step approach:
-    // 1. Find story IDs using native query (for vector operations)
-    // 2. Fetch full stories with genres using JPQL (for proper JOIN FETCH)
+    // Substring match on titles and author names, original and translated, for CJK queries: 'simple'
+    // full-text search makes an unspaced Japanese title one token, so part of it never matches.
+    // Exact matches first, then shorter titles (closer to the query); pg_trgm indexes serve the ILIKEs.
     @Query(value = "SELECT id FROM stories " +
-            "WHERE embedding IS NOT NULL " +
-            "ORDER BY embedding <=> CAST(:queryEmbedding AS vector) " +
+            "WHERE title ILIKE :pattern OR raw_title ILIKE :pattern " +
+            "OR author_name ILIKE :pattern OR raw_author_name ILIKE :pattern " +
+            "ORDER BY COALESCE(lower(title) = lower(:query) OR lower(raw_title) = lower(:query) " +
+            "OR lower(author_name) = lower(:query) OR lower(raw_author_name) = lower(:query), false) DESC, " +
+            "length(COALESCE(raw_title, title)) ASC, id ASC " +
             "LIMIT :limit", nativeQuery = true)
-    List<Long> findStoryIdsBySimilarity(@Param("queryEmbedding") String queryEmbedding,
-                                        @Param("limit") int limit);
+    List<Long> findStoryIdsBySubstring(@Param("query") String query, @Param("pattern") String pattern,
+                                       @Param("limit") int limit);
+
+    // Stories flagged as copies, newest first, with the story each one copies
+    @Query("SELECT new com.graduate.novel.domain.story.DuplicateStory(s.id, s.title, s.sourceUrl, " +
+           "o.id, o.title, o.sourceUrl) FROM Story s, Story o WHERE o.id = s.duplicateOfStoryId ORDER BY s.id DESC")
+    Page<DuplicateStory> findDuplicates(Pageable pageable);
+
+    @Query("SELECT s.minhash FROM Story s WHERE s.id = :id")
+    byte[] findMinhash(@Param("id") Long id);
+
+    @Query("SELECT s.id FROM Story s WHERE s.duplicateOfStoryId IS NOT NULL")
+    List<Long> findDuplicateStoryIds();
+
+    // Bulk update from a duplicate scan: no entity callbacks, and updated_at is left alone
+    @Modifying
+    @Query("UPDATE Story s SET s.minhash = :minhash, s.duplicateOfStoryId = :duplicateOf WHERE s.id = :id")
+    void updateDuplicateState(@Param("id") Long id, @Param("minhash") byte[] minhash,
+                              @Param("duplicateOf") Long duplicateOf);
 
     // Fetch stories by IDs with genres eagerly loaded
     @Query("SELECT DISTINCT s FROM Story s LEFT JOIN FETCH s.genres WHERE s.id IN :ids")
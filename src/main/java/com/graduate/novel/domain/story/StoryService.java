@@ -10,6 +10,7 @@ import com.graduate.novel.domain.genre.Genre;
 import com.graduate.novel.domain.genre.GenreDto;
 import com.graduate.novel.domain.genre.GenreRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
@@ -22,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -35,6 +37,7 @@ public class StoryService {
     private final CommentRepository commentRepository;
     private final FavoriteRepository favoriteRepository;
     private final GenreRepository genreRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Page<StoryDto> getStories(String keyword, Pageable pageable) {
@@ -83,6 +86,7 @@ public class StoryService {
         }
 
         story = storyRepository.save(story);
+        eventPublisher.publishEvent(new StoryContentChangedEvent(story.getId()));
         return storyMapper.toDto(story);
     }
 
@@ -97,6 +101,9 @@ public class StoryService {
         Story story = storyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Story not found with id: " + id));
 
+        String title = story.getTitle();
+        String authorName = story.getAuthorName();
+        String description = story.getDescription();
         storyMapper.updateEntity(request, story);
 
         // Handle genres
@@ -111,6 +118,11 @@ public class StoryService {
         }
 
         story = storyRepository.save(story);
+        // Only the embedded text matters; cover or status edits leave the vector valid
+        if (!Objects.equals(title, story.getTitle()) || !Objects.equals(authorName, story.getAuthorName())
+                || !Objects.equals(description, story.getDescription())) {
+            eventPublisher.publishEvent(new StoryContentChangedEvent(story.getId()));
+        }
         return storyMapper.toDto(story);
     }
 
@@ -127,37 +139,6 @@ public class StoryService {
         storyRepository.delete(story);
     }
 
-    @Transactional
-    public void updateEmbedding(Long id, float[] embedding) {
-        Story story = storyRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Story not found with id: " + id));
-
-        // Convert float[] to PostgreSQL vector format string
-        String vectorString = convertFloatArrayToVectorString(embedding);
-        story.setEmbedding(vectorString);
-        storyRepository.save(story);
-    }
-
-    /**
-     * Convert float array to PostgreSQL vector format string
-     */
-    private String convertFloatArrayToVectorString(float[] array) {
-        if (array == null || array.length == 0) {
-            return null;
-        }
-
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < array.length; i++) {
-            if (i > 0) {
-                sb.append(",");
-            }
-            sb.append(array[i]);
-        }
-        sb.append("]");
-
-        return sb.toString();
-    }
-
     // ========== Homepage Features ==========
 
     /**
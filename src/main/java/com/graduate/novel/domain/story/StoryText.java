@@ -0,0 +1,6 @@
+package com.graduate.novel.domain.story;
+
+/**
+ * The text fields of a story used for embeddings, without loading the entity
+ */
+public record StoryText(Long id, String title, String authorName, String description) {}
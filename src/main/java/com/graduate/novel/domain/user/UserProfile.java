@@ -35,9 +35,13 @@ public class UserProfile {
 
     // Aggregated embedding from stories user interacted with (weighted average)
     // Note: insertable/updatable set to false because we use native queries with CAST to handle PostgreSQL vector type
-    @Column(name = "profile_embedding", columnDefinition = "vector(768)", insertable = false, updatable = false)
+    @Column(name = "profile_embedding", columnDefinition = "vector", insertable = false, updatable = false)
     private String profileEmbedding; // Stored as vector in PostgreSQL
 
+    // Embedding model the profile embedding was averaged from (embedding_models.id)
+    @Column(name = "profile_embedding_model_id", insertable = false, updatable = false)
+    private Long profileEmbeddingModelId;
+
     // Reading behavior metrics
     @Column(name = "total_stories_read")
     @Builder.Default
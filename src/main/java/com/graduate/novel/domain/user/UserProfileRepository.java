@@ -22,10 +22,12 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
     List<UserProfile> findStaleProfiles(@Param("days") int days);
 
     @Modifying
-    @Query(value = "UPDATE user_profiles SET profile_embedding = CAST(:embeddingString AS vector) WHERE user_id = :userId",
+    @Query(value = "UPDATE user_profiles SET profile_embedding = CAST(:embeddingString AS vector), " +
+        "profile_embedding_model_id = :modelId WHERE user_id = :userId",
         nativeQuery = true)
     void updateEmbedding(@Param("userId") Long userId,
-                        @Param("embeddingString") String embeddingString);
+                        @Param("embeddingString") String embeddingString,
+                        @Param("modelId") Long modelId);
 
     @Query("SELECT COUNT(up) FROM UserProfile up WHERE up.profileEmbedding IS NOT NULL")
     long countProfilesWithEmbedding();
@@ -1,10 +1,13 @@
 package com.graduate.novel.domain.user;
 
+import com.graduate.novel.ai.service.EmbeddingVersionService;
 import com.graduate.novel.ai.service.GeminiService;
+import com.graduate.novel.domain.embedding.EmbeddingModel;
+import com.graduate.novel.domain.embedding.StoryVectorRepository;
 import com.graduate.novel.domain.history.ReadingHistory;
 import com.graduate.novel.domain.history.ReadingHistoryRepository;
 import com.graduate.novel.domain.rating.RatingRepository;
-import com.graduate.novel.domain.story.Story;
+import com.graduate.novel.domain.story.StoryEmbedding;
 import com.graduate.novel.domain.story.StoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +34,8 @@ public class UserProfileService {
     private final RatingRepository ratingRepository;
     private final StoryRepository storyRepository;
     private final GeminiService geminiService;
+    private final StoryVectorRepository storyVectorRepository;
+    private final EmbeddingVersionService embeddingVersionService;
 
     private static final int PROFILE_STALENESS_THRESHOLD_DAYS = 7;
     private static final double TIME_DECAY_FACTOR = 0.1; // Exponential decay rate
@@ -240,10 +245,11 @@ public class UserProfileService {
             return;
         }
 
-        // Fetch stories with embeddings
+        // Fetch story embeddings under the active model, so the profile lives in the same vector space
+        EmbeddingModel model = embeddingVersionService.activeModel();
         List<Long> storyIds = new ArrayList<>(storyInteractions.keySet());
-        List<Story> stories = storyRepository.findByIdInWithGenres(storyIds).stream()
-            .filter(s -> s.getEmbedding() != null && !s.getEmbedding().isEmpty())
+        List<StoryEmbedding> stories = storyVectorRepository.findEmbeddingsByIdIn(model.getId(), storyIds).stream()
+            .filter(s -> s.embedding() != null && !s.embedding().isEmpty())
             .collect(Collectors.toList());
 
         if (stories.isEmpty()) {
@@ -256,12 +262,12 @@ public class UserProfileService {
         float[] weightedSum = null;
         double totalWeight = 0.0;
 
-        for (Story story : stories) {
-            StoryInteraction interaction = storyInteractions.get(story.getId());
+        for (StoryEmbedding story : stories) {
+            StoryInteraction interaction = storyInteractions.get(story.id());
             if (interaction == null) continue;
 
             // Parse embedding
-            float[] embedding = parseEmbedding(story.getEmbedding());
+            float[] embedding = parseEmbedding(story.embedding());
             if (embedding == null) continue;
 
             // Calculate time decay weight (exponential decay)
@@ -297,7 +303,7 @@ public class UserProfileService {
 
         // Convert to vector string and save
         String vectorString = convertFloatArrayToVectorString(weightedSum);
-        userProfileRepository.updateEmbedding(userId, vectorString);
+        userProfileRepository.updateEmbedding(userId, vectorString, model.getId());
 
         log.info("Updated profile embedding for user {} from {} stories (total weight: {})",
             userId, stories.size(), String.format("%.2f", totalWeight));
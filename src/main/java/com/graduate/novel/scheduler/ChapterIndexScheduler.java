@@ -0,0 +1,29 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.domain.search.ChapterSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the local chapter full-text index up to date with crawled and translated chapters
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.chapter-search", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChapterIndexScheduler {
+
+    private final ChapterSearchService chapterSearchService;
+
+    @Scheduled(fixedDelayString = "${app.chapter-search.refresh-interval-ms:30000}", initialDelay = 10000)
+    public void refresh() {
+        try {
+            chapterSearchService.refresh();
+        } catch (Exception e) {
+            log.error("Chapter index refresh failed", e);
+        }
+    }
+}
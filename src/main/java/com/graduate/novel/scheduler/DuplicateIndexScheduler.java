@@ -0,0 +1,30 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.domain.duplicate.DuplicateDetectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the in-memory duplicate indexes from the stored signatures. The first build runs
+ * shortly after startup; crawled chapters are not checked for copies until it finishes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.duplicates", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DuplicateIndexScheduler {
+
+    private final DuplicateDetectionService duplicateDetectionService;
+
+    @Scheduled(fixedDelayString = "${app.duplicates.rebuild-interval-ms:3600000}", initialDelay = 30000)
+    public void rebuild() {
+        try {
+            duplicateDetectionService.rebuildIndexes();
+        } catch (Exception e) {
+            log.error("Duplicate index rebuild failed", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.ai.service.EmbeddingMigrationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-embeds stories in the background when the configured embedding model changes, and cuts
+ * searches over to the new model once every story has a vector under it
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.embedding-migration", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EmbeddingMigrationScheduler {
+
+    private final EmbeddingMigrationService embeddingMigrationService;
+
+    @Scheduled(fixedDelayString = "${app.embedding-migration.interval-ms:60000}", initialDelay = 20000)
+    public void migrate() {
+        try {
+            embeddingMigrationService.migrate();
+        } catch (Exception e) {
+            log.error("Embedding migration run failed", e);
+        }
+    }
+}
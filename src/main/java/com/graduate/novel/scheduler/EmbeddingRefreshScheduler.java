@@ -0,0 +1,29 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.ai.service.StoryEmbeddingRefreshQueue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends stories whose text changed for re-embedding once their debounce window has passed
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.embedding-refresh", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EmbeddingRefreshScheduler {
+
+    private final StoryEmbeddingRefreshQueue storyEmbeddingRefreshQueue;
+
+    @Scheduled(fixedDelayString = "${app.embedding-refresh.flush-interval-ms:5000}", initialDelay = 10000)
+    public void flush() {
+        try {
+            storyEmbeddingRefreshQueue.flush();
+        } catch (Exception e) {
+            log.error("Embedding refresh failed", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.domain.crawljob.JobEventBus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically re-reads the jobs someone is watching on this node, to follow jobs that run
+ * on other nodes
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.job-events", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JobEventPoller {
+
+    private final JobEventBus jobEventBus;
+
+    @Scheduled(fixedDelayString = "${app.job-events.poll-interval-ms:2000}")
+    public void poll() {
+        try {
+            jobEventBus.refreshWatched();
+        } catch (Exception e) {
+            log.error("Job event poll failed", e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.config.JobQueueProperties;
+import com.graduate.novel.domain.crawljob.ClaimedJob;
+import com.graduate.novel.domain.crawljob.JobExecution;
+import com.graduate.novel.domain.crawljob.JobHandler;
+import com.graduate.novel.domain.crawljob.JobQueueService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls the job queue and runs claimed jobs on a bounded pool.
+ * Any number of nodes can run this worker: claims use SKIP LOCKED, and leases renewed
+ * by heartbeats let a job be picked up elsewhere if this node dies.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.job-queue", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JobQueueWorker {
+
+    private final JobQueueService jobQueueService;
+    private final JobQueueProperties properties;
+    private final ThreadPoolTaskExecutor jobWorkerExecutor;
+    private final Map<String, JobHandler> handlersByType = new HashMap<>();
+    private final Set<String> longRunningTypes = new HashSet<>();
+    private final Set<String> shortTypes = new HashSet<>();
+    private final Map<Long, JobExecution> running = new ConcurrentHashMap<>();
+    private final String workerId;
+    private volatile boolean shuttingDown = false;
+
+    public JobQueueWorker(JobQueueService jobQueueService,
+                          JobQueueProperties properties,
+                          @Qualifier("jobWorkerExecutor") ThreadPoolTaskExecutor jobWorkerExecutor,
+                          List<JobHandler> handlers) {
+        this.jobQueueService = jobQueueService;
+        this.properties = properties;
+        this.jobWorkerExecutor = jobWorkerExecutor;
+        handlers.forEach(handler -> {
+            handler.jobTypes().forEach(type -> handlersByType.put(type, handler));
+            longRunningTypes.addAll(handler.longRunningJobTypes());
+        });
+        handlersByType.keySet().stream()
+                .filter(type -> !longRunningTypes.contains(type))
+                .forEach(shortTypes::add);
+        this.workerId = resolveHostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+        log.info("Job queue worker {} handling {}", workerId, handlersByType.keySet());
+    }
+
+    /**
+     * Claim as many jobs as there are free slots. Long-running jobs may not take the
+     * reserved slots, so a chapter a reader is waiting for can always start.
+     */
+    @Scheduled(fixedDelayString = "${app.job-queue.poll-interval-ms:2000}")
+    public void poll() {
+        if (shuttingDown || handlersByType.isEmpty()) {
+            return;
+        }
+
+        int maxLongRunning = Math.max(1, properties.getWorkerThreads() - properties.getReservedShortJobSlots());
+        try {
+            while (running.size() < properties.getWorkerThreads()) {
+                long longRunning = running.values().stream()
+                        .filter(execution -> longRunningTypes.contains(execution.job().jobType()))
+                        .count();
+                Set<String> types = longRunning < maxLongRunning ? handlersByType.keySet() : shortTypes;
+                if (types.isEmpty()) {
+                    return;
+                }
+
+                List<ClaimedJob> claimed = jobQueueService.claim(workerId, types, 1);
+                if (claimed.isEmpty()) {
+                    return;
+                }
+                ClaimedJob job = claimed.get(0);
+                JobExecution execution = jobQueueService.newExecution(job, workerId);
+                running.put(job.id(), execution);
+                jobWorkerExecutor.execute(() -> run(execution));
+            }
+        } catch (Exception e) {
+            log.error("Failed to poll job queue: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Renew leases of the jobs running on this node
+     */
+    @Scheduled(fixedDelayString = "${app.job-queue.heartbeat-interval-ms:60000}")
+    public void heartbeat() {
+        running.values().forEach(execution -> {
+            try {
+                if (!jobQueueService.heartbeat(execution)) {
+                    log.warn("Lost lease on job {}; it will be abandoned", execution.job().id());
+                }
+            } catch (Exception e) {
+                log.error("Heartbeat failed for job {}: {}", execution.job().id(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Release chapters whose translation died with a node without leaving a job to reclaim
+     * (a reader's stream), and any a reclaim missed
+     */
+    @Scheduled(fixedDelayString = "${app.job-queue.heartbeat-interval-ms:60000}")
+    public void resetStaleTranslations() {
+        try {
+            jobQueueService.resetStaleChapterTranslations();
+        } catch (Exception e) {
+            log.error("Failed to reset stale chapter translations: {}", e.getMessage());
+        }
+    }
+
+    private void run(JobExecution execution) {
+        ClaimedJob job = execution.job();
+        long start = System.currentTimeMillis();
+        try {
+            log.info("▶ Running {} job {} (attempt {}/{})",
+                    job.jobType(), job.id(), job.attempts(), job.maxAttempts());
+            handlersByType.get(job.jobType()).execute(execution);
+
+            if (execution.isLeaseLost()) {
+                log.warn("Job {} finished after its lease was lost; result left to the new owner", job.id());
+            } else if (execution.rescheduleDelay() != null) {
+                jobQueueService.reschedule(job.id(), workerId, execution.rescheduleDelay());
+                log.debug("Job {} rescheduled in {}", job.id(), execution.rescheduleDelay());
+            } else {
+                jobQueueService.complete(job.id(), workerId, execution.resultMessage());
+                log.info("✅ Job {} completed in {} ms", job.id(), System.currentTimeMillis() - start);
+            }
+        } catch (Exception e) {
+            log.error("❌ Job {} failed: {}", job.id(), e.getMessage());
+            if (!execution.isLeaseLost()) {
+                jobQueueService.fail(job.id(), workerId, e.getMessage());
+            }
+        } finally {
+            running.remove(job.id());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Stop claiming; jobs still running are reclaimed by another node once their lease expires
+        shuttingDown = true;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "worker";
+        }
+    }
+}
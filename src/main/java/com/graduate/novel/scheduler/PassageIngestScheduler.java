@@ -0,0 +1,29 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.domain.passage.PassageIngestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits and embeds new and changed chapters for passage search
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.passage-search", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PassageIngestScheduler {
+
+    private final PassageIngestService passageIngestService;
+
+    @Scheduled(fixedDelayString = "${app.passage-search.ingest-interval-ms:60000}", initialDelay = 30000)
+    public void ingest() {
+        try {
+            passageIngestService.ingest();
+        } catch (Exception e) {
+            log.error("Passage ingestion failed", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.domain.crawl.StoryUpdateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically queues update checks for ongoing stories that are due
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.story-update", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StoryUpdateScheduler {
+
+    private final StoryUpdateService storyUpdateService;
+
+    @Scheduled(fixedDelayString = "${app.story-update.sweep-interval-ms:60000}", initialDelay = 60000)
+    public void sweep() {
+        try {
+            storyUpdateService.sweep();
+        } catch (Exception e) {
+            log.error("Story update sweep failed", e);
+        }
+    }
+}
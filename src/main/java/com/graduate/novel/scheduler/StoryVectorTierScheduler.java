@@ -0,0 +1,30 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.ai.service.StoryVectorTier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the in-memory story vector tier from the database. The first build runs shortly after
+ * startup; vector search uses the HNSW index until it finishes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.vector-tier", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StoryVectorTierScheduler {
+
+    private final StoryVectorTier storyVectorTier;
+
+    @Scheduled(fixedDelayString = "${app.vector-tier.refresh-interval-ms:3600000}", initialDelay = 30000)
+    public void rebuild() {
+        try {
+            storyVectorTier.rebuild();
+        } catch (Exception e) {
+            log.error("Vector tier rebuild failed", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.ai.service.TfidfEmbeddingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retrains the TF-IDF model from the story corpus in the background, when app.tfidf.training-enabled
+ * is set. The first run comes shortly after startup so a fresh node does not stay on feature hashing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.tfidf", name = "training-enabled", havingValue = "true")
+public class TfidfTrainingScheduler {
+
+    private final TfidfEmbeddingService tfidfEmbeddingService;
+
+    @Scheduled(fixedDelayString = "${app.tfidf.retrain-interval-ms:86400000}", initialDelay = 60000)
+    public void retrain() {
+        try {
+            tfidfEmbeddingService.retrain();
+        } catch (Exception e) {
+            log.error("TF-IDF model training failed", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.domain.chapter.TranslationPrefetchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically queues translations ahead of active readers, for favorite stories, and as backfill
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.translation-prefetch", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TranslationPrefetchScheduler {
+
+    private final TranslationPrefetchService translationPrefetchService;
+
+    @Scheduled(fixedDelayString = "${app.translation-prefetch.sweep-interval-ms:60000}",
+               initialDelayString = "${app.translation-prefetch.sweep-interval-ms:60000}")
+    public void sweep() {
+        try {
+            translationPrefetchService.sweep();
+        } catch (Exception e) {
+            log.error("Translation prefetch sweep failed", e);
+        }
+    }
+}
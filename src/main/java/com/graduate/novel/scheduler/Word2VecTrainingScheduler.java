@@ -0,0 +1,32 @@
+package com.graduate.novel.scheduler;
+
+import com.graduate.novel.ai.service.Word2VecTrainingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trains word vectors from the chapter corpus in the background.
+ * Opt-in: a run keeps all cores busy for a long time. An interrupted run resumes from its checkpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.word-vectors.training", name = "enabled", havingValue = "true")
+public class Word2VecTrainingScheduler {
+
+    private final Word2VecTrainingService word2VecTrainingService;
+
+    @Scheduled(fixedDelayString = "${app.word-vectors.training.interval-ms:604800000}", initialDelay = 300000)
+    public void train() {
+        try {
+            word2VecTrainingService.train();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Word vector training failed", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+-- ================================================================
+-- Migration V22: Turn crawl_jobs into a durable work queue
+-- ================================================================
+--
+-- Workers on any node claim due jobs with SELECT ... FOR UPDATE SKIP LOCKED,
+-- hold a lease that they renew with heartbeats, and retry failures with
+-- exponential backoff (next_run_at). A job whose lease expires (node crashed)
+-- becomes claimable again.
+--
+
+ALTER TABLE crawl_jobs
+    ADD COLUMN priority INT NOT NULL DEFAULT 0,
+    ADD COLUMN payload TEXT,
+    ADD COLUMN next_run_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    ADD COLUMN max_attempts INT NOT NULL DEFAULT 5,
+    ADD COLUMN locked_by VARCHAR(100),
+    ADD COLUMN lease_expires_at TIMESTAMP,
+    ADD COLUMN heartbeat_at TIMESTAMP,
+    ADD COLUMN started_at TIMESTAMP,
+    ADD COLUMN finished_at TIMESTAMP,
+    ADD COLUMN total_items INT,
+    ADD COLUMN completed_items INT NOT NULL DEFAULT 0,
+    ADD COLUMN failed_items INT NOT NULL DEFAULT 0;
+
+-- Claim query: due PENDING jobs by priority, plus PROCESSING jobs with an expired lease
+CREATE INDEX idx_crawl_jobs_claim
+    ON crawl_jobs (job_type, priority DESC, next_run_at)
+    WHERE status = 'PENDING';
+
+CREATE INDEX idx_crawl_jobs_lease
+    ON crawl_jobs (lease_expires_at)
+    WHERE status = 'PROCESSING';
+
+CREATE INDEX IF NOT EXISTS idx_crawl_jobs_chapter ON crawl_jobs(chapter_id);
@@ -0,0 +1,10 @@
+-- ================================================================
+-- Migration V23: External reference for jobs that wait on a provider
+-- ================================================================
+--
+-- STORY_BATCH_TRANSLATE jobs submit a Gemini batch and poll it until it
+-- completes. The batch name is stored here so any node can resume polling.
+--
+
+ALTER TABLE crawl_jobs
+    ADD COLUMN external_ref VARCHAR(255);
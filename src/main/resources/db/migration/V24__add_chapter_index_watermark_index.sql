@@ -0,0 +1,11 @@
+-- ================================================================
+-- Migration V24: Support incremental full-text indexing of chapters
+-- ================================================================
+--
+-- The in-process chapter index reads chapters changed since its watermark
+-- in (updated_at, id) order. Rows without updated_at would never be seen.
+--
+
+UPDATE story_chapters SET updated_at = COALESCE(created_at, NOW()) WHERE updated_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_chapters_updated_at_id ON story_chapters(updated_at, id);
@@ -0,0 +1,10 @@
+-- ================================================================
+-- Migration V25: Full-text index on story author names
+-- ================================================================
+--
+-- Hybrid story search matches the query against title, author and
+-- description. Title and description already have GIN indexes (V2);
+-- this adds the author so no branch of the lexical query scans the table.
+--
+
+CREATE INDEX IF NOT EXISTS idx_stories_author_name ON stories USING GIN (to_tsvector('simple', author_name));
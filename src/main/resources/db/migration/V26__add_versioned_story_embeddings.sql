@@ -0,0 +1,67 @@
+-- ================================================================
+-- Migration V26: Versioned story embeddings
+-- ================================================================
+--
+-- Story vectors move from stories.embedding (one fixed vector(768) column,
+-- no record of the model) to story_embeddings, keyed by embedding model
+-- version. Every switch creates a new version row, even for a model name
+-- used before, so stale vectors are never reused.
+-- A new model is added as SHADOW, filled in the background while search
+-- keeps using the ACTIVE model, and promoted once it covers every story.
+-- The column is untyped so models of any dimension share the table; each
+-- model gets a partial HNSW index on (embedding::vector(<dimension>)),
+-- created CONCURRENTLY by the application when the model is registered.
+--
+-- stories.embedding is no longer read or written. It is kept (with its
+-- index) so the previous release can still be rolled back to, and can be
+-- dropped in a later migration.
+--
+
+CREATE TABLE embedding_models (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    dimension INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    activated_at TIMESTAMP,
+    retired_at TIMESTAMP,
+    CONSTRAINT chk_embedding_models_status CHECK (status IN ('SHADOW', 'ACTIVE', 'RETIRED'))
+);
+
+-- At most one model serves searches and at most one is being filled
+CREATE UNIQUE INDEX uk_embedding_models_active ON embedding_models (status) WHERE status = 'ACTIVE';
+CREATE UNIQUE INDEX uk_embedding_models_shadow ON embedding_models (status) WHERE status = 'SHADOW';
+
+CREATE TABLE story_embeddings (
+    model_id BIGINT NOT NULL REFERENCES embedding_models(id),
+    story_id BIGINT NOT NULL REFERENCES stories(id) ON DELETE CASCADE,
+    embedding vector NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (model_id, story_id)
+);
+
+CREATE INDEX idx_story_embeddings_story ON story_embeddings (story_id);
+
+-- Existing vectors were produced by the model configured at deploy time
+-- (gemini.api.model.embedding, passed in as a Flyway placeholder)
+INSERT INTO embedding_models (name, dimension, status, activated_at)
+SELECT '${embedding_model}', 768, 'ACTIVE', NOW()
+WHERE EXISTS (SELECT 1 FROM stories WHERE embedding IS NOT NULL);
+
+INSERT INTO story_embeddings (model_id, story_id, embedding)
+SELECT m.id, s.id, s.embedding
+FROM stories s
+CROSS JOIN embedding_models m
+WHERE m.status = 'ACTIVE' AND s.embedding IS NOT NULL;
+
+COMMENT ON COLUMN stories.embedding IS 'Superseded by story_embeddings (V26); kept for rollback only';
+
+-- Profile vectors are averages of story vectors, so they follow the active model's dimension.
+-- The ivfflat index needs a fixed dimension and no query searches profile vectors, so it goes.
+DROP INDEX IF EXISTS idx_user_profiles_embedding;
+ALTER TABLE user_profiles ALTER COLUMN profile_embedding TYPE vector;
+ALTER TABLE user_profiles ADD COLUMN profile_embedding_model_id BIGINT REFERENCES embedding_models(id);
+
+UPDATE user_profiles
+SET profile_embedding_model_id = (SELECT id FROM embedding_models WHERE status = 'ACTIVE')
+WHERE profile_embedding IS NOT NULL;
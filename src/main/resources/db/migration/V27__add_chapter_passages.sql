@@ -0,0 +1,45 @@
+-- ================================================================
+-- Migration V27: Chapter passages for in-content semantic search
+-- ================================================================
+--
+-- Chapters are split into passages of a few hundred tokens, each embedded
+-- on its own so a search can land on the scene, not just the story.
+-- Passages point into the chapter text by character offsets instead of
+-- holding a copy of it.
+--
+-- Vectors are half precision (halfvec): half the storage and index size
+-- of vector at no measurable loss in ranking, which matters at millions of
+-- rows. As with story_embeddings the column is untyped, and each embedding
+-- model gets a partial HNSW index created CONCURRENTLY by the application.
+--
+-- content_hash (SHA-256 of the passage text) makes ingestion idempotent:
+-- a passage whose text is already embedded under the model, in this
+-- chapter or any other, reuses that vector instead of calling the API.
+--
+
+CREATE TABLE chapter_passages (
+    id BIGSERIAL PRIMARY KEY,
+    chapter_id BIGINT NOT NULL REFERENCES story_chapters(id) ON DELETE CASCADE,
+    story_id BIGINT NOT NULL REFERENCES stories(id) ON DELETE CASCADE,
+    model_id BIGINT NOT NULL REFERENCES embedding_models(id),
+    passage_index INT NOT NULL,
+    source VARCHAR(20) NOT NULL,
+    start_offset INT NOT NULL,
+    end_offset INT NOT NULL,
+    content_hash BYTEA NOT NULL,
+    embedding halfvec NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT chk_chapter_passages_source CHECK (source IN ('TRANSLATED', 'RAW'))
+);
+
+CREATE INDEX idx_chapter_passages_chapter ON chapter_passages (chapter_id, model_id);
+CREATE INDEX idx_chapter_passages_hash ON chapter_passages (model_id, content_hash);
+CREATE INDEX idx_chapter_passages_story ON chapter_passages (story_id);
+
+-- How far passage ingestion has followed story_chapters.updated_at, per embedding model.
+-- A new model starts from the beginning, so passages are rebuilt after a model switch.
+CREATE TABLE passage_ingest_progress (
+    model_id BIGINT PRIMARY KEY REFERENCES embedding_models(id) ON DELETE CASCADE,
+    updated_at TIMESTAMP NOT NULL,
+    chapter_id BIGINT NOT NULL
+);
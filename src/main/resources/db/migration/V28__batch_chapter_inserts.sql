@@ -0,0 +1,28 @@
+-- ================================================================
+-- Migration V28: Sequence ids for batched chapter inserts
+-- ================================================================
+--
+-- Hibernate cannot batch inserts of IDENTITY entities: it has to read each
+-- generated id back one row at a time. Chapter ids now come from the
+-- sequence directly, 50 per round trip (pooled optimizer), so the crawl
+-- writer can send a whole batch of chapters as one JDBC batch.
+--
+-- The sequence keeps its job as the column default. With the pooled
+-- optimizer each nextval value stands for the 50 ids up to and including
+-- it, and a plain INSERT uses that value itself, so both ways of inserting
+-- draw from disjoint ranges.
+--
+-- The table was created as "chapters" and renamed, so depending on the
+-- database's history the sequence may still carry the old name.
+--
+
+DO $$
+DECLARE
+    seq TEXT := pg_get_serial_sequence('story_chapters', 'id');
+BEGIN
+    IF seq IS NOT NULL AND seq <> 'public.story_chapters_id_seq' THEN
+        EXECUTE format('ALTER SEQUENCE %s RENAME TO story_chapters_id_seq', seq);
+    END IF;
+END $$;
+
+ALTER SEQUENCE story_chapters_id_seq INCREMENT BY 50;
@@ -0,0 +1,22 @@
+-- ================================================================
+-- Migration V29: Change detection for chapter re-crawls
+-- ================================================================
+--
+-- A crawl reads the story's table of contents first and only fetches
+-- chapters that are new or whose listed date is later than what was
+-- crawled (source_updated_at). Fetches send the validators of the last
+-- response (ETag / Last-Modified) so an unchanged page can be answered
+-- with 304, and content_hash (SHA-256 of raw_content) lets a re-fetched
+-- chapter whose text did not change skip the write, keeping its
+-- translation.
+--
+
+ALTER TABLE story_chapters ADD COLUMN source_updated_at TIMESTAMP;
+ALTER TABLE story_chapters ADD COLUMN etag VARCHAR(255);
+ALTER TABLE story_chapters ADD COLUMN last_modified VARCHAR(64);
+ALTER TABLE story_chapters ADD COLUMN content_hash BYTEA;
+
+UPDATE story_chapters SET content_hash = sha256(convert_to(raw_content, 'UTF8')) WHERE raw_content IS NOT NULL;
+
+COMMENT ON COLUMN story_chapters.source_updated_at IS 'Publish or revision time listed in the source table of contents';
+COMMENT ON COLUMN story_chapters.content_hash IS 'SHA-256 of raw_content';
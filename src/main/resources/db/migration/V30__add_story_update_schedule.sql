@@ -0,0 +1,29 @@
+-- ================================================================
+-- Migration V30: Update schedule for ongoing stories
+-- ================================================================
+--
+-- One row per story the update scheduler has looked at. The scheduler
+-- learns how often a story gets a new chapter (interval_minutes, a
+-- smoothed average of the gaps between releases) and derives from it,
+-- and from how many readers follow the story, when to look again.
+-- Stories without a row are checked once to seed their cadence.
+--
+
+CREATE TABLE story_update_schedule (
+    story_id BIGINT PRIMARY KEY REFERENCES stories(id) ON DELETE CASCADE,
+    interval_minutes DOUBLE PRECISION,
+    last_release_at TIMESTAMP,
+    last_checked_at TIMESTAMP,
+    next_check_at TIMESTAMP NOT NULL,
+    empty_checks INT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_story_update_schedule_next_check ON story_update_schedule(next_check_at);
+
+-- Hourly request budget: update jobs created in the last hour
+CREATE INDEX IF NOT EXISTS idx_crawl_jobs_type_created ON crawl_jobs(job_type, created_at);
+
+COMMENT ON TABLE story_update_schedule IS 'When to check each ongoing story for new chapters';
+COMMENT ON COLUMN story_update_schedule.interval_minutes IS 'Smoothed time between chapter releases';
+COMMENT ON COLUMN story_update_schedule.last_release_at IS 'Date of the newest chapter in the table of contents';
+COMMENT ON COLUMN story_update_schedule.empty_checks IS 'Consecutive checks that found no new chapter';
@@ -0,0 +1,32 @@
+-- ================================================================
+-- Migration V31: Index of the raw page archive
+-- ================================================================
+--
+-- Every page the crawler fetches is kept, zstd-compressed, in append-only
+-- pack files on local disk (app.page-archive.dir). This table says where:
+-- one row per fetch, keyed by URL and fetch time, pointing at a frame in a
+-- pack. Pages are content-addressed: a fetch whose bytes were archived
+-- before (same content_hash) points at the existing frame.
+--
+-- With the archive, changed extraction rules are applied to stored
+-- chapters by re-parsing archived pages locally instead of re-crawling.
+--
+
+CREATE TABLE archived_pages (
+    id BIGSERIAL PRIMARY KEY,
+    url TEXT NOT NULL,
+    fetched_at TIMESTAMP NOT NULL,
+    content_hash BYTEA NOT NULL,
+    charset VARCHAR(40),
+    pack_file VARCHAR(100) NOT NULL,
+    pack_offset BIGINT NOT NULL,
+    compressed_size INT NOT NULL,
+    raw_size INT NOT NULL
+);
+
+CREATE INDEX idx_archived_pages_url ON archived_pages(url, fetched_at DESC);
+CREATE INDEX idx_archived_pages_hash ON archived_pages(content_hash);
+
+COMMENT ON TABLE archived_pages IS 'Where each fetched page is stored in the local page archive';
+COMMENT ON COLUMN archived_pages.content_hash IS 'SHA-256 of the uncompressed page; equal pages share a frame';
+COMMENT ON COLUMN archived_pages.pack_offset IS 'Byte offset of the zstd frame in the pack file';
@@ -0,0 +1,33 @@
+-- ================================================================
+-- Migration V32: Near-duplicate detection
+-- ================================================================
+--
+-- Every chapter gets a MinHash signature of its raw text: 128 32-bit
+-- minimums over character 5-gram shingles, 512 bytes. The share of equal
+-- components between two signatures estimates the Jaccard similarity of
+-- the texts. A story's signature is the component-wise minimum over its
+-- chapters, i.e. the signature of all its text together.
+--
+-- Signatures are indexed in memory (LSH banding); the table only keeps
+-- them so the index can be rebuilt, and records what was flagged: a
+-- chapter or story whose text is nearly the same as an earlier one from
+-- another story. Flagged chapters are not sent for translation.
+--
+
+ALTER TABLE story_chapters ADD COLUMN minhash BYTEA;
+ALTER TABLE story_chapters ADD COLUMN duplicate_of_chapter_id BIGINT
+    REFERENCES story_chapters(id) ON DELETE SET NULL;
+
+ALTER TABLE stories ADD COLUMN minhash BYTEA;
+ALTER TABLE stories ADD COLUMN duplicate_of_story_id BIGINT
+    REFERENCES stories(id) ON DELETE SET NULL;
+
+CREATE INDEX idx_story_chapters_duplicate_of ON story_chapters(duplicate_of_chapter_id)
+    WHERE duplicate_of_chapter_id IS NOT NULL;
+CREATE INDEX idx_stories_duplicate_of ON stories(duplicate_of_story_id)
+    WHERE duplicate_of_story_id IS NOT NULL;
+
+COMMENT ON COLUMN story_chapters.minhash IS 'MinHash signature of raw_content (128 x int32, big-endian); NULL if too short';
+COMMENT ON COLUMN story_chapters.duplicate_of_chapter_id IS 'Earlier chapter of another story with near-identical text';
+COMMENT ON COLUMN stories.minhash IS 'Component-wise minimum of the chapter signatures';
+COMMENT ON COLUMN stories.duplicate_of_story_id IS 'Earlier story whose text this one mostly repeats';
@@ -0,0 +1,13 @@
+-- ================================================================
+-- Migration V33: Find chapters stuck in translation
+-- ================================================================
+--
+-- A chapter is PENDING while a worker or a reader's stream translates it.
+-- If that node dies, nothing moves it on again: translation selection
+-- and prefetch only take NONE/FAILED chapters. The job queue resets
+-- PENDING chapters untouched for longer than a job lease back to NONE;
+-- this partial index keeps that sweep cheap (few rows are ever PENDING).
+--
+
+CREATE INDEX IF NOT EXISTS idx_chapters_translate_pending
+    ON story_chapters(updated_at) WHERE translate_status = 'PENDING';
@@ -0,0 +1,28 @@
+-- ================================================================
+-- Migration V34: At most one active job per chapter and job type
+-- ================================================================
+--
+-- Prefetch enqueues a translation whenever a chapter is opened; two
+-- concurrent reads both saw no active job and both inserted one. The
+-- partial unique index lets enqueueing use ON CONFLICT DO NOTHING.
+-- Duplicates already queued are failed first, keeping the oldest job.
+--
+
+UPDATE crawl_jobs j
+SET status = 'FAILED',
+    error_message = 'Duplicate of an active job for the same chapter',
+    finished_at = NOW(),
+    updated_at = NOW()
+WHERE j.chapter_id IS NOT NULL
+  AND j.status IN ('PENDING', 'PROCESSING')
+  AND EXISTS (
+      SELECT 1 FROM crawl_jobs o
+      WHERE o.chapter_id = j.chapter_id
+        AND o.job_type = j.job_type
+        AND o.status IN ('PENDING', 'PROCESSING')
+        AND o.id < j.id
+  );
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_crawl_jobs_active_chapter
+    ON crawl_jobs(chapter_id, job_type)
+    WHERE chapter_id IS NOT NULL AND status IN ('PENDING', 'PROCESSING');
@@ -0,0 +1,14 @@
+-- ================================================================
+-- Migration V35: Remember which chapter translations were reviewed
+-- ================================================================
+--
+-- The story context cached for translation includes a sample of the
+-- story's translation as a style reference. It should be one a moderator
+-- actually saved by hand, not whichever machine translation came first.
+-- Machine translations clear the timestamp when they replace the text.
+--
+
+ALTER TABLE story_chapters ADD COLUMN IF NOT EXISTS translation_reviewed_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_chapters_translation_reviewed
+    ON story_chapters(story_id, translation_reviewed_at DESC) WHERE translation_reviewed_at IS NOT NULL;
@@ -0,0 +1,32 @@
+-- ================================================================
+-- Migration V36: Record deleted chapters for the full-text index
+-- ================================================================
+--
+-- Each node's chapter index follows story_chapters by updated_at, which
+-- never shows a deleted row, so deleted chapters stayed in the index and
+-- could push live ones out of the top results. A trigger records every
+-- deletion (including cascades from a deleted story); indexes read the
+-- tombstones after their last one and drop those chapters. Old tombstones
+-- are pruned after app.chapter-search.tombstone-retention-days.
+--
+
+CREATE TABLE IF NOT EXISTS chapter_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    chapter_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_chapter_tombstones_deleted_at ON chapter_tombstones(deleted_at);
+
+CREATE OR REPLACE FUNCTION record_chapter_tombstone()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO chapter_tombstones(chapter_id) VALUES (OLD.id);
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_record_chapter_tombstone
+    AFTER DELETE ON story_chapters
+    FOR EACH ROW
+    EXECUTE FUNCTION record_chapter_tombstone();
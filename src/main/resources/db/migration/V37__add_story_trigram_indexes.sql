@@ -0,0 +1,17 @@
+-- ================================================================
+-- Migration V37: Trigram indexes for substring story search
+-- ================================================================
+--
+-- The 'simple' full-text configuration does not segment Japanese: an
+-- unspaced title is a single token, so searching part of it found
+-- nothing. Hybrid search matches CJK queries with ILIKE '%...%' on titles
+-- and author names instead; these pg_trgm indexes keep that off a full
+-- table scan (queries of three or more characters).
+--
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_stories_title_trgm ON stories USING GIN (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_stories_raw_title_trgm ON stories USING GIN (raw_title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_stories_author_name_trgm ON stories USING GIN (author_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_stories_raw_author_name_trgm ON stories USING GIN (raw_author_name gin_trgm_ops);
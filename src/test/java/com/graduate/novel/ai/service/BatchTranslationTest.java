@@ -0,0 +1,64 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.config.GeminiConfig;
+import com.graduate.novel.ai.dto.BatchTranslationResult;
+import com.graduate.novel.ai.dto.BatchTranslationSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for batch translation submit/collect, against the local batch stub
+ */
+class BatchTranslationTest {
+
+    private LocalBatchClient batchClient;
+    private TranslationService translationService;
+
+    @BeforeEach
+    void setUp() {
+        GeminiConfig geminiConfig = new GeminiConfig();
+        geminiConfig.getTranslation().setChunkOutputTokens(100);
+        batchClient = new LocalBatchClient();
+        translationService = new TranslationService(new GeminiService(geminiConfig, null, null, null, null),
+                null, null, geminiConfig, null, null, batchClient, null);
+    }
+
+    @Test
+    void reassemblesChunksInOrder() {
+        String longText = "第一段落です。\n".repeat(30) + "最後の段落。";
+        String batchName = translationService.submitBatchTranslation("test", List.of(
+                new BatchTranslationSource("c1:content", longText, "ja"),
+                new BatchTranslationSource("c1:title", "第一話", "ja")));
+
+        BatchTranslationResult running = translationService.collectBatchTranslation(batchName);
+        assertFalse(running.isDone());
+
+        BatchTranslationResult result = translationService.collectBatchTranslation(batchName);
+        assertTrue(result.isSucceeded());
+        assertTrue(result.failedKeys().isEmpty());
+
+        String content = result.translations().get("c1:content");
+        assertTrue(content.split("\\[vi]").length > 2, "long text should be translated in several chunks");
+        assertTrue(content.indexOf("第一段落") < content.indexOf("最後の段落"));
+        assertTrue(result.translations().get("c1:title").endsWith("第一話"));
+    }
+
+    @Test
+    void cancelledBatchHasNoTranslations() {
+        String batchName = translationService.submitBatchTranslation("test", List.of(
+                new BatchTranslationSource("c1:content", "本文", "ja")));
+        batchClient.cancel(batchName);
+
+        BatchTranslationResult result = translationService.collectBatchTranslation(batchName);
+
+        assertTrue(result.isDone());
+        assertFalse(result.isSucceeded());
+        assertEquals(0, result.translations().size());
+    }
+}
@@ -0,0 +1,98 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.config.GeminiConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the embedding circuit breaker state machine
+ */
+class EmbeddingCircuitBreakerTest {
+
+    private MutableClock clock;
+    private EmbeddingCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        GeminiConfig geminiConfig = new GeminiConfig();
+        geminiConfig.getCircuitBreaker().setFailureThreshold(3);
+        geminiConfig.getCircuitBreaker().setOpenSeconds(60L);
+        clock = new MutableClock();
+        breaker = new EmbeddingCircuitBreaker(geminiConfig, clock);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(EmbeddingCircuitBreaker.Permit.CALL, breaker.acquire());
+
+        breaker.recordFailure();
+
+        assertEquals(EmbeddingCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(EmbeddingCircuitBreaker.Permit.REJECTED, breaker.acquire());
+        assertEquals(60, breaker.retryAfterSeconds());
+    }
+
+    @Test
+    void letsExactlyOneProbeThroughWhenHalfOpen() {
+        openCircuit();
+        clock.advance(Duration.ofSeconds(61));
+
+        assertEquals(EmbeddingCircuitBreaker.Permit.PROBE, breaker.acquire());
+        assertEquals(EmbeddingCircuitBreaker.Permit.REJECTED, breaker.acquire());
+
+        breaker.recordSuccess();
+
+        assertEquals(EmbeddingCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(EmbeddingCircuitBreaker.Permit.CALL, breaker.acquire());
+    }
+
+    @Test
+    void failedProbeReopensCircuit() {
+        openCircuit();
+        clock.advance(Duration.ofSeconds(61));
+        breaker.acquire();
+
+        breaker.recordFailure();
+
+        assertEquals(EmbeddingCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(EmbeddingCircuitBreaker.Permit.REJECTED, breaker.acquire());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
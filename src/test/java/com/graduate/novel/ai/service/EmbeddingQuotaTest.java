@@ -0,0 +1,79 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.config.GeminiConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the shared embedding quota: interactive calls always pass, background work gets the rest
+ */
+class EmbeddingQuotaTest {
+
+    private MutableClock clock;
+    private EmbeddingQuota quota;
+
+    @BeforeEach
+    void setUp() {
+        GeminiConfig geminiConfig = new GeminiConfig();
+        geminiConfig.getEmbeddingQuota().setRequestsPerMinute(60);
+        clock = new MutableClock();
+        quota = new EmbeddingQuota(geminiConfig, clock);
+    }
+
+    @Test
+    void grantsAtMostWhatIsLeft() {
+        assertEquals(50, quota.tryAcquire(50));
+        assertEquals(10, quota.tryAcquire(50));
+        assertEquals(0, quota.tryAcquire(1));
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        quota.tryAcquire(60);
+
+        clock.advance(Duration.ofSeconds(10));
+
+        assertEquals(10, quota.tryAcquire(50));
+    }
+
+    @Test
+    void interactiveCallsPushBackgroundWorkBack() {
+        quota.consume(90);
+
+        // 30 requests in debt: nothing for the background until half a minute has passed
+        clock.advance(Duration.ofSeconds(29));
+        assertEquals(0, quota.tryAcquire(10));
+        clock.advance(Duration.ofSeconds(6));
+        assertEquals(5, quota.tryAcquire(10));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.graduate.novel.ai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for reciprocal rank fusion of full-text and vector results
+ */
+class HybridSearchServiceTest {
+
+    @Test
+    void storiesFoundByBothBranchesRankFirst() {
+        List<HybridSearchService.Fused> fused = HybridSearchService.fuse(List.of(1L, 2L, 3L), List.of(3L, 4L, 1L), 60);
+
+        assertEquals(List.of(1L, 3L, 2L, 4L), fused.stream().map(HybridSearchService.Fused::storyId).toList());
+        assertEquals(1.0 / 61 + 1.0 / 63, fused.get(0).score(), 1e-12);
+        assertEquals(1, fused.get(0).lexicalRank());
+        assertEquals(3, fused.get(0).vectorRank());
+        assertNull(fused.get(3).lexicalRank());
+    }
+
+    @Test
+    void tiesPreferFullTextMatches() {
+        // Same score (rank 1 in one list each): the exact-match branch wins
+        List<HybridSearchService.Fused> fused = HybridSearchService.fuse(List.of(7L), List.of(5L), 60);
+
+        assertEquals(List.of(7L, 5L), fused.stream().map(HybridSearchService.Fused::storyId).toList());
+    }
+
+    @Test
+    void worksWithOneBranchOnly() {
+        List<HybridSearchService.Fused> fused = HybridSearchService.fuse(List.of(), List.of(9L, 8L), 60);
+
+        assertEquals(List.of(9L, 8L), fused.stream().map(HybridSearchService.Fused::storyId).toList());
+    }
+
+    @Test
+    void cjkQueriesUseEscapedSubstringPatterns() {
+        assertTrue(HybridSearchService.containsCjk("転生したら"));
+        assertTrue(HybridSearchService.containsCjk("Re:ゼロ"));
+        assertFalse(HybridSearchService.containsCjk("kiếm sĩ"));
+
+        assertEquals("%魔法使い%", HybridSearchService.likePattern(" 魔法使い "));
+        assertEquals("%100\\%\\_剣%", HybridSearchService.likePattern("100%_剣"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.dto.GeminiRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stand-in for the Gemini Batch API for tests (gemini.api.batch.client=local).
+ * A batch reports RUNNING on the first poll and SUCCEEDED afterwards; each "translation"
+ * is the prompt text prefixed with "[vi] ".
+ */
+@Service
+@ConditionalOnProperty(prefix = "gemini.api.batch", name = "client", havingValue = "local")
+public class LocalBatchClient implements GenerationBatchClient {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, LocalBatch> batches = new ConcurrentHashMap<>();
+
+    @Override
+    public String submit(String displayName, List<BatchItem> items) {
+        String name = "batches/local-" + sequence.incrementAndGet();
+        batches.put(name, new LocalBatch(items));
+        return name;
+    }
+
+    @Override
+    public BatchStatus get(String batchName) {
+        LocalBatch batch = batches.get(batchName);
+        if (batch == null) {
+            return new BatchStatus("EXPIRED", List.of());
+        }
+        if (batch.cancelled) {
+            return new BatchStatus("CANCELLED", List.of());
+        }
+        if (batch.polls.getAndIncrement() == 0) {
+            return new BatchStatus("RUNNING", List.of());
+        }
+        return new BatchStatus("SUCCEEDED", batch.items.stream()
+                .map(item -> new BatchResult(item.key(), "[vi] " + promptText(item.request()), "STOP", null))
+                .toList());
+    }
+
+    @Override
+    public void cancel(String batchName) {
+        LocalBatch batch = batches.get(batchName);
+        if (batch != null) {
+            batch.cancelled = true;
+        }
+    }
+
+    private static String promptText(GeminiRequest request) {
+        return request.getContents().get(0).getParts().get(0).getText();
+    }
+
+    private static class LocalBatch {
+        private final List<BatchItem> items;
+        private final AtomicInteger polls = new AtomicInteger();
+        private volatile boolean cancelled = false;
+
+        LocalBatch(List<BatchItem> items) {
+            this.items = items;
+        }
+    }
+}
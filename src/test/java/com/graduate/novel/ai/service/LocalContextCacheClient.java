@@ -0,0 +1,45 @@
+package com.graduate.novel.ai.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stand-in for the Gemini cache API for tests (gemini.api.context-cache.client=local).
+ * Names it hands out are not known to Gemini; pair it with a stubbed text model.
+ */
+@Service
+@ConditionalOnProperty(prefix = "gemini.api.context-cache", name = "client", havingValue = "local")
+public class LocalContextCacheClient implements ContextCacheClient {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, String> contents = new ConcurrentHashMap<>();
+
+    @Override
+    public CachedContext create(String displayName, String systemInstruction, Duration ttl) {
+        String name = "cachedContents/local-" + sequence.incrementAndGet();
+        contents.put(name, systemInstruction);
+        return new CachedContext(name, Instant.now().plus(ttl));
+    }
+
+    @Override
+    public void delete(String name) {
+        contents.remove(name);
+    }
+
+    /**
+     * Cached system instruction by name, or null once deleted
+     */
+    public String get(String name) {
+        return contents.get(name);
+    }
+
+    public int size() {
+        return contents.size();
+    }
+}
@@ -0,0 +1,80 @@
+package com.graduate.novel.ai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the quantized story vector index
+ */
+class QuantizedVectorIndexTest {
+
+    private static final int SOURCE_DIMENSION = 128;
+
+    @Test
+    void int8FindsStoredVectorsFirst() {
+        float[][] vectors = randomVectors(500, new Random(7));
+        QuantizedVectorIndex index = build(QuantizedVectorIndex.Quantization.INT8, SOURCE_DIMENSION, vectors);
+
+        for (int i = 0; i < vectors.length; i += 50) {
+            assertEquals(i + 1, index.search(vectors[i], 5)[0]);
+        }
+        // 128 bytes + 4-byte scale + 8-byte id per vector instead of 512 bytes of floats
+        assertEquals(500L * (128 + 4 + 8), index.memoryBytes());
+    }
+
+    @Test
+    void binaryAndTruncatedCodesStillRankTheQueryFirst() {
+        float[][] vectors = randomVectors(500, new Random(11));
+        QuantizedVectorIndex index = build(QuantizedVectorIndex.Quantization.BINARY, 64, vectors);
+
+        assertEquals(64, index.dimension());
+        for (int i = 0; i < vectors.length; i += 50) {
+            assertEquals(i + 1, index.search(vectors[i], 5)[0]);
+        }
+        // One 64-bit word + 8-byte id per vector
+        assertEquals(500L * 16, index.memoryBytes());
+    }
+
+    @Test
+    void rejectsVectorsOfAnotherDimension() {
+        QuantizedVectorIndex.Builder builder =
+                QuantizedVectorIndex.builder(QuantizedVectorIndex.Quantization.INT8, SOURCE_DIMENSION, 32);
+
+        assertFalse(builder.add(1, new float[SOURCE_DIMENSION + 1]));
+        assertTrue(builder.add(1, new float[SOURCE_DIMENSION]));
+        assertEquals(1, builder.build().size());
+    }
+
+    @Test
+    void parsesPgvectorText() {
+        assertArrayEquals(new float[]{0.5f, -1.25f, 3e-4f}, StoryVectorTier.parseVector("[0.5,-1.25,3e-4]"));
+        assertNull(StoryVectorTier.parseVector("[]"));
+        assertNull(StoryVectorTier.parseVector("[0.5,abc]"));
+    }
+
+    private static QuantizedVectorIndex build(QuantizedVectorIndex.Quantization quantization, int dimension,
+                                              float[][] vectors) {
+        QuantizedVectorIndex.Builder builder = QuantizedVectorIndex.builder(quantization, SOURCE_DIMENSION, dimension);
+        for (int i = 0; i < vectors.length; i++) {
+            builder.add(i + 1, vectors[i]);
+        }
+        return builder.build();
+    }
+
+    private static float[][] randomVectors(int count, Random random) {
+        float[][] vectors = new float[count][SOURCE_DIMENSION];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+}
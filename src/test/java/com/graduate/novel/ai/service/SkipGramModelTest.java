@@ -0,0 +1,93 @@
+package com.graduate.novel.ai.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for skip-gram training, checkpoints and export
+ */
+class SkipGramModelTest {
+
+    private static final List<String> MAGIC = List.of("pháp", "sư", "phép", "thuật", "ma");
+    private static final List<String> SEA = List.of("biển", "thuyền", "sóng", "cá", "đảo");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void wordsOfOneTopicEndUpCloser() {
+        List<List<String>> corpus = corpus();
+        SkipGramModel model = SkipGramModel.create(counts(corpus), 1, 100,
+                new SkipGramModel.Settings(20, 3, 5, 0));
+        SkipGramModel.Worker worker = model.newWorker(1);
+        for (int epoch = 0; epoch < 5; epoch++) {
+            float alpha = 0.05f * (1 - epoch / 5f);
+            corpus.forEach(document -> worker.train(String.join(" ", document), alpha));
+        }
+
+        assertTrue(similarity(model, "pháp", "thuật") > similarity(model, "pháp", "biển"));
+        assertTrue(similarity(model, "thuyền", "sóng") > similarity(model, "thuyền", "phép"));
+    }
+
+    @Test
+    void checkpointAndExportPreserveVectors() throws Exception {
+        List<List<String>> corpus = corpus();
+        SkipGramModel model = SkipGramModel.create(counts(corpus), 1, 100,
+                new SkipGramModel.Settings(8, 2, 2, 0));
+        corpus.forEach(document -> model.newWorker(7).train(String.join(" ", document), 0.025f));
+
+        Path checkpointPath = directory.resolve("model.checkpoint");
+        model.writeCheckpoint(checkpointPath, new SkipGramModel.Progress(2, 42, 1000));
+        SkipGramModel.Checkpoint restored = SkipGramModel.readCheckpoint(checkpointPath);
+        assertEquals(new SkipGramModel.Progress(2, 42, 1000), restored.progress());
+        assertEquals(model.settings(), restored.model().settings());
+        assertArrayEquals(model.vector("sóng"), restored.model().vector("sóng"));
+
+        Path storePath = directory.resolve("vectors.store");
+        model.export(storePath);
+        WordVectorStore store = WordVectorStore.open(storePath);
+        assertEquals(model.vocabularySize(), store.size());
+        assertArrayEquals(model.vector("phép"), store.vector(store.find("phép")), 1e-6f);
+    }
+
+    private static List<List<String>> corpus() {
+        Random random = new Random(3);
+        List<List<String>> corpus = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            List<String> topic = i % 2 == 0 ? MAGIC : SEA;
+            List<String> document = new ArrayList<>();
+            for (int j = 0; j < 30; j++) {
+                document.add(topic.get(random.nextInt(topic.size())));
+            }
+            corpus.add(document);
+        }
+        return corpus;
+    }
+
+    private static Map<String, Long> counts(List<List<String>> corpus) {
+        Map<String, Long> counts = new HashMap<>();
+        corpus.forEach(document -> document.forEach(word -> counts.merge(word, 1L, Long::sum)));
+        return counts;
+    }
+
+    private static double similarity(SkipGramModel model, String a, String b) {
+        float[] x = model.vector(a);
+        float[] y = model.vector(b);
+        double dot = 0;
+        for (int i = 0; i < x.length; i++) {
+            dot += x[i] * y[i];
+        }
+        return dot;
+    }
+}
@@ -0,0 +1,98 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.config.TfidfProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for training, persisting and reloading the TF-IDF model
+ */
+class TfidfEmbeddingServiceTest {
+
+    private static final List<String> CORPUS = List.of(
+            "kiếm sĩ và pháp sư phiêu lưu",
+            "pháp sư học phép thuật",
+            "kiếm sĩ bảo vệ vương quốc",
+            "cô gái và con mèo phiêu lưu",
+            "vương quốc của con mèo");
+
+    @TempDir
+    Path directory;
+
+    private TfidfProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TfidfProperties();
+        properties.setModelPath(directory.resolve("tfidf.bin").toString());
+        properties.setMinDocFreq(2);
+        properties.setMaxDocFreqRatio(0.5);
+    }
+
+    @Test
+    void hashedVectorsAreDeterministicBeforeTraining() {
+        TfidfEmbeddingService first = new TfidfEmbeddingService(properties, null);
+        TfidfEmbeddingService second = new TfidfEmbeddingService(properties, null);
+
+        assertEquals("tfidf-hash", first.modelId());
+        assertArrayEquals(first.generateEmbedding("kiếm sĩ phiêu lưu"), second.generateEmbedding("kiếm sĩ phiêu lưu"));
+    }
+
+    @Test
+    void trainedModelIsReloadedWithSameVectors() {
+        TfidfEmbeddingService trained = new TfidfEmbeddingService(properties, null);
+        trained.trainVocabulary(CORPUS);
+        float[] vector = trained.generateEmbedding("pháp sư và kiếm sĩ");
+
+        TfidfEmbeddingService reloaded = new TfidfEmbeddingService(properties, null);
+        reloaded.loadModel();
+
+        assertNotEquals("tfidf-hash", trained.modelId());
+        assertEquals(trained.modelId(), reloaded.modelId());
+        assertArrayEquals(vector, reloaded.generateEmbedding("pháp sư và kiếm sĩ"));
+        assertEquals(500, vector.length);
+    }
+
+    @Test
+    void vectorsFromAnOlderModelAreNotCurrent() {
+        TfidfEmbeddingService service = new TfidfEmbeddingService(properties, null);
+        TfidfEmbeddingService.TfidfVector hashed = service.embed("kiếm sĩ phiêu lưu");
+        assertEquals("tfidf-hash", hashed.modelId());
+        assertTrue(service.isCurrent(hashed));
+
+        service.trainVocabulary(CORPUS);
+        TfidfEmbeddingService.TfidfVector trained = service.embed("kiếm sĩ phiêu lưu");
+
+        assertFalse(service.isCurrent(hashed));
+        assertTrue(service.isCurrent(trained));
+        assertEquals(service.modelId(), trained.modelId());
+    }
+
+    @Test
+    void vectorsAreUnitLengthAndQueriesDoNotChangeTheModel() {
+        TfidfEmbeddingService service = new TfidfEmbeddingService(properties, null);
+        service.trainVocabulary(CORPUS);
+
+        float[] before = service.generateEmbedding("con mèo phiêu lưu");
+        service.generateEmbedding("một văn bản hoàn toàn khác");
+        float[] after = service.generateEmbedding("con mèo phiêu lưu");
+
+        double norm = 0;
+        for (float v : before) {
+            norm += v * v;
+        }
+        assertEquals(1.0, norm, 1e-5);
+        assertArrayEquals(before, after);
+        assertTrue(service.modelId().startsWith("tfidf-"));
+    }
+}
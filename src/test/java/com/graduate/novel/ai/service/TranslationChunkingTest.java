@@ -0,0 +1,53 @@
+package com.graduate.novel.ai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the up-front chunk splitting used by chunked translation
+ */
+class TranslationChunkingTest {
+
+    @Test
+    void splitsAtParagraphBoundariesAndPreservesText() {
+        String text = "一段落目です。\n".repeat(50) + "最後の段落。";
+
+        List<String> chunks = TranslationService.splitIntoChunks(text, 100);
+
+        assertTrue(chunks.size() > 1);
+        chunks.forEach(chunk -> assertTrue(chunk.length() <= 100));
+        // Every chunk but the last ends on a paragraph boundary
+        chunks.subList(0, chunks.size() - 1).forEach(chunk -> assertTrue(chunk.endsWith("\n")));
+        assertEquals(text, String.join("", chunks));
+    }
+
+    @Test
+    void splitsOversizedParagraphAtSentenceEndings() {
+        String paragraph = "これは長い文です。".repeat(40);
+
+        List<String> chunks = TranslationService.splitIntoChunks(paragraph, 50);
+
+        chunks.forEach(chunk -> assertTrue(chunk.length() <= 50));
+        chunks.forEach(chunk -> assertTrue(chunk.endsWith("。")));
+        assertEquals(paragraph, String.join("", chunks));
+    }
+
+    @Test
+    void shortTextIsASingleChunk() {
+        List<String> chunks = TranslationService.splitIntoChunks("短い本文", 1000);
+
+        assertEquals(List.of("短い本文"), chunks);
+    }
+
+    @Test
+    void estimatesMoreTokensForJapaneseThanEnglish() {
+        String text = "x".repeat(3500);
+
+        assertEquals(3500, TranslationService.estimateOutputTokens(text, "ja"));
+        assertEquals(1000, TranslationService.estimateOutputTokens(text, "en"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.ai.config.GeminiConfig;
+import com.graduate.novel.ai.dto.PromptPrefix;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for context cache reuse and expiry, against the local cache stub
+ */
+class TranslationContextCacheServiceTest {
+
+    private static final String LONG_INSTRUCTION = "Dịch sang tiếng Việt. ".repeat(200);
+
+    private GeminiConfig geminiConfig;
+    private LocalContextCacheClient cacheClient;
+    private TranslationContextCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        geminiConfig = new GeminiConfig();
+        geminiConfig.getContextCache().setMinTokens(100);
+        cacheClient = new LocalContextCacheClient();
+        service = new TranslationContextCacheService(cacheClient, geminiConfig, null, null);
+    }
+
+    @Test
+    void reusesCacheForSameLanguagePair() {
+        PromptPrefix first = service.prefixFor("ja", LONG_INSTRUCTION, null);
+        PromptPrefix second = service.prefixFor("ja", LONG_INSTRUCTION, null);
+
+        assertTrue(first.isCached());
+        assertEquals(first.cachedContent(), second.cachedContent());
+        assertEquals(LONG_INSTRUCTION, cacheClient.get(first.cachedContent()));
+        assertEquals(1, cacheClient.size());
+    }
+
+    @Test
+    void recreatesCacheThatExpiresTooSoonToReuse() {
+        // A TTL shorter than the reuse margin is never handed out twice
+        geminiConfig.getContextCache().setTtlSeconds(30L);
+
+        PromptPrefix first = service.prefixFor("ja", LONG_INSTRUCTION, null);
+        PromptPrefix second = service.prefixFor("ja", LONG_INSTRUCTION, null);
+
+        assertNotEquals(first.cachedContent(), second.cachedContent());
+    }
+
+    @Test
+    void smallPrefixIsSentInline() {
+        PromptPrefix prefix = service.prefixFor("en", "Dịch sang tiếng Việt.", null);
+
+        assertFalse(prefix.isCached());
+        assertEquals("Dịch sang tiếng Việt.", prefix.systemInstruction());
+        assertEquals(0, cacheClient.size());
+    }
+
+    @Test
+    void invalidatedCacheIsRecreated() {
+        PromptPrefix first = service.prefixFor("ja", LONG_INSTRUCTION, null);
+        service.invalidate(first);
+
+        PromptPrefix second = service.prefixFor("ja", LONG_INSTRUCTION, null);
+
+        assertNotEquals(first.cachedContent(), second.cachedContent());
+    }
+
+    @Test
+    void deleteAllRemovesLiveCaches() {
+        PromptPrefix prefix = service.prefixFor("ja", LONG_INSTRUCTION, null);
+
+        service.deleteAll();
+
+        assertNull(cacheClient.get(prefix.cachedContent()));
+    }
+
+    @Test
+    void onlyCacheErrorsCountAsRejectedCache() {
+        assertTrue(service.isCacheRejected(new RuntimeException("Failed to generate content",
+                clientError(HttpStatus.NOT_FOUND, "{\"error\":{\"status\":\"NOT_FOUND\"}}"))));
+        assertTrue(service.isCacheRejected(new RuntimeException("Failed to generate content",
+                clientError(HttpStatus.BAD_REQUEST, "{\"error\":{\"message\":\"CachedContent has expired\"}}"))));
+
+        assertFalse(service.isCacheRejected(new RuntimeException("Failed to generate content",
+                clientError(HttpStatus.BAD_REQUEST, "{\"error\":{\"message\":\"Request payload size exceeds the limit\"}}"))));
+        assertFalse(service.isCacheRejected(new RuntimeException("Failed to generate content",
+                HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Unavailable",
+                        HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8))));
+        assertFalse(service.isCacheRejected(new IllegalStateException("Gemini returned no translation")));
+    }
+
+    private static HttpClientErrorException clientError(HttpStatus status, String body) {
+        return HttpClientErrorException.create(status, status.getReasonPhrase(), HttpHeaders.EMPTY,
+                body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,76 @@
+package com.graduate.novel.ai.service;
+
+import com.graduate.novel.config.WordVectorProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for importing pre-trained word vectors and embedding text with them
+ */
+class Word2VecEmbeddingServiceTest {
+
+    private static final String VECTORS = """
+            5 3
+            mèo 1 0 0
+            Mèo 0 0 1
+            魔法 0 1 0
+            使い 0 0 2
+            kiếm 3 4 0
+            """;
+
+    @TempDir
+    Path directory;
+
+    private Word2VecEmbeddingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path vectors = directory.resolve("vectors.vec");
+        Files.writeString(vectors, VECTORS);
+        Path storePath = directory.resolve("vectors.store");
+        WordVectorStore.importText(vectors, storePath);
+
+        WordVectorProperties properties = new WordVectorProperties();
+        properties.setVectorsPath(vectors.toString());
+        properties.setStorePath(storePath.toString());
+        service = new Word2VecEmbeddingService(properties);
+        service.loadVectors();
+    }
+
+    @Test
+    void importKeepsFirstSpellingAndNormalizes() {
+        assertEquals(4, service.getVocabularySize());
+        assertEquals(3, service.getDimension());
+        assertArrayEquals(new float[]{1, 0, 0}, service.generateEmbedding("MÈO"), 1e-6f);
+        assertArrayEquals(new float[]{0.6f, 0.8f, 0}, service.generateEmbedding("kiếm"), 1e-6f);
+    }
+
+    @Test
+    void unknownCjkRunIsSegmentedIntoKnownWords() {
+        float s = (float) Math.sqrt(0.5);
+        assertArrayEquals(new float[]{0, s, s}, service.generateEmbedding("魔法使い"), 1e-6f);
+        assertTrue(service.similarity("魔法使い", "魔法") > 0.7);
+    }
+
+    @Test
+    void unknownWordsAddNothing() {
+        assertArrayEquals(new float[3], service.generateEmbedding("xyz"), 0f);
+        assertArrayEquals(new float[]{1, 0, 0}, service.generateEmbedding("mèo xyz"), 1e-6f);
+        assertEquals(4, service.getVocabularySize());
+    }
+
+    @Test
+    void failsWithoutVectors() {
+        service.reset();
+        assertThrows(IllegalStateException.class, () -> service.generateEmbedding("mèo"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.graduate.novel.common.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for MinHash signatures of chapter text
+ */
+class MinHashTest {
+
+    @Test
+    void lightlyEditedTextIsSimilarAndOtherTextIsNot() {
+        String original = text(1, 3000);
+        String edited = original.substring(0, 1500) + "（作者より：誤字を修正しました）" + original.substring(1500, 2900);
+        String formatted = original.replace("。", "。\n　");
+
+        int[] signature = MinHash.signature(original);
+        assertEquals(1.0, MinHash.similarity(signature, MinHash.signature(formatted)), 1e-9);
+        assertTrue(MinHash.similarity(signature, MinHash.signature(edited)) > 0.85);
+        assertTrue(MinHash.similarity(signature, MinHash.signature(text(2, 3000))) < 0.1);
+    }
+
+    @Test
+    void mergedSignatureIsTheSignatureOfTheUnion() {
+        String first = text(3, 800);
+        String second = text(4, 800);
+        int[] merged = MinHash.signature(first);
+        MinHash.merge(merged, MinHash.signature(second));
+
+        // The shingles spanning the join are the only difference
+        assertTrue(MinHash.similarity(merged, MinHash.signature(first + second)) > 0.95);
+        assertTrue(MinHash.similarity(merged, MinHash.signature(first)) < 0.7);
+    }
+
+    @Test
+    void bytesRoundTripAndShortTextIsNotSigned() {
+        int[] signature = MinHash.signature(text(5, 500));
+        byte[] bytes = MinHash.toBytes(signature);
+
+        assertEquals(MinHash.HASHES * Integer.BYTES, bytes.length);
+        assertArrayEquals(signature, MinHash.fromBytes(bytes));
+        assertArrayEquals(bytes, MinHash.signatureBytes(text(5, 500)));
+        assertNull(MinHash.fromBytes(new byte[3]));
+        assertNull(MinHash.signature("短い。"));
+    }
+
+    /**
+     * Kana and kanji in sentences, different for each seed
+     */
+    static String text(long seed, int length) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder text = new StringBuilder(length);
+        while (text.length() < length) {
+            int c = random.nextInt(4) == 0 ? 0x4e00 + random.nextInt(2000) : 0x3041 + random.nextInt(83);
+            text.append((char) c);
+            if (random.nextInt(25) == 0) {
+                text.append('。');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.graduate.novel.common.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the shared tokenizer and term table
+ */
+class TextTokenizerTest {
+
+    private static final String CHAPTER = "Kiếm sĩ rút KIẾM. 魔法使いは森へ行った。Ngày 12, trời mưa. ";
+
+    @Test
+    void splitsWordsAndCjkBigrams() {
+        assertEquals(List.of("kiếm", "sĩ", "rút", "kiếm", "魔法", "法使", "使い", "いは", "は森", "森へ", "へ行", "行っ",
+                        "った", "ngày", "12", "trời", "mưa"),
+                terms(CHAPTER, TextTokenizer.CjkMode.BIGRAMS));
+        assertEquals(List.of("a", "剣"), terms("a 剣 " + "x".repeat(41), TextTokenizer.CjkMode.BIGRAMS));
+    }
+
+    @Test
+    void keepsCjkRunsWholeOnRequest() {
+        assertEquals(List.of("魔法使いは森へ行った", "kiếm"), terms("魔法使いは森へ行った。Kiếm", TextTokenizer.CjkMode.WHOLE_RUNS));
+    }
+
+    @Test
+    void termTableCountsByContent() {
+        TermTable table = new TermTable();
+        TextTokenizer.forEachToken(CHAPTER.repeat(50), TextTokenizer.CjkMode.BIGRAMS, (term, start, end) -> table.add(term));
+
+        assertEquals(16, table.size());
+        assertEquals(100, table.count(table.indexOf("kiếm")));
+        assertEquals(100, table.maxCount());
+        assertEquals(-1, table.indexOf("rồng"));
+
+        table.clear();
+        assertEquals(0, table.size());
+        assertEquals(-1, table.indexOf("kiếm"));
+    }
+
+    @Test
+    void utf8CompareMatchesByteOrder() {
+        List<String> words = List.of("a", "ab", "é", "kiếm", "魔法", "😀", "z");
+        for (String stored : words) {
+            byte[] bytes = stored.getBytes(StandardCharsets.UTF_8);
+            for (String other : words) {
+                int expected = Integer.signum(java.util.Arrays.compareUnsigned(bytes, other.getBytes(StandardCharsets.UTF_8)));
+                int actual = Integer.signum(Utf8.compare(ByteBuffer.wrap(bytes), 0, bytes.length, other, 0, other.length()));
+                assertEquals(expected, actual, stored + " vs " + other);
+            }
+        }
+    }
+
+    @Test
+    void countingAChapterAllocatesAlmostNothing() {
+        String chapter = CHAPTER.repeat(2000);
+        TermTable table = new TermTable();
+        TextTokenizer.TokenHandler handler = (term, start, end) -> table.add(term);
+        for (int i = 0; i < 20; i++) {
+            table.clear();
+            TextTokenizer.forEachToken(chapter, TextTokenizer.CjkMode.BIGRAMS, handler);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        table.clear();
+        TextTokenizer.forEachToken(chapter, TextTokenizer.CjkMode.BIGRAMS, handler);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // About 34,000 tokens; a String per token alone would be over a megabyte
+        assertTrue(allocated < 16 * 1024, "allocated " + allocated + " bytes");
+    }
+
+    private static List<String> terms(String text, TextTokenizer.CjkMode mode) {
+        List<String> terms = new ArrayList<>();
+        TextTokenizer.forEachToken(text, mode, (term, start, end) -> terms.add(term.toString()));
+        return terms;
+    }
+}
@@ -0,0 +1,81 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.config.CrawlProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for per-host crawl pacing: bursts, spacing of queued requests, independent hosts and pauses
+ */
+class HostRateLimiterTest {
+
+    private MutableClock clock;
+    private HostRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        CrawlProperties properties = new CrawlProperties();
+        properties.setHostRequestsPerSecond(2.0);
+        properties.setHostBurst(2);
+        clock = new MutableClock();
+        limiter = new HostRateLimiter(properties, clock);
+    }
+
+    @Test
+    void queuedRequestsAreSpacedAtTheHostRate() {
+        assertEquals(0, limiter.reserve("ncode.syosetu.com"));
+        assertEquals(0, limiter.reserve("ncode.syosetu.com"));
+        assertEquals(500, limiter.reserve("ncode.syosetu.com"));
+        assertEquals(1000, limiter.reserve("ncode.syosetu.com"));
+
+        clock.advance(Duration.ofMillis(1000));
+        assertEquals(500, limiter.reserve("ncode.syosetu.com"));
+    }
+
+    @Test
+    void hostsDoNotWaitForEachOther() {
+        limiter.reserve("ncode.syosetu.com");
+        limiter.reserve("ncode.syosetu.com");
+        assertEquals(500, limiter.reserve("ncode.syosetu.com"));
+        assertEquals(0, limiter.reserve("kakuyomu.jp"));
+    }
+
+    @Test
+    void pausedHostWaitsUntilThePauseEnds() {
+        limiter.reserve("ncode.syosetu.com");
+        limiter.pause("ncode.syosetu.com", Duration.ofSeconds(10));
+        assertEquals(10000, limiter.reserve("ncode.syosetu.com"));
+        assertEquals(10500, limiter.reserve("ncode.syosetu.com"));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.config.PageArchiveProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the zstd pack archive of fetched pages
+ */
+class PageArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<ArchivedPage> rows = new ArrayList<>();
+
+    private PageArchive archive() {
+        ArchivedPageRepository repository = mock(ArchivedPageRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            rows.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.findFirstByContentHash(any())).thenAnswer(invocation -> rows.stream()
+                .filter(row -> Arrays.equals(row.getContentHash(), invocation.getArgument(0)))
+                .findFirst());
+        PageArchiveProperties properties = new PageArchiveProperties();
+        properties.setDir(directory.toString());
+        return new PageArchive(repository, properties);
+    }
+
+    private static byte[] page(String text) {
+        return ("<html><body><div id=\"novel_honbun\">" + text.repeat(200) + "</div></body></html>")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void readsBackEachPageFromOnePack() throws IOException {
+        PageArchive archive = archive();
+        byte[] first = page("吾輩は猫である。");
+        byte[] second = page("名前はまだ無い。");
+
+        archive.store("https://ncode.syosetu.com/n1/1/", "UTF-8", first);
+        archive.store("https://ncode.syosetu.com/n1/2/", "UTF-8", second);
+        archive.close();
+
+        assertEquals(2, rows.size());
+        assertEquals(rows.get(0).getPackFile(), rows.get(1).getPackFile());
+        assertArrayEquals(first, archive.read(rows.get(0)));
+        assertArrayEquals(second, archive.read(rows.get(1)));
+        assertTrue(rows.get(0).getCompressedSize() < first.length / 10);
+    }
+
+    @Test
+    void storesIdenticalPagesOnce() throws IOException {
+        PageArchive archive = archive();
+        byte[] bytes = page("同じ本文。");
+
+        archive.store("https://ncode.syosetu.com/n1/1/", "UTF-8", bytes);
+        archive.store("https://ncode.syosetu.com/n1/1/", "UTF-8", bytes);
+        archive.close();
+
+        assertEquals(2, rows.size());
+        assertEquals(rows.get(0).getPackOffset(), rows.get(1).getPackOffset());
+        assertEquals((long) rows.get(0).getCompressedSize(), Files.size(directory.resolve(rows.get(0).getPackFile())));
+    }
+
+    @Test
+    void rejectsCorruptFrame() throws IOException {
+        PageArchive archive = archive();
+        archive.store("https://ncode.syosetu.com/n1/1/", "UTF-8", page("本文。"));
+        archive.close();
+
+        ArchivedPage row = rows.get(0);
+        row.setContentHash(new byte[32]);
+        assertThrows(IOException.class, () -> archive.read(row));
+    }
+}
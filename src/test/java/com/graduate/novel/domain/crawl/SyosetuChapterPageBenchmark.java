@@ -0,0 +1,61 @@
+package com.graduate.novel.domain.crawl;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import static com.graduate.novel.domain.crawl.SyosetuChapterPageTest.CHAPTER_FIXTURES;
+import static com.graduate.novel.domain.crawl.SyosetuChapterPageTest.URL;
+import static com.graduate.novel.domain.crawl.SyosetuChapterPageTest.domContent;
+import static com.graduate.novel.domain.crawl.SyosetuChapterPageTest.fixture;
+
+/**
+ * Allocations and time of streaming chapter extraction against the previous extraction (whole
+ * page parsed, the body serialized to HTML and parsed again for its text). Reports only; run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class SyosetuChapterPageBenchmark {
+
+    @Test
+    void streamingExtractionAllocatesLess() throws IOException {
+        for (String fixture : CHAPTER_FIXTURES) {
+            byte[] page = fixture(fixture);
+            Measurement dom = measure(() -> domContent(page));
+            Measurement streaming = measure(() ->
+                    SyosetuChapterPage.parse(new ByteArrayInputStream(page), "UTF-8", URL).content());
+
+            System.out.printf("%s (%d KB): full parse %d KB / %d µs, streaming %d KB / %d µs per chapter%n",
+                    fixture, page.length / 1024, dom.bytes() / 1024, dom.nanos() / 1000,
+                    streaming.bytes() / 1024, streaming.nanos() / 1000);
+        }
+    }
+
+    private record Measurement(long bytes, long nanos) {
+    }
+
+    private interface Extraction {
+        String run() throws IOException;
+    }
+
+    /**
+     * Allocated bytes and time per run on this thread, after a warm-up
+     */
+    private static Measurement measure(Extraction extraction) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int runs = 200;
+        for (int i = 0; i < runs; i++) {
+            extraction.run();
+        }
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            extraction.run();
+        }
+        long nanos = System.nanoTime() - start;
+        return new Measurement((threads.getCurrentThreadAllocatedBytes() - bytesBefore) / runs, nanos / runs);
+    }
+}
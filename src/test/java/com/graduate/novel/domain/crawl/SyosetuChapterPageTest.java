@@ -0,0 +1,80 @@
+package com.graduate.novel.domain.crawl;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for streaming chapter and table-of-contents extraction on saved page fixtures: the same
+ * result as a full DOM parse (see {@link SyosetuChapterPageBenchmark} for what it saves)
+ */
+class SyosetuChapterPageTest {
+
+    static final String URL = "https://ncode.syosetu.com/n0000fx/1/";
+    static final List<String> CHAPTER_FIXTURES = List.of("chapter-current.html", "chapter-legacy.html");
+
+    @Test
+    void streamingExtractionMatchesFullParse() throws IOException {
+        for (String fixture : CHAPTER_FIXTURES) {
+            byte[] page = fixture(fixture);
+            SyosetuChapterPage.Extract streamed = SyosetuChapterPage.parse(new ByteArrayInputStream(page), "UTF-8", URL);
+
+            assertEquals("旅立ちの朝", streamed.title(), fixture);
+            assertNotNull(streamed.content(), fixture);
+            assertTrue(streamed.content().contains("まどうぐ"), fixture);
+            assertEquals(domContent(page), streamed.content(), fixture);
+            assertEquals(SyosetuChapterPage.extract(Jsoup.parse(new ByteArrayInputStream(page), "UTF-8", URL)),
+                    streamed, fixture);
+        }
+    }
+
+    @Test
+    void streamingTocMatchesFullParse() throws IOException {
+        byte[] page = fixture("toc-current.html");
+        SyosetuToc.Page streamed = SyosetuToc.parse(new ByteArrayInputStream(page), "UTF-8", URL);
+
+        assertEquals(100, streamed.entries().size());
+        assertEquals(3, streamed.lastPage());
+        assertEquals(SyosetuToc.parse(Jsoup.parse(new ByteArrayInputStream(page), "UTF-8", URL)), streamed);
+    }
+
+    /**
+     * Chapter text as extracted before streaming: whole page parsed, body re-parsed from its HTML
+     */
+    static String domContent(byte[] page) throws IOException {
+        Document doc = Jsoup.parse(new ByteArrayInputStream(page), "UTF-8", URL);
+        Element content = null;
+        for (String selector : List.of("#novel_honbun", "div.novel_view", "#novel_color", "div#novel_no",
+                ".novel_body", "div.p-novel__body")) {
+            content = doc.selectFirst(selector);
+            if (content != null) {
+                break;
+            }
+        }
+        assertNotNull(content);
+        String html = content.html();
+        html = html.replaceAll("<br\\s*/?>", "\n");
+        html = html.replaceAll("</p>", "\n\n");
+        String text = Jsoup.parse(html).text();
+        text = text.replaceAll("[ \\t]+", " ");
+        text = text.replaceAll("\n{3,}", "\n\n");
+        return text.trim();
+    }
+
+    static byte[] fixture(String name) throws IOException {
+        try (InputStream in = SyosetuChapterPageTest.class.getResourceAsStream("/syosetu/" + name)) {
+            assertNotNull(in, name);
+            return in.readAllBytes();
+        }
+    }
+}
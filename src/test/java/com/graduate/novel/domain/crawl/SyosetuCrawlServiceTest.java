@@ -0,0 +1,81 @@
+package com.graduate.novel.domain.crawl;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for which table-of-contents pages a crawl reads, on a novel with three pages of 100 chapters
+ */
+class SyosetuCrawlServiceTest {
+
+    private static final String BASE_URL = "https://ncode.syosetu.com/n0000fx/";
+    private static final int LAST_PAGE = 3;
+
+    private final List<String> fetched = new ArrayList<>();
+
+    private SyosetuCrawlService service() throws Exception {
+        PageFetcher pageFetcher = mock(PageFetcher.class);
+        when(pageFetcher.fetch(anyString(), isNull(), isNull(), any())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            fetched.add(url);
+            int page = Integer.parseInt(url.substring(url.indexOf("?p=") + 3));
+            return new PageFetcher.Result<>(tocPage(page), false, null, null);
+        });
+        return new SyosetuCrawlService(null, null, null, null, null, pageFetcher, null, null, null, null, null);
+    }
+
+    @Test
+    void updateCheckOfANewStoryReadsEveryPage() throws Exception {
+        List<SyosetuToc.Entry> toc = service().readToc(BASE_URL, tocPage(1), null, null, 1);
+
+        assertEquals(List.of(BASE_URL + "?p=2", BASE_URL + "?p=3"), fetched);
+        assertEquals(300, toc.size());
+        assertEquals(300, toc.get(toc.size() - 1).chapterIndex());
+    }
+
+    @Test
+    void updateCheckStartsAtThePageOfTheFirstMissingChapter() throws Exception {
+        // Chapters 1 to 150 stored: 151 is on page 2, which the last page alone would miss
+        List<SyosetuToc.Entry> toc = service().readToc(BASE_URL, tocPage(1), null, null, 151);
+
+        assertEquals(List.of(BASE_URL + "?p=2", BASE_URL + "?p=3"), fetched);
+        assertEquals(300, toc.size());
+    }
+
+    @Test
+    void updateCheckOfACompleteStoryReadsTheLastPage() throws Exception {
+        service().readToc(BASE_URL, tocPage(1), null, null, 301);
+
+        assertEquals(List.of(BASE_URL + "?p=3"), fetched);
+    }
+
+    @Test
+    void rangeReadsOnlyThePagesCoveringIt() throws Exception {
+        List<SyosetuToc.Entry> toc = service().readToc(BASE_URL, tocPage(1), 120, 180, 1);
+
+        assertEquals(List.of(BASE_URL + "?p=2"), fetched);
+        assertEquals(200, toc.size());
+    }
+
+    private static SyosetuToc.Page tocPage(int page) {
+        StringBuilder html = new StringBuilder("<div class=\"p-eplist\">");
+        for (int index = (page - 1) * 100 + 1; index <= page * 100; index++) {
+            html.append("<div class=\"p-eplist__sublist\"><a href=\"/n0000fx/").append(index)
+                    .append("/\" class=\"p-eplist__subtitle\">第").append(index).append("話</a>")
+                    .append("<div class=\"p-eplist__update\">2024/01/01 18:00</div></div>");
+        }
+        html.append("</div><div class=\"c-pager\"><a href=\"/n0000fx/?p=").append(LAST_PAGE)
+                .append("\" class=\"c-pager__item c-pager__item--last\">最後へ</a></div>");
+        return SyosetuToc.parse(Jsoup.parse(html.toString(), BASE_URL));
+    }
+}
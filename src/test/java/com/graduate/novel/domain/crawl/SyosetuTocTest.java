@@ -0,0 +1,78 @@
+package com.graduate.novel.domain.crawl;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for table-of-contents parsing on both Syosetu page layouts
+ */
+class SyosetuTocTest {
+
+    @Test
+    void parsesCurrentLayoutWithRevisionDatesAndPager() {
+        String html = """
+                <div class="p-eplist">
+                  <div class="p-eplist__chapter-title">第一章</div>
+                  <div class="p-eplist__sublist">
+                    <a href="/n5375cy/1/" class="p-eplist__subtitle">死亡そして……</a>
+                    <div class="p-eplist__update">2017/10/19 18:00<span title="2018/01/02 09:30 改稿">（<u>改</u>）</span></div>
+                  </div>
+                  <div class="p-eplist__sublist">
+                    <a href="/n5375cy/2/" class="p-eplist__subtitle">転生</a>
+                    <div class="p-eplist__update">2017/10/20 18:00</div>
+                  </div>
+                </div>
+                <div class="c-pager">
+                  <a href="/n5375cy/?p=2" class="c-pager__item c-pager__item--next">次へ</a>
+                  <a href="/n5375cy/?p=7" class="c-pager__item c-pager__item--last">最後へ</a>
+                </div>
+                """;
+        SyosetuToc.Page page = SyosetuToc.parse(Jsoup.parse(html, "https://ncode.syosetu.com/n5375cy/"));
+
+        assertEquals(7, page.lastPage());
+        assertEquals(2, page.entries().size());
+        assertEquals(new SyosetuToc.Entry(1, "死亡そして……", jst(2018, 1, 2, 9, 30)), page.entries().get(0));
+        assertEquals(new SyosetuToc.Entry(2, "転生", jst(2017, 10, 20, 18, 0)), page.entries().get(1));
+    }
+
+    @Test
+    void parsesOlderLayout() {
+        String html = """
+                <div class="index_box">
+                  <dl class="novel_sublist2">
+                    <dd class="subtitle"><a href="/n9669bk/1/">プロローグ</a></dd>
+                    <dt class="long_update">2012/11/22 17:00</dt>
+                  </dl>
+                </div>
+                """;
+        SyosetuToc.Page page = SyosetuToc.parse(Jsoup.parse(html, "https://ncode.syosetu.com/n9669bk/"));
+
+        assertEquals(1, page.lastPage());
+        assertEquals(new SyosetuToc.Entry(1, "プロローグ", jst(2012, 11, 22, 17, 0)), page.entries().get(0));
+    }
+
+    @Test
+    void shortStoryHasNoEntries() {
+        SyosetuToc.Page page = SyosetuToc.parse(Jsoup.parse("<div class=\"p-novel__body\">本文</div>"));
+
+        assertEquals(0, page.entries().size());
+        assertEquals(1, page.lastPage());
+    }
+
+    @Test
+    void entryWithoutDate() {
+        String html = "<div class=\"p-eplist__sublist\"><a href=\"/n1234ab/3/\">三</a></div>";
+        assertNull(SyosetuToc.parse(Jsoup.parse(html)).entries().get(0).updatedAt());
+    }
+
+    private static LocalDateTime jst(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(ZoneId.of("Asia/Tokyo"))
+                .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
@@ -0,0 +1,77 @@
+package com.graduate.novel.domain.crawl;
+
+import com.graduate.novel.config.StoryUpdateProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for update check scheduling: poll frequency by following, quiet period after a release,
+ * dormant stories, priorities and the release interval estimate
+ */
+class UpdateCadenceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    private final StoryUpdateProperties properties = new StoryUpdateProperties();
+
+    @Test
+    void followedStoriesArePolledMoreOften() {
+        LocalDateTime lastRelease = NOW.minusHours(20);
+        double unfollowed = UpdateCadence.weight(0, 0, properties.getActiveReaderWeight());
+        double popular = UpdateCadence.weight(200, 30, properties.getActiveReaderWeight());
+
+        assertEquals(360, UpdateCadence.nextCheckDelay(1440.0, lastRelease, NOW, unfollowed, properties).toMinutes());
+        long popularDelay = UpdateCadence.nextCheckDelay(1440.0, lastRelease, NOW, popular, properties).toMinutes();
+        assertTrue(popularDelay >= properties.getMinCheckIntervalMinutes() && popularDelay < 30,
+                "popular story polled every " + popularDelay + " minutes");
+    }
+
+    @Test
+    void noPollsRightAfterARelease() {
+        double popular = UpdateCadence.weight(200, 30, properties.getActiveReaderWeight());
+
+        // Daily story released an hour ago: next poll half an interval after the release
+        assertEquals(660, UpdateCadence.nextCheckDelay(1440.0, NOW.minusHours(1), NOW, popular, properties).toMinutes());
+    }
+
+    @Test
+    void dormantStoriesAreCheckedWeekly() {
+        double popular = UpdateCadence.weight(200, 30, properties.getActiveReaderWeight());
+
+        assertEquals(properties.getDormantCheckIntervalMinutes(),
+                UpdateCadence.nextCheckDelay(1440.0, NOW.minusDays(90), NOW, popular, properties).toMinutes());
+    }
+
+    @Test
+    void scorePrefersLikelyNewsAndFollowedStories() {
+        UpdateCandidate neverChecked = new UpdateCandidate(1L, null, null, 0L, 0L);
+        UpdateCandidate checkedRecently = new UpdateCandidate(2L, 1440.0, NOW.minusMinutes(10), 0L, 0L);
+        UpdateCandidate checkedLongAgo = new UpdateCandidate(3L, 1440.0, NOW.minusHours(24), 0L, 0L);
+        UpdateCandidate followedLongAgo = new UpdateCandidate(4L, 1440.0, NOW.minusHours(24), 50L, 5L);
+
+        double recent = UpdateCadence.score(checkedRecently, NOW, properties);
+        double longAgo = UpdateCadence.score(checkedLongAgo, NOW, properties);
+        assertTrue(recent < longAgo);
+        assertTrue(longAgo < UpdateCadence.score(neverChecked, NOW, properties));
+        assertTrue(longAgo < UpdateCadence.score(followedLongAgo, NOW, properties));
+    }
+
+    @Test
+    void intervalEstimateIgnoresRevisedChapters() {
+        LocalDateTime start = NOW.minusDays(10);
+        List<LocalDateTime> releases = List.of(start, start.plusDays(1), start.plusDays(9), start.plusDays(3),
+                start.plusDays(4), start.plusDays(5));
+
+        assertEquals(1440.0, UpdateCadence.medianGapMinutes(releases));
+        assertNull(UpdateCadence.medianGapMinutes(List.of(start)));
+        // Four new chapters over two days pull a daily interval toward twelve hours
+        assertEquals(0.3 * 720 + 0.7 * 1440,
+                UpdateCadence.updateInterval(1440.0, start, start.plusDays(2), 4, null, 0.3), 1e-9);
+    }
+}
@@ -0,0 +1,60 @@
+package com.graduate.novel.domain.crawljob;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the throughput and ETA streamed to job watchers, and progress throttling
+ */
+class JobProgressTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void estimatesRemainingTimeFromRateSinceStart() {
+        CrawlJob job = CrawlJob.builder()
+                .id(1L).jobType("STORY_CRAWL").status("PROCESSING")
+                .startedAt(START).totalItems(100).completedItems(18).failedItems(2)
+                .build();
+
+        JobProgress progress = JobProgress.of(job, START.plusMinutes(10));
+
+        assertEquals(2.0, progress.itemsPerMinute(), 1e-9);
+        assertEquals(40 * 60L, progress.etaSeconds());
+    }
+
+    @Test
+    void noEstimateBeforeFirstItemOrAfterFinish() {
+        CrawlJob running = CrawlJob.builder()
+                .id(1L).status("PROCESSING").startedAt(START).totalItems(100).completedItems(0).failedItems(0)
+                .build();
+        CrawlJob finished = CrawlJob.builder()
+                .id(2L).status("SUCCESS").startedAt(START).finishedAt(START.plusMinutes(5))
+                .totalItems(10).completedItems(10).failedItems(0)
+                .build();
+
+        assertNull(JobProgress.of(running, START.plusMinutes(1)).etaSeconds());
+        JobProgress done = JobProgress.of(finished, START.plusHours(1));
+        assertEquals(2.0, done.itemsPerMinute(), 1e-9);
+        assertNull(done.etaSeconds());
+    }
+
+    @Test
+    void throttledListenerAlwaysForwardsTheFinalUpdate() {
+        List<Integer> forwarded = new ArrayList<>();
+        ProgressListener listener = ProgressListener.throttled(
+                (total, completed, failed) -> forwarded.add(completed + failed), 60_000);
+
+        for (int i = 1; i <= 50; i++) {
+            listener.progress(50, i, 0);
+        }
+
+        assertEquals(List.of(1, 50), forwarded);
+    }
+}
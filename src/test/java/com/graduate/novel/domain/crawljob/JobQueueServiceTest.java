@@ -0,0 +1,91 @@
+package com.graduate.novel.domain.crawljob;
+
+import com.graduate.novel.config.JobQueueProperties;
+import com.graduate.novel.domain.chapter.ChapterRepository;
+import com.graduate.novel.domain.story.StoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that a chapter translation running longer than a job lease is not reset as stale
+ */
+class JobQueueServiceTest {
+
+    private static final long CHAPTER_ID = 7L;
+
+    private final CrawlJobRepository crawlJobRepository = mock(CrawlJobRepository.class);
+    private final ChapterRepository chapterRepository = mock(ChapterRepository.class);
+    private final JobQueueProperties properties = new JobQueueProperties();
+    private final JobQueueService service = new JobQueueService(crawlJobRepository, mock(StoryRepository.class),
+            chapterRepository, null, properties, mock(ApplicationEventPublisher.class));
+
+    /** The chapter row as the two bulk updates see it */
+    private String translateStatus = "PENDING";
+    private LocalDateTime updatedAt;
+
+    private void mockChapterRow() {
+        when(chapterRepository.touchPendingTranslation(eq(CHAPTER_ID), any())).thenAnswer(invocation -> {
+            if (!"PENDING".equals(translateStatus)) {
+                return 0;
+            }
+            updatedAt = invocation.getArgument(1);
+            return 1;
+        });
+        when(chapterRepository.resetStalePendingTranslations(any())).thenAnswer(invocation -> {
+            LocalDateTime staleBefore = invocation.getArgument(0);
+            if ("PENDING".equals(translateStatus) && updatedAt.isBefore(staleBefore)) {
+                translateStatus = "NONE";
+                return 1;
+            }
+            return 0;
+        });
+    }
+
+    @Test
+    void translationOutlivingALeaseStaysPending() {
+        mockChapterRow();
+        when(crawlJobRepository.renewLease(eq(1L), eq("worker"), any(), any())).thenReturn(1);
+        // Set PENDING when the job started, more than a lease ago
+        updatedAt = LocalDateTime.now().minusSeconds(properties.getLeaseSeconds() + 60);
+        JobExecution execution = service.newExecution(
+                new ClaimedJob(1L, "CHAPTER_TRANSLATE", 3L, CHAPTER_ID, null, null, 1, 3), "worker");
+
+        assertTrue(service.heartbeat(execution));
+
+        assertEquals(0, service.resetStaleChapterTranslations());
+        assertEquals("PENDING", translateStatus);
+    }
+
+    @Test
+    void translationWithoutHeartbeatIsReset() {
+        mockChapterRow();
+        updatedAt = LocalDateTime.now().minusSeconds(properties.getLeaseSeconds() + 60);
+
+        assertEquals(1, service.resetStaleChapterTranslations());
+        assertEquals("NONE", translateStatus);
+    }
+
+    @Test
+    void lostLeaseDoesNotRefreshTheChapter() {
+        when(crawlJobRepository.renewLease(anyLong(), anyString(), any(), any())).thenReturn(0);
+        JobExecution execution = service.newExecution(
+                new ClaimedJob(1L, "CHAPTER_TRANSLATE", 3L, CHAPTER_ID, null, null, 1, 3), "worker");
+
+        assertFalse(service.heartbeat(execution));
+        verify(chapterRepository, never()).touchPendingTranslation(anyLong(), any());
+    }
+}
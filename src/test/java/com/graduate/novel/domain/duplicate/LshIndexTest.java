@@ -0,0 +1,65 @@
+package com.graduate.novel.domain.duplicate;
+
+import com.graduate.novel.common.text.MinHash;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the LSH index used to find copied chapters
+ */
+class LshIndexTest {
+
+    @Test
+    void findsEarlierCopyInAnotherStoryOnly() {
+        LshIndex index = new LshIndex(16);
+        for (long id = 1; id <= 200; id++) {
+            index.add(id, id % 10, MinHash.signature(text(id)));
+        }
+        String copied = text(42);
+        int[] copy = MinHash.signature(copied.substring(0, 1900) + "あとがき");
+
+        LshIndex.Match match = index.bestMatch(copy, 7, 0.8, id -> true);
+        assertNotNull(match);
+        assertEquals(42, match.id());
+        assertEquals(2, match.group());
+
+        // Chapters of the same story are not copies of each other
+        assertNull(index.bestMatch(copy, 2, 0.8, id -> true));
+        assertNull(index.bestMatch(MinHash.signature(text(1000)), 7, 0.5, id -> true));
+    }
+
+    @Test
+    void scanMatchesEachEntryWithEarlierEntriesAndSkipsReplacedOnes() {
+        LshIndex index = new LshIndex(16);
+        index.add(1, 1, MinHash.signature(text(1)));
+        index.add(2, 2, MinHash.signature(text(1)));
+        index.add(3, 3, MinHash.signature(text(3)));
+        // Chapter 3's text changed to a copy of chapter 1
+        index.add(3, 3, MinHash.signature(text(1)));
+
+        Map<Long, Long> matches = new HashMap<>();
+        index.forEachBestMatch(0, index.positions(), 0.85,
+                (id, match) -> matches.put(id, match != null ? match.id() : null));
+
+        assertEquals(3, matches.size());
+        assertNull(matches.get(1L));
+        assertEquals(1L, matches.get(2L));
+        assertEquals(1L, matches.get(3L));
+    }
+
+    private static String text(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 2000) {
+            text.append((char) (0x3041 + random.nextInt(83)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.graduate.novel.domain.passage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for chapter passage splitting: bounded, ordered passages whose boundaries survive edits
+ */
+class PassageSplitterTest {
+
+    private static final int MIN = 200;
+    private static final int MAX = 600;
+
+    @Test
+    void passagesAreBoundedOrderedAndCoverEveryParagraph() {
+        String text = chapter(0, 120);
+        List<PassageSplitter.Span> spans = PassageSplitter.split(text, MIN, MAX);
+
+        int previousEnd = 0;
+        for (PassageSplitter.Span span : spans) {
+            assertTrue(span.start() >= previousEnd, "passages must not overlap");
+            assertTrue(span.end() - span.start() <= MAX, "passage longer than the maximum");
+            previousEnd = span.end();
+        }
+        List<String> paragraphs = spans.stream()
+                .flatMap(span -> text.substring(span.start(), span.end()).lines())
+                .filter(line -> !line.isBlank())
+                .toList();
+        assertEquals(text.lines().filter(line -> !line.isBlank()).toList(), paragraphs);
+    }
+
+    @Test
+    void passagesAfterAnEditKeepTheirText() {
+        String original = chapter(0, 200);
+        String edited = "A new opening paragraph was added by the translator.\n\n" + original;
+
+        Set<String> before = passages(original);
+        List<String> after = List.copyOf(passages(edited));
+        long unchanged = after.stream().filter(before::contains).count();
+        // Only the passages around the edit differ; content-defined boundaries resynchronize
+        assertTrue(unchanged >= after.size() - 3, unchanged + " of " + after.size() + " passages unchanged");
+    }
+
+    @Test
+    void longParagraphIsCutAtSentenceEnds() {
+        String sentence = "彼は静かに扉を開けて、薄暗い廊下の先を見つめた。";
+        String paragraph = sentence.repeat(60);
+        List<PassageSplitter.Span> spans = PassageSplitter.split(paragraph, MIN, MAX);
+
+        assertTrue(spans.size() > 1);
+        for (PassageSplitter.Span span : spans) {
+            assertTrue(span.end() - span.start() <= MAX);
+            assertEquals('。', paragraph.charAt(span.end() - 1));
+        }
+    }
+
+    private static Set<String> passages(String text) {
+        Set<String> passages = new HashSet<>();
+        for (PassageSplitter.Span span : PassageSplitter.split(text, MIN, MAX)) {
+            passages.add(text.substring(span.start(), span.end()));
+        }
+        return passages;
+    }
+
+    private static String chapter(int from, int paragraphs) {
+        return IntStream.range(from, from + paragraphs)
+                .mapToObj(i -> "Paragraph " + i + " of the chapter, where something different happens each time ("
+                        + Integer.toHexString(i * 7919) + ").")
+                .collect(Collectors.joining("\n\n"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.graduate.novel.domain.search;
+
+import com.graduate.novel.common.text.TextTokenizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the on-disk BM25 chapter index
+ */
+class ChapterIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private static final ChapterIndex.Watermark MARK = new ChapterIndex.Watermark(LocalDateTime.of(2026, 1, 1, 0, 0), 3);
+
+    @Test
+    void ranksChapterWithMoreMatchesFirst() throws Exception {
+        ChapterIndex index = ChapterIndex.open(directory);
+        index.update(List.of(
+                new ChapterIndex.Document(1, 10, "Kiếm sĩ rút kiếm. Kiếm sáng loá."),
+                new ChapterIndex.Document(2, 10, "Pháp sư đọc thần chú, kiếm nằm yên."),
+                new ChapterIndex.Document(3, 20, "Một ngày bình thường ở làng.")), MARK);
+
+        List<ChapterIndex.Hit> hits = index.search(TextTokenizer.queryTerms("kiếm"), 10);
+
+        assertEquals(List.of(1L, 2L), hits.stream().map(ChapterIndex.Hit::chapterId).toList());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void matchesJapaneseByBigrams() throws Exception {
+        ChapterIndex index = ChapterIndex.open(directory);
+        index.update(List.of(
+                new ChapterIndex.Document(1, 10, "彼は魔法使いになった。"),
+                new ChapterIndex.Document(2, 10, "剣士は旅に出た。")), MARK);
+
+        assertEquals(List.of(1L), index.search(TextTokenizer.queryTerms("魔法使い"), 10).stream()
+                .map(ChapterIndex.Hit::chapterId).toList());
+    }
+
+    @Test
+    void reindexedChapterReplacesOldVersionAcrossMergeAndReopen() throws Exception {
+        ChapterIndex index = ChapterIndex.open(directory);
+        index.update(List.of(new ChapterIndex.Document(1, 10, "con rồng đỏ")), MARK);
+        index.update(List.of(new ChapterIndex.Document(2, 10, "con rồng xanh")), MARK);
+        index.update(List.of(new ChapterIndex.Document(1, 10, "con mèo đen")), MARK);
+
+        assertTrue(index.mergeIfNeeded(1, 1000));
+        assertEquals(1, index.segmentCount());
+
+        ChapterIndex reopened = ChapterIndex.open(directory);
+        assertEquals(2, reopened.docCount());
+        assertEquals(MARK, reopened.watermark());
+        assertEquals(List.of(2L), reopened.search(TextTokenizer.queryTerms("rồng"), 10).stream()
+                .map(ChapterIndex.Hit::chapterId).toList());
+        assertEquals(List.of(1L), reopened.search(TextTokenizer.queryTerms("mèo"), 10).stream()
+                .map(ChapterIndex.Hit::chapterId).toList());
+    }
+
+    @Test
+    void removedChapterStaysRemovedAfterReopen() throws Exception {
+        ChapterIndex index = ChapterIndex.open(directory);
+        index.update(List.of(
+                new ChapterIndex.Document(1, 10, "con rồng đỏ"),
+                new ChapterIndex.Document(2, 10, "con rồng xanh")), MARK);
+
+        index.remove(List.of(1L, 99L), 7);
+
+        assertEquals(List.of(2L), index.search(TextTokenizer.queryTerms("rồng"), 10).stream()
+                .map(ChapterIndex.Hit::chapterId).toList());
+        ChapterIndex reopened = ChapterIndex.open(directory);
+        assertEquals(1, reopened.docCount());
+        assertEquals(7, reopened.tombstoneId());
+        assertEquals(MARK, reopened.watermark());
+    }
+
+    @Test
+    void mergedSegmentFilesAreDeletedOnceUnused() throws Exception {
+        ChapterIndex index = ChapterIndex.open(directory);
+        index.update(List.of(new ChapterIndex.Document(1, 10, "con rồng đỏ")), MARK);
+        index.update(List.of(new ChapterIndex.Document(2, 10, "con rồng xanh")), MARK);
+        index.search(TextTokenizer.queryTerms("rồng"), 10);
+
+        assertTrue(index.mergeIfNeeded(1, 1000));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("manifest.json", "seg-00000003.bin"),
+                    files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+        assertEquals(2, index.search(TextTokenizer.queryTerms("rồng"), 10).size());
+    }
+
+    @Test
+    void snippetCentersOnDensestMatches() {
+        String text = "Mở đầu dài dòng. ".repeat(20) + "Rồng bay, rồng lượn trên núi." + " Kết thúc.".repeat(20);
+
+        SnippetBuilder.Snippet snippet = SnippetBuilder.build(text, Set.of("rồng"), 60);
+
+        assertEquals(2, snippet.matches());
+        assertTrue(snippet.text().contains("Rồng bay, rồng lượn"));
+        int[] first = snippet.highlights().get(0);
+        assertEquals("Rồng", snippet.text().substring(first[0], first[1]));
+    }
+}